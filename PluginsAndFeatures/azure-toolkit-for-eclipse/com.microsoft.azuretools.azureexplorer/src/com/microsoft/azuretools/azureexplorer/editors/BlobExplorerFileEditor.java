@@ -76,6 +76,7 @@ import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Menu;
+import org.eclipse.swt.widgets.ScrollBar;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.Text;
@@ -94,6 +95,7 @@ import com.microsoft.azuretools.azureexplorer.helpers.UIHelperImpl;
 import com.microsoft.azuretools.core.utils.PluginUtil;
 import com.microsoft.azuretools.telemetry.TelemetryProperties;
 import com.microsoft.azuretools.azurecommons.helpers.AzureCmdException;
+import com.microsoft.tooling.msservices.helpers.azure.sdk.BlobItemPage;
 import com.microsoft.tooling.msservices.helpers.azure.sdk.StorageClientSDKManager;
 import com.microsoft.tooling.msservices.model.storage.BlobContainer;
 import com.microsoft.tooling.msservices.model.storage.BlobDirectory;
@@ -113,6 +115,8 @@ public class BlobExplorerFileEditor extends EditorPart implements TelemetryPrope
     private static final String UPLOAD_BLOB = "Upload Blob";
     private static final String DELETE_SELECTED_BLOB = "Delete Selected Blob";
 
+    private static final int BLOB_PAGE_SIZE = 1000;
+
     private Text queryTextField;
     private Button queryButton;
     private Button refreshButton;
@@ -131,6 +135,12 @@ public class BlobExplorerFileEditor extends EditorPart implements TelemetryPrope
 
     private LinkedList<BlobDirectory> directoryQueue = new LinkedList<BlobDirectory>();
     private java.util.List<BlobItem> blobItems = new ArrayList<BlobItem>();
+
+    // The pages listed so far, the next one is loaded when the list is scrolled to the end
+    private BlobItemPage lastPage;
+    private BlobDirectory pageDirectory;
+    private String pageNamePrefix;
+    private boolean loadingNextPage = false;
     private FileEditorVirtualNode<EditorPart> fileEditorVirtualNode;
 
     @Override
@@ -405,6 +415,15 @@ public class BlobExplorerFileEditor extends EditorPart implements TelemetryPrope
             }
         });
 
+        if (blobListTable.getVerticalBar() != null) {
+            blobListTable.getVerticalBar().addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent selectionEvent) {
+                    loadNextPageIfScrolledToEnd();
+                }
+            });
+        }
+
         fillGrid();
 
         return blobListTable;
@@ -413,6 +432,8 @@ public class BlobExplorerFileEditor extends EditorPart implements TelemetryPrope
     public void fillGrid() {
         setUIState(true);
 
+        final String namePrefix = queryTextField.getText();
+
         DefaultLoader.getIdeHelper().runInBackground(null, "Loading blobs...", false, true, "Loading blobs...", new Runnable() {
             @Override
             public void run() {
@@ -421,24 +442,19 @@ public class BlobExplorerFileEditor extends EditorPart implements TelemetryPrope
                         directoryQueue.addLast(StorageClientSDKManager.getManager().getRootDirectory(connectionString, blobContainer));
                     }
 
-                    blobItems = StorageClientSDKManager.getManager().getBlobItems(connectionString, directoryQueue.peekLast());
+                    final BlobDirectory directory = directoryQueue.peekLast();
+                    final BlobItemPage page = StorageClientSDKManager.getManager().getBlobItemPage(
+                            connectionString, directory, namePrefix, null, BLOB_PAGE_SIZE);
 
                     DefaultLoader.getIdeHelper().invokeLater(new Runnable() {
                         @Override
                         public void run() {
-                            if (!queryTextField.getText().isEmpty()) {
-                                for (int i = blobItems.size() - 1; i >= 0; i--) {
-                                    BlobItem blobItem = blobItems.get(i);
-
-                                    if (blobItem instanceof BlobFile && !blobItem.getName().startsWith(queryTextField.getText())) {
-                                        blobItems.remove(i);
-                                    }
-                                }
-                            }
-
-                            pathLabel.setText(directoryQueue.peekLast().getPath());
+                            pathLabel.setText(directory.getPath());
+                            blobItems = new ArrayList<BlobItem>();
                             tableViewer.setInput(blobItems);
-                            tableViewer.refresh();
+                            pageDirectory = directory;
+                            pageNamePrefix = namePrefix;
+                            addPage(page);
                             setUIState(false);
 //
 //                            blobListTable.clearSelection();
@@ -451,6 +467,69 @@ public class BlobExplorerFileEditor extends EditorPart implements TelemetryPrope
         });
     }
 
+    private void loadNextPage() {
+        final BlobItemPage previousPage = lastPage;
+        final BlobDirectory directory = pageDirectory;
+        final String namePrefix = pageNamePrefix;
+
+        if (loadingNextPage || previousPage == null || !previousPage.hasNextPage() || directory == null) {
+            return;
+        }
+
+        loadingNextPage = true;
+
+        DefaultLoader.getIdeHelper().runInBackground(null, "Loading more blobs...", false, true, "Loading more blobs...", new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final BlobItemPage page = StorageClientSDKManager.getManager().getBlobItemPage(
+                            connectionString, directory, namePrefix, previousPage, BLOB_PAGE_SIZE);
+
+                    DefaultLoader.getIdeHelper().invokeLater(new Runnable() {
+                        @Override
+                        public void run() {
+                            loadingNextPage = false;
+
+                            // The grid is filled again meanwhile
+                            if (lastPage == previousPage) {
+                                addPage(page);
+                            }
+                        }
+                    });
+                } catch (AzureCmdException ex) {
+                    DefaultLoader.getIdeHelper().invokeLater(new Runnable() {
+                        @Override
+                        public void run() {
+                            loadingNextPage = false;
+                        }
+                    });
+
+                    DefaultLoader.getUIHelper().showException("Error querying blob list.", ex, "Error querying blobs", false, true);
+                }
+            }
+        });
+    }
+
+    private void addPage(@NotNull BlobItemPage page) {
+        blobItems.addAll(page.getItems());
+        lastPage = page;
+
+        // Only the rows of the page are created, instead of refreshing the whole table
+        tableViewer.add(page.getItems().toArray());
+
+        loadNextPageIfScrolledToEnd();
+    }
+
+    private void loadNextPageIfScrolledToEnd() {
+        ScrollBar scrollBar = blobListTable.getVerticalBar();
+
+        // Load the next page a screen before the end, or when the rows don't fill the table yet
+        if (scrollBar == null || !scrollBar.isVisible()
+                || scrollBar.getSelection() + 2 * scrollBar.getThumb() >= scrollBar.getMaximum()) {
+            loadNextPage();
+        }
+    }
+
     private void setUIState(boolean loading) {
         if (loading) {
             blobListTable.setEnabled(false);
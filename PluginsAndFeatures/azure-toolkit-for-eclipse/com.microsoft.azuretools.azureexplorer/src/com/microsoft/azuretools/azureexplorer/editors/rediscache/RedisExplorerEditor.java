@@ -75,6 +75,8 @@ public class RedisExplorerEditor extends EditorPart implements RedisExplorerMvpV
     // Local variables
     private String currentCursor;
     private String lastChosenKey;
+    private RedisKeyType valueType;
+    private long nextValueStart = RedisValueData.NO_MORE_VALUES;
 
     // Constants
     private static final String[] LIST_TITLE = new String[] { "Index", "Item" };
@@ -101,6 +103,7 @@ public class RedisExplorerEditor extends EditorPart implements RedisExplorerMvpV
     private Table tblInnerValue;
     private Text txtStringValue;
     private Button btnScanMoreKey;
+    private Button btnLoadMoreValue;
     private Combo cbActionType;
     private ProgressBar progressBar;
     private Label lblKeyValue;
@@ -221,6 +224,11 @@ public class RedisExplorerEditor extends EditorPart implements RedisExplorerMvpV
         tblInnerValue.setHeaderVisible(true);
         tblInnerValue.setLinesVisible(true);
 
+        btnLoadMoreValue = new Button(cmpoInnerValue, SWT.NONE);
+        btnLoadMoreValue.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+        btnLoadMoreValue.setEnabled(false);
+        btnLoadMoreValue.setText("Load More");
+
         cmpoStringValue = new Composite(cmpoValue, SWT.NONE);
         cmpoStringValue.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true, 2, 1));
         cmpoStringValue.setVisible(false);
@@ -292,6 +300,15 @@ public class RedisExplorerEditor extends EditorPart implements RedisExplorerMvpV
             }
         });
 
+        btnLoadMoreValue.addListener(SWT.Selection, new AzureListenerWrapper(INSIGHT_NAME, "btnLoadMoreValue", null) {
+            @Override
+            protected void handleEventFunc(Event event) {
+                setWidgetEnableStatus(false);
+                redisExplorerPresenter.onValuePage(cbDatabase.getSelectionIndex(), lblKeyValue.getText(), valueType,
+                        nextValueStart);
+            }
+        });
+
         txtKeyPattern.addListener(SWT.KeyDown, event -> {
             // Enter key pressed
             if (event.keyCode == SWT.CR) {
@@ -347,6 +364,8 @@ public class RedisExplorerEditor extends EditorPart implements RedisExplorerMvpV
     @Override
     public void showContent(RedisValueData val) {
         RedisKeyType type = val.getKeyType();
+        valueType = type;
+        nextValueStart = val.getNextStart();
         lblTypeValue.setText(type.toString());
         lblKeyValue.setText(lstKey.getItem(lstKey.getSelectionIndex()));
         if (type.equals(RedisKeyType.STRING)) {
@@ -401,6 +420,22 @@ public class RedisExplorerEditor extends EditorPart implements RedisExplorerMvpV
         setWidgetEnableStatus(true);
     }
 
+    @Override
+    public void appendContent(RedisValueData val) {
+        if (val.getKeyType() != valueType) {
+            setWidgetEnableStatus(true);
+            return;
+        }
+        nextValueStart = val.getNextStart();
+        tblInnerValue.setRedraw(false);
+        for (String[] data : val.getRowData()) {
+            TableItem item = new TableItem(tblInnerValue, SWT.NONE);
+            item.setText(data);
+        }
+        tblInnerValue.setRedraw(true);
+        setWidgetEnableStatus(true);
+    }
+
     @Override
     public void onErrorWithException(String message, Exception ex) {
         RedisExplorerMvpView.super.onErrorWithException(message, ex);
@@ -497,9 +532,11 @@ public class RedisExplorerEditor extends EditorPart implements RedisExplorerMvpV
         lstKey.setEnabled(enabled);
         cbActionType.setEnabled(enabled);
         btnScanMoreKey.setEnabled(enabled && cbActionType.getText().equals(ACTION_SCAN));
+        btnLoadMoreValue.setEnabled(enabled && nextValueStart != RedisValueData.NO_MORE_VALUES);
     }
 
     private void clearValueArea() {
+        nextValueStart = RedisValueData.NO_MORE_VALUES;
         lblKeyValue.setText("");
         lblTypeValue.setText("");
         cmpoInnerValue.setVisible(false);
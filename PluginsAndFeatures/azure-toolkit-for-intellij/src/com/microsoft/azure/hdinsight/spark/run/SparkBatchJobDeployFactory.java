@@ -277,6 +277,7 @@ public class SparkBatchJobDeployFactory implements ILogger {
         }
 
         //TODO:use httpobservable to replace sparkbathsubmission and deprecate the old constructor.
-        return jobDeploy;
+        // Reuse the artifacts already uploaded to the same destination with the same content
+        return DeduplicatedDeploy.wrap(jobDeploy);
     }
 }
@@ -54,6 +54,9 @@ public class RedisCacheExplorer extends BaseEditor implements RedisExplorerMvpVi
 
     private String currentCursor;
     private String lastChosenKey;
+    private RedisKeyType valueType;
+    private long nextValueStart = RedisValueData.NO_MORE_VALUES;
+    private boolean isLoadingValuePage = false;
 
     private final RedisExplorerPresenter<RedisCacheExplorer> redisExplorerPresenter;
 
@@ -159,6 +162,18 @@ public class RedisCacheExplorer extends BaseEditor implements RedisExplorerMvpVi
 
         txtKeyPattern.addActionListener(event -> onBtnSearchClick());
 
+        // Load the next page of a list or zset value once its table is scrolled to the bottom.
+        pnlInnerValue.getVerticalScrollBar().addAdjustmentListener(event -> {
+            JScrollBar scrollBar = pnlInnerValue.getVerticalScrollBar();
+            if (event.getValueIsAdjusting() || isLoadingValuePage || nextValueStart == RedisValueData.NO_MORE_VALUES
+                    || scrollBar.getValue() + scrollBar.getVisibleAmount() < scrollBar.getMaximum()) {
+                return;
+            }
+            isLoadingValuePage = true;
+            redisExplorerPresenter.onValuePage(cbDatabase.getSelectedIndex(), lblKeyValue.getText(), valueType,
+                    nextValueStart);
+        });
+
         cbActionType.addActionListener(new AzureActionListenerWrapper(INSIGHT_NAME, "cbActionType", null) {
             @Override
             public void actionPerformedFunc(ActionEvent event) {
@@ -220,6 +235,9 @@ public class RedisCacheExplorer extends BaseEditor implements RedisExplorerMvpVi
     @Override
     public void showContent(RedisValueData val) {
         RedisKeyType type = val.getKeyType();
+        valueType = type;
+        nextValueStart = val.getNextStart();
+        isLoadingValuePage = false;
         lblTypeValue.setText(type.toString());
         lblKeyValue.setText((String) lstKey.getSelectedValue());
         if (type.equals(RedisKeyType.STRING)) {
@@ -255,6 +273,19 @@ public class RedisCacheExplorer extends BaseEditor implements RedisExplorerMvpVi
         setWidgetEnableStatus(true);
     }
 
+    @Override
+    public void appendContent(RedisValueData val) {
+        isLoadingValuePage = false;
+        if (val.getKeyType() != valueType) {
+            return;
+        }
+        nextValueStart = val.getNextStart();
+        DefaultTableModel tableModel = (DefaultTableModel) tblInnerValue.getModel();
+        for (String[] row : val.getRowData()) {
+            tableModel.addRow(row);
+        }
+    }
+
     @Override
     public void updateKeyList() {
         DefaultListModel listModel = (DefaultListModel) lstKey.getModel();
@@ -274,6 +305,7 @@ public class RedisCacheExplorer extends BaseEditor implements RedisExplorerMvpVi
 
     @Override
     public void onErrorWithException(String message, Exception ex) {
+        isLoadingValuePage = false;
         DefaultLoader.getUIHelper().showError(ex.getMessage(), message);
         setWidgetEnableStatus(true);
     }
@@ -294,6 +326,7 @@ public class RedisCacheExplorer extends BaseEditor implements RedisExplorerMvpVi
     }
 
     private void clearValueArea() {
+        nextValueStart = RedisValueData.NO_MORE_VALUES;
         lblKeyValue.setText("");
         lblTypeValue.setText("");
         pnlInnerValue.setVisible(false);
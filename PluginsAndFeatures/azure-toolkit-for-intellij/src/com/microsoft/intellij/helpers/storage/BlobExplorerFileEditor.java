@@ -50,6 +50,7 @@ import com.microsoft.intellij.helpers.UIHelperImpl;
 import com.microsoft.intellij.util.PluginUtil;
 import com.microsoft.tooling.msservices.components.DefaultLoader;
 import com.microsoft.tooling.msservices.helpers.CallableSingleArg;
+import com.microsoft.tooling.msservices.helpers.azure.sdk.BlobItemPage;
 import com.microsoft.tooling.msservices.helpers.azure.sdk.StorageClientSDKManager;
 import com.microsoft.tooling.msservices.model.storage.BlobContainer;
 import com.microsoft.tooling.msservices.model.storage.BlobDirectory;
@@ -91,6 +92,8 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
     static final String UPLOAD = "Upload";
     static final String QUERY = "Query";
 
+    private static final int BLOB_PAGE_SIZE = 1000;
+
     private JPanel mainPanel;
     private JTextField queryTextField;
     private JTable blobListTable;
@@ -109,7 +112,13 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
     private Project project;
 
     private LinkedList<BlobDirectory> directoryQueue = new LinkedList<BlobDirectory>();
-    private List<BlobItem> blobItems;
+    private List<BlobItem> blobItems = new ArrayList<BlobItem>();
+
+    // The pages listed so far, the next one is loaded when the list is scrolled to the end
+    private BlobItemPage lastPage;
+    private BlobDirectory pageDirectory;
+    private String pageNamePrefix;
+    private boolean loadingNextPage = false;
 
     private ISubscriptionSelectionListener subscriptionListener;
     private FileEditorVirtualNode fileEditorVirtualNode;
@@ -285,6 +294,22 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
         refreshButton.addActionListener(queryAction);
         queryButton.addActionListener(queryAction);
 
+        JScrollPane blobListScrollPane = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, blobListTable);
+
+        if (blobListScrollPane != null) {
+            blobListScrollPane.getVerticalScrollBar().addAdjustmentListener(new AdjustmentListener() {
+                @Override
+                public void adjustmentValueChanged(AdjustmentEvent adjustmentEvent) {
+                    BoundedRangeModel scrollModel = blobListScrollPane.getVerticalScrollBar().getModel();
+
+                    // Load the next page a screen before the end
+                    if (scrollModel.getValue() + 2 * scrollModel.getExtent() >= scrollModel.getMaximum()) {
+                        loadNextPage();
+                    }
+                }
+            });
+        }
+
         deleteButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent actionEvent) {
@@ -319,6 +344,8 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
     public void fillGrid() {
         setUIState(true);
 
+        final String namePrefix = queryTextField.getText();
+
         AzureTaskManager.getInstance().runInBackground(new AzureTask(project, "Loading blobs...", false, () -> {
             final ProgressIndicator progressIndicator = ProgressManager.getInstance().getProgressIndicator();
             try {
@@ -328,50 +355,20 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
                     directoryQueue.addLast(StorageClientSDKManager.getManager().getRootDirectory(connectionString, blobContainer));
                 }
 
-                blobItems = StorageClientSDKManager.getManager().getBlobItems(connectionString, directoryQueue.peekLast());
-
-                if (!queryTextField.getText().isEmpty()) {
-                    for (int i = blobItems.size() - 1; i >= 0; i--) {
-                        BlobItem blobItem = blobItems.get(i);
-
-                        if (blobItem instanceof BlobFile && !blobItem.getName().startsWith(queryTextField.getText())) {
-                            blobItems.remove(i);
-                        }
-                    }
-                }
+                final BlobDirectory directory = directoryQueue.peekLast();
+                final BlobItemPage page = StorageClientSDKManager.getManager().getBlobItemPage(
+                    connectionString, directory, namePrefix, null, BLOB_PAGE_SIZE);
 
                 AzureTaskManager.getInstance().runLater(() -> {
 
-                    pathLabel.setText(directoryQueue.peekLast().getPath());
+                    pathLabel.setText(directory.getPath());
                     DefaultTableModel model = (DefaultTableModel) blobListTable.getModel();
 
-                    while (model.getRowCount() > 0) {
-                        model.removeRow(0);
-                    }
-
-                    for (BlobItem blobItem : blobItems) {
-                        if (blobItem instanceof BlobDirectory) {
-                            model.addRow(new Object[]{
-                                UIHelperImpl.loadIcon("storagefolder.png"),
-                                blobItem.getName(),
-                                "",
-                                "",
-                                "",
-                                blobItem.getUri()
-                            });
-                        } else {
-                            BlobFile blobFile = (BlobFile) blobItem;
-
-                            model.addRow(new String[]{
-                                "",
-                                blobFile.getName(),
-                                UIHelperImpl.readableFileSize(blobFile.getSize()),
-                                new SimpleDateFormat().format(blobFile.getLastModified().getTime()),
-                                blobFile.getContentType(),
-                                blobFile.getUri()
-                            });
-                        }
-                    }
+                    model.setRowCount(0);
+                    blobItems = new ArrayList<BlobItem>();
+                    pageDirectory = directory;
+                    pageNamePrefix = namePrefix;
+                    addPage(page);
 
                     setUIState(false);
 
@@ -384,6 +381,75 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
         }));
     }
 
+    private void loadNextPage() {
+        final BlobItemPage previousPage = lastPage;
+        final BlobDirectory directory = pageDirectory;
+        final String namePrefix = pageNamePrefix;
+
+        if (loadingNextPage || previousPage == null || !previousPage.hasNextPage() || directory == null) {
+            return;
+        }
+
+        loadingNextPage = true;
+
+        AzureTaskManager.getInstance().runInBackground(new AzureTask(project, "Loading more blobs...", false, () -> {
+            try {
+                final BlobItemPage page = StorageClientSDKManager.getManager().getBlobItemPage(
+                    connectionString, directory, namePrefix, previousPage, BLOB_PAGE_SIZE);
+
+                AzureTaskManager.getInstance().runLater(() -> {
+                    loadingNextPage = false;
+
+                    // The grid is filled again meanwhile
+                    if (lastPage == previousPage) {
+                        addPage(page);
+                    }
+                });
+            } catch (AzureCmdException ex) {
+                AzureTaskManager.getInstance().runLater(() -> loadingNextPage = false);
+
+                String msg = "An error occurred while attempting to query blob list." + "\n" + String.format(message("webappExpMsg"), ex.getMessage());
+                PluginUtil.displayErrorDialogAndLog(message("errTtl"), msg, ex);
+            }
+        }));
+    }
+
+    private void addPage(@NotNull BlobItemPage page) {
+        DefaultTableModel model = (DefaultTableModel) blobListTable.getModel();
+
+        for (BlobItem blobItem : page.getItems()) {
+            if (blobItem instanceof BlobDirectory) {
+                model.addRow(new Object[]{
+                    UIHelperImpl.loadIcon("storagefolder.png"),
+                    blobItem.getName(),
+                    "",
+                    "",
+                    "",
+                    blobItem.getUri()
+                });
+            } else {
+                BlobFile blobFile = (BlobFile) blobItem;
+
+                model.addRow(new String[]{
+                    "",
+                    blobFile.getName(),
+                    UIHelperImpl.readableFileSize(blobFile.getSize()),
+                    new SimpleDateFormat().format(blobFile.getLastModified().getTime()),
+                    blobFile.getContentType(),
+                    blobFile.getUri()
+                });
+            }
+        }
+
+        blobItems.addAll(page.getItems());
+        lastPage = page;
+
+        // An empty page leaves the scroll bar unchanged, so continue with the next page here
+        if (page.getItems().isEmpty()) {
+            loadNextPage();
+        }
+    }
+
     private void setUIState(boolean loading) {
         if (loading) {
             blobListTable.setEnabled(false);
@@ -594,69 +660,62 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
                         }
                     }
 
-                    final BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(targetFile), 65536) {
-                        private long runningCount = 0;
-
+                    final CallableSingleArg<Void, Long> callable = new CallableSingleArg<Void, Long>() {
                         @Override
-                        public synchronized void write(@NotNull byte[] bytes, int i, int i1) throws IOException {
-                            super.write(bytes, i, i1);
-
-                            runningCount += i1;
+                        public Void call(Long downloadedBytes) throws Exception {
+                            double progress = (double) downloadedBytes / fileSelection.getSize();
 
-                            double progress = (double) runningCount / fileSelection.getSize();
                             progressIndicator.setFraction(progress);
                             progressIndicator.setText2(String.format("%s%% downloaded", (int) (progress * 100)));
+
+                            return null;
                         }
                     };
 
-                    try {
-                        Future<?> future = ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
-                            @Override
-                            public void run() {
-                                try {
-                                    StorageClientSDKManager.getManager().downloadBlobFileContent(connectionString, fileSelection, bufferedOutputStream);
+                    Future<?> future = ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                StorageClientSDKManager.getManager().downloadBlobFileContent(connectionString, fileSelection, targetFile, callable);
 
-                                    if (open && targetFile.exists()) {
-                                        Desktop.getDesktop().open(targetFile);
-                                    }
-                                } catch (AzureCmdException e) {
-                                    Throwable connectionFault = e.getCause().getCause();
-
-                                    progressIndicator.setText("Error downloading Blob");
-                                    progressIndicator.setText2((connectionFault instanceof SocketTimeoutException) ?
-                                                               "Connection timed out" : connectionFault.getMessage());
-                                } catch (IOException ex) {
-                                    try {
-                                        final Process p;
-                                        Runtime runtime = Runtime.getRuntime();
-                                        p = runtime.exec(
-                                            new String[]{"open", "-R", targetFile.getName()},
-                                            null,
-                                            targetFile.getParentFile());
-
-                                        InputStream errorStream = p.getErrorStream();
-                                        String errResponse = new String(IOUtils.readFully(errorStream, -1));
-
-                                        if (p.waitFor() != 0) {
-                                            throw new Exception(errResponse);
-                                        }
-                                    } catch (Exception e) {
-                                        progressIndicator.setText("Error openning file");
-                                        progressIndicator.setText2(ex.getMessage());
+                                if (open && targetFile.exists()) {
+                                    Desktop.getDesktop().open(targetFile);
+                                }
+                            } catch (AzureCmdException e) {
+                                Throwable connectionFault = e.getCause().getCause();
+
+                                progressIndicator.setText("Error downloading Blob");
+                                progressIndicator.setText2((connectionFault instanceof SocketTimeoutException) ?
+                                                           "Connection timed out" : connectionFault.getMessage());
+                            } catch (IOException ex) {
+                                try {
+                                    final Process p;
+                                    Runtime runtime = Runtime.getRuntime();
+                                    p = runtime.exec(
+                                        new String[]{"open", "-R", targetFile.getName()},
+                                        null,
+                                        targetFile.getParentFile());
+
+                                    InputStream errorStream = p.getErrorStream();
+                                    String errResponse = new String(IOUtils.readFully(errorStream, -1));
+
+                                    if (p.waitFor() != 0) {
+                                        throw new Exception(errResponse);
                                     }
+                                } catch (Exception e) {
+                                    progressIndicator.setText("Error openning file");
+                                    progressIndicator.setText2(ex.getMessage());
                                 }
                             }
-                        });
+                        }
+                    });
 
-                        while (!future.isDone()) {
-                            progressIndicator.checkCanceled();
+                    while (!future.isDone()) {
+                        progressIndicator.checkCanceled();
 
-                            if (progressIndicator.isCanceled()) {
-                                future.cancel(true);
-                            }
+                        if (progressIndicator.isCanceled()) {
+                            future.cancel(true);
                         }
-                    } finally {
-                        bufferedOutputStream.close();
                     }
                 } catch (IOException e) {
                     PluginUtil.displayErrorDialogAndLog(message("errTtl"), "An error occurred while attempting to download Blob.", e);
@@ -696,8 +755,6 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
             try {
                 final BlobDirectory blobDirectory = directoryQueue.peekLast();
 
-                final BufferedInputStream bufferedInputStream = new BufferedInputStream(new FileInputStream(selectedFile));
-
                 progressIndicator.setIndeterminate(false);
                 progressIndicator.setText("Uploading blob...");
                 progressIndicator.setText2("0% uploaded");
@@ -718,21 +775,12 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
                     Future<Void> future = ApplicationManager.getApplication().executeOnPooledThread(new Callable<Void>() {
                         @Override
                         public Void call() throws AzureCmdException {
-                            try {
-                                StorageClientSDKManager.getManager().uploadBlobFileContent(
-                                    connectionString,
-                                    blobContainer,
-                                    path,
-                                    bufferedInputStream,
-                                    callable,
-                                    1024 * 1024,
-                                    selectedFile.length());
-                            } finally {
-                                try {
-                                    bufferedInputStream.close();
-                                } catch (IOException ignored) {
-                                }
-                            }
+                            StorageClientSDKManager.getManager().uploadBlobFileContent(
+                                connectionString,
+                                blobContainer,
+                                path,
+                                selectedFile,
+                                callable);
 
                             return null;
                         }
@@ -744,7 +792,6 @@ public class BlobExplorerFileEditor implements FileEditor, TelemetryProperties {
 
                         if (progressIndicator.isCanceled()) {
                             future.cancel(true);
-                            bufferedInputStream.close();
 
                             for (BlobItem blobItem : StorageClientSDKManager.getManager().getBlobItems(connectionString, blobDirectory)) {
                                 if (blobItem instanceof BlobFile && blobItem.getPath().equals(path)) {
@@ -23,6 +23,7 @@
 package com.microsoft.azure.oidc.application.settings;
 
 import com.microsoft.azure.oidc.common.id.ID;
+import com.microsoft.azure.oidc.configuration.endpoint.EndPoint;
 
 public interface ApplicationSettings {
 
@@ -40,6 +41,10 @@ public interface ApplicationSettings {
 
     Policy getOIDCPolicy();
 
+    EndPoint getLoginEndPoint();
+
+    EndPoint getGraphEndPoint();
+
     boolean equals(Object object);
 
     int hashCode();
@@ -30,6 +30,9 @@ import com.microsoft.azure.oidc.application.settings.Tenant;
 import com.microsoft.azure.oidc.common.id.ID;
 import com.microsoft.azure.oidc.common.id.IDFactory;
 import com.microsoft.azure.oidc.common.id.impl.SimpleIDFactory;
+import com.microsoft.azure.oidc.configuration.endpoint.EndPoint;
+import com.microsoft.azure.oidc.configuration.endpoint.EndPointFactory;
+import com.microsoft.azure.oidc.configuration.endpoint.impl.SimpleEndPointFactory;
 
 final class SimpleApplicationSettings implements ApplicationSettings {
     private static final String TENANT = "AAD_TENANT";
@@ -39,6 +42,12 @@ final class SimpleApplicationSettings implements ApplicationSettings {
     private static final String PRINCIPAL_SECRET = "AAD_PRINCIPAL_SECRET";
     private static final String REDIRECT_URL = "AAD_REDIRECT_URL";
     private static final String OIDC_POLICY = "AAD_OIDC_POLICY";
+    private static final String LOGIN_ENDPOINT = "AAD_LOGIN_ENDPOINT";
+    private static final String GRAPH_ENDPOINT = "AAD_GRAPH_ENDPOINT";
+    private static final String DEFAULT_LOGIN_ENDPOINT = "https://login.microsoftonline.com";
+    private static final String DEFAULT_GRAPH_ENDPOINT = "https://graph.windows.net";
+
+    private static final EndPointFactory END_POINT_FACTORY = SimpleEndPointFactory.getInstance();
 
     private final Tenant tenant = new SimpleTenant(System.getenv(SimpleApplicationSettings.TENANT));
     private volatile ID applicationId;
@@ -52,6 +61,12 @@ final class SimpleApplicationSettings implements ApplicationSettings {
     private final RedirectURL redirectURL = new SimpleRedirectURL(
             System.getenv(SimpleApplicationSettings.REDIRECT_URL));
     private final Policy oIDCPolicy = new SimplePolicy(System.getenv(SimpleApplicationSettings.OIDC_POLICY));
+    private final EndPoint loginEndPoint = END_POINT_FACTORY.createEndPoint(
+            System.getenv(SimpleApplicationSettings.LOGIN_ENDPOINT) == null ? DEFAULT_LOGIN_ENDPOINT
+                    : System.getenv(SimpleApplicationSettings.LOGIN_ENDPOINT));
+    private final EndPoint graphEndPoint = END_POINT_FACTORY.createEndPoint(
+            System.getenv(SimpleApplicationSettings.GRAPH_ENDPOINT) == null ? DEFAULT_GRAPH_ENDPOINT
+                    : System.getenv(SimpleApplicationSettings.GRAPH_ENDPOINT));
 
     private final Object Lock = new Object();
 
@@ -106,6 +121,16 @@ final class SimpleApplicationSettings implements ApplicationSettings {
         return oIDCPolicy;
     }
 
+    @Override
+    public EndPoint getLoginEndPoint() {
+        return loginEndPoint;
+    }
+
+    @Override
+    public EndPoint getGraphEndPoint() {
+        return graphEndPoint;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -30,4 +30,10 @@ public interface ConcurrentCache<K, V> {
 
     void shutdownNow();
 
+    long getHitCount();
+
+    long getMissCount();
+
+    long getEvictionCount();
+
 }
@@ -22,12 +22,19 @@
 
 package com.microsoft.azure.oidc.concurrent.cache;
 
+import java.util.Set;
+
 public interface ConcurrentCacheService {
 
     <V> ConcurrentCache<String, V> createCache(Class<V> clazzV, String name, Long ttl, Long maxSize);
 
+    <V> ConcurrentCache<String, V> createCache(Class<V> clazzV, String name, ConcurrentCacheType type, Long ttl,
+            Long maxSize);
+
     <V> ConcurrentCache<String, V> getCache(Class<V> clazzV, String name);
 
+    Set<String> getCacheNames();
+
     void shutdownNow();
 
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.concurrent.cache.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCache;
+
+public final class ExpiringConcurrentCache<K, V> implements ConcurrentCache<K, V> {
+    private static final int SWEEP_BATCH_SIZE = 8;
+    private static final long SWEEP_INTERVAL = 60000L;
+    // one daemon thread sweeps every cache, so caches neither pile up threads nor keep the container alive
+    private static final ScheduledExecutorService SWEEP_EXECUTOR_SERVICE = createSweepExecutorService();
+
+    private final ConcurrentMap<K, Entry<K, V>> storeMap = new ConcurrentHashMap<K, Entry<K, V>>();
+    // every entry shares the same ttl, so insertion order is also expiry order
+    private final Queue<Entry<K, V>> expiryQueue = new ConcurrentLinkedQueue<Entry<K, V>>();
+    private final Lock sweepLock = new ReentrantLock();
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final ScheduledFuture<?> sweepFuture;
+    private final long ttl;
+    private final long maxSize;
+
+    public ExpiringConcurrentCache(final Long ttl, final Long maxSize) {
+        this(ttl * 60000, maxSize, SWEEP_INTERVAL, SWEEP_EXECUTOR_SERVICE);
+    }
+
+    ExpiringConcurrentCache(final long ttl, final long maxSize, final long sweepInterval,
+            final ScheduledExecutorService sweepExecutorService) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.sweepFuture = sweepExecutorService.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                sweep(System.currentTimeMillis(), Integer.MAX_VALUE);
+            }
+        }, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public V get(Object key) {
+        final Entry<K, V> entry = storeMap.get(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            evict(entry);
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.getValue();
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        final long now = System.currentTimeMillis();
+        final Entry<K, V> entry = new Entry<K, V>(key, value, now + ttl);
+        while (true) {
+            final Entry<K, V> existing = storeMap.putIfAbsent(key, entry);
+            if (existing == null) {
+                size.incrementAndGet();
+                break;
+            }
+            if (!existing.isExpired(now)) {
+                return existing.getValue();
+            }
+            if (storeMap.replace(key, existing, entry)) {
+                evictionCount.incrementAndGet();
+                break;
+            }
+        }
+        expiryQueue.offer(entry);
+        sweep(now, SWEEP_BATCH_SIZE);
+        return null;
+    }
+
+    @Override
+    public void shutdownNow() {
+        sweepFuture.cancel(false);
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private void evict(final Entry<K, V> entry) {
+        if (storeMap.remove(entry.getKey(), entry)) {
+            size.decrementAndGet();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private void sweep(final long now, final int batchSize) {
+        if (!sweepLock.tryLock()) {
+            // only writers that find the cache over its bound wait for the current sweep
+            if (size.get() <= maxSize) {
+                return;
+            }
+            sweepLock.lock();
+        }
+        try {
+            for (int count = 0; count < batchSize; count++) {
+                final Entry<K, V> oldest = expiryQueue.peek();
+                if (oldest == null || !oldest.isExpired(now)) {
+                    break;
+                }
+                evict(expiryQueue.poll());
+            }
+            while (size.get() > maxSize) {
+                final Entry<K, V> oldest = expiryQueue.poll();
+                if (oldest == null) {
+                    break;
+                }
+                evict(oldest);
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private static ScheduledExecutorService createSweepExecutorService() {
+        final ScheduledThreadPoolExecutor executorService = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "azure-oidc-cache-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // a cancelled sweep would otherwise hold on to its cache until the next run
+        executorService.setRemoveOnCancelPolicy(true);
+        return executorService;
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long expiry;
+
+        Entry(final K key, final V value, final long expiry) {
+            this.key = key;
+            this.value = value;
+            this.expiry = expiry;
+        }
+
+        K getKey() {
+            return key;
+        }
+
+        V getValue() {
+            return value;
+        }
+
+        boolean isExpired(final long now) {
+            return expiry < now;
+        }
+    }
+}
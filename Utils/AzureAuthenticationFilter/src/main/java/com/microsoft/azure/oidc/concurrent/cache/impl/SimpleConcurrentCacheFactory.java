@@ -24,6 +24,8 @@ package com.microsoft.azure.oidc.concurrent.cache.impl;
 
 import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCache;
 import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheFactory;
+import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheType;
+import com.microsoft.azure.oidc.exception.PreconditionException;
 
 public class SimpleConcurrentCacheFactory<K, V> implements ConcurrentCacheFactory<K, V> {
     @SuppressWarnings("rawtypes")
@@ -31,7 +33,20 @@ public class SimpleConcurrentCacheFactory<K, V> implements ConcurrentCacheFactor
 
     @Override
     public ConcurrentCache<K, V> createConcurrentCache(Long ttl, Long maxSize) {
-        return new TTLConcurrentCache<K, V>(ttl, maxSize);
+        return createConcurrentCache(ConcurrentCacheType.EXPIRING, ttl, maxSize);
+    }
+
+    @Override
+    public ConcurrentCache<K, V> createConcurrentCache(ConcurrentCacheType type, Long ttl, Long maxSize) {
+        if (type == null || ttl == null || maxSize == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        switch (type) {
+        case TTL:
+            return new TTLConcurrentCache<K, V>(ttl, maxSize);
+        default:
+            return new ExpiringConcurrentCache<K, V>(ttl, maxSize);
+        }
     }
 
     @SuppressWarnings("unchecked")
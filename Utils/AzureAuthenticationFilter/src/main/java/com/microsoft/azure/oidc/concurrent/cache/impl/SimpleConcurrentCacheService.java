@@ -22,12 +22,15 @@
 
 package com.microsoft.azure.oidc.concurrent.cache.impl;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCache;
 import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheFactory;
 import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheService;
+import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheType;
 
 public class SimpleConcurrentCacheService implements ConcurrentCacheService {
     private final static ConcurrentCacheService INSTANCE = new SimpleConcurrentCacheService();
@@ -35,12 +38,19 @@ public class SimpleConcurrentCacheService implements ConcurrentCacheService {
     private final ConcurrentCacheFactory<String, Object> concurrentCacheFactory = SimpleConcurrentCacheFactory
             .getInstance(String.class, Object.class);
 
-    private final Map<String, ConcurrentCache<String, Object>> cacheMap = new HashMap<String, ConcurrentCache<String, Object>>();
+    private final Map<String, ConcurrentCache<String, Object>> cacheMap = new ConcurrentHashMap<String, ConcurrentCache<String, Object>>();
 
-    @SuppressWarnings("unchecked")
     @Override
     public <V> ConcurrentCache<String, V> createCache(Class<V> clazzV, String name, Long ttl, Long maxSize) {
-        final ConcurrentCache<String, Object> concurrentCache = concurrentCacheFactory.createConcurrentCache(ttl, maxSize);
+        return createCache(clazzV, name, ConcurrentCacheType.EXPIRING, ttl, maxSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> ConcurrentCache<String, V> createCache(Class<V> clazzV, String name, ConcurrentCacheType type,
+            Long ttl, Long maxSize) {
+        final ConcurrentCache<String, Object> concurrentCache = concurrentCacheFactory.createConcurrentCache(type, ttl,
+                maxSize);
         cacheMap.put(name, concurrentCache);
         return (ConcurrentCache<String, V>) concurrentCache;
     }
@@ -51,6 +61,11 @@ public class SimpleConcurrentCacheService implements ConcurrentCacheService {
         return (ConcurrentCache<String, V>) cacheMap.get(name);
     }
 
+    @Override
+    public Set<String> getCacheNames() {
+        return Collections.unmodifiableSet(cacheMap.keySet());
+    }
+
     @Override
     public void shutdownNow() {
         for(@SuppressWarnings("rawtypes") final ConcurrentCache cache: cacheMap.values()) {
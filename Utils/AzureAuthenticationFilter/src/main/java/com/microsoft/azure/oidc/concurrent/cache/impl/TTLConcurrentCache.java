@@ -30,6 +30,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCache;
 
@@ -38,6 +39,9 @@ public final class TTLConcurrentCache<K, V> implements ConcurrentCache<K, V> {
     private final ConcurrentMap<K, Long> timestampMap = new ConcurrentHashMap<K, Long>();
     private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
     private final List<K> oldestKey = new LinkedList<K>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
     private final Long ttl;
     private final Long maxSize;
 
@@ -55,6 +59,7 @@ public final class TTLConcurrentCache<K, V> implements ConcurrentCache<K, V> {
                             timestampMap.remove(key);
                             storeMap.remove(key);
                             iterator.remove();
+                            evictionCount.incrementAndGet();
                         }
                         break;
                     }
@@ -66,7 +71,13 @@ public final class TTLConcurrentCache<K, V> implements ConcurrentCache<K, V> {
     @Override
     public V get(Object key) {
         removeIfExpired(key);
-        return storeMap.get(key);
+        final V value = storeMap.get(key);
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return value;
     }
 
     @Override
@@ -77,6 +88,7 @@ public final class TTLConcurrentCache<K, V> implements ConcurrentCache<K, V> {
                 timestampMap.remove(oldest);
                 storeMap.remove(oldest);
                 oldestKey.remove(0);
+                evictionCount.incrementAndGet();
             }
             if (!oldestKey.contains(key)) {
                 oldestKey.add(key);
@@ -91,12 +103,28 @@ public final class TTLConcurrentCache<K, V> implements ConcurrentCache<K, V> {
         scheduledExecutorService.shutdownNow();
     }
 
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
     private void removeIfExpired(Object key) {
         synchronized (timestampMap) {
             if (timestampMap.containsKey(key) && timestampMap.get(key) < (System.currentTimeMillis() - getTtl())) {
                 timestampMap.remove(key);
                 storeMap.remove(key);
                 oldestKey.remove(key);
+                evictionCount.incrementAndGet();
             }
         }
     }
@@ -24,6 +24,20 @@ package com.microsoft.azure.oidc.configuration;
 
 public interface ConfigurationCache {
 
+    void initialise(Long ttl);
+
     Configuration load();
 
+    Configuration reload();
+
+    void shutdownNow();
+
+    long getRefreshCount();
+
+    long getRefreshFailureCount();
+
+    long getStaleServeCount();
+
+    long getLastRefreshLatency();
+
 }
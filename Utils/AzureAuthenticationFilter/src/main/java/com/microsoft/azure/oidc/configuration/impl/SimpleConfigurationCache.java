@@ -22,39 +22,248 @@
 
 package com.microsoft.azure.oidc.configuration.impl;
 
-import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheService;
-import com.microsoft.azure.oidc.concurrent.cache.impl.SimpleConcurrentCacheService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
 import com.microsoft.azure.oidc.configuration.Configuration;
 import com.microsoft.azure.oidc.configuration.ConfigurationCache;
 import com.microsoft.azure.oidc.configuration.ConfigurationLoader;
+import com.microsoft.azure.oidc.exception.PreconditionException;
 import com.microsoft.azure.oidc.future.FutureHelper;
 import com.microsoft.azure.oidc.future.impl.SimpleFutureHelper;
+import com.microsoft.azure.oidc.metrics.MetricsService;
+import com.microsoft.azure.oidc.metrics.MetricsStage;
+import com.microsoft.azure.oidc.metrics.impl.SimpleMetricsService;
+import com.microsoft.azure.oidc.token.signature.SignatureVerifier;
+import com.microsoft.azure.oidc.token.signature.impl.SimpleSignatureVerifier;
 
 public class SimpleConfigurationCache implements ConfigurationCache {
     private static final ConfigurationCache INSTANCE = new SimpleConfigurationCache();
+    private static final long MINUTE = 60000L;
+    private static final long DEFAULT_TTL = 60L * MINUTE;
+    private static final long RETRY_INTERVAL = MINUTE;
+    private static final long RELOAD_INTERVAL = 5L * MINUTE;
 
-    private final ConfigurationLoader configurationLoader = SimpleConfigurationLoader.getInstance();
+    private final ConfigurationLoader configurationLoader;
 
     private final FutureHelper futureHelper = SimpleFutureHelper.getInstance();
 
-    private final ConcurrentCacheService concurrentCacheService = SimpleConcurrentCacheService.getInstance();
+    private final SignatureVerifier signatureVerifier;
+
+    private final MetricsService metricsService = SimpleMetricsService.getInstance();
+
+    private final AtomicReference<ConfigurationEntry> entryReference = new AtomicReference<ConfigurationEntry>();
+
+    private final AtomicLong lastReload = new AtomicLong();
+
+    private final AtomicLong refreshCount = new AtomicLong();
+
+    private final AtomicLong refreshFailureCount = new AtomicLong();
+
+    private final AtomicLong staleServeCount = new AtomicLong();
+
+    private final AtomicLong lastRefreshLatency = new AtomicLong();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final long retryInterval;
+
+    private volatile long ttl;
+
+    private volatile ScheduledExecutorService scheduledExecutorService;
+
+    private volatile boolean shutdown;
+
+    private SimpleConfigurationCache() {
+        this(SimpleConfigurationLoader.getInstance(), SimpleSignatureVerifier.getInstance(), DEFAULT_TTL,
+                RETRY_INTERVAL);
+    }
+
+    SimpleConfigurationCache(final ConfigurationLoader configurationLoader, final SignatureVerifier signatureVerifier,
+            final long ttl, final long retryInterval) {
+        this.configurationLoader = configurationLoader;
+        this.signatureVerifier = signatureVerifier;
+        this.ttl = ttl;
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public synchronized void initialise(final Long ttl) {
+        if (ttl == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        this.ttl = ttl * MINUTE;
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdownNow();
+        }
+        shutdown = false;
+        scheduledExecutorService = createScheduledExecutorService();
+        // refresh ahead of expiry so requests never wait on the metadata end-point
+        final long refreshInterval = Math.max(this.ttl * 3 / 4, MINUTE);
+        scheduledExecutorService.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                refresh();
+            }
+        }, 0, refreshInterval, TimeUnit.MILLISECONDS);
+    }
 
     @Override
     public Configuration load() {
-        final String key = "SINGLE";
-        final Configuration entry = concurrentCacheService.getCache(Configuration.class, "configurationCache").get(key);
-        if (entry != null) {
-            return entry;
+        final ConfigurationEntry entry = entryReference.get();
+        if (entry == null) {
+            // nothing to serve yet, so the first requests wait for the metadata end-point
+            return refresh();
         }
+        final boolean expired = entry.isExpired(System.currentTimeMillis());
+        if (expired) {
+            refreshInBackground(entry);
+        }
+        if (expired || entry.isStale()) {
+            staleServeCount.incrementAndGet();
+        }
+        return entry.getConfiguration();
+    }
+
+    @Override
+    public Configuration reload() {
+        final long now = System.currentTimeMillis();
+        final long last = lastReload.get();
+        if (now - last < RELOAD_INTERVAL || !lastReload.compareAndSet(last, now)) {
+            return load();
+        }
+        final Configuration result = refresh();
+        return result == null ? load() : result;
+    }
+
+    @Override
+    public synchronized void shutdownNow() {
+        shutdown = true;
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdownNow();
+            scheduledExecutorService = null;
+        }
+    }
+
+    @Override
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    @Override
+    public long getRefreshFailureCount() {
+        return refreshFailureCount.get();
+    }
+
+    @Override
+    public long getStaleServeCount() {
+        return staleServeCount.get();
+    }
+
+    @Override
+    public long getLastRefreshLatency() {
+        return lastRefreshLatency.get();
+    }
+
+    private void refreshInBackground(final ConfigurationEntry entry) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        final ScheduledExecutorService executorService = getScheduledExecutorService();
+        if (executorService == null) {
+            refreshing.set(false);
+            return;
+        }
+        try {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (refresh() == null) {
+                            // keep serving the last good configuration while the metadata end-point is unavailable
+                            entryReference.compareAndSet(entry, new ConfigurationEntry(entry.getConfiguration(),
+                                    System.currentTimeMillis() + retryInterval, true));
+                        }
+                    } finally {
+                        refreshing.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private synchronized ScheduledExecutorService getScheduledExecutorService() {
+        if (scheduledExecutorService == null && !shutdown) {
+            scheduledExecutorService = createScheduledExecutorService();
+        }
+        return scheduledExecutorService;
+    }
+
+    private static ScheduledExecutorService createScheduledExecutorService() {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "azure-oidc-configuration-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    private Configuration refresh() {
+        final long startTime = metricsService.start();
+        final long start = System.currentTimeMillis();
         final Configuration result = futureHelper.getResult(configurationLoader.loadAsync());
+        final long end = System.currentTimeMillis();
+        metricsService.stop(MetricsStage.CONFIGURATION_LOAD, startTime);
+        lastRefreshLatency.set(end - start);
         if (result == null) {
+            refreshFailureCount.incrementAndGet();
+            return null;
+        }
+        final ConfigurationEntry current = entryReference.get();
+        if (current != null && current.getConfiguration() == result) {
             return result;
         }
-        concurrentCacheService.getCache(Configuration.class, "configurationCache").putIfAbsent(key, result);
+        signatureVerifier.initialise(result);
+        entryReference.set(new ConfigurationEntry(result, end + ttl, false));
+        refreshCount.incrementAndGet();
         return result;
     }
 
     public static ConfigurationCache getInstance() {
         return INSTANCE;
     }
+
+    private static final class ConfigurationEntry {
+        private final Configuration configuration;
+        private final long expiry;
+        private final boolean stale;
+
+        ConfigurationEntry(final Configuration configuration, final long expiry, final boolean stale) {
+            this.configuration = configuration;
+            this.expiry = expiry;
+            this.stale = stale;
+        }
+
+        Configuration getConfiguration() {
+            return configuration;
+        }
+
+        boolean isExpired(final long now) {
+            return expiry < now;
+        }
+
+        boolean isStale() {
+            return stale;
+        }
+    }
 }
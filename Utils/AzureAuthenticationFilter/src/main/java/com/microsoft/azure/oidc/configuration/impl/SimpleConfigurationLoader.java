@@ -25,8 +25,6 @@ package com.microsoft.azure.oidc.configuration.impl;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
@@ -70,14 +68,11 @@ public final class SimpleConfigurationLoader implements ConfigurationLoader {
 
     @Override
     public Future<Configuration> loadAsync() {
-        final ExecutorService executorService = Executors.newSingleThreadExecutor();
-        final Future<Configuration> future = executorService.submit(new Callable<Configuration>() {
+        return futureHelper.submit("configuration", new Callable<Configuration>() {
             public Configuration call() throws Exception {
                 return load();
             }
         });
-        executorService.shutdown();
-        return future;
     }
 
     public Configuration load() {
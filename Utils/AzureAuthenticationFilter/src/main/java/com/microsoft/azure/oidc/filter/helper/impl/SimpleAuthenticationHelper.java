@@ -26,8 +26,6 @@ import java.io.IOException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -54,17 +52,17 @@ import com.microsoft.azure.oidc.configuration.ConfigurationCache;
 import com.microsoft.azure.oidc.configuration.impl.SimpleConfigurationCache;
 import com.microsoft.azure.oidc.exception.GeneralException;
 import com.microsoft.azure.oidc.exception.PreconditionException;
-import com.microsoft.azure.oidc.filter.configuration.authentication.AuthenticationConfigurationService;
-import com.microsoft.azure.oidc.filter.configuration.authentication.impl.SimpleAuthenticationConfigurationService;
 import com.microsoft.azure.oidc.filter.helper.AuthenticationHelper;
 import com.microsoft.azure.oidc.filter.request.impl.AuthenticationRequestWrapper;
 import com.microsoft.azure.oidc.filter.request.impl.SandboxRequestWrapper;
+import com.microsoft.azure.oidc.filter.route.RouteMatcherService;
+import com.microsoft.azure.oidc.filter.route.impl.SimpleRouteMatcherService;
 import com.microsoft.azure.oidc.graph.GraphCache;
 import com.microsoft.azure.oidc.graph.impl.SimpleGraphCache;
 import com.microsoft.azure.oidc.token.Token;
-import com.microsoft.azure.oidc.token.TokenParser;
+import com.microsoft.azure.oidc.token.TokenCache;
 import com.microsoft.azure.oidc.token.TokenValidator;
-import com.microsoft.azure.oidc.token.impl.SimpeTokenParser;
+import com.microsoft.azure.oidc.token.impl.SimpleTokenCache;
 import com.microsoft.azure.oidc.token.impl.SimpleTokenValidator;
 
 public final class SimpleAuthenticationHelper implements AuthenticationHelper {
@@ -73,7 +71,7 @@ public final class SimpleAuthenticationHelper implements AuthenticationHelper {
     private static final State NO_STATE = null;
     private static final String[] ERROR_VALUES = { "access_denied", "interaction_required" };
 
-    private final TokenParser tokenParser = SimpeTokenParser.getInstance();
+    private final TokenCache tokenCache = SimpleTokenCache.getInstance();
 
     private final TokenValidator tokenValidator = SimpleTokenValidator.getInstance();
 
@@ -85,8 +83,7 @@ public final class SimpleAuthenticationHelper implements AuthenticationHelper {
 
     private final StateFactory stateFactory = SimpleStateFactory.getInstance();
 
-    private final AuthenticationConfigurationService authenticationConfigurationService = SimpleAuthenticationConfigurationService
-            .getInstance();
+    private final RouteMatcherService routeMatcherService = SimpleRouteMatcherService.getInstance();
 
     @Override
     public void doUnauthenticatedAction(final FilterChain chain, final HttpServletRequest httpRequest,
@@ -170,12 +167,12 @@ public final class SimpleAuthenticationHelper implements AuthenticationHelper {
 
     @Override
     public Token getToken(final String tokenString) {
-        return tokenParser.getToken(tokenString);
+        return tokenCache.getToken(tokenString);
     }
 
     @Override
     public Boolean isValidToken(final Token token) {
-        return tokenValidator.validateCommon(token);
+        return tokenCache.isValidToken(token);
     }
 
     @Override
@@ -219,52 +216,32 @@ public final class SimpleAuthenticationHelper implements AuthenticationHelper {
     }
 
     private Boolean isExcluded(final HttpServletRequest httpRequest) {
-        String uriString = null;
-        final Boolean isRootContext = "".equals(httpRequest.getContextPath());
-        if (isRootContext) {
-            uriString = httpRequest.getRequestURI();
-        } else {
-            final int length = httpRequest.getRequestURI().length();
-            uriString = httpRequest.getRequestURI().substring(length);
-        }
-        for (final Pattern pattern : authenticationConfigurationService.get().getExclusionRegexPatternList()) {
-            final Matcher matcher = pattern.matcher(uriString);
-            final Boolean isMatchFound = matcher.matches();
-            if (isMatchFound) {
-                return Boolean.TRUE;
-            }
-        }
-        return Boolean.FALSE;
+        return routeMatcherService.get().isExcluded(getRequestPath(httpRequest));
     }
 
     private Boolean isAuthorised(final HttpServletRequest httpRequest, final Token token) {
-        String uriString = null;
-        final Boolean isRootContext = "".equals(httpRequest.getContextPath());
-        if (isRootContext) {
-            uriString = httpRequest.getRequestURI();
-        } else {
-            final int length = httpRequest.getRequestURI().length();
-            uriString = httpRequest.getRequestURI().substring(length);
+        final List<String> roles = routeMatcherService.get().getAuthorisationRoles(getRequestPath(httpRequest));
+        if (roles == null) {
+            return Boolean.TRUE;
         }
-        int index = 0;
-        for (final String urlPattern : authenticationConfigurationService.get().getAuthorisationUriPatternList()) {
-            final Pattern pattern = authenticationConfigurationService.get().getAuthorisationRegexPatternList()
-                    .get(index++);
-            final Matcher matcher = pattern.matcher(uriString);
-            final Boolean isMatchFound = matcher.matches();
-            if (isMatchFound) {
-                final HttpServletRequest authRequest = getAuthenticationWrapper(httpRequest, token);
-                for (final String roleName : authenticationConfigurationService.get().getAuthorisationRoleMap()
-                        .get(urlPattern)) {
-                    final Boolean isUserInRole = authRequest.isUserInRole(roleName);
-                    if (isUserInRole) {
-                        return Boolean.TRUE;
-                    }
-                }
-                return Boolean.FALSE;
-            }
+        if (token == null) {
+            return Boolean.FALSE;
+        }
+        final Boolean isUserInAnyRole = graphCache.isUserInAnyRole(token.getUserID().getValue(), roles);
+        if (isUserInAnyRole == null) {
+            throw new GeneralException("Authorization Error");
+        }
+        return isUserInAnyRole;
+    }
+
+    private String getRequestPath(final HttpServletRequest httpRequest) {
+        final String requestURI = httpRequest.getRequestURI();
+        final String contextPath = httpRequest.getContextPath();
+        final Boolean isRootContext = contextPath == null || "".equals(contextPath);
+        if (isRootContext || !requestURI.startsWith(contextPath)) {
+            return requestURI;
         }
-        return Boolean.TRUE;
+        return requestURI.substring(contextPath.length());
     }
 
     private String addCookie(final HttpServletRequest httpRequest, final HttpServletResponse httpResponse,
@@ -34,8 +34,10 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheService;
+import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheType;
 import com.microsoft.azure.oidc.concurrent.cache.impl.SimpleConcurrentCacheService;
-import com.microsoft.azure.oidc.configuration.Configuration;
+import com.microsoft.azure.oidc.configuration.ConfigurationCache;
+import com.microsoft.azure.oidc.configuration.impl.SimpleConfigurationCache;
 import com.microsoft.azure.oidc.exception.GeneralException;
 import com.microsoft.azure.oidc.exception.PreconditionException;
 import com.microsoft.azure.oidc.filter.configuration.algorithm.AlgorithmConfigurationService;
@@ -44,6 +46,15 @@ import com.microsoft.azure.oidc.filter.configuration.authentication.Authenticati
 import com.microsoft.azure.oidc.filter.configuration.authentication.impl.SimpleAuthenticationConfigurationService;
 import com.microsoft.azure.oidc.filter.helper.AuthenticationHelper;
 import com.microsoft.azure.oidc.filter.helper.impl.SimpleAuthenticationHelper;
+import com.microsoft.azure.oidc.filter.route.RouteMatcherService;
+import com.microsoft.azure.oidc.filter.route.impl.SimpleRouteMatcherService;
+import com.microsoft.azure.oidc.future.FutureHelper;
+import com.microsoft.azure.oidc.future.impl.SimpleFutureHelper;
+import com.microsoft.azure.oidc.graph.GraphService;
+import com.microsoft.azure.oidc.graph.impl.SimpleGraphService;
+import com.microsoft.azure.oidc.metrics.MetricsService;
+import com.microsoft.azure.oidc.metrics.MetricsStage;
+import com.microsoft.azure.oidc.metrics.impl.SimpleMetricsService;
 import com.microsoft.azure.oidc.token.Token;
 
 public final class SimpleAuthenticationFilter implements Filter {
@@ -63,11 +74,25 @@ public final class SimpleAuthenticationFilter implements Filter {
     private final AlgorithmConfigurationService algorithmConfigurationService = SimpleAlgorithmConfigurationService
             .getInstance();
 
+    private final RouteMatcherService routeMatcherService = SimpleRouteMatcherService.getInstance();
+
     private final ConcurrentCacheService concurrentCacheService = SimpleConcurrentCacheService.getInstance();
 
+    private final ConfigurationCache configurationCache = SimpleConfigurationCache.getInstance();
+
+    private final GraphService graphService = SimpleGraphService.getInstance();
+
+    private final FutureHelper futureHelper = SimpleFutureHelper.getInstance();
+
+    private final MetricsService metricsService = SimpleMetricsService.getInstance();
+
     @Override
     public void destroy() {
         concurrentCacheService.shutdownNow();
+        graphService.shutdownNow();
+        configurationCache.shutdownNow();
+        futureHelper.shutdownNow();
+        metricsService.shutdownNow();
     }
 
     @Override
@@ -75,6 +100,7 @@ public final class SimpleAuthenticationFilter implements Filter {
             throws IOException, ServletException {
         final HttpServletRequest httpRequest = (HttpServletRequest) request;
         final HttpServletResponse httpResponse = (HttpServletResponse) response;
+        final long startTime = metricsService.start();
         try {
             final String tokenString = getHelper().getTokenString(httpRequest, httpResponse, TOKEN_NAME);
             final String errorString = getHelper().getErrorString(httpRequest, ERROR_NAME);
@@ -98,21 +124,43 @@ public final class SimpleAuthenticationFilter implements Filter {
             getHelper().doUnauthenticatedAction(chain, httpRequest, httpResponse, token, isAuthenticationError);
         } catch (GeneralException | PreconditionException e) {
             getHelper().doExceptionAction(httpResponse, e);
+        } finally {
+            metricsService.stop(MetricsStage.REQUEST, startTime);
         }
     }
 
     @Override
     public void init(final FilterConfig filterConfig) throws ServletException {
+        final String contextPath = filterConfig.getServletContext().getContextPath();
+        metricsService.initialise(Boolean.valueOf(filterConfig.getInitParameter("metricsEnabled")),
+                String.format("%s:%s", "".equals(contextPath) ? "/" : contextPath, filterConfig.getFilterName()));
+        final String cacheTypeString = filterConfig.getInitParameter("cacheType");
+        final ConcurrentCacheType cacheType = cacheTypeString == null ? ConcurrentCacheType.EXPIRING
+                : ConcurrentCacheType.valueOf(cacheTypeString.trim().toUpperCase());
         final String securityCacheSizeString = filterConfig.getInitParameter("securityCacheSize");
         if (securityCacheSizeString == null) {
-            concurrentCacheService.createCache(Boolean.class, "roleCache", 30L, 1000L);
+            concurrentCacheService.createCache(Boolean.class, "roleCache", cacheType, 30L, 1000L);
         } else {
-            concurrentCacheService.createCache(Boolean.class, "roleCache", 30L,
+            concurrentCacheService.createCache(Boolean.class, "roleCache", cacheType, 30L,
                     Long.parseLong(securityCacheSizeString));
         }
-        concurrentCacheService.createCache(Configuration.class, "configurationCache", 60L, 1L);
+        final String tokenCacheSizeString = filterConfig.getInitParameter("tokenCacheSize");
+        if (tokenCacheSizeString == null) {
+            concurrentCacheService.createCache(Token.class, "tokenCache", cacheType, 5L, 1000L);
+        } else {
+            concurrentCacheService.createCache(Token.class, "tokenCache", cacheType, 5L,
+                    Long.parseLong(tokenCacheSizeString));
+        }
         authenticationConfigurationService.initialise(filterConfig, AUTHENTICATION_CONFIGURATION);
+        final String routeCacheSizeString = filterConfig.getInitParameter("routeCacheSize");
+        if (routeCacheSizeString == null) {
+            routeMatcherService.initialise(authenticationConfigurationService.get(), 1000L);
+        } else {
+            routeMatcherService.initialise(authenticationConfigurationService.get(),
+                    Long.parseLong(routeCacheSizeString));
+        }
         algorithmConfigurationService.initialise(filterConfig, ALGORITHM_CONFIGURATION);
+        configurationCache.initialise(60L);
     }
 
     private AuthenticationHelper getHelper() {
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.microsoft.azure.oidc.filter.route.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.microsoft.azure.oidc.exception.PreconditionException;
+import com.microsoft.azure.oidc.filter.configuration.authentication.AuthenticationConfiguration;
+import com.microsoft.azure.oidc.filter.route.RouteMatcher;
+
+final class SimpleRouteMatcher implements RouteMatcher {
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final RouteIndex exclusionIndex;
+    private final RouteIndex authorisationIndex;
+    private final List<List<String>> authorisationRoleList;
+    private final ConcurrentMap<String, Route> routeMap = new ConcurrentHashMap<String, Route>();
+    private final long maxSize;
+
+    public SimpleRouteMatcher(final AuthenticationConfiguration authenticationConfiguration, final Long maxSize) {
+        final List<String> exclusionUriPatternList = nullToEmpty(
+                authenticationConfiguration.getExclusionUriPatternList());
+        final List<Pattern> exclusionRegexPatternList = nullToEmpty(
+                authenticationConfiguration.getExclusionRegexPatternList());
+        final List<String> authorisationUriPatternList = nullToEmpty(
+                authenticationConfiguration.getAuthorisationUriPatternList());
+        final List<Pattern> authorisationRegexPatternList = nullToEmpty(
+                authenticationConfiguration.getAuthorisationRegexPatternList());
+        if (authorisationRegexPatternList.size() < authorisationUriPatternList.size()) {
+            throw new PreconditionException("Authorisation patterns do not match their regular expressions");
+        }
+        this.exclusionIndex = new RouteIndex(exclusionUriPatternList, exclusionRegexPatternList);
+        this.authorisationIndex = new RouteIndex(authorisationUriPatternList,
+                authorisationRegexPatternList.subList(0, authorisationUriPatternList.size()));
+        this.authorisationRoleList = new ArrayList<List<String>>();
+        final Map<String, List<String>> authorisationRoleMap = authenticationConfiguration
+                .getAuthorisationRoleMap();
+        for (final String uriPattern : authorisationUriPatternList) {
+            final List<String> roles = authorisationRoleMap == null ? null : authorisationRoleMap.get(uriPattern);
+            authorisationRoleList.add(roles == null ? Collections.<String> emptyList()
+                    : Collections.unmodifiableList(new ArrayList<String>(roles)));
+        }
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public Boolean isExcluded(final String uriString) {
+        return getRoute(uriString).isExcluded;
+    }
+
+    @Override
+    public List<String> getAuthorisationRoles(final String uriString) {
+        return getRoute(uriString).authorisationRoles;
+    }
+
+    private Route getRoute(final String uriString) {
+        if (uriString == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        final Route entry = routeMap.get(uriString);
+        if (entry != null) {
+            return entry;
+        }
+        final int authorisationIndexValue = authorisationIndex.find(uriString);
+        final Route route = new Route(exclusionIndex.find(uriString) != NO_MATCH,
+                authorisationIndexValue == NO_MATCH ? null : authorisationRoleList.get(authorisationIndexValue));
+        // request paths can carry ids, so start over rather than grow without bound
+        if (routeMap.size() >= maxSize) {
+            routeMap.clear();
+        }
+        routeMap.putIfAbsent(uriString, route);
+        return route;
+    }
+
+    private static <T> List<T> nullToEmpty(final List<T> list) {
+        return list == null ? Collections.<T> emptyList() : list;
+    }
+
+    private static final class Route {
+        private final Boolean isExcluded;
+        private final List<String> authorisationRoles;
+
+        private Route(final Boolean isExcluded, final List<String> authorisationRoles) {
+            this.isExcluded = isExcluded;
+            this.authorisationRoles = authorisationRoles;
+        }
+    }
+
+    /**
+     * Finds the first pattern, in configuration order, that matches a path. Patterns without a wildcard are looked up
+     * in a map, patterns whose only wildcard is a trailing '*' are walked in a prefix trie, and everything else is
+     * tried in a single alternation of the configured regular expressions.
+     */
+    private static final class RouteIndex {
+        private final Map<String, Integer> literalMap = new HashMap<String, Integer>();
+        private final PrefixNode prefixRoot = new PrefixNode();
+        private final Pattern combinedPattern;
+        private final int[] groupList;
+        private final int[] indexList;
+
+        private RouteIndex(final List<String> uriPatternList, final List<Pattern> regexPatternList) {
+            // the exclusion list carries built in patterns ahead of the configured ones
+            final int offset = regexPatternList.size() - uriPatternList.size();
+            final StringBuilder builder = new StringBuilder();
+            final List<Integer> groups = new ArrayList<Integer>();
+            final List<Integer> indexes = new ArrayList<Integer>();
+            int group = 1;
+            for (int index = 0; index < regexPatternList.size(); index++) {
+                final String uriPattern = offset < 0 || index < offset ? null
+                        : uriPatternList.get(index - offset).trim();
+                if (uriPattern != null && uriPattern.indexOf('*') == -1) {
+                    if (!literalMap.containsKey(uriPattern)) {
+                        literalMap.put(uriPattern, index);
+                    }
+                    continue;
+                }
+                if (uriPattern != null && uriPattern.indexOf('*') == uriPattern.length() - 1) {
+                    prefixRoot.add(uriPattern.substring(0, uriPattern.length() - 1), index);
+                    continue;
+                }
+                final Pattern pattern = regexPatternList.get(index);
+                if (builder.length() > 0) {
+                    builder.append('|');
+                }
+                builder.append('(').append(pattern.pattern()).append(')');
+                groups.add(group);
+                indexes.add(index);
+                group += pattern.matcher("").groupCount() + 1;
+            }
+            this.combinedPattern = builder.length() == 0 ? null : Pattern.compile(builder.toString());
+            this.groupList = toArray(groups);
+            this.indexList = toArray(indexes);
+        }
+
+        private int find(final String uriString) {
+            final Integer literalIndex = literalMap.get(uriString);
+            int result = literalIndex == null ? NO_MATCH : literalIndex;
+            result = Math.min(result, prefixRoot.find(uriString));
+            if (combinedPattern == null) {
+                return result;
+            }
+            final Matcher matcher = combinedPattern.matcher(uriString);
+            if (!matcher.matches()) {
+                return result;
+            }
+            for (int alternative = 0; alternative < groupList.length; alternative++) {
+                if (matcher.start(groupList[alternative]) != -1) {
+                    return Math.min(result, indexList[alternative]);
+                }
+            }
+            return result;
+        }
+
+        private static int[] toArray(final List<Integer> list) {
+            final int[] array = new int[list.size()];
+            for (int index = 0; index < array.length; index++) {
+                array[index] = list.get(index);
+            }
+            return array;
+        }
+    }
+
+    private static final class PrefixNode {
+        private char[] keys = new char[0];
+        private PrefixNode[] children = new PrefixNode[0];
+        private int index = NO_MATCH;
+
+        private void add(final String prefix, final int patternIndex) {
+            PrefixNode node = this;
+            for (int position = 0; position < prefix.length(); position++) {
+                node = node.getOrAddChild(prefix.charAt(position));
+            }
+            node.index = Math.min(node.index, patternIndex);
+        }
+
+        private int find(final String uriString) {
+            PrefixNode node = this;
+            int result = node.index;
+            for (int position = 0; position < uriString.length(); position++) {
+                final int slot = Arrays.binarySearch(node.keys, uriString.charAt(position));
+                if (slot < 0) {
+                    break;
+                }
+                node = node.children[slot];
+                result = Math.min(result, node.index);
+            }
+            return result;
+        }
+
+        private PrefixNode getOrAddChild(final char key) {
+            final int slot = Arrays.binarySearch(keys, key);
+            if (slot >= 0) {
+                return children[slot];
+            }
+            final int insert = -slot - 1;
+            final PrefixNode child = new PrefixNode();
+            final char[] newKeys = new char[keys.length + 1];
+            final PrefixNode[] newChildren = new PrefixNode[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            newKeys[insert] = key;
+            newChildren[insert] = child;
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+    }
+}
@@ -22,10 +22,18 @@
 
 package com.microsoft.azure.oidc.future;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public interface FutureHelper {
 
     <T> T getResult(Future<T> future);
 
+    <T> T getResult(Future<T> future, long timeout, TimeUnit unit);
+
+    <T> Future<T> submit(String key, Callable<T> callable);
+
+    void shutdownNow();
+
 }
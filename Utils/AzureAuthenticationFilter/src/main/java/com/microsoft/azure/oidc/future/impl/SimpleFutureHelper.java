@@ -22,8 +22,21 @@
 
 package com.microsoft.azure.oidc.future.impl;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,25 +47,83 @@ import com.microsoft.azure.oidc.future.FutureHelper;
 public class SimpleFutureHelper implements FutureHelper {
     private static final FutureHelper INSTANCE = new SimpleFutureHelper();
     private static final Logger LOGGER = LoggerFactory.getLogger(SimpleFutureHelper.class);
+    private static final long DEFAULT_TIMEOUT = 30L;
+    private static final int THREAD_COUNT = 4;
+    private static final int QUEUE_SIZE = 64;
+
+    private final ExecutorService executorService = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT, 60L,
+            TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "azure-oidc-loader-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new CallerRunsUnlessShutdownPolicy());
+
+    private final ConcurrentMap<String, Future<?>> inFlightMap = new ConcurrentHashMap<String, Future<?>>();
 
     @Override
     public <T> T getResult(Future<T> future) {
-        if (future == null) {
+        return getResult(future, DEFAULT_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public <T> T getResult(Future<T> future, long timeout, TimeUnit unit) {
+        if (future == null || unit == null) {
             throw new PreconditionException("Required parameter is null");
         }
         try {
-            while (!future.isDone() && !future.isCancelled()) {
-                Thread.sleep(10);
-            }
-            if (!future.isCancelled()) {
-                return future.get();
-            }
-        } catch (InterruptedException | ExecutionException e) {
+            return future.get(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error(e.getMessage(), e);
+        } catch (ExecutionException e) {
             LOGGER.error(e.getMessage(), e);
+        } catch (TimeoutException e) {
+            LOGGER.error("Timeout Exception", e);
+        } catch (CancellationException e) {
+            LOGGER.debug(e.getMessage(), e);
         }
         return null;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Future<T> submit(final String key, final Callable<T> callable) {
+        if (key == null || callable == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        final FutureTask<T> task = new FutureTask<T>(callable) {
+            @Override
+            protected void done() {
+                inFlightMap.remove(key, this);
+            }
+        };
+        final Future<?> inFlight = inFlightMap.putIfAbsent(key, task);
+        if (inFlight != null) {
+            return (Future<T>) inFlight;
+        }
+        try {
+            executorService.execute(task);
+        } catch (RejectedExecutionException e) {
+            inFlightMap.remove(key, task);
+            throw e;
+        }
+        return task;
+    }
+
+    @Override
+    public void shutdownNow() {
+        executorService.shutdownNow();
+        for (final Future<?> inFlight : inFlightMap.values()) {
+            inFlight.cancel(true);
+        }
+        inFlightMap.clear();
+    }
+
     public static FutureHelper getInstance() {
         return INSTANCE;
     }
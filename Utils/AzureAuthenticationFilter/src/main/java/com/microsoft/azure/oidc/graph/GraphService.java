@@ -22,10 +22,16 @@
 
 package com.microsoft.azure.oidc.graph;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Future;
 
 public interface GraphService {
 
     Future<Boolean> isUserInRoleAsync(String userID, String role);
 
+    Future<Map<String, Boolean>> isUserInRolesAsync(String userID, List<String> roles);
+
+    void shutdownNow();
+
 }
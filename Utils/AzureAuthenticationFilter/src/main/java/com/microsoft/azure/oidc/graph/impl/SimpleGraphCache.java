@@ -22,12 +22,19 @@
 
 package com.microsoft.azure.oidc.graph.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheService;
 import com.microsoft.azure.oidc.concurrent.cache.impl.SimpleConcurrentCacheService;
 import com.microsoft.azure.oidc.future.FutureHelper;
 import com.microsoft.azure.oidc.future.impl.SimpleFutureHelper;
 import com.microsoft.azure.oidc.graph.GraphCache;
 import com.microsoft.azure.oidc.graph.GraphService;
+import com.microsoft.azure.oidc.metrics.MetricsService;
+import com.microsoft.azure.oidc.metrics.MetricsStage;
+import com.microsoft.azure.oidc.metrics.impl.SimpleMetricsService;
 
 public class SimpleGraphCache implements GraphCache {
     private static final GraphCache INSTANCE = new SimpleGraphCache();
@@ -38,8 +45,29 @@ public class SimpleGraphCache implements GraphCache {
 
     private final ConcurrentCacheService concurrentCacheService = SimpleConcurrentCacheService.getInstance();
 
+    private final MetricsService metricsService = SimpleMetricsService.getInstance();
+
+    @Override
+    public Boolean isUserInRole(final String userID, final String role) {
+        final long startTime = metricsService.start();
+        try {
+            return getIsUserInRole(userID, role);
+        } finally {
+            metricsService.stop(MetricsStage.ROLE_LOOKUP, startTime);
+        }
+    }
+
     @Override
-    public Boolean isUserInRole(String userID, String role) {
+    public Boolean isUserInAnyRole(final String userID, final List<String> roles) {
+        final long startTime = metricsService.start();
+        try {
+            return getIsUserInAnyRole(userID, roles);
+        } finally {
+            metricsService.stop(MetricsStage.ROLE_LOOKUP, startTime);
+        }
+    }
+
+    private Boolean getIsUserInRole(final String userID, final String role) {
         final String key = String.format("%s:%s", userID, role);
         final Boolean entry = concurrentCacheService.getCache(Boolean.class, "roleCache").get(key);
         if (entry != null) {
@@ -53,6 +81,36 @@ public class SimpleGraphCache implements GraphCache {
         return result;
     }
 
+    private Boolean getIsUserInAnyRole(final String userID, final List<String> roles) {
+        final List<String> missingRoles = new ArrayList<String>();
+        for (final String role : roles) {
+            final Boolean entry = concurrentCacheService.getCache(Boolean.class, "roleCache")
+                    .get(String.format("%s:%s", userID, role));
+            if (entry == null) {
+                missingRoles.add(role);
+            } else if (entry) {
+                return Boolean.TRUE;
+            }
+        }
+        if (missingRoles.isEmpty()) {
+            return Boolean.FALSE;
+        }
+        final Map<String, Boolean> result = futureHelper
+                .getResult(springGraphService.isUserInRolesAsync(userID, missingRoles));
+        if (result == null) {
+            return null;
+        }
+        Boolean isUserInAnyRole = Boolean.FALSE;
+        for (final Map.Entry<String, Boolean> entry : result.entrySet()) {
+            concurrentCacheService.getCache(Boolean.class, "roleCache")
+                    .putIfAbsent(String.format("%s:%s", userID, entry.getKey()), entry.getValue());
+            if (entry.getValue()) {
+                isUserInAnyRole = Boolean.TRUE;
+            }
+        }
+        return isUserInAnyRole;
+    }
+
     public static GraphCache getInstance() {
         return INSTANCE;
     }
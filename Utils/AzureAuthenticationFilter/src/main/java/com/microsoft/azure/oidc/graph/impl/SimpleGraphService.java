@@ -22,60 +22,133 @@
 
 package com.microsoft.azure.oidc.graph.impl;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-
-import javax.net.ssl.HttpsURLConnection;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.azure.oidc.application.settings.ApplicationSettings;
 import com.microsoft.azure.oidc.application.settings.ApplicationSettingsLoader;
-import com.microsoft.azure.oidc.application.settings.Secret;
-import com.microsoft.azure.oidc.application.settings.Tenant;
 import com.microsoft.azure.oidc.application.settings.impl.SimpleApplicationSettingsLoader;
-import com.microsoft.azure.oidc.common.id.ID;
 import com.microsoft.azure.oidc.exception.GeneralException;
+import com.microsoft.azure.oidc.exception.PreconditionException;
+import com.microsoft.azure.oidc.future.impl.CallerRunsUnlessShutdownPolicy;
 import com.microsoft.azure.oidc.graph.GraphService;
+import com.microsoft.azure.oidc.metrics.MetricsService;
+import com.microsoft.azure.oidc.metrics.MetricsStage;
+import com.microsoft.azure.oidc.metrics.impl.SimpleMetricsService;
 
 public final class SimpleGraphService implements GraphService {
     private static final GraphService INSTANCE = new SimpleGraphService();
     private static final Logger LOGGER = LoggerFactory.getLogger(SimpleGraphService.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String API_VERSION = "api-version=1.6";
+    private static final int THREAD_COUNT = 4;
+    private static final int QUEUE_SIZE = 256;
+    private static final int CHECK_MEMBER_GROUPS_LIMIT = 20;
+    private static final long TOKEN_REFRESH_MARGIN = 300000L;
+    private static final long DEFAULT_TOKEN_LIFETIME = 3600L;
+    private static final long GROUP_ID_TTL = 3600000L;
+
+    private final ApplicationSettingsLoader applicationSettingsLoader;
+
+    private final MetricsService metricsService;
+
+    private final ExecutorService executorService = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT, 60L,
+            TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "azure-oidc-graph-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new CallerRunsUnlessShutdownPolicy());
 
-    private final ApplicationSettingsLoader applicationSettingsLoader = SimpleApplicationSettingsLoader.getInstance();
+    private final ConcurrentMap<String, GroupID> groupIDMap = new ConcurrentHashMap<String, GroupID>();
+
+    private final Object bearerTokenLock = new Object();
+
+    private volatile BearerToken bearerToken;
+
+    private SimpleGraphService() {
+        this(SimpleApplicationSettingsLoader.getInstance(), SimpleMetricsService.getInstance());
+    }
+
+    SimpleGraphService(final ApplicationSettingsLoader applicationSettingsLoader,
+            final MetricsService metricsService) {
+        this.applicationSettingsLoader = applicationSettingsLoader;
+        this.metricsService = metricsService;
+    }
 
     @Override
     public Future<Boolean> isUserInRoleAsync(final String userID, final String role) {
-        final ExecutorService executorService = Executors.newSingleThreadExecutor();
-        final Future<Boolean> future = executorService.submit(new Callable<Boolean>() {
+        if (userID == null || role == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        return executorService.submit(new Callable<Boolean>() {
             public Boolean call() throws Exception {
                 return isUserInRole(userID, role);
             }
         });
-        executorService.shutdown();
-        return future;
+    }
+
+    @Override
+    public Future<Map<String, Boolean>> isUserInRolesAsync(final String userID, final List<String> roles) {
+        if (userID == null || roles == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        return executorService.submit(new Callable<Map<String, Boolean>>() {
+            public Map<String, Boolean> call() throws Exception {
+                return isUserInRoles(userID, roles);
+            }
+        });
+    }
+
+    @Override
+    public void shutdownNow() {
+        executorService.shutdownNow();
     }
 
     private Boolean isUserInRole(final String userID, final String role) {
         try {
             final ApplicationSettings applicationSettings = applicationSettingsLoader.load();
-            final String bearerToken = getBearerToken(applicationSettings.getTenant(),
-                    applicationSettings.getPrincipalId(), applicationSettings.getPrincipalSecret());
-            final String roleID = getGroupID(applicationSettings.getTenant(), role, bearerToken);
+            final String bearerToken = getBearerToken(applicationSettings);
+            if (bearerToken == null) {
+                return Boolean.FALSE;
+            }
+            final String roleID = getGroupID(applicationSettings, role, bearerToken);
             if (roleID == null) {
                 return Boolean.FALSE;
             }
-            return isUserInGroup(applicationSettings.getTenant(), userID, roleID, bearerToken);
+            return isUserInGroup(applicationSettings, userID, roleID, bearerToken);
         } catch (GeneralException e) {
             LOGGER.error("General Exception", e);
             return Boolean.FALSE;
@@ -85,30 +158,70 @@ public final class SimpleGraphService implements GraphService {
         }
     }
 
-    private Boolean isUserInGroup(final Tenant tenant, final String userID, final String groupID,
-            final String bearerToken) {
+    private Map<String, Boolean> isUserInRoles(final String userID, final List<String> roles) {
+        final Map<String, Boolean> result = new HashMap<String, Boolean>();
+        for (final String role : roles) {
+            result.put(role, Boolean.FALSE);
+        }
         try {
-            final String urlString = String.format("https://graph.windows.net/%s/isMemberOf?api-version=1.6",
-                    tenant.getName());
-            final String payload = String.format("{\"groupId\":\"%s\",\"memberId\":\"%s\"}", groupID, userID);
-            final URL url = new URL(urlString);
-            final HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-            connection.setRequestProperty("Host", "graph.windows.net");
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setRequestProperty("Accept", "application/json");
-            connection.setRequestProperty("Authorization", "Bearer " + bearerToken);
-            connection.setRequestMethod("POST");
-            connection.setDoOutput(true);
-            connection.getOutputStream().write(payload.getBytes());
-            connection.getOutputStream().flush();
-            final StringBuilder result = new StringBuilder();
-            try (final BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                for (String line = in.readLine(); line != null; line = in.readLine()) {
-                    result.append(line);
+            final ApplicationSettings applicationSettings = applicationSettingsLoader.load();
+            final String bearerToken = getBearerToken(applicationSettings);
+            if (bearerToken == null) {
+                return result;
+            }
+            final Map<String, String> roleIDMap = new HashMap<String, String>();
+            for (final String role : roles) {
+                final String roleID = getGroupID(applicationSettings, role, bearerToken);
+                if (roleID != null) {
+                    roleIDMap.put(roleID, role);
+                }
+            }
+            final List<String> roleIDs = new ArrayList<String>(roleIDMap.keySet());
+            for (int index = 0; index < roleIDs.size(); index += CHECK_MEMBER_GROUPS_LIMIT) {
+                final List<String> batch = roleIDs.subList(index,
+                        Math.min(index + CHECK_MEMBER_GROUPS_LIMIT, roleIDs.size()));
+                for (final String memberGroupID : checkMemberGroups(applicationSettings, userID, batch,
+                        bearerToken)) {
+                    final String role = roleIDMap.get(memberGroupID);
+                    if (role != null) {
+                        result.put(role, Boolean.TRUE);
+                    }
                 }
             }
-            final ObjectMapper mapper = new ObjectMapper();
-            final JsonNode node = mapper.readValue(result.toString().getBytes(), JsonNode.class);
+        } catch (IOException e) {
+            LOGGER.error("IO Exception", e);
+        } catch (RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+        return result;
+    }
+
+    private Set<String> checkMemberGroups(final ApplicationSettings applicationSettings, final String userID,
+            final List<String> groupIDs, final String bearerToken) throws IOException {
+        final String urlString = String.format("%s/%s/users/%s/checkMemberGroups?%s",
+                applicationSettings.getGraphEndPoint(), applicationSettings.getTenant().getName(),
+                URLEncoder.encode(userID, "UTF-8"), API_VERSION);
+        final ObjectNode payload = MAPPER.createObjectNode();
+        final ArrayNode groupIDsNode = payload.putArray("groupIds");
+        for (final String groupID : groupIDs) {
+            groupIDsNode.add(groupID);
+        }
+        final JsonNode node = request("POST", urlString, "application/json", MAPPER.writeValueAsString(payload),
+                bearerToken);
+        final Set<String> memberGroupIDs = new HashSet<String>();
+        for (final JsonNode groupNode : node.get("value")) {
+            memberGroupIDs.add(groupNode.asText());
+        }
+        return memberGroupIDs;
+    }
+
+    private Boolean isUserInGroup(final ApplicationSettings applicationSettings, final String userID,
+            final String groupID, final String bearerToken) {
+        try {
+            final String urlString = String.format("%s/%s/isMemberOf?%s", applicationSettings.getGraphEndPoint(),
+                    applicationSettings.getTenant().getName(), API_VERSION);
+            final String payload = String.format("{\"groupId\":\"%s\",\"memberId\":\"%s\"}", groupID, userID);
+            final JsonNode node = request("POST", urlString, "application/json", payload, bearerToken);
             return node.get("value").asBoolean();
         } catch (IOException e) {
             LOGGER.error("IO Exception", e);
@@ -119,26 +232,25 @@ public final class SimpleGraphService implements GraphService {
         }
     }
 
-    private String getGroupID(final Tenant tenant, final String group, final String bearerToken) {
-        try {
-            final String urlString = String.format(
-                    "https://graph.windows.net/%s/groups?$filter=displayName%%20eq%%20'%s'&api-version=1.6",
-                    tenant.getName(), URLEncoder.encode(group, "UTF-8"));
-            final URL url = new URL(urlString);
-            final HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-            connection.setRequestProperty("Host", "graph.windows.net");
-            connection.setRequestProperty("Accept", "application/json");
-            connection.setRequestProperty("Authorization", "Bearer " + bearerToken);
-            final StringBuilder result = new StringBuilder();
-            try (final BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                for (String line = in.readLine(); line != null; line = in.readLine()) {
-                    result.append(line);
-                }
+    private String getGroupID(final ApplicationSettings applicationSettings, final String group,
+            final String bearerToken) {
+        final GroupID entry = groupIDMap.get(group);
+        if (entry != null) {
+            if (entry.isValid(System.currentTimeMillis())) {
+                return entry.getValue();
             }
-            final ObjectMapper mapper = new ObjectMapper();
-            final JsonNode node = mapper.readValue(result.toString().getBytes(), JsonNode.class);
+            // groups can be deleted and recreated under the same display name
+            groupIDMap.remove(group, entry);
+        }
+        try {
+            final String urlString = String.format("%s/%s/groups?$filter=displayName%%20eq%%20'%s'&%s",
+                    applicationSettings.getGraphEndPoint(), applicationSettings.getTenant().getName(),
+                    URLEncoder.encode(group, "UTF-8"), API_VERSION);
+            final JsonNode node = request("GET", urlString, null, null, bearerToken);
             for (final JsonNode groupNode : node.get("value")) {
-                return groupNode.get("objectId").asText();
+                final String groupID = groupNode.get("objectId").asText();
+                groupIDMap.put(group, new GroupID(groupID, System.currentTimeMillis() + GROUP_ID_TTL));
+                return groupID;
             }
             return null;
         } catch (IOException e) {
@@ -150,31 +262,38 @@ public final class SimpleGraphService implements GraphService {
         }
     }
 
-    private String getBearerToken(final Tenant tenant, final ID principal, final Secret secret) {
+    private String getBearerToken(final ApplicationSettings applicationSettings) {
+        BearerToken current = bearerToken;
+        if (current != null && current.isValid(System.currentTimeMillis())) {
+            return current.getValue();
+        }
+        synchronized (bearerTokenLock) {
+            current = bearerToken;
+            if (current == null || !current.isValid(System.currentTimeMillis())) {
+                current = requestBearerToken(applicationSettings);
+                bearerToken = current;
+            }
+        }
+        return current == null ? null : current.getValue();
+    }
+
+    private BearerToken requestBearerToken(final ApplicationSettings applicationSettings) {
         try {
             final String payload = String.format(
-                    "grant_type=client_credentials&client_id=%s&client_secret=%s&resource=%s", principal.getValue(),
-                    URLEncoder.encode(secret.getValue(), "UTF-8"),
-                    URLEncoder.encode("https://graph.windows.net", "UTF-8"));
-            final URL url = new URL(
-                    String.format("https://login.microsoftonline.com/%s/oauth2/token", tenant.getName()));
-            final HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("Host", "login.microsoftonline.com");
-            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-            connection.setRequestProperty("Accept", "application/json");
-            connection.setDoOutput(true);
-            connection.getOutputStream().write(payload.getBytes());
-            connection.getOutputStream().flush();
-            final StringBuilder result = new StringBuilder();
-            try (final BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                for (String line = in.readLine(); line != null; line = in.readLine()) {
-                    result.append(line);
-                }
-            }
-            final ObjectMapper mapper = new ObjectMapper();
-            final JsonNode node = mapper.readValue(result.toString().getBytes(), JsonNode.class);
-            return node.get("access_token").asText();
+                    "grant_type=client_credentials&client_id=%s&client_secret=%s&resource=%s",
+                    applicationSettings.getPrincipalId().getValue(),
+                    URLEncoder.encode(applicationSettings.getPrincipalSecret().getValue(), "UTF-8"),
+                    URLEncoder.encode(applicationSettings.getGraphEndPoint().getName(), "UTF-8"));
+            final String urlString = String.format("%s/%s/oauth2/token", applicationSettings.getLoginEndPoint(),
+                    applicationSettings.getTenant().getName());
+            final long requestedAt = System.currentTimeMillis();
+            final JsonNode node = request("POST", urlString, "application/x-www-form-urlencoded", payload, null);
+            // without expires_in assume the default AAD token lifetime rather than not caching the token at all
+            final long expiresIn = node.has("expires_in") && node.get("expires_in").asLong() > 0L
+                    ? node.get("expires_in").asLong() : DEFAULT_TOKEN_LIFETIME;
+            final long lifetime = expiresIn * 1000;
+            return new BearerToken(node.get("access_token").asText(),
+                    requestedAt + lifetime - Math.min(TOKEN_REFRESH_MARGIN, lifetime / 2));
         } catch (IOException e) {
             LOGGER.error("IO Exception", e);
             return null;
@@ -184,7 +303,91 @@ public final class SimpleGraphService implements GraphService {
         }
     }
 
+    private JsonNode request(final String method, final String urlString, final String contentType,
+            final String payload, final String bearerToken) throws IOException {
+        final long startTime = metricsService.start();
+        try {
+            return send(method, urlString, contentType, payload, bearerToken);
+        } finally {
+            metricsService.stop(MetricsStage.GRAPH_CALL, startTime);
+        }
+    }
+
+    // reads and closes every response stream so the connection is returned to the keep-alive pool
+    private JsonNode send(final String method, final String urlString, final String contentType,
+            final String payload, final String bearerToken) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(urlString).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json");
+        if (bearerToken != null) {
+            connection.setRequestProperty("Authorization", "Bearer " + bearerToken);
+        }
+        if (payload != null) {
+            connection.setRequestProperty("Content-Type", contentType);
+            connection.setDoOutput(true);
+            try (final OutputStream out = connection.getOutputStream()) {
+                out.write(payload.getBytes("UTF-8"));
+            }
+        }
+        final int responseCode = connection.getResponseCode();
+        if (responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            final InputStream errorStream = connection.getErrorStream();
+            if (errorStream != null) {
+                readFully(errorStream);
+            }
+            throw new IOException(String.format("Unexpected response %s from %s", responseCode, urlString));
+        }
+        return MAPPER.readTree(readFully(connection.getInputStream()));
+    }
+
+    private byte[] readFully(final InputStream inputStream) throws IOException {
+        try (final InputStream in = inputStream) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            for (int count = in.read(buffer); count != -1; count = in.read(buffer)) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+    }
+
     public static GraphService getInstance() {
         return INSTANCE;
     }
+
+    private static final class BearerToken {
+        private final String value;
+        private final long refreshAt;
+
+        BearerToken(final String value, final long refreshAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        boolean isValid(final long now) {
+            return now < refreshAt;
+        }
+    }
+
+    private static final class GroupID {
+        private final String value;
+        private final long expiresAt;
+
+        GroupID(final String value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        boolean isValid(final long now) {
+            return now < expiresAt;
+        }
+    }
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.microsoft.azure.oidc.metrics.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCache;
+import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheService;
+import com.microsoft.azure.oidc.concurrent.cache.impl.SimpleConcurrentCacheService;
+import com.microsoft.azure.oidc.configuration.ConfigurationCache;
+import com.microsoft.azure.oidc.configuration.impl.SimpleConfigurationCache;
+import com.microsoft.azure.oidc.exception.PreconditionException;
+import com.microsoft.azure.oidc.metrics.MetricsMXBean;
+import com.microsoft.azure.oidc.metrics.MetricsService;
+import com.microsoft.azure.oidc.metrics.MetricsStage;
+
+public final class SimpleMetricsService implements MetricsService, MetricsMXBean {
+    private static final SimpleMetricsService INSTANCE = new SimpleMetricsService();
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimpleMetricsService.class);
+    private static final long NO_START_TIME = 0L;
+
+    private final Map<MetricsStage, LatencyHistogram> histogramMap = new EnumMap<MetricsStage, LatencyHistogram>(
+            MetricsStage.class);
+
+    private volatile boolean isEnabled;
+
+    private ObjectName objectName;
+
+    private SimpleMetricsService() {
+        for (final MetricsStage stage : MetricsStage.values()) {
+            histogramMap.put(stage, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    public synchronized void initialise(final Boolean isEnabled, final String name) {
+        if (isEnabled == null || name == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        unregister();
+        this.isEnabled = isEnabled;
+        if (!isEnabled) {
+            return;
+        }
+        try {
+            final ObjectName localObjectName = new ObjectName(
+                    String.format("com.microsoft.azure.oidc:type=Metrics,name=%s", ObjectName.quote(name)));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, localObjectName);
+            objectName = localObjectName;
+        } catch (JMException e) {
+            LOGGER.warn("Metrics are not available through JMX", e);
+        }
+    }
+
+    @Override
+    public Boolean isEnabled() {
+        return isEnabled;
+    }
+
+    @Override
+    public long start() {
+        return isEnabled ? System.nanoTime() : NO_START_TIME;
+    }
+
+    @Override
+    public void stop(final MetricsStage stage, final long startTime) {
+        if (startTime == NO_START_TIME || !isEnabled) {
+            return;
+        }
+        histogramMap.get(stage).record(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public Map<String, Long> getMetrics() {
+        final Map<String, Long> metrics = new LinkedHashMap<String, Long>();
+        for (final Map.Entry<MetricsStage, LatencyHistogram> entry : histogramMap.entrySet()) {
+            entry.getValue().snapshot(entry.getKey().name().toLowerCase(), metrics);
+        }
+        // looked up on demand so the caches are free to record into this service
+        final ConcurrentCacheService concurrentCacheService = SimpleConcurrentCacheService.getInstance();
+        for (final String name : concurrentCacheService.getCacheNames()) {
+            final ConcurrentCache<String, Object> cache = concurrentCacheService.getCache(Object.class, name);
+            if (cache == null) {
+                continue;
+            }
+            metrics.put(name + ".hits", cache.getHitCount());
+            metrics.put(name + ".misses", cache.getMissCount());
+            metrics.put(name + ".evictions", cache.getEvictionCount());
+        }
+        final ConfigurationCache configurationCache = SimpleConfigurationCache.getInstance();
+        metrics.put("configurationCache.refreshes", configurationCache.getRefreshCount());
+        metrics.put("configurationCache.refreshFailures", configurationCache.getRefreshFailureCount());
+        metrics.put("configurationCache.staleServes", configurationCache.getStaleServeCount());
+        metrics.put("configurationCache.lastRefreshMillis", configurationCache.getLastRefreshLatency());
+        return metrics;
+    }
+
+    @Override
+    public void reset() {
+        for (final LatencyHistogram histogram : histogramMap.values()) {
+            histogram.reset();
+        }
+    }
+
+    @Override
+    public synchronized void shutdownNow() {
+        isEnabled = false;
+        unregister();
+    }
+
+    private void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            LOGGER.warn("Unable to unregister metrics", e);
+        }
+        objectName = null;
+    }
+
+    public static MetricsService getInstance() {
+        return INSTANCE;
+    }
+}
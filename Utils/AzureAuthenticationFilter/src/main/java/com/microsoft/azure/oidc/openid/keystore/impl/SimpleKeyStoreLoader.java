@@ -28,8 +28,6 @@ import java.io.InputStreamReader;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
@@ -39,31 +37,38 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.azure.oidc.configuration.endpoint.EndPoint;
 import com.microsoft.azure.oidc.exception.PreconditionException;
+import com.microsoft.azure.oidc.future.FutureHelper;
+import com.microsoft.azure.oidc.future.impl.SimpleFutureHelper;
+import com.microsoft.azure.oidc.metrics.MetricsService;
+import com.microsoft.azure.oidc.metrics.MetricsStage;
+import com.microsoft.azure.oidc.metrics.impl.SimpleMetricsService;
 import com.microsoft.azure.oidc.openid.keystore.KeyStoreLoader;
 
 public final class SimpleKeyStoreLoader implements KeyStoreLoader {
     private static final KeyStoreLoader INSTANCE = new SimpleKeyStoreLoader();
     private static final Logger LOGGER = LoggerFactory.getLogger(SimpleKeyStoreLoader.class);
 
+    private final MetricsService metricsService = SimpleMetricsService.getInstance();
+
+    private final FutureHelper futureHelper = SimpleFutureHelper.getInstance();
+
     @Override
     public Future<JsonNode> loadAsync(final EndPoint endPoint) {
         if (endPoint == null) {
             throw new PreconditionException("Required parameter is null");
         }
-        final ExecutorService executorService = Executors.newSingleThreadExecutor();
-        final Future<JsonNode> future = executorService.submit(new Callable<JsonNode>() {
+        return futureHelper.submit(String.format("keystore:%s", endPoint.getName()), new Callable<JsonNode>() {
             public JsonNode call() throws Exception {
                 return load(endPoint);
             }
         });
-        executorService.shutdown();
-        return future;
     }
 
     public JsonNode load(final EndPoint endPoint) {
         if (endPoint == null) {
             throw new PreconditionException("Required parameter is null");
         }
+        final long startTime = metricsService.start();
         try {
             final StringBuilder builder = new StringBuilder();
             final URL url = new URL(endPoint.getName());
@@ -79,6 +84,8 @@ public final class SimpleKeyStoreLoader implements KeyStoreLoader {
             LOGGER.error("IO Exception", e);
         } catch (RuntimeException e) {
             LOGGER.error(e.getMessage(), e);
+        } finally {
+            metricsService.stop(MetricsStage.METADATA_CALL, startTime);
         }
         return null;
     }
@@ -28,8 +28,6 @@ import java.io.InputStreamReader;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
@@ -40,6 +38,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.azure.oidc.application.settings.ApplicationSettings;
 import com.microsoft.azure.oidc.application.settings.ApplicationSettingsLoader;
 import com.microsoft.azure.oidc.application.settings.impl.SimpleApplicationSettingsLoader;
+import com.microsoft.azure.oidc.future.FutureHelper;
+import com.microsoft.azure.oidc.future.impl.SimpleFutureHelper;
+import com.microsoft.azure.oidc.metrics.MetricsService;
+import com.microsoft.azure.oidc.metrics.MetricsStage;
+import com.microsoft.azure.oidc.metrics.impl.SimpleMetricsService;
 import com.microsoft.azure.oidc.openid.wellknown.WellKnownLoader;
 
 public final class SimpleWellKnownLoader implements WellKnownLoader {
@@ -48,25 +51,28 @@ public final class SimpleWellKnownLoader implements WellKnownLoader {
 
     private final ApplicationSettingsLoader applicationSettingsLoader = SimpleApplicationSettingsLoader.getInstance();
 
+    private final MetricsService metricsService = SimpleMetricsService.getInstance();
+
+    private final FutureHelper futureHelper = SimpleFutureHelper.getInstance();
+
     @Override
     public Future<JsonNode> loadAsync() {
-        final ExecutorService executorService = Executors.newSingleThreadExecutor();
-        final Future<JsonNode> future = executorService.submit(new Callable<JsonNode>() {
+        return futureHelper.submit("wellknown", new Callable<JsonNode>() {
             public JsonNode call() throws Exception {
                 return load();
             }
         });
-        executorService.shutdown();
-        return future;
     }
 
     public JsonNode load() {
+        final long startTime = metricsService.start();
         try {
             final ApplicationSettings applicationSettings = applicationSettingsLoader.load();
             final StringBuilder builder = new StringBuilder();
             final URL url = new URL(
-                    String.format("https://login.microsoftonline.com/%s/v2.0/.well-known/openid-configuration?p=%s",
-                            applicationSettings.getTenant(), applicationSettings.getOIDCPolicy()));
+                    String.format("%s/%s/v2.0/.well-known/openid-configuration?p=%s",
+                            applicationSettings.getLoginEndPoint(), applicationSettings.getTenant(),
+                            applicationSettings.getOIDCPolicy()));
             final URLConnection connection = url.openConnection();
             try (final BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
                 for (String line = in.readLine(); line != null; line = in.readLine()) {
@@ -79,6 +85,8 @@ public final class SimpleWellKnownLoader implements WellKnownLoader {
             LOGGER.error("IO Exception", e);
         } catch (RuntimeException e) {
             LOGGER.error(e.getMessage(), e);
+        } finally {
+            metricsService.stop(MetricsStage.METADATA_CALL, startTime);
         }
 
         return null;
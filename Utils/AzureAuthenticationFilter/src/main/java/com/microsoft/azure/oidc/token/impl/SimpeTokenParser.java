@@ -23,7 +23,6 @@
 package com.microsoft.azure.oidc.token.impl;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -63,6 +62,7 @@ import com.microsoft.azure.oidc.token.signature.impl.SimpleSignatureFactory;
 
 public final class SimpeTokenParser implements TokenParser {
     private static final TokenParser INSTANCE = new SimpeTokenParser();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private final SignatureFactory signatureFactory = SimpleSignatureFactory.getInstance();
 
@@ -82,6 +82,8 @@ public final class SimpeTokenParser implements TokenParser {
 
     private final EmailFactory emailFactory = SimpleEmailFactory.getInstance();
 
+    private final Base64 decoder = new Base64();
+
     @Override
     public Token getToken(String value) {
         final String[] parts = value.split("\\.");
@@ -168,25 +170,19 @@ public final class SimpeTokenParser implements TokenParser {
         return signatureFactory.createSignature(value);
     }
 
-    private String decodePart(final String part) {
+    private byte[] decodePart(final String part) {
         if (part == null) {
             throw new PreconditionException("Required parameter is null");
         }
-        try {
-            final Base64 decoder = new Base64();
-            return new String(decoder.decode(part), "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            throw new GeneralException("Unsupported Encoding Exception", e);
-        }
+        return decoder.decode(part);
     }
 
-    private JsonNode parsePart(final String part) {
+    private JsonNode parsePart(final byte[] part) {
         if (part == null) {
             throw new PreconditionException("Required parameter is null");
         }
         try {
-            final ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(part, JsonNode.class);
+            return MAPPER.readTree(part);
         } catch (IOException e) {
             throw new GeneralException("IO Exception", e);
         }
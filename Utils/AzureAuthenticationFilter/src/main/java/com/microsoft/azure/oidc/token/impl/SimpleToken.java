@@ -47,6 +47,7 @@ final class SimpleToken implements Token {
     private final ID audience;
     private final Payload payload;
     private final Signature signature;
+    private final String value;
 
     public SimpleToken(final Name keyName, final Algorithm algorithm, final TimeStamp issuedAt,
             final TimeStamp notBefore, final TimeStamp expiration, final ID userID, final List<Email> userEmails,
@@ -70,6 +71,11 @@ final class SimpleToken implements Token {
         this.audience = audience;
         this.payload = payload;
         this.signature = signature;
+        final StringBuilder builder = new StringBuilder();
+        builder.append(payload.getValue());
+        builder.append(".");
+        builder.append(signature.getValue());
+        this.value = builder.toString();
     }
 
     @Override
@@ -119,11 +125,7 @@ final class SimpleToken implements Token {
 
     @Override
     public String getValue() {
-        final StringBuilder builder = new StringBuilder();
-        builder.append(payload.getValue());
-        builder.append(".");
-        builder.append(signature.getValue());
-        return builder.toString();
+        return value;
     }
 
     @Override
@@ -138,11 +140,7 @@ final class SimpleToken implements Token {
 
     @Override
     public String toString() {
-        final StringBuilder builder = new StringBuilder();
-        builder.append(payload.getValue());
-        builder.append(".");
-        builder.append(signature.getValue());
-        return builder.toString();
+        return value;
     }
 
     @Override
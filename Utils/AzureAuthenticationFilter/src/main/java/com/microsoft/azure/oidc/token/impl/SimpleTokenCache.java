@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.token.impl;
+
+import com.microsoft.azure.oidc.concurrent.cache.ConcurrentCacheService;
+import com.microsoft.azure.oidc.concurrent.cache.impl.SimpleConcurrentCacheService;
+import com.microsoft.azure.oidc.exception.PreconditionException;
+import com.microsoft.azure.oidc.metrics.MetricsService;
+import com.microsoft.azure.oidc.metrics.MetricsStage;
+import com.microsoft.azure.oidc.metrics.impl.SimpleMetricsService;
+import com.microsoft.azure.oidc.token.Token;
+import com.microsoft.azure.oidc.token.TokenCache;
+import com.microsoft.azure.oidc.token.TokenParser;
+import com.microsoft.azure.oidc.token.TokenValidator;
+
+public final class SimpleTokenCache implements TokenCache {
+    private static final TokenCache INSTANCE = new SimpleTokenCache();
+
+    private final TokenParser tokenParser = SimpeTokenParser.getInstance();
+
+    private final TokenValidator tokenValidator = SimpleTokenValidator.getInstance();
+
+    private final ConcurrentCacheService concurrentCacheService = SimpleConcurrentCacheService.getInstance();
+
+    private final MetricsService metricsService = SimpleMetricsService.getInstance();
+
+    @Override
+    public Token getToken(final String value) {
+        if (value == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        final Token entry = getValidatedToken(value);
+        if (entry != null) {
+            return entry;
+        }
+        final long startTime = metricsService.start();
+        try {
+            return tokenParser.getToken(value);
+        } finally {
+            metricsService.stop(MetricsStage.TOKEN_PARSE, startTime);
+        }
+    }
+
+    @Override
+    public Boolean isValidToken(final Token token) {
+        if (token == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        final String key = token.getValue();
+        if (getValidatedToken(key) != null) {
+            return Boolean.TRUE;
+        }
+        final long startTime = metricsService.start();
+        final Boolean result = tokenValidator.validateCommon(token);
+        metricsService.stop(MetricsStage.TOKEN_VALIDATION, startTime);
+        if (result && !isExpired(token)) {
+            concurrentCacheService.getCache(Token.class, "tokenCache").putIfAbsent(key, token);
+        }
+        return result;
+    }
+
+    private Token getValidatedToken(final String key) {
+        final Token entry = concurrentCacheService.getCache(Token.class, "tokenCache").get(key);
+        if (entry == null || isExpired(entry)) {
+            return null;
+        }
+        return entry;
+    }
+
+    private Boolean isExpired(final Token token) {
+        return token.getExpiration().getTime() <= System.currentTimeMillis() / 1000;
+    }
+
+    public static TokenCache getInstance() {
+        return INSTANCE;
+    }
+}
@@ -22,20 +22,6 @@
 
 package com.microsoft.azure.oidc.token.impl;
 
-import java.math.BigInteger;
-import java.security.InvalidKeyException;
-import java.security.KeyFactory;
-import java.security.NoSuchAlgorithmException;
-import java.security.PublicKey;
-import java.security.Signature;
-import java.security.SignatureException;
-import java.security.spec.InvalidKeySpecException;
-import java.security.spec.RSAPublicKeySpec;
-
-import org.apache.commons.codec.binary.Base64;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import com.microsoft.azure.oidc.application.settings.ApplicationSettings;
 import com.microsoft.azure.oidc.application.settings.ApplicationSettingsLoader;
 import com.microsoft.azure.oidc.application.settings.impl.SimpleApplicationSettingsLoader;
@@ -45,16 +31,18 @@ import com.microsoft.azure.oidc.common.timestamp.impl.SimpleTimeStampFactory;
 import com.microsoft.azure.oidc.configuration.Configuration;
 import com.microsoft.azure.oidc.configuration.ConfigurationCache;
 import com.microsoft.azure.oidc.configuration.impl.SimpleConfigurationCache;
+import com.microsoft.azure.oidc.configuration.key.Key;
 import com.microsoft.azure.oidc.exception.GeneralException;
 import com.microsoft.azure.oidc.exception.PreconditionException;
 import com.microsoft.azure.oidc.filter.configuration.algorithm.AlgorithmConfigurationService;
 import com.microsoft.azure.oidc.filter.configuration.algorithm.impl.SimpleAlgorithmConfigurationService;
 import com.microsoft.azure.oidc.token.Token;
 import com.microsoft.azure.oidc.token.TokenValidator;
+import com.microsoft.azure.oidc.token.signature.SignatureVerifier;
+import com.microsoft.azure.oidc.token.signature.impl.SimpleSignatureVerifier;
 
 public class SimpleTokenValidator implements TokenValidator {
     private static final TokenValidator INSTANCE = new SimpleTokenValidator();
-    private static final Logger LOGGER = LoggerFactory.getLogger(SimpleTokenValidator.class);
 
     private final ApplicationSettingsLoader applicationSettingsLoader = SimpleApplicationSettingsLoader.getInstance();
 
@@ -64,6 +52,8 @@ public class SimpleTokenValidator implements TokenValidator {
 
     private final AlgorithmConfigurationService algorithmConfigurationService = SimpleAlgorithmConfigurationService.getInstance();
 
+    private final SignatureVerifier signatureVerifier = SimpleSignatureVerifier.getInstance();
+
     @Override
     public Boolean validateSignature(final Token token) {
         if (token == null) {
@@ -72,33 +62,27 @@ public class SimpleTokenValidator implements TokenValidator {
         if (algorithmConfigurationService.get().getAlgorithmClassMap().get(token.getAlgorithm().getName()).equals("HMAC")) {
             return Boolean.FALSE;
         }
-        final Configuration configuration = configurationCache.load();
+        Configuration configuration = configurationCache.load();
         if (configuration == null) {
             throw new GeneralException("Error loading configuration");
         }
-        try {
-            final TimeStamp now = timeStampFactory.createTimeStamp(System.currentTimeMillis() / 1000);
-            if (configuration.getKey(token.getKeyName()).getNotBefore().compareTo(now) > 0) {
+        Key key = configuration.getKey(token.getKeyName());
+        if (key == null) {
+            // the signing keys may have been rotated since the configuration was loaded
+            configuration = configurationCache.reload();
+            if (configuration == null) {
+                throw new GeneralException("Error loading configuration");
+            }
+            key = configuration.getKey(token.getKeyName());
+            if (key == null) {
                 return Boolean.FALSE;
             }
-            final Base64 decoder = new Base64();
-            final BigInteger exponent = new BigInteger(1,
-                    decoder.decode(configuration.getKey(token.getKeyName()).getExponent().getValue()));
-            final BigInteger modulus = new BigInteger(1,
-                    decoder.decode(configuration.getKey(token.getKeyName()).getSecret().getValue()));
-            final RSAPublicKeySpec pubKeySpec = new RSAPublicKeySpec(modulus, exponent);
-            final KeyFactory keyFactory = KeyFactory
-                    .getInstance(algorithmConfigurationService.get().getAlgorithmClassMap().get(token.getAlgorithm().getName()));
-            final PublicKey pubKey = keyFactory.generatePublic(pubKeySpec);
-            final Signature sig = Signature
-                    .getInstance(algorithmConfigurationService.get().getAlgorithmMap().get(token.getAlgorithm().getName()));
-            sig.initVerify(pubKey);
-            sig.update(token.getPayload().getValue().getBytes());
-            return sig.verify(decoder.decode(token.getSignature().getValue()));
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException | SignatureException | InvalidKeyException e) {
-            LOGGER.error(e.getMessage(), e);
+        }
+        final TimeStamp now = timeStampFactory.createTimeStamp(System.currentTimeMillis() / 1000);
+        if (key.getNotBefore().compareTo(now) > 0) {
             return Boolean.FALSE;
         }
+        return signatureVerifier.verify(configuration, token);
     }
 
     @Override
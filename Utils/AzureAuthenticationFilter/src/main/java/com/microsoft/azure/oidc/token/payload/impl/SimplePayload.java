@@ -28,6 +28,7 @@ import com.microsoft.azure.oidc.token.payload.Payload;
 final class SimplePayload implements Payload {
     private final String header;
     private final String body;
+    private final String value;
 
     public SimplePayload(final String header, final String body) {
         if (header == null || body == null) {
@@ -35,24 +36,21 @@ final class SimplePayload implements Payload {
         }
         this.header = header;
         this.body = body;
+        final StringBuilder builder = new StringBuilder(header.length() + body.length() + 1);
+        builder.append(header);
+        builder.append(".");
+        builder.append(body);
+        this.value = builder.toString();
     }
 
     @Override
     public String getValue() {
-        final StringBuffer buffer = new StringBuffer();
-        buffer.append(header);
-        buffer.append(".");
-        buffer.append(body);
-        return buffer.toString();
+        return value;
     }
 
     @Override
     public String toString() {
-        final StringBuffer buffer = new StringBuffer();
-        buffer.append(header);
-        buffer.append(".");
-        buffer.append(body);
-        return buffer.toString();
+        return value;
     }
 
     @Override
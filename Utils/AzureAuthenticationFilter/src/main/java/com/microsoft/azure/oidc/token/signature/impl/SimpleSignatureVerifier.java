@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.token.signature.impl;
+
+import java.math.BigInteger;
+import java.security.InvalidKeyException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.codec.binary.Base64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.microsoft.azure.oidc.common.name.Name;
+import com.microsoft.azure.oidc.configuration.Configuration;
+import com.microsoft.azure.oidc.configuration.key.Key;
+import com.microsoft.azure.oidc.exception.PreconditionException;
+import com.microsoft.azure.oidc.filter.configuration.algorithm.AlgorithmConfiguration;
+import com.microsoft.azure.oidc.filter.configuration.algorithm.AlgorithmConfigurationService;
+import com.microsoft.azure.oidc.filter.configuration.algorithm.impl.SimpleAlgorithmConfigurationService;
+import com.microsoft.azure.oidc.token.Token;
+import com.microsoft.azure.oidc.token.signature.SignatureVerifier;
+
+public final class SimpleSignatureVerifier implements SignatureVerifier {
+    private static final SignatureVerifier INSTANCE = new SimpleSignatureVerifier();
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimpleSignatureVerifier.class);
+    private static final String HMAC_CLASS = "HMAC";
+
+    // Signature engines are not thread safe, so one is kept per thread and algorithm
+    private static final ThreadLocal<Map<String, Signature>> SIGNATURE_POOL = new ThreadLocal<Map<String, Signature>>() {
+        @Override
+        protected Map<String, Signature> initialValue() {
+            return new HashMap<String, Signature>();
+        }
+    };
+
+    private final AlgorithmConfigurationService algorithmConfigurationService;
+
+    private final Base64 decoder = new Base64();
+
+    private volatile PublicKeys publicKeys;
+
+    private SimpleSignatureVerifier() {
+        this(SimpleAlgorithmConfigurationService.getInstance());
+    }
+
+    SimpleSignatureVerifier(final AlgorithmConfigurationService algorithmConfigurationService) {
+        this.algorithmConfigurationService = algorithmConfigurationService;
+    }
+
+    @Override
+    public void initialise(final Configuration configuration) {
+        if (configuration == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        initialiseKeys(configuration);
+    }
+
+    // returns the keys it built, as the shared field may already hold the keys of another configuration
+    private PublicKeys initialiseKeys(final Configuration configuration) {
+        final Set<String> keyClasses = new HashSet<String>(
+                algorithmConfigurationService.get().getAlgorithmClassMap().values());
+        keyClasses.remove(HMAC_CLASS);
+        final Map<String, Map<Name, PublicKey>> keyClassMap = new HashMap<String, Map<Name, PublicKey>>();
+        for (final String keyClass : keyClasses) {
+            final Map<Name, PublicKey> keyMap = new HashMap<Name, PublicKey>();
+            for (final Map.Entry<Name, Key> entry : configuration.getKeys().entrySet()) {
+                final PublicKey publicKey = createPublicKey(keyClass, entry.getValue());
+                if (publicKey != null) {
+                    keyMap.put(entry.getKey(), publicKey);
+                }
+            }
+            keyClassMap.put(keyClass, keyMap);
+        }
+        final PublicKeys result = new PublicKeys(configuration, keyClassMap);
+        publicKeys = result;
+        return result;
+    }
+
+    @Override
+    public Boolean verify(final Configuration configuration, final Token token) {
+        if (configuration == null || token == null) {
+            throw new PreconditionException("Required parameter is null");
+        }
+        PublicKeys current = publicKeys;
+        if (current == null || current.getConfiguration() != configuration) {
+            current = initialiseKeys(configuration);
+        }
+        final AlgorithmConfiguration algorithmConfiguration = algorithmConfigurationService.get();
+        final String algorithmName = token.getAlgorithm().getName();
+        final PublicKey publicKey = current.getPublicKey(algorithmConfiguration.getAlgorithmClassMap().get(algorithmName),
+                token.getKeyName());
+        if (publicKey == null) {
+            return Boolean.FALSE;
+        }
+        try {
+            final Signature sig = getSignature(algorithmConfiguration.getAlgorithmMap().get(algorithmName));
+            sig.initVerify(publicKey);
+            sig.update(token.getPayload().getValue().getBytes());
+            return sig.verify(decoder.decode(token.getSignature().getValue()));
+        } catch (NoSuchAlgorithmException | SignatureException | InvalidKeyException e) {
+            LOGGER.error(e.getMessage(), e);
+            return Boolean.FALSE;
+        }
+    }
+
+    private PublicKey createPublicKey(final String keyClass, final Key key) {
+        try {
+            final BigInteger exponent = new BigInteger(1, decoder.decode(key.getExponent().getValue()));
+            final BigInteger modulus = new BigInteger(1, decoder.decode(key.getSecret().getValue()));
+            final RSAPublicKeySpec pubKeySpec = new RSAPublicKeySpec(modulus, exponent);
+            return KeyFactory.getInstance(keyClass).generatePublic(pubKeySpec);
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            LOGGER.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private Signature getSignature(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, Signature> pool = SIGNATURE_POOL.get();
+        Signature signature = pool.get(algorithm);
+        if (signature == null) {
+            signature = Signature.getInstance(algorithm);
+            pool.put(algorithm, signature);
+        }
+        return signature;
+    }
+
+    public static SignatureVerifier getInstance() {
+        return INSTANCE;
+    }
+
+    private static final class PublicKeys {
+        private final Configuration configuration;
+        private final Map<String, Map<Name, PublicKey>> keyClassMap;
+
+        PublicKeys(final Configuration configuration, final Map<String, Map<Name, PublicKey>> keyClassMap) {
+            this.configuration = configuration;
+            this.keyClassMap = keyClassMap;
+        }
+
+        Configuration getConfiguration() {
+            return configuration;
+        }
+
+        PublicKey getPublicKey(final String keyClass, final Name keyName) {
+            final Map<Name, PublicKey> keyMap = keyClassMap.get(keyClass);
+            return keyMap == null ? null : keyMap.get(keyName);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.concurrent.cache.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExpiringConcurrentCacheTest {
+    private static final long TTL = 100L;
+    private static final long LONG_TTL = 60000L;
+    private static final long SWEEP_INTERVAL = 50L;
+    private static final long TIMEOUT = 5000L;
+
+    private ScheduledThreadPoolExecutor sweepExecutorService;
+
+    @Before
+    public void setUp() {
+        sweepExecutorService = new ScheduledThreadPoolExecutor(1);
+        sweepExecutorService.setRemoveOnCancelPolicy(true);
+    }
+
+    @After
+    public void tearDown() {
+        sweepExecutorService.shutdownNow();
+    }
+
+    @Test
+    public void testEntryIsReturnedUntilItExpires() throws Exception {
+        final ExpiringConcurrentCache<String, String> cache = createCache(TTL, 10L, LONG_TTL);
+        assertNull(cache.putIfAbsent("key", "first"));
+        assertEquals("first", cache.get("key"));
+        assertEquals("first", cache.putIfAbsent("key", "second"));
+
+        Thread.sleep(TTL * 2);
+        assertNull(cache.get("key"));
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+        assertEquals(1L, cache.getEvictionCount());
+        cache.shutdownNow();
+    }
+
+    @Test
+    public void testExpiredEntryIsReplaced() throws Exception {
+        final ExpiringConcurrentCache<String, String> cache = createCache(TTL, 10L, LONG_TTL);
+        cache.putIfAbsent("key", "first");
+
+        Thread.sleep(TTL * 2);
+        assertNull(cache.putIfAbsent("key", "second"));
+        assertEquals("second", cache.get("key"));
+        assertEquals(1L, cache.getEvictionCount());
+        cache.shutdownNow();
+    }
+
+    @Test
+    public void testOldestEntriesAreEvictedOverMaxSize() {
+        final ExpiringConcurrentCache<String, String> cache = createCache(LONG_TTL, 2L, LONG_TTL);
+        cache.putIfAbsent("first", "1");
+        cache.putIfAbsent("second", "2");
+        cache.putIfAbsent("third", "3");
+
+        assertNull(cache.get("first"));
+        assertEquals("2", cache.get("second"));
+        assertEquals("3", cache.get("third"));
+        assertEquals(1L, cache.getEvictionCount());
+        cache.shutdownNow();
+    }
+
+    @Test
+    public void testSweepEvictsExpiredEntriesWithoutReads() throws Exception {
+        final ExpiringConcurrentCache<String, String> cache = createCache(TTL, 10L, SWEEP_INTERVAL);
+        cache.putIfAbsent("first", "1");
+        cache.putIfAbsent("second", "2");
+
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (cache.getEvictionCount() < 2L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(2L, cache.getEvictionCount());
+        assertEquals(0L, cache.getMissCount());
+        cache.shutdownNow();
+    }
+
+    @Test
+    public void testShutdownCancelsOnlyItsOwnSweep() {
+        final ExpiringConcurrentCache<String, String> first = createCache(TTL, 10L, LONG_TTL);
+        final ExpiringConcurrentCache<String, String> second = createCache(TTL, 10L, LONG_TTL);
+
+        first.shutdownNow();
+        assertEquals(1, sweepExecutorService.getQueue().size());
+        assertFalse(sweepExecutorService.isShutdown());
+        second.shutdownNow();
+        assertEquals(0, sweepExecutorService.getQueue().size());
+    }
+
+    @Test
+    public void testCachesShareOneDaemonSweeper() {
+        final ExpiringConcurrentCache<String, String> first = new ExpiringConcurrentCache<String, String>(1L, 10L);
+        final ExpiringConcurrentCache<String, String> second = new ExpiringConcurrentCache<String, String>(1L, 10L);
+
+        int sweeperCount = 0;
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("azure-oidc-cache-sweeper".equals(thread.getName())) {
+                assertTrue(thread.isDaemon());
+                sweeperCount++;
+            }
+        }
+        assertEquals(1, sweeperCount);
+        first.shutdownNow();
+        second.shutdownNow();
+    }
+
+    private ExpiringConcurrentCache<String, String> createCache(final long ttl, final long maxSize,
+            final long sweepInterval) {
+        return new ExpiringConcurrentCache<String, String>(ttl, maxSize, sweepInterval, sweepExecutorService);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.configuration.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.microsoft.azure.oidc.configuration.Configuration;
+import com.microsoft.azure.oidc.configuration.ConfigurationLoader;
+import com.microsoft.azure.oidc.token.Token;
+import com.microsoft.azure.oidc.token.signature.SignatureVerifier;
+
+public class SimpleConfigurationCacheTest {
+    private static final long TTL = 100L;
+    private static final long RETRY_INTERVAL = 300L;
+    private static final long TIMEOUT = 5000L;
+
+    private final Configuration first = mock(Configuration.class);
+    private final Configuration second = mock(Configuration.class);
+
+    private StubConfigurationLoader loader;
+    private StubSignatureVerifier verifier;
+    private SimpleConfigurationCache cache;
+
+    @Before
+    public void setUp() {
+        loader = new StubConfigurationLoader();
+        verifier = new StubSignatureVerifier();
+        cache = new SimpleConfigurationCache(loader, verifier, TTL, RETRY_INTERVAL);
+    }
+
+    @After
+    public void tearDown() {
+        loader.open();
+        cache.shutdownNow();
+    }
+
+    @Test
+    public void testColdLoadWaitsForTheConfiguration() {
+        loader.next = first;
+
+        assertSame(first, cache.load());
+        assertSame(first, cache.load());
+        assertEquals(1, loader.calls.get());
+        assertEquals(1, verifier.initialised.get());
+        assertEquals(1L, cache.getRefreshCount());
+        assertEquals(0L, cache.getStaleServeCount());
+    }
+
+    @Test
+    public void testColdLoadFailureReturnsNull() {
+        assertEquals(null, cache.load());
+        assertEquals(1L, cache.getRefreshFailureCount());
+    }
+
+    @Test
+    public void testExpiredEntryIsServedWhileRefreshing() throws Exception {
+        loader.next = first;
+        assertSame(first, cache.load());
+        Thread.sleep(TTL * 2);
+
+        loader.close();
+        loader.next = second;
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            assertSame(first, cache.load());
+        }
+        assertTrue(System.currentTimeMillis() - start < TIMEOUT / 2);
+        assertTrue(cache.getStaleServeCount() >= 10L);
+
+        loader.open();
+        waitFor(second);
+        // a single background refresh serves all the requests that saw the expired entry
+        assertEquals(2, loader.calls.get());
+        assertEquals(2, verifier.initialised.get());
+    }
+
+    @Test
+    public void testFailedRefreshIsRetriedAfterTheInterval() throws Exception {
+        loader.next = first;
+        assertSame(first, cache.load());
+        Thread.sleep(TTL * 2);
+
+        loader.next = null;
+        assertSame(first, cache.load());
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (cache.getRefreshFailureCount() == 0L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(1L, cache.getRefreshFailureCount());
+
+        // within the retry interval the last good configuration is served without calling the end-point
+        loader.next = second;
+        assertSame(first, cache.load());
+        assertEquals(2, loader.calls.get());
+
+        Thread.sleep(RETRY_INTERVAL * 2);
+        assertSame(first, cache.load());
+        waitFor(second);
+        assertEquals(3, loader.calls.get());
+    }
+
+    private void waitFor(final Configuration expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (cache.load() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertSame(expected, cache.load());
+    }
+
+    private static final class StubConfigurationLoader implements ConfigurationLoader {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private volatile Configuration next;
+
+        void close() {
+            gate = new CountDownLatch(1);
+        }
+
+        void open() {
+            gate.countDown();
+        }
+
+        @Override
+        public Future<Configuration> loadAsync() {
+            calls.incrementAndGet();
+            try {
+                gate.await(TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final Configuration result = next;
+            final FutureTask<Configuration> future = new FutureTask<Configuration>(new Callable<Configuration>() {
+                @Override
+                public Configuration call() {
+                    return result;
+                }
+            });
+            future.run();
+            return future;
+        }
+    }
+
+    private static final class StubSignatureVerifier implements SignatureVerifier {
+        private final AtomicInteger initialised = new AtomicInteger();
+
+        @Override
+        public void initialise(final Configuration configuration) {
+            initialised.incrementAndGet();
+        }
+
+        @Override
+        public Boolean verify(final Configuration configuration, final Token token) {
+            return Boolean.TRUE;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.filter.route.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.microsoft.azure.oidc.exception.PreconditionException;
+import com.microsoft.azure.oidc.filter.configuration.authentication.impl.SimpleAuthenticationConfigurationFactory;
+import com.microsoft.azure.oidc.filter.route.RouteMatcher;
+
+public class SimpleRouteMatcherTest {
+    private static final Long MAX_SIZE = 100L;
+
+    @Test
+    public void testExclusionMatchesEveryKindOfPattern() {
+        final RouteMatcher routeMatcher = createRouteMatcher(Arrays.asList("/health", "/public/*", "/files/*.css"),
+                Collections.<String> emptyList(), Collections.<String, List<String>> emptyMap(), MAX_SIZE);
+
+        assertTrue(routeMatcher.isExcluded("/health"));
+        assertTrue(routeMatcher.isExcluded("/public/"));
+        assertTrue(routeMatcher.isExcluded("/public/images/logo.png"));
+        assertTrue(routeMatcher.isExcluded("/files/site.css"));
+        // built in ahead of the configured patterns
+        assertTrue(routeMatcher.isExcluded("/javax.faces.resource/jsf.js"));
+        assertFalse(routeMatcher.isExcluded("/health/details"));
+        assertFalse(routeMatcher.isExcluded("/publicity"));
+        assertFalse(routeMatcher.isExcluded("/files/css/site.css"));
+        assertNull(routeMatcher.getAuthorisationRoles("/health"));
+    }
+
+    @Test
+    public void testFirstConfiguredAuthorisationPatternWins() {
+        final Map<String, List<String>> roleMap = new HashMap<String, List<String>>();
+        roleMap.put("/admin/reports", Arrays.asList("auditors"));
+        roleMap.put("/admin/*", Arrays.asList("admins"));
+        roleMap.put("/api/*/items", Arrays.asList("readers", "writers"));
+
+        final RouteMatcher literalFirst = createRouteMatcher(Collections.<String> emptyList(),
+                Arrays.asList("/admin/reports", "/admin/*", "/api/*/items"), roleMap, MAX_SIZE);
+        assertEquals(Arrays.asList("auditors"), literalFirst.getAuthorisationRoles("/admin/reports"));
+        assertEquals(Arrays.asList("admins"), literalFirst.getAuthorisationRoles("/admin/users"));
+        assertEquals(Arrays.asList("readers", "writers"), literalFirst.getAuthorisationRoles("/api/v1/items"));
+        assertNull(literalFirst.getAuthorisationRoles("/api/v1/orders"));
+
+        final RouteMatcher prefixFirst = createRouteMatcher(Collections.<String> emptyList(),
+                Arrays.asList("/admin/*", "/admin/reports"), roleMap, MAX_SIZE);
+        assertEquals(Arrays.asList("admins"), prefixFirst.getAuthorisationRoles("/admin/reports"));
+    }
+
+    @Test
+    public void testPatternWithoutRolesHasNoRoles() {
+        final RouteMatcher routeMatcher = createRouteMatcher(Collections.<String> emptyList(),
+                Arrays.asList("/secure/*"), Collections.<String, List<String>> emptyMap(), MAX_SIZE);
+
+        assertEquals(Collections.<String> emptyList(), routeMatcher.getAuthorisationRoles("/secure/page"));
+        assertNull(routeMatcher.getAuthorisationRoles("/open/page"));
+    }
+
+    @Test
+    public void testRoutesStayCorrectOnceTheRouteCacheIsFull() {
+        final RouteMatcher routeMatcher = createRouteMatcher(Arrays.asList("/public/*"),
+                Collections.<String> emptyList(), Collections.<String, List<String>> emptyMap(), 2L);
+
+        for (int index = 0; index < 10; index++) {
+            assertTrue(routeMatcher.isExcluded("/public/" + index));
+            assertFalse(routeMatcher.isExcluded("/private/" + index));
+        }
+        assertTrue(routeMatcher.isExcluded("/public/0"));
+    }
+
+    @Test(expected = PreconditionException.class)
+    public void testNullPathIsRejected() {
+        createRouteMatcher(Collections.<String> emptyList(), Collections.<String> emptyList(),
+                Collections.<String, List<String>> emptyMap(), MAX_SIZE).isExcluded(null);
+    }
+
+    private static RouteMatcher createRouteMatcher(final List<String> exclusionUriPatternList,
+            final List<String> authorisationUriPatternList, final Map<String, List<String>> authorisationRoleMap,
+            final Long maxSize) {
+        return new SimpleRouteMatcher(SimpleAuthenticationConfigurationFactory.getInstance()
+                .createAuthenticationConfiguration(exclusionUriPatternList, authorisationUriPatternList,
+                        authorisationRoleMap),
+                maxSize);
+    }
+}
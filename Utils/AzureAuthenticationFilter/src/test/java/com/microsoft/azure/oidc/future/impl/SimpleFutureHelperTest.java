@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.future.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SimpleFutureHelperTest {
+    private static final long TIMEOUT = 5000L;
+
+    private SimpleFutureHelper futureHelper;
+    private StubCallable callable;
+
+    @Before
+    public void setUp() {
+        futureHelper = new SimpleFutureHelper();
+        callable = new StubCallable();
+    }
+
+    @After
+    public void tearDown() {
+        callable.open();
+        futureHelper.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentSubmitsShareOneLoad() throws Exception {
+        final Future<String> first = futureHelper.submit("key", callable);
+        final Future<String> second = futureHelper.submit("key", callable);
+        final Future<String> other = futureHelper.submit("other", callable);
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        callable.open();
+        assertEquals("result", futureHelper.getResult(first, TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals("result", futureHelper.getResult(other, TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals(2, callable.calls.get());
+    }
+
+    @Test
+    public void testCompletedLoadIsNotShared() throws Exception {
+        callable.open();
+        final Future<String> first = futureHelper.submit("key", callable);
+        assertEquals("result", futureHelper.getResult(first, TIMEOUT, TimeUnit.MILLISECONDS));
+
+        final Future<String> second = submitAfter(first);
+        assertNotSame(first, second);
+        assertEquals("result", futureHelper.getResult(second, TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals(2, callable.calls.get());
+    }
+
+    @Test
+    public void testFailedLoadIsNotShared() throws Exception {
+        callable.open();
+        callable.failure = new IllegalStateException("load failed");
+        final Future<String> first = futureHelper.submit("key", callable);
+        assertNull(futureHelper.getResult(first, TIMEOUT, TimeUnit.MILLISECONDS));
+
+        callable.failure = null;
+        final Future<String> second = submitAfter(first);
+        assertEquals("result", futureHelper.getResult(second, TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testShutdownCancelsInFlightLoadsAndRejectsNewOnes() {
+        final Future<String> inFlight = futureHelper.submit("key", callable);
+
+        futureHelper.shutdownNow();
+        assertTrue(inFlight.isCancelled());
+        try {
+            futureHelper.submit("key", callable);
+            throw new AssertionError("Expected the submit to be rejected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+    }
+
+    private Future<String> submitAfter(final Future<String> previous) throws InterruptedException {
+        // the previous task leaves the in-flight map just after its waiters are released
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        Future<String> future = futureHelper.submit("key", callable);
+        while (future == previous && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+            future = futureHelper.submit("key", callable);
+        }
+        return future;
+    }
+
+    private static final class StubCallable implements Callable<String> {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile RuntimeException failure;
+
+        @Override
+        public String call() throws Exception {
+            calls.incrementAndGet();
+            latch.await(TIMEOUT, TimeUnit.MILLISECONDS);
+            if (failure != null) {
+                throw failure;
+            }
+            return "result";
+        }
+
+        void open() {
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.graph.impl;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.microsoft.azure.oidc.application.settings.ApplicationSettings;
+import com.microsoft.azure.oidc.application.settings.ApplicationSettingsLoader;
+import com.microsoft.azure.oidc.application.settings.Secret;
+import com.microsoft.azure.oidc.application.settings.Tenant;
+import com.microsoft.azure.oidc.common.id.impl.SimpleIDFactory;
+import com.microsoft.azure.oidc.configuration.endpoint.impl.SimpleEndPointFactory;
+import com.microsoft.azure.oidc.metrics.MetricsService;
+
+public class SimpleGraphServiceTest {
+    private static final String TENANT = "contoso.onmicrosoft.com";
+    private static final String USER_ID = "user-1";
+    private static final String ADMINS_ID = "group-admins";
+    private static final String ADMINS = "admins";
+    private static final String READERS = "readers";
+
+    private WireMockServer graphServiceMock;
+    private SimpleGraphService graphService;
+
+    @Before
+    public void setUp() {
+        graphServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        graphServiceMock.start();
+        final String baseUrl = "http://localhost:" + graphServiceMock.port();
+
+        // The login and Graph endpoints are configurable, so both point at the mock server
+        final Tenant tenant = mock(Tenant.class);
+        when(tenant.getName()).thenReturn(TENANT);
+        final Secret principalSecret = mock(Secret.class);
+        when(principalSecret.getValue()).thenReturn("secret");
+        final ApplicationSettings applicationSettings = mock(ApplicationSettings.class);
+        when(applicationSettings.getTenant()).thenReturn(tenant);
+        when(applicationSettings.getPrincipalId()).thenReturn(SimpleIDFactory.getInstance().createID("principal"));
+        when(applicationSettings.getPrincipalSecret()).thenReturn(principalSecret);
+        when(applicationSettings.getLoginEndPoint())
+                .thenReturn(SimpleEndPointFactory.getInstance().createEndPoint(baseUrl + "/login"));
+        when(applicationSettings.getGraphEndPoint())
+                .thenReturn(SimpleEndPointFactory.getInstance().createEndPoint(baseUrl + "/graph"));
+        final ApplicationSettingsLoader applicationSettingsLoader = mock(ApplicationSettingsLoader.class);
+        when(applicationSettingsLoader.load()).thenReturn(applicationSettings);
+
+        graphService = new SimpleGraphService(applicationSettingsLoader, mock(MetricsService.class));
+
+        graphServiceMock.stubFor(post(urlPathEqualTo("/login/" + TENANT + "/oauth2/token"))
+                .willReturn(aResponse().withStatus(200)
+                        .withBody("{\"access_token\":\"graph-token\",\"expires_in\":3600}")));
+        graphServiceMock.stubFor(get(urlPathEqualTo("/graph/" + TENANT + "/groups"))
+                .withQueryParam("$filter", equalTo("displayName eq '" + ADMINS + "'"))
+                .willReturn(aResponse().withStatus(200)
+                        .withBody("{\"value\":[{\"objectId\":\"" + ADMINS_ID + "\"}]}")));
+        graphServiceMock.stubFor(get(urlPathEqualTo("/graph/" + TENANT + "/groups"))
+                .withQueryParam("$filter", equalTo("displayName eq '" + READERS + "'"))
+                .willReturn(aResponse().withStatus(200).withBody("{\"value\":[]}")));
+    }
+
+    @After
+    public void tearDown() {
+        graphService.shutdownNow();
+        graphServiceMock.stop();
+    }
+
+    @Test
+    public void testUserInRole() throws Exception {
+        graphServiceMock.stubFor(post(urlPathEqualTo("/graph/" + TENANT + "/isMemberOf"))
+                .withRequestBody(equalToJson("{\"groupId\":\"" + ADMINS_ID + "\",\"memberId\":\"" + USER_ID + "\"}"))
+                .willReturn(aResponse().withStatus(200).withBody("{\"value\":true}")));
+
+        assertTrue(graphService.isUserInRoleAsync(USER_ID, ADMINS).get(10, TimeUnit.SECONDS));
+        graphServiceMock.verify(postRequestedFor(urlPathEqualTo("/graph/" + TENANT + "/isMemberOf"))
+                .withHeader("Authorization", equalTo("Bearer graph-token")));
+        graphServiceMock.verify(postRequestedFor(urlPathEqualTo("/login/" + TENANT + "/oauth2/token"))
+                .withRequestBody(containing("client_id=principal")));
+    }
+
+    @Test
+    public void testUserInRolesChecksMemberGroups() throws Exception {
+        graphServiceMock.stubFor(post(urlPathEqualTo("/graph/" + TENANT + "/users/" + USER_ID + "/checkMemberGroups"))
+                .withRequestBody(equalToJson("{\"groupIds\":[\"" + ADMINS_ID + "\"]}"))
+                .willReturn(aResponse().withStatus(200).withBody("{\"value\":[\"" + ADMINS_ID + "\"]}")));
+
+        final Map<String, Boolean> roles = graphService.isUserInRolesAsync(USER_ID, Arrays.asList(ADMINS, READERS))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(Boolean.TRUE, roles.get(ADMINS));
+        // readers has no group, so it is not asked for
+        assertEquals(Boolean.FALSE, roles.get(READERS));
+
+        // The group ID is cached, and the bearer token is reused
+        assertTrue(graphService.isUserInRolesAsync(USER_ID, Arrays.asList(ADMINS)).get(10, TimeUnit.SECONDS)
+                .get(ADMINS));
+        graphServiceMock.verify(1, getRequestedFor(urlPathEqualTo("/graph/" + TENANT + "/groups"))
+                .withQueryParam("$filter", equalTo("displayName eq '" + ADMINS + "'")));
+        graphServiceMock.verify(1, postRequestedFor(urlPathEqualTo("/login/" + TENANT + "/oauth2/token")));
+    }
+
+    @Test
+    public void testErrorResponseIsNotInRole() throws Exception {
+        graphServiceMock.stubFor(post(urlPathEqualTo("/graph/" + TENANT + "/isMemberOf"))
+                .willReturn(aResponse().withStatus(503).withBody("{\"odata.error\":{\"code\":\"Unavailable\"}}")));
+
+        assertFalse(graphService.isUserInRoleAsync(USER_ID, ADMINS).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTokenErrorResponseIsNotInRole() throws Exception {
+        graphServiceMock.stubFor(post(urlPathEqualTo("/login/" + TENANT + "/oauth2/token"))
+                .willReturn(aResponse().withStatus(401).withBody("{\"error\":\"invalid_client\"}")));
+
+        assertFalse(graphService.isUserInRoleAsync(USER_ID, ADMINS).get(10, TimeUnit.SECONDS));
+        graphServiceMock.verify(0, getRequestedFor(urlPathEqualTo("/graph/" + TENANT + "/groups")));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.metrics.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesAreBucketUpperBounds() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int index = 0; index < 98; index++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(10L));
+        }
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(1000L));
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(100000L));
+
+        final Map<String, Long> metrics = snapshot(histogram);
+        assertEquals(Long.valueOf(100L), metrics.get("stage.count"));
+        assertEquals(Long.valueOf(98L * 10L + 1000L + 100000L), metrics.get("stage.totalMicros"));
+        assertEquals(Long.valueOf(100000L), metrics.get("stage.maxMicros"));
+        assertEquals(Long.valueOf(15L), metrics.get("stage.p50Micros"));
+        assertEquals(Long.valueOf(15L), metrics.get("stage.p90Micros"));
+        assertEquals(Long.valueOf(1023L), metrics.get("stage.p99Micros"));
+    }
+
+    @Test
+    public void testSubMicrosecondAndNegativeLatenciesFallInTheFirstBucket() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(500L);
+        histogram.record(-1L);
+
+        final Map<String, Long> metrics = snapshot(histogram);
+        assertEquals(Long.valueOf(2L), metrics.get("stage.count"));
+        assertEquals(Long.valueOf(0L), metrics.get("stage.p99Micros"));
+    }
+
+    @Test
+    public void testResetClearsEverything() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5L));
+        histogram.reset();
+
+        for (final Long value : snapshot(histogram).values()) {
+            assertEquals(Long.valueOf(0L), value);
+        }
+    }
+
+    private static Map<String, Long> snapshot(final LatencyHistogram histogram) {
+        final Map<String, Long> metrics = new HashMap<String, Long>();
+        histogram.snapshot("stage", metrics);
+        return metrics;
+    }
+}
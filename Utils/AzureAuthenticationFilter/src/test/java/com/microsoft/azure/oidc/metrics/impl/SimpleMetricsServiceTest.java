@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.metrics.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.microsoft.azure.oidc.metrics.MetricsService;
+import com.microsoft.azure.oidc.metrics.MetricsStage;
+
+public class SimpleMetricsServiceTest {
+    private static final String NAME = "SimpleMetricsServiceTest";
+
+    private final MetricsService metricsService = SimpleMetricsService.getInstance();
+
+    @Before
+    public void setUp() {
+        metricsService.reset();
+    }
+
+    @After
+    public void tearDown() {
+        metricsService.shutdownNow();
+        metricsService.reset();
+    }
+
+    @Test
+    public void testNothingIsRecordedWhileDisabled() {
+        metricsService.initialise(false, NAME);
+
+        assertEquals(0L, metricsService.start());
+        metricsService.stop(MetricsStage.REQUEST, metricsService.start());
+        metricsService.initialise(true, NAME);
+        metricsService.stop(MetricsStage.REQUEST, 0L);
+        assertEquals(Long.valueOf(0L), metricsService.getMetrics().get("request.count"));
+    }
+
+    @Test
+    public void testStagesAreRecordedAndPublishedWhileEnabled() throws Exception {
+        metricsService.initialise(true, NAME);
+        metricsService.stop(MetricsStage.GRAPH_CALL, metricsService.start());
+        metricsService.stop(MetricsStage.GRAPH_CALL, metricsService.start());
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName objectName = new ObjectName(
+                String.format("com.microsoft.azure.oidc:type=Metrics,name=%s", ObjectName.quote(NAME)));
+        assertTrue(server.isRegistered(objectName));
+        // an MXBean publishes the map as a table of key and value rows
+        final TabularData published = (TabularData) server.getAttribute(objectName, "Metrics");
+        assertEquals(2L, published.get(new Object[] { "graph_call.count" }).get("value"));
+        assertEquals(0L, published.get(new Object[] { "request.count" }).get("value"));
+
+        metricsService.shutdownNow();
+        assertFalse(server.isRegistered(objectName));
+        assertFalse(metricsService.isEnabled());
+    }
+}
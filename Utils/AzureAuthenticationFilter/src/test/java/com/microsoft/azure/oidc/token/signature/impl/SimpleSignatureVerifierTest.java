@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.oidc.token.signature.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.microsoft.azure.oidc.common.algorithm.Algorithm;
+import com.microsoft.azure.oidc.common.name.Name;
+import com.microsoft.azure.oidc.configuration.Configuration;
+import com.microsoft.azure.oidc.configuration.key.Key;
+import com.microsoft.azure.oidc.configuration.key.exponent.Exponent;
+import com.microsoft.azure.oidc.configuration.key.modulus.Modulus;
+import com.microsoft.azure.oidc.filter.configuration.algorithm.AlgorithmConfiguration;
+import com.microsoft.azure.oidc.filter.configuration.algorithm.AlgorithmConfigurationService;
+import com.microsoft.azure.oidc.token.Token;
+import com.microsoft.azure.oidc.token.payload.Payload;
+
+public class SimpleSignatureVerifierTest {
+    private static final String ALGORITHM = "RS256";
+    private static final String PAYLOAD = "eyJhbGciOiJSUzI1NiJ9.eyJzdWIiOiJ1c2VyIn0";
+
+    private final Name oldKeyName = mock(Name.class);
+    private final Name newKeyName = mock(Name.class);
+
+    private KeyPair oldKeyPair;
+    private KeyPair newKeyPair;
+    private Configuration oldConfiguration;
+    private Configuration newConfiguration;
+    private SimpleSignatureVerifier verifier;
+
+    @Before
+    public void setUp() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        oldKeyPair = generator.generateKeyPair();
+        newKeyPair = generator.generateKeyPair();
+        oldConfiguration = createConfiguration(Collections.singletonMap(oldKeyName, createKey(oldKeyPair)));
+        final Map<Name, Key> rotatedKeys = new HashMap<Name, Key>();
+        rotatedKeys.put(newKeyName, createKey(newKeyPair));
+        newConfiguration = createConfiguration(rotatedKeys);
+
+        final Map<String, String> algorithmMap = Collections.singletonMap(ALGORITHM, "SHA256withRSA");
+        final Map<String, String> algorithmClassMap = Collections.singletonMap(ALGORITHM, "RSA");
+        final AlgorithmConfiguration algorithmConfiguration = mock(AlgorithmConfiguration.class);
+        when(algorithmConfiguration.getAlgorithmMap()).thenReturn(algorithmMap);
+        when(algorithmConfiguration.getAlgorithmClassMap()).thenReturn(algorithmClassMap);
+        final AlgorithmConfigurationService algorithmConfigurationService = mock(AlgorithmConfigurationService.class);
+        when(algorithmConfigurationService.get()).thenReturn(algorithmConfiguration);
+        verifier = new SimpleSignatureVerifier(algorithmConfigurationService);
+    }
+
+    @Test
+    public void testKeyRotation() throws Exception {
+        final Token oldToken = createToken(oldKeyName, oldKeyPair);
+        final Token newToken = createToken(newKeyName, newKeyPair);
+
+        verifier.initialise(oldConfiguration);
+        assertTrue(verifier.verify(oldConfiguration, oldToken));
+        assertFalse(verifier.verify(oldConfiguration, newToken));
+
+        verifier.initialise(newConfiguration);
+        assertTrue(verifier.verify(newConfiguration, newToken));
+        assertFalse(verifier.verify(newConfiguration, oldToken));
+    }
+
+    @Test
+    public void testVerifyBuildsTheKeysOfAnUnknownConfiguration() throws Exception {
+        verifier.initialise(oldConfiguration);
+
+        assertTrue(verifier.verify(newConfiguration, createToken(newKeyName, newKeyPair)));
+        assertTrue(verifier.verify(oldConfiguration, createToken(oldKeyName, oldKeyPair)));
+    }
+
+    @Test
+    public void testConcurrentRefresh() throws Exception {
+        final Token oldToken = createToken(oldKeyName, oldKeyPair);
+        final Token newToken = createToken(newKeyName, newKeyPair);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final ExecutorService executorService = Executors.newFixedThreadPool(5);
+        try {
+            final Future<?> refresher = executorService.submit(new Runnable() {
+                @Override
+                public void run() {
+                    boolean rotated = false;
+                    while (running.get()) {
+                        verifier.initialise(rotated ? newConfiguration : oldConfiguration);
+                        rotated = !rotated;
+                    }
+                }
+            });
+            final List<Future<Integer>> verifications = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 4; i++) {
+                final boolean rotated = i % 2 == 0;
+                verifications.add(executorService.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        int rejected = 0;
+                        for (int j = 0; j < 500; j++) {
+                            final Boolean verified = rotated ? verifier.verify(newConfiguration, newToken)
+                                    : verifier.verify(oldConfiguration, oldToken);
+                            if (!verified) {
+                                rejected++;
+                            }
+                        }
+                        return rejected;
+                    }
+                }));
+            }
+            for (final Future<Integer> verification : verifications) {
+                assertEquals(Integer.valueOf(0), verification.get(30, TimeUnit.SECONDS));
+            }
+            running.set(false);
+            refresher.get(30, TimeUnit.SECONDS);
+        } finally {
+            running.set(false);
+            executorService.shutdownNow();
+        }
+    }
+
+    private static Configuration createConfiguration(final Map<Name, Key> keys) {
+        final Configuration configuration = mock(Configuration.class);
+        when(configuration.getKeys()).thenReturn(keys);
+        return configuration;
+    }
+
+    private static Key createKey(final KeyPair keyPair) {
+        final RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        final Modulus modulus = mock(Modulus.class);
+        when(modulus.getValue()).thenReturn(Base64.encodeBase64URLSafeString(publicKey.getModulus().toByteArray()));
+        final Exponent exponent = mock(Exponent.class);
+        when(exponent.getValue())
+                .thenReturn(Base64.encodeBase64URLSafeString(publicKey.getPublicExponent().toByteArray()));
+        final Key key = mock(Key.class);
+        when(key.getSecret()).thenReturn(modulus);
+        when(key.getExponent()).thenReturn(exponent);
+        return key;
+    }
+
+    private static Token createToken(final Name keyName, final KeyPair keyPair) throws Exception {
+        final java.security.Signature signer = java.security.Signature.getInstance("SHA256withRSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(PAYLOAD.getBytes());
+        final String signatureValue = Base64.encodeBase64URLSafeString(signer.sign());
+
+        final Algorithm algorithm = mock(Algorithm.class);
+        when(algorithm.getName()).thenReturn(ALGORITHM);
+        final Payload payload = mock(Payload.class);
+        when(payload.getValue()).thenReturn(PAYLOAD);
+        final com.microsoft.azure.oidc.token.signature.Signature signature = mock(
+                com.microsoft.azure.oidc.token.signature.Signature.class);
+        when(signature.getValue()).thenReturn(signatureValue);
+        final Token token = mock(Token.class);
+        when(token.getKeyName()).thenReturn(keyName);
+        when(token.getAlgorithm()).thenReturn(algorithm);
+        when(token.getPayload()).thenReturn(payload);
+        when(token.getSignature()).thenReturn(signature);
+        return token;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.tooling.msservices.helpers.azure.sdk;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockSearchMode;
+import com.microsoft.azure.storage.blob.CloudBlob;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+import com.microsoft.azure.storage.core.Base64;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import com.microsoft.tooling.msservices.helpers.CallableSingleArg;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transfers a blob in blocks of a fixed size, several blocks at the same time. The blocks are read from or written to
+ * the local file at their positions, so only the blocks being transferred are kept in memory.
+ */
+class BlobParallelTransfer {
+    static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+    static final int DEFAULT_PARALLELISM = 4;
+    static final int DEFAULT_BLOCK_RETRIES = 3;
+
+    private static final long RETRY_INTERVAL_MS = 1000;
+
+    private static final AtomicInteger transfersCount = new AtomicInteger();
+
+    // Each download task gets its own blob reference, since a CloudBlob updates its properties on every request
+    interface BlobReference {
+        @NotNull
+        CloudBlob get() throws URISyntaxException, StorageException;
+    }
+
+    private interface BlockTransfer {
+        void run() throws Exception;
+    }
+
+    private final int blockSize;
+
+    private final int parallelism;
+
+    private final int blockRetries;
+
+    @Nullable
+    private final CallableSingleArg<Void, Long> processBlock;
+
+    private long transferredBytes = 0;
+
+    BlobParallelTransfer(int blockSize,
+                         int parallelism,
+                         int blockRetries,
+                         @Nullable CallableSingleArg<Void, Long> processBlock) {
+        if (blockSize <= 0 || parallelism <= 0 || blockRetries < 0) {
+            throw new IllegalArgumentException("Block size and parallelism should be positive");
+        }
+
+        this.blockSize = blockSize;
+        this.parallelism = parallelism;
+        this.blockRetries = blockRetries;
+        this.processBlock = processBlock;
+    }
+
+    BlobParallelTransfer(@Nullable CallableSingleArg<Void, Long> processBlock) {
+        this(DEFAULT_BLOCK_SIZE, DEFAULT_PARALLELISM, DEFAULT_BLOCK_RETRIES, processBlock);
+    }
+
+    /**
+     * Upload the file as uncommitted blocks, and commit the block list in the file order after all blocks are uploaded
+     */
+    void upload(@NotNull CloudBlockBlob blob, @NotNull File src) throws Exception {
+        try (FileChannel channel = FileChannel.open(src.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            final String uploadId = UUID.randomUUID().toString();
+            final List<BlockEntry> blockEntries = new ArrayList<>();
+            final List<Callable<Void>> tasks = new ArrayList<>();
+
+            for (long position = 0; position < length; position += blockSize) {
+                final long blockPosition = position;
+                final int size = (int) Math.min(blockSize, length - position);
+
+                // Block IDs of a blob should have the same length
+                final String blockId = Base64.encode(String.format("%s-%012d", uploadId, blockEntries.size())
+                                                             .getBytes(StandardCharsets.UTF_8));
+                final BlockEntry entry = new BlockEntry(blockId, BlockSearchMode.UNCOMMITTED);
+                entry.setSize(size);
+                blockEntries.add(entry);
+
+                tasks.add(() -> {
+                    final byte[] block = readBlock(channel, blockPosition, size);
+
+                    retry(() -> blob.uploadBlock(blockId, new ByteArrayInputStream(block), size));
+                    onBlockTransferred(size);
+
+                    return null;
+                });
+            }
+
+            runAll(tasks);
+            blob.commitBlockList(blockEntries);
+        }
+    }
+
+    /**
+     * Download the blob into the file, which is allocated to the blob length first and then filled by range requests
+     */
+    void download(@NotNull BlobReference blobReference, @NotNull File dest) throws Exception {
+        final CloudBlob blob = blobReference.get();
+        blob.downloadAttributes();
+
+        final long length = blob.getProperties().getLength();
+
+        // Fail the ranges instead of mixing two versions if the blob is overwritten during the download
+        final AccessCondition sameVersion = AccessCondition.generateIfMatchCondition(blob.getProperties().getEtag());
+
+        try (RandomAccessFile file = new RandomAccessFile(dest, "rw")) {
+            file.setLength(length);
+
+            final FileChannel channel = file.getChannel();
+            final List<Callable<Void>> tasks = new ArrayList<>();
+
+            for (long position = 0; position < length; position += blockSize) {
+                final long blockPosition = position;
+                final int size = (int) Math.min(blockSize, length - position);
+
+                tasks.add(() -> {
+                    final CloudBlob rangeBlob = blobReference.get();
+                    final byte[] block = new byte[size];
+
+                    retry(() -> {
+                        final int read = rangeBlob.downloadRangeToByteArray(
+                                blockPosition, (long) size, block, 0, sameVersion, null, null);
+                        if (read != size) {
+                            throw new EOFException(String.format(
+                                    "Got %d bytes of the range at %d, expected %d", read, blockPosition, size));
+                        }
+                    });
+                    writeBlock(channel, blockPosition, block);
+                    onBlockTransferred(size);
+
+                    return null;
+                });
+            }
+
+            runAll(tasks);
+        }
+    }
+
+    private void runAll(@NotNull List<Callable<Void>> tasks) throws Exception {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        final int transferId = transfersCount.incrementAndGet();
+        final AtomicInteger threadsCount = new AtomicInteger();
+        final ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()), runnable -> {
+            final Thread thread = new Thread(
+                    runnable, String.format("Blob transfer %d-%d", transferId, threadsCount.incrementAndGet()));
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        try {
+            final List<Future<Void>> futures = new ArrayList<>(tasks.size());
+            for (Callable<Void> task : tasks) {
+                futures.add(pool.submit(task));
+            }
+
+            // Stop at the first failed block, the rest are cancelled by the shutdownNow() below
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void retry(@NotNull BlockTransfer transfer) throws Exception {
+        for (int retries = 0; ; retries++) {
+            try {
+                transfer.run();
+
+                return;
+            } catch (StorageException | IOException ex) {
+                if (retries >= blockRetries || isPreconditionFailed(ex) || Thread.currentThread().isInterrupted()) {
+                    throw ex;
+                }
+
+                Thread.sleep(RETRY_INTERVAL_MS * (retries + 1));
+            }
+        }
+    }
+
+    // The blob is changed, retrying the same condition fails again
+    private static boolean isPreconditionFailed(@NotNull Exception ex) {
+        return ex instanceof StorageException
+                && ((StorageException) ex).getHttpStatusCode() == HttpURLConnection.HTTP_PRECON_FAILED;
+    }
+
+    private synchronized void onBlockTransferred(int size) throws Exception {
+        transferredBytes += size;
+
+        if (processBlock != null) {
+            processBlock.call(transferredBytes);
+        }
+    }
+
+    @NotNull
+    private static byte[] readBlock(@NotNull FileChannel channel, long position, int size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("The file is truncated during uploading");
+            }
+        }
+
+        return buffer.array();
+    }
+
+    private static void writeBlock(@NotNull FileChannel channel, long position, @NotNull byte[] block)
+            throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(block);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
@@ -23,7 +23,10 @@
 package com.microsoft.tooling.msservices.helpers.azure.sdk;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.microsoft.azure.storage.CloudStorageAccount;
+import com.microsoft.azure.storage.ResultSegment;
 import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.blob.*;
 import com.microsoft.azure.storage.core.Base64;
@@ -34,6 +37,7 @@ import com.microsoft.azure.storage.queue.CloudQueueMessage;
 import com.microsoft.azure.storage.queue.QueueListingDetails;
 import com.microsoft.azure.storage.table.*;
 import com.microsoft.tooling.msservices.helpers.CallableSingleArg;
+import com.microsoft.tooling.msservices.helpers.ParallelExecutor;
 import com.microsoft.tooling.msservices.model.storage.BlobContainer;
 import com.microsoft.tooling.msservices.model.storage.BlobDirectory;
 import com.microsoft.tooling.msservices.model.storage.BlobFile;
@@ -49,21 +53,62 @@ import com.microsoft.azuretools.azurecommons.helpers.AzureCmdException;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import com.microsoft.azuretools.utils.StorageAccoutUtils;
+import rx.Observable;
+import rx.observables.SyncOnSubscribe;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class StorageClientSDKManager {
+    private static final int MAX_CACHED_CONNECTIONS = 100;
+
+    // The service returns up to 1000 entities for a query request
+    private static final int MAX_TABLE_PAGE_SIZE = 1000;
+
+    private static final int MAX_TABLE_BATCH_SIZE = 100;
+
     private static StorageClientSDKManager apiManager;
 
+    // connection string -> container name -> permissions of the container, revalidated against its ETag
+    private final Cache<String, ConcurrentMap<String, BlobContainerPermissionsEntry>> containerPermissionsCache =
+            CacheBuilder.newBuilder()
+                    .maximumSize(MAX_CACHED_CONNECTIONS)
+                    .build();
+
     private StorageClientSDKManager() {
     }
 
+    private static final class BlobContainerPermissionsEntry {
+        private final String eTag;
+        private final String publicReadAccessType;
+        private final List<String> storedAccessPolicies;
+
+        private BlobContainerPermissionsEntry(@NotNull String eTag, @Nullable BlobContainerPermissions permissions) {
+            this.eTag = eTag;
+
+            if (permissions != null && permissions.getPublicAccess() != null) {
+                this.publicReadAccessType = permissions.getPublicAccess().toString();
+            } else {
+                this.publicReadAccessType = BlobContainerPublicAccessType.OFF.toString();
+            }
+
+            if (permissions != null && permissions.getSharedAccessPolicies() != null) {
+                this.storedAccessPolicies = Collections.unmodifiableList(
+                        new ArrayList<>(new TreeSet<>(permissions.getSharedAccessPolicies().keySet())));
+            } else {
+                this.storedAccessPolicies = Collections.emptyList();
+            }
+        }
+    }
+
     @NotNull
     public static StorageClientSDKManager getManager() {
         if (apiManager == null) {
@@ -134,11 +179,12 @@ public class StorageClientSDKManager {
                     }
                 }
 
-                String publicReadAccessType = "";
-                BlobContainerPermissions blobContainerPermissions = container.downloadPermissions();
+                // The listing has the public access level already. A private container has none there, and is
+                // reported as OFF, the level downloadPermissions() gave it before.
+                String publicReadAccessType = BlobContainerPublicAccessType.OFF.toString();
 
-                if (blobContainerPermissions != null && blobContainerPermissions.getPublicAccess() != null) {
-                    publicReadAccessType = blobContainerPermissions.getPublicAccess().toString();
+                if (properties != null && properties.getPublicAccess() != null) {
+                    publicReadAccessType = properties.getPublicAccess().toString();
                 }
 
                 bcList.add(new BlobContainer(Strings.nullToEmpty(container.getName()),
@@ -155,6 +201,49 @@ public class StorageClientSDKManager {
 
     }
 
+    /**
+     * Load the permissions of the given containers, for the containers shown only. The permissions are fetched
+     * concurrently, and cached per connection string until the container ETag changes.
+     */
+    public void loadBlobContainerPermissions(@NotNull String connectionString,
+                                             @NotNull List<BlobContainer> blobContainers)
+            throws AzureCmdException {
+        final CloudBlobClient client;
+        final ConcurrentMap<String, BlobContainerPermissionsEntry> entries;
+        try {
+            client = getCloudBlobClient(connectionString);
+            entries = containerPermissionsCache.get(connectionString, ConcurrentHashMap::new);
+        } catch (Throwable t) {
+            throw new AzureCmdException("Error retrieving the Blob Container permissions", t);
+        }
+
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+        ParallelExecutor.For(blobContainers, blobContainer -> {
+            try {
+                BlobContainerPermissionsEntry entry = entries.get(blobContainer.getName());
+
+                // Changing the container ACL changes its ETag, so a matching entry is still valid
+                if (entry == null || !entry.eTag.equals(blobContainer.getETag())) {
+                    final BlobContainerPermissions permissions =
+                            client.getContainerReference(blobContainer.getName()).downloadPermissions();
+
+                    entry = new BlobContainerPermissionsEntry(blobContainer.getETag(), permissions);
+                    entries.put(blobContainer.getName(), entry);
+                }
+
+                blobContainer.setPublicReadAccessType(entry.publicReadAccessType);
+                blobContainer.setStoredAccessPolicies(entry.storedAccessPolicies);
+            } catch (Throwable t) {
+                errors.add(t);
+            }
+        });
+
+        if (!errors.isEmpty()) {
+            throw new AzureCmdException("Error retrieving the Blob Container permissions", errors.get(0));
+        }
+    }
+
     @NotNull
     public BlobContainer createBlobContainer(@NotNull String connectionString,
                                              @NotNull BlobContainer blobContainer)
@@ -240,62 +329,153 @@ public class StorageClientSDKManager {
             CloudBlobDirectory directory = container.getDirectoryReference(blobDirectory.getPath());
 
             for (ListBlobItem item : directory.listBlobs()) {
-                String uri = item.getUri() != null ? item.getUri().toString() : "";
-
-                if (item instanceof CloudBlobDirectory) {
-                    CloudBlobDirectory subDirectory = (CloudBlobDirectory) item;
-
-                    String name = extractBlobItemName(subDirectory.getPrefix(), delimiter);
-                    String path = Strings.nullToEmpty(subDirectory.getPrefix());
-
-                    biList.add(new BlobDirectory(name, uri, containerName, path));
-                } else if (item instanceof CloudBlob) {
-                    CloudBlob blob = (CloudBlob) item;
-
-                    String name = extractBlobItemName(blob.getName(), delimiter);
-                    String path = Strings.nullToEmpty(blob.getName());
-                    String type = "";
-                    String cacheControlHeader = "";
-                    String contentEncoding = "";
-                    String contentLanguage = "";
-                    String contentType = "";
-                    String contentMD5Header = "";
-                    String eTag = "";
-                    Calendar lastModified = new GregorianCalendar();
-                    long size = 0;
-
-                    BlobProperties properties = blob.getProperties();
-
-                    if (properties != null) {
-                        if (properties.getBlobType() != null) {
-                            type = properties.getBlobType().toString();
-                        }
+                BlobItem blobItem = toBlobItem(item, containerName, delimiter);
 
-                        cacheControlHeader = Strings.nullToEmpty(properties.getCacheControl());
-                        contentEncoding = Strings.nullToEmpty(properties.getContentEncoding());
-                        contentLanguage = Strings.nullToEmpty(properties.getContentLanguage());
-                        contentType = Strings.nullToEmpty(properties.getContentType());
-                        contentMD5Header = Strings.nullToEmpty(properties.getContentMD5());
-                        eTag = Strings.nullToEmpty(properties.getEtag());
+                if (blobItem != null) {
+                    biList.add(blobItem);
+                }
+            }
 
-                        if (properties.getLastModified() != null) {
-                            lastModified.setTime(properties.getLastModified());
-                        }
+            return biList;
+        } catch (Throwable t) {
+            throw new AzureCmdException("Error retrieving the Blob Item list", t);
+        }
+    }
 
-                        size = properties.getLength();
-                    }
+    /**
+     * List a page of the blob items in the directory
+     *
+     * @param namePrefix   only list the items whose names start with it, filtered by the service
+     * @param previousPage the page listed before, or null for the first page
+     * @param pageSize     the max number of items of the page
+     */
+    @NotNull
+    public BlobItemPage getBlobItemPage(@NotNull String connectionString,
+                                        @NotNull BlobDirectory blobDirectory,
+                                        @Nullable String namePrefix,
+                                        @Nullable BlobItemPage previousPage,
+                                        int pageSize)
+            throws AzureCmdException {
+        try {
+            CloudBlobClient client = getCloudBlobClient(connectionString);
+            String containerName = blobDirectory.getContainerName();
+            String delimiter = client.getDirectoryDelimiter();
+
+            CloudBlobContainer container = client.getContainerReference(containerName);
+
+            ResultSegment<ListBlobItem> segment = container.listBlobsSegmented(
+                    blobDirectory.getPath() + Strings.nullToEmpty(namePrefix),
+                    false,
+                    EnumSet.noneOf(BlobListingDetails.class),
+                    pageSize,
+                    previousPage == null ? null : previousPage.getContinuation(),
+                    null,
+                    null);
+
+            List<BlobItem> biList = new ArrayList<BlobItem>(segment.getLength());
 
-                    biList.add(new BlobFile(name, uri, containerName, path, type, cacheControlHeader, contentEncoding,
-                            contentLanguage, contentType, contentMD5Header, eTag, lastModified, size));
+            for (ListBlobItem item : segment.getResults()) {
+                BlobItem blobItem = toBlobItem(item, containerName, delimiter);
+
+                if (blobItem != null) {
+                    biList.add(blobItem);
                 }
             }
 
-            return biList;
+            return new BlobItemPage(biList, segment.getHasMoreResults() ? segment.getContinuationToken() : null);
         } catch (Throwable t) {
             throw new AzureCmdException("Error retrieving the Blob Item list", t);
         }
     }
 
+    /**
+     * List the blob items in the directory page by page, a page is only requested from the service when the
+     * subscriber requests it
+     */
+    @NotNull
+    public Observable<BlobItemPage> getBlobItemPages(@NotNull String connectionString,
+                                                     @NotNull BlobDirectory blobDirectory,
+                                                     @Nullable String namePrefix,
+                                                     int pageSize) {
+        return Observable.create(SyncOnSubscribe.<BlobItemPage, BlobItemPage>createStateful(
+                () -> null,
+                (previousPage, observer) -> {
+                    try {
+                        BlobItemPage page = getBlobItemPage(
+                                connectionString, blobDirectory, namePrefix, previousPage, pageSize);
+
+                        observer.onNext(page);
+
+                        if (!page.hasNextPage()) {
+                            observer.onCompleted();
+                        }
+
+                        return page;
+                    } catch (AzureCmdException ex) {
+                        observer.onError(ex);
+
+                        return previousPage;
+                    }
+                }));
+    }
+
+    @Nullable
+    private static BlobItem toBlobItem(@NotNull ListBlobItem item,
+                                       @NotNull String containerName,
+                                       @Nullable String delimiter)
+            throws URISyntaxException, StorageException {
+        String uri = item.getUri() != null ? item.getUri().toString() : "";
+
+        if (item instanceof CloudBlobDirectory) {
+            CloudBlobDirectory subDirectory = (CloudBlobDirectory) item;
+
+            String name = extractBlobItemName(subDirectory.getPrefix(), delimiter);
+            String path = Strings.nullToEmpty(subDirectory.getPrefix());
+
+            return new BlobDirectory(name, uri, containerName, path);
+        } else if (item instanceof CloudBlob) {
+            CloudBlob blob = (CloudBlob) item;
+
+            String name = extractBlobItemName(blob.getName(), delimiter);
+            String path = Strings.nullToEmpty(blob.getName());
+            String type = "";
+            String cacheControlHeader = "";
+            String contentEncoding = "";
+            String contentLanguage = "";
+            String contentType = "";
+            String contentMD5Header = "";
+            String eTag = "";
+            long lastModifiedTime = System.currentTimeMillis();
+            long size = 0;
+
+            BlobProperties properties = blob.getProperties();
+
+            if (properties != null) {
+                if (properties.getBlobType() != null) {
+                    type = properties.getBlobType().toString();
+                }
+
+                cacheControlHeader = Strings.nullToEmpty(properties.getCacheControl());
+                contentEncoding = Strings.nullToEmpty(properties.getContentEncoding());
+                contentLanguage = Strings.nullToEmpty(properties.getContentLanguage());
+                contentType = Strings.nullToEmpty(properties.getContentType());
+                contentMD5Header = Strings.nullToEmpty(properties.getContentMD5());
+                eTag = Strings.nullToEmpty(properties.getEtag());
+
+                if (properties.getLastModified() != null) {
+                    lastModifiedTime = properties.getLastModified().getTime();
+                }
+
+                size = properties.getLength();
+            }
+
+            return new BlobFile(name, uri, containerName, path, type, cacheControlHeader, contentEncoding,
+                    contentLanguage, contentType, contentMD5Header, eTag, lastModifiedTime, size);
+        }
+
+        return null;
+    }
+
     @NotNull
     public BlobDirectory createBlobDirectory(@NotNull StorageAccount storageAccount,
                                              @NotNull BlobDirectory parentBlobDirectory,
@@ -405,6 +585,27 @@ public class StorageClientSDKManager {
         }
     }
 
+    /**
+     * Upload the file in blocks, several blocks at the same time
+     *
+     * @param processBlock called with the uploaded bytes after each block is uploaded
+     */
+    public void uploadBlobFileContent(@NotNull String connectionString,
+                                      @NotNull BlobContainer blobContainer,
+                                      @NotNull String filePath,
+                                      @NotNull File file,
+                                      @Nullable CallableSingleArg<Void, Long> processBlock)
+            throws AzureCmdException {
+        try {
+            CloudBlobClient client = getCloudBlobClient(connectionString);
+            CloudBlobContainer container = client.getContainerReference(blobContainer.getName());
+
+            new BlobParallelTransfer(processBlock).upload(container.getBlockBlobReference(filePath), file);
+        } catch (Throwable t) {
+            throw new AzureCmdException("Error uploading the Blob File content", t);
+        }
+    }
+
     public void downloadBlobFileContent(@NotNull String connectionString,
                                         @NotNull BlobFile blobFile,
                                         @NotNull OutputStream content)
@@ -423,6 +624,26 @@ public class StorageClientSDKManager {
         }
     }
 
+    /**
+     * Download the blob into the file by ranges, several ranges at the same time
+     *
+     * @param processBlock called with the downloaded bytes after each range is downloaded
+     */
+    public void downloadBlobFileContent(@NotNull String connectionString,
+                                        @NotNull BlobFile blobFile,
+                                        @NotNull File file,
+                                        @Nullable CallableSingleArg<Void, Long> processBlock)
+            throws AzureCmdException {
+        try {
+            CloudBlobClient client = getCloudBlobClient(connectionString);
+            CloudBlobContainer container = client.getContainerReference(blobFile.getContainerName());
+
+            new BlobParallelTransfer(processBlock).download(() -> getCloudBlob(container, blobFile), file);
+        } catch (Throwable t) {
+            throw new AzureCmdException("Error downloading the Blob File content", t);
+        }
+    }
+
     @NotNull
     public List<Queue> getQueues(@NotNull StorageAccount storageAccount)
             throws AzureCmdException {
@@ -647,30 +868,99 @@ public class StorageClientSDKManager {
             throws AzureCmdException {
         List<TableEntity> teList = new ArrayList<TableEntity>();
 
+        TableEntityPage page = null;
+        do {
+            page = getTableEntityPage(storageAccount, table, filter, null, page, MAX_TABLE_PAGE_SIZE);
+            teList.addAll(page.getEntities());
+        } while (page.hasNextPage());
+
+        return teList;
+    }
+
+    /**
+     * Query a page of the table entities
+     *
+     * @param filter       the query filter, or empty for all entities
+     * @param columns      the properties to return besides the keys and timestamp, or null for all
+     * @param previousPage the page queried before, or null for the first page
+     * @param pageSize     the max number of entities of the page, up to 1000
+     */
+    @NotNull
+    public TableEntityPage getTableEntityPage(@NotNull StorageAccount storageAccount,
+                                              @NotNull Table table,
+                                              @NotNull String filter,
+                                              @Nullable List<String> columns,
+                                              @Nullable TableEntityPage previousPage,
+                                              int pageSize)
+            throws AzureCmdException {
         try {
             CloudTableClient client = getCloudTableClient(storageAccount);
             String tableName = table.getName();
             CloudTable cloudTable = client.getTableReference(tableName);
 
-            TableQuery<DynamicTableEntity> tableQuery = TableQuery.from(DynamicTableEntity.class);
+            TableQuery<DynamicTableEntity> tableQuery = TableQuery.from(DynamicTableEntity.class)
+                    .take(Math.min(pageSize, MAX_TABLE_PAGE_SIZE));
 
             if (!filter.isEmpty()) {
                 tableQuery.where(filter);
             }
 
-            TableRequestOptions tro = new TableRequestOptions();
-            tro.setTablePayloadFormat(TablePayloadFormat.JsonFullMetadata);
-
-            for (DynamicTableEntity dte : cloudTable.execute(tableQuery, tro, null)) {
-                teList.add(getTableEntity(tableName, dte));
+            if (columns != null) {
+                tableQuery.select(columns.toArray(new String[0]));
             }
 
-            return teList;
+            // The minimal metadata still has the types which can't be told from the JSON values, such as DateTime,
+            // Guid and Int64, but drops the links and IDs of every entity
+            TableRequestOptions tro = new TableRequestOptions();
+            tro.setTablePayloadFormat(TablePayloadFormat.Json);
+
+            ResultSegment<TableEntity> segment = cloudTable.executeSegmented(
+                    tableQuery,
+                    (partitionKey, rowKey, timestamp, properties, eTag) ->
+                            getTableEntity(tableName, partitionKey, rowKey, timestamp, properties, eTag),
+                    previousPage == null ? null : previousPage.getContinuation(),
+                    tro,
+                    null);
+
+            return new TableEntityPage(segment.getResults(),
+                                       segment.getHasMoreResults() ? segment.getContinuationToken() : null);
         } catch (Throwable t) {
             throw new AzureCmdException("Error retrieving the Table Entity list", t);
         }
     }
 
+    /**
+     * Query the table entities page by page, a page is only requested from the service when the subscriber
+     * requests it
+     */
+    @NotNull
+    public Observable<TableEntityPage> getTableEntityPages(@NotNull StorageAccount storageAccount,
+                                                           @NotNull Table table,
+                                                           @NotNull String filter,
+                                                           @Nullable List<String> columns,
+                                                           int pageSize) {
+        return Observable.create(SyncOnSubscribe.<TableEntityPage, TableEntityPage>createStateful(
+                () -> null,
+                (previousPage, observer) -> {
+                    try {
+                        TableEntityPage page = getTableEntityPage(
+                                storageAccount, table, filter, columns, previousPage, pageSize);
+
+                        observer.onNext(page);
+
+                        if (!page.hasNextPage()) {
+                            observer.onCompleted();
+                        }
+
+                        return page;
+                    } catch (AzureCmdException ex) {
+                        observer.onError(ex);
+
+                        return previousPage;
+                    }
+                }));
+    }
+
     @NotNull
     public TableEntity createTableEntity(@NotNull StorageAccount storageAccount, @NotNull String tableName,
                                          @NotNull String partitionKey, @NotNull String rowKey,
@@ -732,6 +1022,88 @@ public class StorageClientSDKManager {
         }
     }
 
+    /**
+     * Replace the entities, in entity group transactions of up to 100 entities of the same partition.
+     * The entities get the new ETags.
+     */
+    public void updateTableEntities(@NotNull StorageAccount storageAccount,
+                                    @NotNull String tableName,
+                                    @NotNull Collection<TableEntity> tableEntities)
+            throws AzureCmdException {
+        try {
+            CloudTableClient client = getCloudTableClient(storageAccount);
+            CloudTable cloudTable = client.getTableReference(tableName);
+
+            TableRequestOptions tro = new TableRequestOptions();
+            tro.setTablePayloadFormat(TablePayloadFormat.Json);
+
+            for (List<TableEntity> batch : getTableEntityBatches(tableEntities)) {
+                TableBatchOperation batchOperation = new TableBatchOperation();
+
+                for (TableEntity tableEntity : batch) {
+                    batchOperation.replace(getDynamicTableEntity(tableEntity));
+                }
+
+                List<TableResult> results = cloudTable.execute(batchOperation, tro, null);
+
+                for (int i = 0; i < batch.size() && i < results.size(); i++) {
+                    batch.get(i).setETag(Strings.nullToEmpty(results.get(i).getEtag()));
+                }
+            }
+        } catch (Throwable t) {
+            throw new AzureCmdException("Error updating the Table Entities", t);
+        }
+    }
+
+    /**
+     * Delete the entities, in entity group transactions of up to 100 entities of the same partition
+     */
+    public void deleteTableEntities(@NotNull StorageAccount storageAccount,
+                                    @NotNull String tableName,
+                                    @NotNull Collection<TableEntity> tableEntities)
+            throws AzureCmdException {
+        try {
+            CloudTableClient client = getCloudTableClient(storageAccount);
+            CloudTable cloudTable = client.getTableReference(tableName);
+
+            TableRequestOptions tro = new TableRequestOptions();
+            tro.setTablePayloadFormat(TablePayloadFormat.Json);
+
+            for (List<TableEntity> batch : getTableEntityBatches(tableEntities)) {
+                TableBatchOperation batchOperation = new TableBatchOperation();
+
+                for (TableEntity tableEntity : batch) {
+                    batchOperation.delete(getDynamicTableEntity(tableEntity));
+                }
+
+                cloudTable.execute(batchOperation, tro, null);
+            }
+        } catch (Throwable t) {
+            throw new AzureCmdException("Error deleting the Table Entities", t);
+        }
+    }
+
+    // An entity group transaction takes up to 100 entities of the same partition
+    @NotNull
+    static List<List<TableEntity>> getTableEntityBatches(@NotNull Collection<TableEntity> tableEntities) {
+        Map<String, List<TableEntity>> partitions = new LinkedHashMap<String, List<TableEntity>>();
+
+        for (TableEntity tableEntity : tableEntities) {
+            partitions.computeIfAbsent(tableEntity.getPartitionKey(), key -> new ArrayList<TableEntity>())
+                      .add(tableEntity);
+        }
+
+        List<List<TableEntity>> batches = new ArrayList<List<TableEntity>>();
+
+        for (List<TableEntity> partition : partitions.values()) {
+            for (int start = 0; start < partition.size(); start += MAX_TABLE_BATCH_SIZE) {
+                batches.add(partition.subList(start, Math.min(partition.size(), start + MAX_TABLE_BATCH_SIZE)));
+            }
+        }
+
+        return batches;
+    }
+
     @NotNull
     public static String getConnectionString(StorageAccount storageAccount) {
         String accountName = storageAccount.name();
@@ -887,20 +1259,31 @@ public class StorageClientSDKManager {
     @NotNull
     private static TableEntity getTableEntity(@NotNull String tableName,
                                               @NotNull DynamicTableEntity dte) {
-        String partitionKey = Strings.nullToEmpty(dte.getPartitionKey());
-        String rowKey = Strings.nullToEmpty(dte.getRowKey());
-        String eTag = Strings.nullToEmpty(dte.getEtag());
+        return getTableEntity(tableName, dte.getPartitionKey(), dte.getRowKey(), dte.getTimestamp(),
+                dte.getProperties(), dte.getEtag());
+    }
+
+    @NotNull
+    private static TableEntity getTableEntity(@NotNull String tableName,
+                                              @Nullable String entityPartitionKey,
+                                              @Nullable String entityRowKey,
+                                              @Nullable Date entityTimestamp,
+                                              @Nullable Map<String, EntityProperty> entityProperties,
+                                              @Nullable String entityETag) {
+        String partitionKey = Strings.nullToEmpty(entityPartitionKey);
+        String rowKey = Strings.nullToEmpty(entityRowKey);
+        String eTag = Strings.nullToEmpty(entityETag);
 
         Calendar timestamp = new GregorianCalendar();
 
-        if (dte.getTimestamp() != null) {
-            timestamp.setTime(dte.getTimestamp());
+        if (entityTimestamp != null) {
+            timestamp.setTime(entityTimestamp);
         }
 
         Map<String, Property> properties = new HashMap<String, Property>();
 
-        if (dte.getProperties() != null) {
-            for (Entry<String, EntityProperty> entry : dte.getProperties().entrySet()) {
+        if (entityProperties != null) {
+            for (Entry<String, EntityProperty> entry : entityProperties.entrySet()) {
                 if (entry.getKey() != null && entry.getValue() != null) {
                     String key = entry.getKey();
                     Property property;
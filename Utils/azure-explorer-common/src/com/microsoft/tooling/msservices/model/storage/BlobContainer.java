@@ -23,8 +23,10 @@
 package com.microsoft.tooling.msservices.model.storage;
 
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 
 import java.util.Calendar;
+import java.util.List;
 
 public class BlobContainer implements StorageServiceTreeItem {
     private boolean loading;
@@ -33,6 +35,7 @@ public class BlobContainer implements StorageServiceTreeItem {
     private String eTag;
     private Calendar lastModified;
     private String publicReadAccessType;
+    private List<String> storedAccessPolicies;
 
     public BlobContainer(@NotNull String name,
                          @NotNull String uri,
@@ -97,6 +100,18 @@ public class BlobContainer implements StorageServiceTreeItem {
         this.publicReadAccessType = publicReadAccessType;
     }
 
+    /**
+     * The names of the stored access policies of the container, null until its permissions are loaded.
+     */
+    @Nullable
+    public List<String> getStoredAccessPolicies() {
+        return storedAccessPolicies;
+    }
+
+    public void setStoredAccessPolicies(@Nullable List<String> storedAccessPolicies) {
+        this.storedAccessPolicies = storedAccessPolicies;
+    }
+
     @Override
     public String toString() {
         return name + (loading ? " (loading...)" : "");
@@ -26,6 +26,7 @@ import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.tooling.msservices.model.ServiceTreeItem;
 
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 
 public class BlobFile implements ServiceTreeItem, BlobItem {
     private boolean loading;
@@ -40,7 +41,9 @@ public class BlobFile implements ServiceTreeItem, BlobItem {
     private String contentType;
     private String contentMD5Header;
     private String eTag;
+    // Created from the time when asked, most of the listed files are never asked
     private Calendar lastModified;
+    private long lastModifiedTime;
     private long size;
 
     public BlobFile(@NotNull String name,
@@ -71,6 +74,34 @@ public class BlobFile implements ServiceTreeItem, BlobItem {
         this.size = size;
     }
 
+    public BlobFile(@NotNull String name,
+                    @NotNull String uri,
+                    @NotNull String containerName,
+                    @NotNull String path,
+                    @NotNull String type,
+                    @NotNull String cacheControlHeader,
+                    @NotNull String contentEncoding,
+                    @NotNull String contentLanguage,
+                    @NotNull String contentType,
+                    @NotNull String contentMD5Header,
+                    @NotNull String eTag,
+                    long lastModifiedTime,
+                    long size) {
+        this.name = name;
+        this.uri = uri;
+        this.containerName = containerName;
+        this.path = path;
+        this.type = type;
+        this.cacheControlHeader = cacheControlHeader;
+        this.contentEncoding = contentEncoding;
+        this.contentLanguage = contentLanguage;
+        this.contentType = contentType;
+        this.contentMD5Header = contentMD5Header;
+        this.eTag = eTag;
+        this.lastModifiedTime = lastModifiedTime;
+        this.size = size;
+    }
+
     @Override
     public boolean isLoading() {
         return loading;
@@ -186,6 +217,11 @@ public class BlobFile implements ServiceTreeItem, BlobItem {
 
     @NotNull
     public Calendar getLastModified() {
+        if (lastModified == null) {
+            lastModified = new GregorianCalendar();
+            lastModified.setTimeInMillis(lastModifiedTime);
+        }
+
         return lastModified;
     }
 
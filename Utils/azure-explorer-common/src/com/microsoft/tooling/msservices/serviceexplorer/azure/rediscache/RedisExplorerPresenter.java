@@ -27,6 +27,7 @@ import static redis.clients.jedis.ScanParams.SCAN_POINTER_START;
 import com.microsoft.azuretools.azurecommons.helpers.RedisKeyType;
 import com.microsoft.azuretools.core.mvp.model.rediscache.RedisConnectionPools;
 import com.microsoft.azuretools.core.mvp.model.rediscache.RedisExplorerMvpModel;
+import com.microsoft.azuretools.core.mvp.model.rediscache.RedisKeyInfo;
 import com.microsoft.azuretools.core.mvp.ui.base.MvpPresenter;
 import com.microsoft.azuretools.core.mvp.ui.rediscache.RedisScanResult;
 import com.microsoft.azuretools.core.mvp.ui.rediscache.RedisValueData;
@@ -39,19 +40,27 @@ import com.microsoft.tooling.msservices.components.DefaultLoader;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.Tuple;
+import redis.clients.jedis.exceptions.JedisDataException;
 import rx.Observable;
 
 public class RedisExplorerPresenter<V extends RedisExplorerMvpView> extends MvpPresenter<V> {
 
     private String sid;
     private String id;
+    // Key types of the last scanned page, so selecting a key does not need another round-trip for its type.
+    private final Map<String, String> scannedKeyTypes = new ConcurrentHashMap<>();
+    private volatile int scannedDb = -1;
 
     private static final String DEFAULT_SCAN_PATTERN = "*";
+    private static final long FIRST_PAGE_START = 0;
+    private static final int VALUE_PAGE_SIZE = 500;
 
     private static final String CANNOT_GET_REDIS_INFO = "Cannot get Redis Cache's information.";
 
@@ -112,15 +121,20 @@ public class RedisExplorerPresenter<V extends RedisExplorerMvpView> extends MvpP
         Operation operation = TelemetryManager.createOperation(TelemetryConstants.REDIS, TelemetryConstants.REDIS_SCAN);
         operation.start();
         Observable.fromCallable(() -> {
-            return RedisExplorerMvpModel.getInstance().scanKeys(sid, id, db, cursor, pattern);
+            return RedisExplorerMvpModel.getInstance().scanKeyInfos(sid, id, db, cursor, pattern);
         })
         .subscribeOn(getSchedulerProvider().io())
         .subscribe(result -> {
+            scannedKeyTypes.clear();
+            scannedDb = db;
+            for (RedisKeyInfo info : result.getResult()) {
+                scannedKeyTypes.put(info.getKey(), info.getType());
+            }
             DefaultLoader.getIdeHelper().invokeLater(() -> {
                 if (isViewDetached()) {
                     return;
                 }
-                getMvpView().showScanResult(new RedisScanResult(result));
+                getMvpView().showScanResult(RedisScanResult.fromKeyInfos(result));
                 operation.complete();
             });
         }, e -> {
@@ -195,6 +209,46 @@ public class RedisExplorerPresenter<V extends RedisExplorerMvpView> extends MvpP
         });
     }
 
+    /**
+     * Called when the next page of a list or zset value is requested.
+     *
+     * @param db
+     *            index of Redis Cache database
+     * @param key
+     *            target key name for Redis Cache
+     * @param type
+     *            type of the key, LIST or ZSET
+     * @param start
+     *            index of the first element of the page, as given by RedisValueData.getNextStart()
+     */
+    public void onValuePage(int db, String key, RedisKeyType type, long start) {
+        Observable.fromCallable(() -> {
+            switch (type) {
+                case LIST:
+                    return getListPage(db, key, start);
+                case ZSET:
+                    return getZSetPage(db, key, start);
+                default:
+                    return null;
+            }
+        })
+        .subscribeOn(getSchedulerProvider().io())
+        .subscribe(result -> {
+            DefaultLoader.getIdeHelper().invokeLater(() -> {
+                if (isViewDetached()) {
+                    return;
+                }
+                if (result == null) {
+                    getMvpView().onError(CANNOT_GET_REDIS_INFO);
+                    return;
+                }
+                getMvpView().appendContent(result);
+            });
+        }, e -> {
+            errorHandler(CANNOT_GET_REDIS_INFO, (Exception) e);
+        });
+    }
+
     /**
      * Called when the jedis pool needs to be released.
      *
@@ -211,7 +265,20 @@ public class RedisExplorerPresenter<V extends RedisExplorerMvpView> extends MvpP
     }
 
     private RedisValueData getValueByKey(int db, String key) throws Exception {
-        String type = RedisExplorerMvpModel.getInstance().getKeyType(sid, id, db, key).toUpperCase();
+        String scannedType = scannedDb == db ? scannedKeyTypes.get(key) : null;
+        if (scannedType != null) {
+            try {
+                return getValueByType(db, key, scannedType);
+            } catch (JedisDataException e) {
+                // WRONGTYPE: the key was recreated with another type since the scan.
+                scannedKeyTypes.remove(key);
+            }
+        }
+        return getValueByType(db, key, RedisExplorerMvpModel.getInstance().getKeyType(sid, id, db, key));
+    }
+
+    private RedisValueData getValueByType(int db, String key, String type) throws Exception {
+        type = type.toUpperCase();
         ArrayList<String[]> columnData = new ArrayList<String[]>();
         switch (RedisKeyType.valueOf(type)) {
             case STRING:
@@ -219,11 +286,7 @@ public class RedisExplorerPresenter<V extends RedisExplorerMvpView> extends MvpP
                 columnData.add(new String[] { stringVal });
                 return new RedisValueData(columnData, RedisKeyType.STRING);
             case LIST:
-                List<String> listVal = RedisExplorerMvpModel.getInstance().getListValue(sid, id, db, key);
-                for (int i = 0; i < listVal.size(); i++) {
-                    columnData.add(new String[] { String.valueOf(i + 1), listVal.get(i) });
-                }
-                return new RedisValueData(columnData, RedisKeyType.LIST);
+                return getListPage(db, key, FIRST_PAGE_START);
             case SET:
                 ScanResult<String> setVal = RedisExplorerMvpModel.getInstance().getSetValue(sid, id, db, key,
                         SCAN_POINTER_START);
@@ -232,11 +295,7 @@ public class RedisExplorerPresenter<V extends RedisExplorerMvpView> extends MvpP
                 }
                 return new RedisValueData(columnData, RedisKeyType.SET);
             case ZSET:
-                Set<Tuple> zsetVal = RedisExplorerMvpModel.getInstance().getZSetValue(sid, id, db, key);
-                for (Tuple tuple : zsetVal) {
-                    columnData.add(new String[] { String.valueOf(tuple.getScore()), tuple.getElement() });
-                }
-                return new RedisValueData(columnData, RedisKeyType.ZSET);
+                return getZSetPage(db, key, FIRST_PAGE_START);
             case HASH:
                 ScanResult<Entry<String, String>> hashVal = RedisExplorerMvpModel.getInstance().getHashValue(sid,
                         id, db, key, SCAN_POINTER_START);
@@ -249,6 +308,31 @@ public class RedisExplorerPresenter<V extends RedisExplorerMvpView> extends MvpP
         }
     }
 
+    private RedisValueData getListPage(int db, String key, long start) throws Exception {
+        List<String> listVal = RedisExplorerMvpModel.getInstance().getListValue(sid, id, db, key, start,
+                VALUE_PAGE_SIZE);
+        ArrayList<String[]> columnData = new ArrayList<String[]>();
+        for (int i = 0; i < listVal.size(); i++) {
+            columnData.add(new String[] { String.valueOf(start + i + 1), listVal.get(i) });
+        }
+        return new RedisValueData(columnData, RedisKeyType.LIST, getNextStart(start, listVal.size()));
+    }
+
+    private RedisValueData getZSetPage(int db, String key, long start) throws Exception {
+        Set<Tuple> zsetVal = RedisExplorerMvpModel.getInstance().getZSetValue(sid, id, db, key, start,
+                VALUE_PAGE_SIZE);
+        ArrayList<String[]> columnData = new ArrayList<String[]>();
+        for (Tuple tuple : zsetVal) {
+            columnData.add(new String[] { String.valueOf(tuple.getScore()), tuple.getElement() });
+        }
+        return new RedisValueData(columnData, RedisKeyType.ZSET, getNextStart(start, zsetVal.size()));
+    }
+
+    // A short page is the last one; a full page may be followed by more elements.
+    private long getNextStart(long start, int pageSize) {
+        return pageSize < VALUE_PAGE_SIZE ? RedisValueData.NO_MORE_VALUES : start + pageSize;
+    }
+
     private void errorHandler(String msg, Exception e) {
         DefaultLoader.getIdeHelper().invokeLater(() -> {
             if (isViewDetached()) {
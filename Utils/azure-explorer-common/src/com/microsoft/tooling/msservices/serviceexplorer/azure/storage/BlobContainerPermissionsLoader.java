@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.tooling.msservices.serviceexplorer.azure.storage;
+
+import com.microsoft.azuretools.azurecommons.helpers.AzureCmdException;
+import com.microsoft.tooling.msservices.components.DefaultLoader;
+import com.microsoft.tooling.msservices.helpers.azure.sdk.StorageClientSDKManager;
+import com.microsoft.tooling.msservices.model.storage.BlobContainer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads the permissions of the blob containers whose nodes are rendered, so the containers scrolled out of view are
+ * never asked for theirs. The nodes rendered together are loaded in one batch per storage account.
+ */
+public class BlobContainerPermissionsLoader {
+    private static final BlobContainerPermissionsLoader INSTANCE = new BlobContainerPermissionsLoader(
+            StorageClientSDKManager.getManager(),
+            runnable -> DefaultLoader.getIdeHelper().executeOnPooledThread(runnable));
+
+    private final StorageClientSDKManager manager;
+    private final Executor executor;
+    private final Set<ContainerNode> pendingNodes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean isScheduled = new AtomicBoolean(false);
+
+    BlobContainerPermissionsLoader(StorageClientSDKManager manager, Executor executor) {
+        this.manager = manager;
+        this.executor = executor;
+    }
+
+    public static BlobContainerPermissionsLoader getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Ask for the permissions of the container of a rendered node. The node is told once they are loaded.
+     */
+    public void request(ContainerNode node) {
+        if (pendingNodes.add(node) && isScheduled.compareAndSet(false, true)) {
+            executor.execute(this::loadPending);
+        }
+    }
+
+    private void loadPending() {
+        // Reset first, so a node added from now on schedules another batch
+        isScheduled.set(false);
+
+        final List<ContainerNode> nodes = new ArrayList<>(pendingNodes);
+        pendingNodes.removeAll(nodes);
+
+        final Map<String, List<ContainerNode>> nodesByConnectionString = new LinkedHashMap<>();
+        for (ContainerNode node : nodes) {
+            try {
+                nodesByConnectionString.computeIfAbsent(node.getConnectionString(), key -> new ArrayList<>())
+                        .add(node);
+            } catch (Exception e) {
+                DefaultLoader.getUIHelper().logError("Error getting the storage account of a blob container", e);
+            }
+        }
+
+        for (Map.Entry<String, List<ContainerNode>> entry : nodesByConnectionString.entrySet()) {
+            final List<BlobContainer> blobContainers = new ArrayList<>();
+            for (ContainerNode node : entry.getValue()) {
+                blobContainers.add(node.getBlobContainer());
+            }
+
+            try {
+                manager.loadBlobContainerPermissions(entry.getKey(), blobContainers);
+            } catch (AzureCmdException e) {
+                DefaultLoader.getUIHelper().logError(e.getMessage(), e);
+            }
+
+            for (ContainerNode node : entry.getValue()) {
+                node.onPermissionsLoaded();
+            }
+        }
+    }
+}
@@ -39,6 +39,7 @@ import com.microsoft.tooling.msservices.serviceexplorer.RefreshableNode;
 import com.microsoft.tooling.msservices.serviceexplorer.azure.AzureNodeActionPromptListener;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.microsoft.azuretools.telemetry.TelemetryConstants.DELETE_BLOB_CONTAINER;
@@ -114,6 +115,7 @@ public class ContainerNode extends Node implements TelemetryProperties{
     private final BlobContainer blobContainer;
     private StorageAccount storageAccount;
     private ClientStorageAccount clientStorageAccount;
+    private volatile boolean isPermissionsRequested = false;
 
     public ContainerNode(final Node parent, StorageAccount sa, BlobContainer bc) {
         super(CONTAINER_MODULE_ID, bc.getName(), parent, ICON_PATH, true);
@@ -144,6 +146,41 @@ public class ContainerNode extends Node implements TelemetryProperties{
         }
     }
 
+    @Override
+    public String getToolTip() {
+        // Rendering the node asks for the permissions, so only the containers in view are loaded
+        if (!isPermissionsRequested) {
+            isPermissionsRequested = true;
+            BlobContainerPermissionsLoader.getInstance().request(this);
+        }
+
+        final StringBuilder toolTip = new StringBuilder(blobContainer.getName())
+                .append("<br>Public access: ").append(blobContainer.getPublicReadAccessType());
+        final List<String> storedAccessPolicies = blobContainer.getStoredAccessPolicies();
+
+        if (storedAccessPolicies != null) {
+            toolTip.append("<br>Stored access policies: ")
+                    .append(storedAccessPolicies.isEmpty() ? "none" : String.join(", ", storedAccessPolicies));
+        }
+
+        return toolTip.toString();
+    }
+
+    public BlobContainer getBlobContainer() {
+        return blobContainer;
+    }
+
+    String getConnectionString() {
+        return clientStorageAccount != null
+               ? clientStorageAccount.getConnectionString()
+               : StorageClientSDKManager.getConnectionString(storageAccount);
+    }
+
+    void onPermissionsLoaded() {
+        // Render the node again with the loaded permissions
+        propertyChangeSupport.firePropertyChange("storedAccessPolicies", null, blobContainer.getStoredAccessPolicies());
+    }
+
     @Override
     protected Map<String, Class<? extends NodeActionListener>> initActions() {
         return ImmutableMap.of(
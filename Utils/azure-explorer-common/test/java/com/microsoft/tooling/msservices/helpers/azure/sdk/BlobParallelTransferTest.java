@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.tooling.msservices.helpers.azure.sdk;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobProperties;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.CloudBlob;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+import com.microsoft.tooling.msservices.helpers.CallableSingleArg;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@PowerMockIgnore("javax.net.ssl.*")
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({CloudBlob.class, CloudBlockBlob.class, BlobProperties.class})
+public class BlobParallelTransferTest {
+    private static final String ETAG = "\"0x8D7\"";
+
+    private File localFile;
+
+    private byte[] content;
+
+    private final List<Long> progress = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() throws Exception {
+        localFile = File.createTempFile("blobTransfer", ".bin");
+        content = new byte[10];
+        new Random().nextBytes(content);
+    }
+
+    @After
+    public void tearDown() {
+        localFile.delete();
+    }
+
+    private BlobParallelTransfer newTransfer(int blockRetries) {
+        return new BlobParallelTransfer(4, 3, blockRetries, new CallableSingleArg<Void, Long>() {
+            @Override
+            public Void call(Long transferred) {
+                progress.add(transferred);
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testUploadInBlocksCommittedInFileOrder() throws Exception {
+        Files.write(localFile.toPath(), content);
+
+        final CloudBlockBlob blob = PowerMockito.mock(CloudBlockBlob.class);
+        final Map<String, byte[]> uploadedBlocks = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            final InputStream in = invocation.getArgument(1);
+            final ByteArrayOutputStream block = new ByteArrayOutputStream();
+            for (int read = in.read(); read >= 0; read = in.read()) {
+                block.write(read);
+            }
+
+            assertEquals((long) invocation.getArgument(2), block.size());
+            uploadedBlocks.put(invocation.getArgument(0), block.toByteArray());
+            return null;
+        }).when(blob).uploadBlock(anyString(), any(InputStream.class), anyLong());
+
+        final List<BlockEntry> committed = new ArrayList<>();
+        doAnswer(invocation -> {
+            final Iterable<BlockEntry> entries = invocation.getArgument(0);
+            entries.forEach(committed::add);
+            return null;
+        }).when(blob).commitBlockList(any());
+
+        newTransfer(0).upload(blob, localFile);
+
+        assertEquals(3, committed.size());
+        assertEquals(3, uploadedBlocks.size());
+
+        final ByteArrayOutputStream committedContent = new ByteArrayOutputStream();
+        for (BlockEntry entry : committed) {
+            assertEquals(committed.get(0).getId().length(), entry.getId().length());
+            assertEquals(uploadedBlocks.get(entry.getId()).length, entry.getSize());
+            committedContent.write(uploadedBlocks.get(entry.getId()));
+        }
+
+        assertArrayEquals(content, committedContent.toByteArray());
+        assertEquals(3, progress.size());
+        assertEquals(10L, (long) progress.get(2));
+    }
+
+    @Test
+    public void testRetryFailedBlock() throws Exception {
+        Files.write(localFile.toPath(), content);
+
+        final CloudBlockBlob blob = PowerMockito.mock(CloudBlockBlob.class);
+        final AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new StorageException("ServerBusy", "Server busy", 503, null, null);
+            }
+
+            return null;
+        }).when(blob).uploadBlock(anyString(), any(InputStream.class), anyLong());
+
+        newTransfer(1).upload(blob, localFile);
+
+        assertEquals(4, calls.get());
+        verify(blob).commitBlockList(any());
+    }
+
+    @Test
+    public void testDownloadRangesIntoPositions() throws Exception {
+        final CloudBlob blob = mockBlob(new AtomicLong());
+        final Map<Long, Long> ranges = new TreeMap<>();
+        doAnswer(invocation -> {
+            final long offset = invocation.getArgument(0);
+            final Long length = invocation.getArgument(1);
+            final AccessCondition condition = invocation.getArgument(4);
+
+            assertEquals(ETAG, condition.getIfMatch());
+            synchronized (ranges) {
+                ranges.put(offset, length);
+            }
+
+            System.arraycopy(content, (int) offset, invocation.getArgument(2), invocation.getArgument(3), length.intValue());
+            return length.intValue();
+        }).when(blob).downloadRangeToByteArray(
+                anyLong(), any(), any(byte[].class), anyInt(), any(AccessCondition.class), isNull(), isNull());
+
+        // The local file is longer and filled with other content before
+        Files.write(localFile.toPath(), new byte[32]);
+
+        newTransfer(0).download(() -> blob, localFile);
+
+        assertArrayEquals(content, Files.readAllBytes(localFile.toPath()));
+        assertEquals(3, ranges.size());
+        assertEquals(4L, (long) ranges.get(0L));
+        assertEquals(4L, (long) ranges.get(4L));
+        assertEquals(2L, (long) ranges.get(8L));
+        assertEquals(3, progress.size());
+        assertEquals(10L, (long) progress.get(2));
+    }
+
+    @Test
+    public void testDownloadFailsWhenBlobChanged() throws Exception {
+        // The blob is overwritten right after its attributes are got
+        final AtomicLong version = new AtomicLong();
+        final CloudBlob blob = mockBlob(version);
+        final AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            calls.incrementAndGet();
+            version.set(1);
+
+            final AccessCondition condition = invocation.getArgument(4);
+            if (!condition.getIfMatch().equals(blob.getProperties().getEtag())) {
+                throw new StorageException("ConditionNotMet", "The condition specified using HTTP conditional header(s) is not met.",
+                                           HttpURLConnection.HTTP_PRECON_FAILED, null, null);
+            }
+
+            return invocation.<Long>getArgument(1).intValue();
+        }).when(blob).downloadRangeToByteArray(
+                anyLong(), any(), any(byte[].class), anyInt(), any(AccessCondition.class), isNull(), isNull());
+
+        try {
+            newTransfer(3).download(() -> blob, localFile);
+            fail("The download of a changed blob should fail");
+        } catch (StorageException ex) {
+            assertEquals(HttpURLConnection.HTTP_PRECON_FAILED, ex.getHttpStatusCode());
+        }
+
+        // No retries of the failed condition
+        assertTrue(calls.get() <= 3);
+        assertTrue(progress.isEmpty());
+    }
+
+    @Test
+    public void testUploadEmptyFile() throws Exception {
+        final CloudBlockBlob blob = PowerMockito.mock(CloudBlockBlob.class);
+
+        newTransfer(0).upload(blob, localFile);
+
+        verify(blob, never()).uploadBlock(anyString(), any(InputStream.class), anyLong());
+        verify(blob).commitBlockList(eq(Collections.emptyList()));
+    }
+
+    private CloudBlob mockBlob(AtomicLong version) throws Exception {
+        final BlobProperties properties = PowerMockito.mock(BlobProperties.class);
+        when(properties.getLength()).thenReturn((long) content.length);
+        when(properties.getEtag()).thenAnswer(invocation -> version.get() == 0 ? ETAG : "\"0x8D8\"");
+
+        final CloudBlob blob = PowerMockito.mock(CloudBlob.class);
+        when(blob.getProperties()).thenReturn(properties);
+
+        return blob;
+    }
+}
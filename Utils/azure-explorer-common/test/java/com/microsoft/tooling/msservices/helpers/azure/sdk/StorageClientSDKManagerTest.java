@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.tooling.msservices.helpers.azure.sdk;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.microsoft.azure.management.storage.StorageAccount;
+import com.microsoft.azure.management.storage.StorageAccountKey;
+import com.microsoft.azuretools.utils.StorageAccoutUtils;
+import com.microsoft.tooling.msservices.model.storage.BlobContainer;
+import com.microsoft.tooling.msservices.model.storage.Table;
+import com.microsoft.tooling.msservices.model.storage.TableEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@PowerMockIgnore({"javax.net.ssl.*", "javax.crypto.*", "javax.management.*", "javax.xml.*", "org.xml.*", "org.w3c.*", "javax.servlet.*",
+        "org.eclipse.jetty.*",
+        "com.github.tomakehurst.*", "com.fasterxml.*", "org.apache.http.*", "com.google.*"})
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({StorageAccoutUtils.class})
+public class StorageClientSDKManagerTest {
+    private static final String ACCOUNT_KEY =
+            "Eby8vdM02xNOcqFlqUwJPLlmEtlCDXJ1OUzFT50uSRZ6IFsuFq2UVErCz4I6tq/K1SZFPTOtr/KBHBeksoGMGw==";
+
+    private static final String TABLE_PATH = "/devstoreaccount1/people.*";
+
+    private static final String CONTAINER_PATH = "/devstoreaccount1/images";
+
+    private WireMockServer tableServiceMock;
+
+    private StorageAccount storageAccount;
+
+    private final Table table = new Table("people", "");
+
+    @Before
+    public void setUp() {
+        tableServiceMock = new WireMockServer(wireMockConfig().dynamicPort());
+        tableServiceMock.start();
+
+        final StorageAccountKey key = mock(StorageAccountKey.class);
+        when(key.value()).thenReturn(ACCOUNT_KEY);
+        storageAccount = mock(StorageAccount.class);
+        when(storageAccount.name()).thenReturn("devstoreaccount1");
+        when(storageAccount.getKeys()).thenReturn(Collections.singletonList(key));
+
+        PowerMockito.mockStatic(StorageAccoutUtils.class);
+        when(StorageAccoutUtils.getConnectionString(anyString(), anyString())).thenReturn(String.format(
+                "DefaultEndpointsProtocol=http;AccountName=devstoreaccount1;AccountKey=%s;"
+                        + "TableEndpoint=http://localhost:%d/devstoreaccount1",
+                ACCOUNT_KEY, tableServiceMock.port()));
+
+        // Two pages, the second one is asked for with the continuation of the first one
+        tableServiceMock.stubFor(get(urlPathMatching(TABLE_PATH))
+                .withQueryParam("NextPartitionKey", absent())
+                .willReturn(entitiesResponse("{\"PartitionKey\":\"p1\",\"RowKey\":\"1\",\"Name\":\"a\"},"
+                                                     + "{\"PartitionKey\":\"p1\",\"RowKey\":\"2\",\"Name\":\"b\"}")
+                        .withHeader("x-ms-continuation-NextPartitionKey", "1!4!cDI-")
+                        .withHeader("x-ms-continuation-NextRowKey", "1!4!Mw--")));
+        tableServiceMock.stubFor(get(urlPathMatching(TABLE_PATH))
+                .withQueryParam("NextPartitionKey", equalTo("1!4!cDI-"))
+                .withQueryParam("NextRowKey", equalTo("1!4!Mw--"))
+                .willReturn(entitiesResponse("{\"PartitionKey\":\"p2\",\"RowKey\":\"3\",\"Name\":\"c\"}")));
+    }
+
+    @After
+    public void tearDown() {
+        tableServiceMock.stop();
+    }
+
+    private static ResponseDefinitionBuilder entitiesResponse(String entities) {
+        return aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json;odata=minimalmetadata;streaming=true;charset=utf-8")
+                .withBody("{\"odata.metadata\":\"http://localhost/devstoreaccount1/$metadata#people\",\"value\":["
+                                  + entities + "]}");
+    }
+
+    @Test
+    public void testQueryPageContinuesFromPreviousPage() throws Exception {
+        final StorageClientSDKManager manager = StorageClientSDKManager.getManager();
+
+        final TableEntityPage firstPage = manager.getTableEntityPage(storageAccount, table, "", null, null, 2);
+        assertEquals(2, firstPage.getEntities().size());
+        assertEquals("2", firstPage.getEntities().get(1).getRowKey());
+        assertTrue(firstPage.hasNextPage());
+
+        final TableEntityPage secondPage = manager.getTableEntityPage(storageAccount, table, "", null, firstPage, 2);
+        assertEquals(1, secondPage.getEntities().size());
+        assertEquals("p2", secondPage.getEntities().get(0).getPartitionKey());
+        assertFalse(secondPage.hasNextPage());
+
+        final List<LoggedRequest> requests = tableServiceMock.findAll(getRequestedFor(urlPathMatching(TABLE_PATH)));
+        assertEquals(2, requests.size());
+        requests.forEach(request -> assertEquals("2", request.queryParameter("$top").firstValue()));
+    }
+
+    @Test
+    public void testQueryPagesOnlyWhenRequested() {
+        final List<TableEntityPage> firstPages = StorageClientSDKManager.getManager()
+                .getTableEntityPages(storageAccount, table, "", null, 2)
+                .take(1)
+                .toList()
+                .toBlocking()
+                .single();
+
+        assertEquals(1, firstPages.size());
+        assertEquals(1, tableServiceMock.findAll(getRequestedFor(urlPathMatching(TABLE_PATH))).size());
+
+        final List<TableEntityPage> allPages = StorageClientSDKManager.getManager()
+                .getTableEntityPages(storageAccount, table, "", null, 2)
+                .toList()
+                .toBlocking()
+                .single();
+
+        assertEquals(2, allPages.size());
+        assertFalse(allPages.get(1).hasNextPage());
+    }
+
+    @Test
+    public void testQueryAllEntitiesThroughPages() throws Exception {
+        final List<TableEntity> entities = StorageClientSDKManager.getManager()
+                .getTableEntities(storageAccount, table, "");
+
+        assertEquals(3, entities.size());
+        assertEquals("a", entities.get(0).getProperties().get("Name").getValueAsString());
+        assertEquals("c", entities.get(2).getProperties().get("Name").getValueAsString());
+    }
+
+    @Test
+    public void testBatchesOfSamePartitionUpToLimit() {
+        final List<TableEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            entities.add(newEntity("a", i));
+
+            if (i % 100 == 0) {
+                entities.add(newEntity("b", i));
+            }
+        }
+
+        final List<List<TableEntity>> batches = StorageClientSDKManager.getTableEntityBatches(entities);
+
+        assertEquals(4, batches.size());
+        assertEquals(100, batches.get(0).size());
+        assertEquals(100, batches.get(1).size());
+        assertEquals(50, batches.get(2).size());
+        assertEquals(3, batches.get(3).size());
+
+        for (List<TableEntity> batch : batches) {
+            assertEquals(1, batch.stream().map(TableEntity::getPartitionKey).distinct().count());
+        }
+
+        // Each entity is in a batch once, in the order given
+        assertEquals(entities.stream().filter(entity -> entity.getPartitionKey().equals("a")).collect(Collectors.toList()),
+                     batches.subList(0, 3).stream().flatMap(List::stream).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testNoBatchesOfNoEntities() {
+        assertTrue(StorageClientSDKManager.getTableEntityBatches(Collections.emptyList()).isEmpty());
+    }
+
+    private String getBlobConnectionString() {
+        return String.format("DefaultEndpointsProtocol=http;AccountName=devstoreaccount1;AccountKey=%s;"
+                                     + "BlobEndpoint=http://localhost:%d/devstoreaccount1",
+                             ACCOUNT_KEY, tableServiceMock.port());
+    }
+
+    @Test
+    public void testListingTakesPublicAccessFromResponse() throws Exception {
+        tableServiceMock.stubFor(get(urlPathEqualTo("/devstoreaccount1"))
+                .withQueryParam("comp", equalTo("list"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/xml")
+                        .withBody("<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+                                          + "<EnumerationResults ServiceEndpoint=\"http://localhost/devstoreaccount1/\">"
+                                          + "<Containers>"
+                                          + "<Container><Name>images</Name><Properties>"
+                                          + "<Last-Modified>Wed, 23 Oct 2013 20:39:39 GMT</Last-Modified>"
+                                          + "<Etag>0x8CACB9BD7C6B1B2</Etag><PublicAccess>container</PublicAccess>"
+                                          + "</Properties><Metadata/></Container>"
+                                          + "<Container><Name>logs</Name><Properties>"
+                                          + "<Last-Modified>Wed, 23 Oct 2013 20:39:39 GMT</Last-Modified>"
+                                          + "<Etag>0x8CACB9BD7C6B1B3</Etag>"
+                                          + "</Properties><Metadata/></Container>"
+                                          + "</Containers><NextMarker/></EnumerationResults>")));
+
+        final List<BlobContainer> containers = StorageClientSDKManager.getManager()
+                .getBlobContainers(getBlobConnectionString());
+
+        assertEquals(2, containers.size());
+        assertEquals("CONTAINER", containers.get(0).getPublicReadAccessType());
+        // A private container has no public access in the listing
+        assertEquals("OFF", containers.get(1).getPublicReadAccessType());
+        assertEquals(1, tableServiceMock.getAllServeEvents().size());
+    }
+
+    @Test
+    public void testPermissionsAreCachedUntilETagChanges() throws Exception {
+        tableServiceMock.stubFor(get(urlPathEqualTo(CONTAINER_PATH))
+                .withQueryParam("comp", equalTo("acl"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/xml")
+                        .withHeader("x-ms-blob-public-access", "blob")
+                        .withHeader("ETag", "\"0x2\"")
+                        .withHeader("Last-Modified", "Wed, 23 Oct 2013 20:39:39 GMT")
+                        .withBody("<?xml version=\"1.0\" encoding=\"utf-8\"?><SignedIdentifiers>"
+                                          + "<SignedIdentifier><Id>read</Id><AccessPolicy>"
+                                          + "<Start>2020-01-01T00:00:00.0000000Z</Start>"
+                                          + "<Expiry>2030-01-01T00:00:00.0000000Z</Expiry>"
+                                          + "<Permission>r</Permission></AccessPolicy></SignedIdentifier>"
+                                          + "</SignedIdentifiers>")));
+
+        final StorageClientSDKManager manager = StorageClientSDKManager.getManager();
+        final BlobContainer container = newContainer("\"0x1\"");
+
+        manager.loadBlobContainerPermissions(getBlobConnectionString(), Collections.singletonList(container));
+        assertEquals("BLOB", container.getPublicReadAccessType());
+        assertEquals(Collections.singletonList("read"), container.getStoredAccessPolicies());
+
+        // The same ETag is served from the cache
+        final BlobContainer listedAgain = newContainer("\"0x1\"");
+        manager.loadBlobContainerPermissions(getBlobConnectionString(), Collections.singletonList(listedAgain));
+        assertEquals("BLOB", listedAgain.getPublicReadAccessType());
+        assertEquals(1, tableServiceMock.findAll(getRequestedFor(urlPathEqualTo(CONTAINER_PATH))).size());
+
+        // A changed container is fetched again
+        manager.loadBlobContainerPermissions(getBlobConnectionString(),
+                                             Collections.singletonList(newContainer("\"0x2\"")));
+        assertEquals(2, tableServiceMock.findAll(getRequestedFor(urlPathEqualTo(CONTAINER_PATH))).size());
+    }
+
+    private static BlobContainer newContainer(String eTag) {
+        return new BlobContainer("images", "", eTag, new GregorianCalendar(), "OFF");
+    }
+
+    private static TableEntity newEntity(String partitionKey, int row) {
+        return new TableEntity(partitionKey, String.valueOf(row), "people", "", new GregorianCalendar(),
+                               Collections.emptyMap());
+    }
+}
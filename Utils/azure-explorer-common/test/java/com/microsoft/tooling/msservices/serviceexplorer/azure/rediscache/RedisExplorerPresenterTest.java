@@ -22,10 +22,19 @@
 
 package com.microsoft.tooling.msservices.serviceexplorer.azure.rediscache;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map.Entry;
 
@@ -33,14 +42,17 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import com.microsoft.azuretools.azurecommons.helpers.RedisKeyType;
 import com.microsoft.azuretools.core.mvp.model.rediscache.RedisConnectionPools;
 import com.microsoft.azuretools.core.mvp.model.rediscache.RedisExplorerMvpModel;
+import com.microsoft.azuretools.core.mvp.model.rediscache.RedisKeyInfo;
 import com.microsoft.azuretools.core.mvp.ui.base.SchedulerProviderFactory;
 import com.microsoft.azuretools.core.mvp.ui.base.TestSchedulerProvider;
 import com.microsoft.azuretools.core.mvp.ui.rediscache.RedisScanResult;
@@ -50,6 +62,7 @@ import com.microsoft.tooling.msservices.helpers.IDEHelper;
 
 import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.Tuple;
+import redis.clients.jedis.exceptions.JedisDataException;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({
@@ -96,6 +109,11 @@ public class RedisExplorerPresenterTest {
 
     private final static int MOCK_DB = 0;
 
+    private final static int VALUE_PAGE_SIZE = 500;
+
+    private final ScanResult<RedisKeyInfo> keyInfoScanResult = new ScanResult<>(MOCK_CURSOR,
+            Collections.singletonList(new RedisKeyInfo(MOCK_KEY, TYPE_STRING, -1L, 64L)));
+
     @Before
     public void setUp() throws Exception {
         redisExplorerPresenter.onAttachView(redisExplorerMvpViewMock);
@@ -119,7 +137,7 @@ public class RedisExplorerPresenterTest {
 
     @Test
     public void testOnDbSelect() throws Exception {
-        when(redisExplorerMvpModelMock.scanKeys(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_CURSOR, MOCK_PATTERN)).thenReturn(stringScanResultMock);
+        when(redisExplorerMvpModelMock.scanKeyInfos(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_CURSOR, MOCK_PATTERN)).thenReturn(keyInfoScanResult);
         redisExplorerPresenter.onDbSelect(MOCK_DB);
         PowerMockito.whenNew(RedisScanResult.class).withAnyArguments().thenReturn(redisScanResultMock);
 
@@ -127,9 +145,48 @@ public class RedisExplorerPresenterTest {
         verify(redisExplorerMvpViewMock).showScanResult(Mockito.any(RedisScanResult.class));
     }
 
+    @Test
+    public void testOnKeySelectUsesScannedType() throws Exception {
+        when(redisExplorerMvpModelMock.scanKeyInfos(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_CURSOR, MOCK_PATTERN)).thenReturn(keyInfoScanResult);
+        redisExplorerPresenter.onKeyList(MOCK_DB, MOCK_CURSOR, MOCK_PATTERN);
+        testSchedulerProvider.triggerActions();
+
+        redisExplorerPresenter.onkeySelect(MOCK_DB, MOCK_KEY);
+        testSchedulerProvider.triggerActions();
+        verify(redisExplorerMvpModelMock, never()).getKeyType(anyString(), anyString(), anyInt(), anyString());
+        verify(redisExplorerMvpModelMock).getStringValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY);
+        verify(redisExplorerMvpViewMock).showContent(Mockito.any(RedisValueData.class));
+    }
+
+    @Test
+    public void testOnKeySelectFallsBackWhenScannedTypeIsStale() throws Exception {
+        when(redisExplorerMvpModelMock.scanKeyInfos(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_CURSOR, MOCK_PATTERN)).thenReturn(keyInfoScanResult);
+        redisExplorerPresenter.onKeyList(MOCK_DB, MOCK_CURSOR, MOCK_PATTERN);
+        testSchedulerProvider.triggerActions();
+
+        // The key was recreated as a list after the scan.
+        when(redisExplorerMvpModelMock.getStringValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY))
+                .thenThrow(new JedisDataException("WRONGTYPE Operation against a key holding the wrong kind of value"));
+        when(redisExplorerMvpModelMock.getKeyType(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY)).thenReturn(TYPE_LIST);
+        when(redisExplorerMvpModelMock.getListValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY, 0L, VALUE_PAGE_SIZE))
+                .thenReturn(new ArrayList<String>());
+
+        redisExplorerPresenter.onkeySelect(MOCK_DB, MOCK_KEY);
+        testSchedulerProvider.triggerActions();
+        redisExplorerPresenter.onkeySelect(MOCK_DB, MOCK_KEY);
+        testSchedulerProvider.triggerActions();
+
+        // The stale type is dropped, so the second selection does not try it again.
+        verify(redisExplorerMvpModelMock, times(1)).getStringValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY);
+        verify(redisExplorerMvpModelMock, times(2)).getKeyType(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY);
+        ArgumentCaptor<RedisValueData> captor = ArgumentCaptor.forClass(RedisValueData.class);
+        verify(redisExplorerMvpViewMock, times(2)).showContent(captor.capture());
+        assertEquals(RedisKeyType.LIST, captor.getValue().getKeyType());
+    }
+
     @Test
     public void testOnKeyList() throws Exception {
-        when(redisExplorerMvpModelMock.scanKeys(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_CURSOR, MOCK_PATTERN)).thenReturn(stringScanResultMock);
+        when(redisExplorerMvpModelMock.scanKeyInfos(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_CURSOR, MOCK_PATTERN)).thenReturn(keyInfoScanResult);
         redisExplorerPresenter.onKeyList(MOCK_DB, MOCK_CURSOR, MOCK_PATTERN);
         PowerMockito.whenNew(RedisScanResult.class).withAnyArguments().thenReturn(redisScanResultMock);
 
@@ -150,13 +207,55 @@ public class RedisExplorerPresenterTest {
     @Test
     public void testOnkeySelectWithListKey() throws Exception {
         when(redisExplorerMvpModelMock.getKeyType(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY)).thenReturn(TYPE_LIST);
-        when(redisExplorerMvpModelMock.getListValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY)).thenReturn(new ArrayList<String>());
+        when(redisExplorerMvpModelMock.getListValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY, 0L, VALUE_PAGE_SIZE))
+                .thenReturn(new ArrayList<String>());
 
         redisExplorerPresenter.onkeySelect(MOCK_DB, MOCK_KEY);
         testSchedulerProvider.triggerActions();
         verify(redisExplorerMvpViewMock).showContent(Mockito.any(RedisValueData.class));
     }
 
+    @Test
+    public void testOnkeySelectWithFullListPage() throws Exception {
+        when(redisExplorerMvpModelMock.getKeyType(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY)).thenReturn(TYPE_LIST);
+        when(redisExplorerMvpModelMock.getListValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY, 0L, VALUE_PAGE_SIZE))
+                .thenReturn(Collections.nCopies(VALUE_PAGE_SIZE, ""));
+
+        redisExplorerPresenter.onkeySelect(MOCK_DB, MOCK_KEY);
+        testSchedulerProvider.triggerActions();
+        ArgumentCaptor<RedisValueData> captor = ArgumentCaptor.forClass(RedisValueData.class);
+        verify(redisExplorerMvpViewMock).showContent(captor.capture());
+        assertTrue(captor.getValue().hasMoreValues());
+        assertEquals(VALUE_PAGE_SIZE, captor.getValue().getNextStart());
+    }
+
+    @Test
+    public void testOnValuePageWithList() throws Exception {
+        when(redisExplorerMvpModelMock.getListValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY,
+                (long) VALUE_PAGE_SIZE, VALUE_PAGE_SIZE)).thenReturn(Collections.singletonList("last"));
+
+        redisExplorerPresenter.onValuePage(MOCK_DB, MOCK_KEY, RedisKeyType.LIST, VALUE_PAGE_SIZE);
+        testSchedulerProvider.triggerActions();
+        ArgumentCaptor<RedisValueData> captor = ArgumentCaptor.forClass(RedisValueData.class);
+        verify(redisExplorerMvpViewMock).appendContent(captor.capture());
+        assertFalse(captor.getValue().hasMoreValues());
+        assertArrayEquals(new String[] { String.valueOf(VALUE_PAGE_SIZE + 1), "last" },
+                captor.getValue().getRowData().get(0));
+    }
+
+    @Test
+    public void testOnValuePageWithZSet() throws Exception {
+        when(redisExplorerMvpModelMock.getZSetValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY,
+                (long) VALUE_PAGE_SIZE, VALUE_PAGE_SIZE)).thenReturn(Collections.singleton(new Tuple("member", 1.0)));
+
+        redisExplorerPresenter.onValuePage(MOCK_DB, MOCK_KEY, RedisKeyType.ZSET, VALUE_PAGE_SIZE);
+        testSchedulerProvider.triggerActions();
+        ArgumentCaptor<RedisValueData> captor = ArgumentCaptor.forClass(RedisValueData.class);
+        verify(redisExplorerMvpViewMock).appendContent(captor.capture());
+        assertFalse(captor.getValue().hasMoreValues());
+        assertArrayEquals(new String[] { "1.0", "member" }, captor.getValue().getRowData().get(0));
+    }
+
     @Test
     public void testOnkeySelectWithSetKey() throws Exception {
         when(redisExplorerMvpModelMock.getKeyType(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY)).thenReturn(TYPE_SET);
@@ -170,7 +269,8 @@ public class RedisExplorerPresenterTest {
     @Test
     public void testOnkeySelectWithZSetKey() throws Exception {
         when(redisExplorerMvpModelMock.getKeyType(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY)).thenReturn(TYPE_ZSET);
-        when(redisExplorerMvpModelMock.getZSetValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY)).thenReturn(new HashSet<Tuple>());
+        when(redisExplorerMvpModelMock.getZSetValue(MOCK_SUBSCRIPTION, MOCK_ID, MOCK_DB, MOCK_KEY, 0L, VALUE_PAGE_SIZE))
+                .thenReturn(new HashSet<Tuple>());
 
         redisExplorerPresenter.onkeySelect(MOCK_DB, MOCK_KEY);
         testSchedulerProvider.triggerActions();
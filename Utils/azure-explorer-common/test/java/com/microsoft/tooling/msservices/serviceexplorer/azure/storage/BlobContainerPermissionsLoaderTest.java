@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.tooling.msservices.serviceexplorer.azure.storage;
+
+import com.microsoft.tooling.msservices.helpers.azure.sdk.StorageClientSDKManager;
+import com.microsoft.tooling.msservices.model.storage.BlobContainer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BlobContainerPermissionsLoaderTest {
+    private static final String CONNECTION_STRING = "AccountName=devstoreaccount1";
+
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+
+    private StorageClientSDKManager manager;
+
+    private BlobContainerPermissionsLoader loader;
+
+    @Before
+    public void setUp() {
+        manager = mock(StorageClientSDKManager.class);
+        loader = new BlobContainerPermissionsLoader(manager, scheduledTasks::add);
+    }
+
+    private static ContainerNode newNode(String containerName) {
+        final ContainerNode node = mock(ContainerNode.class);
+        when(node.getConnectionString()).thenReturn(CONNECTION_STRING);
+        when(node.getBlobContainer()).thenReturn(
+                new BlobContainer(containerName, "", "", new GregorianCalendar(), "OFF"));
+        return node;
+    }
+
+    @Test
+    public void testNodesRenderedTogetherAreLoadedInOneBatch() throws Exception {
+        final ContainerNode images = newNode("images");
+        final ContainerNode logs = newNode("logs");
+
+        loader.request(images);
+        loader.request(logs);
+        loader.request(images);
+        assertEquals(1, scheduledTasks.size());
+        verify(manager, never()).loadBlobContainerPermissions(anyString(), anyList());
+
+        scheduledTasks.get(0).run();
+        verify(manager, times(1)).loadBlobContainerPermissions(eq(CONNECTION_STRING), anyList());
+        verify(manager).loadBlobContainerPermissions(CONNECTION_STRING, Arrays.asList(
+                images.getBlobContainer(), logs.getBlobContainer()));
+        verify(images).onPermissionsLoaded();
+        verify(logs).onPermissionsLoaded();
+    }
+
+    @Test
+    public void testNodeRenderedAfterBatchSchedulesAnother() throws Exception {
+        final ContainerNode images = newNode("images");
+        final ContainerNode logs = newNode("logs");
+
+        loader.request(images);
+        scheduledTasks.get(0).run();
+        loader.request(logs);
+        assertEquals(2, scheduledTasks.size());
+
+        scheduledTasks.get(1).run();
+        verify(manager).loadBlobContainerPermissions(CONNECTION_STRING,
+                                                     Collections.singletonList(logs.getBlobContainer()));
+        verify(logs).onPermissionsLoaded();
+    }
+}
@@ -25,12 +25,22 @@ package com.microsoft.azuretools.adauth;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 final class AdTokenCache {
     private final Map<TokenCacheKey, AdTokenCacheEntry> tokenCacheDictionary;
+    // Secondary indexes from a normalized key part to the keys sharing it; they are only modified under the cache
+    // lock together with the dictionary, while queries read them without locking.
+    private final Map<String, Set<TokenCacheKey>> keysByClientId;
+    private final Map<String, Set<TokenCacheKey>> keysByUserId;
+    private final Map<String, Set<TokenCacheKey>> keysByAuthority;
 
     static AdTokenCache getInstance() {
         return SingletonHandler.INSTANCE;
@@ -40,10 +50,14 @@ final class AdTokenCache {
      * add an entry to cache.
      * @param entry AdTokenCacheEntry.
      */
-    void add(@NotNull AdTokenCacheEntry entry) {
+    synchronized void add(@NotNull AdTokenCacheEntry entry) {
         TokenCacheKey key = createKeyFromEntry(entry);
         if (key != null) {
-            tokenCacheDictionary.put(key, entry);
+            if (tokenCacheDictionary.put(key, entry) == null) {
+                addToIndex(keysByClientId, key.normalizedClientId, key);
+                addToIndex(keysByUserId, key.normalizedUserId, key);
+                addToIndex(keysByAuthority, key.normalizedAuthority, key);
+            }
         }
     }
 
@@ -77,19 +91,26 @@ final class AdTokenCache {
      * remove the entry from cache.
      * @param entry AdTokenCacheEntry to be removed.
      */
-    void remove(@NotNull final AdTokenCacheEntry entry) {
+    synchronized void remove(@NotNull final AdTokenCacheEntry entry) {
         TokenCacheKey key = createKeyFromEntry(entry);
         if (null == key) {
             return;
         }
-        tokenCacheDictionary.remove(key);
+        if (tokenCacheDictionary.remove(key) != null) {
+            removeFromIndex(keysByClientId, key.normalizedClientId, key);
+            removeFromIndex(keysByUserId, key.normalizedUserId, key);
+            removeFromIndex(keysByAuthority, key.normalizedAuthority, key);
+        }
     }
 
     /**
      * clear the cache.
      */
-    void clear() {
+    synchronized void clear() {
         this.tokenCacheDictionary.clear();
+        this.keysByClientId.clear();
+        this.keysByUserId.clear();
+        this.keysByAuthority.clear();
     }
 
     /**
@@ -112,21 +133,75 @@ final class AdTokenCache {
      */
     List<AdTokenCacheEntry> query(@NotNull final TokenCacheKey key, final Boolean isMrrt) {
         List<AdTokenCacheEntry> entryList = new ArrayList<AdTokenCacheEntry>();
-        tokenCacheDictionary.forEach((k, v) -> {
+        for (TokenCacheKey k : getCandidateKeys(key)) {
+            AdTokenCacheEntry v = tokenCacheDictionary.get(k);
             if (null != v && v.getAuthResult() != null) {
                 if ((null == isMrrt || v.getAuthResult().isMultipleResourceRefreshToken() == isMrrt.booleanValue())
-                        && (key.getClientId().isEmpty() || k.getClientId().equalsIgnoreCase(key.getClientId()))
-                        && (key.getUserId().isEmpty() || k.getUserId().equalsIgnoreCase(key.getUserId()))
-                        && (key.getAuthority().isEmpty() || k.getAuthority().equalsIgnoreCase(key.getAuthority()))) {
+                        && (key.getClientId().isEmpty() || k.normalizedClientId.equals(key.normalizedClientId))
+                        && (key.getUserId().isEmpty() || k.normalizedUserId.equals(key.normalizedUserId))
+                        && (key.getAuthority().isEmpty() || k.normalizedAuthority.equals(key.normalizedAuthority))) {
                     entryList.add(v);
                 }
             }
-        });
+        }
         return entryList;
     }
 
+    /**
+     * get the entry stored under exactly the given key.
+     * @param key TokenCacheKey.
+     * @return AdTokenCacheEntry, or null if there is none.
+     */
+    AdTokenCacheEntry get(@NotNull final TokenCacheKey key) {
+        return tokenCacheDictionary.get(key);
+    }
+
     private AdTokenCache() {
         tokenCacheDictionary = new ConcurrentHashMap<TokenCacheKey, AdTokenCacheEntry>();
+        keysByClientId = new ConcurrentHashMap<>();
+        keysByUserId = new ConcurrentHashMap<>();
+        keysByAuthority = new ConcurrentHashMap<>();
+    }
+
+    private Collection<TokenCacheKey> getCandidateKeys(@NotNull final TokenCacheKey key) {
+        // Start from the smallest index bucket of the parts given in the query; the query filters the rest.
+        Collection<TokenCacheKey> candidates = null;
+        if (!key.getClientId().isEmpty()) {
+            candidates = smallerOf(candidates, keysByClientId.get(key.normalizedClientId));
+        }
+        if (!key.getUserId().isEmpty()) {
+            candidates = smallerOf(candidates, keysByUserId.get(key.normalizedUserId));
+        }
+        if (!key.getAuthority().isEmpty()) {
+            candidates = smallerOf(candidates, keysByAuthority.get(key.normalizedAuthority));
+        }
+
+        if (candidates == null) {
+            return key.getClientId().isEmpty() && key.getUserId().isEmpty() && key.getAuthority().isEmpty()
+                    ? tokenCacheDictionary.keySet() : Collections.emptySet();
+        }
+        return candidates;
+    }
+
+    private static Collection<TokenCacheKey> smallerOf(final Collection<TokenCacheKey> current,
+                                                      final Set<TokenCacheKey> bucket) {
+        if (bucket == null) {
+            return Collections.emptySet();
+        }
+        return current == null || bucket.size() < current.size() ? bucket : current;
+    }
+
+    private static void addToIndex(@NotNull final Map<String, Set<TokenCacheKey>> index,
+                                   @NotNull final String part, @NotNull final TokenCacheKey key) {
+        index.computeIfAbsent(part, p -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    private static void removeFromIndex(@NotNull final Map<String, Set<TokenCacheKey>> index,
+                                        @NotNull final String part, @NotNull final TokenCacheKey key) {
+        index.computeIfPresent(part, (p, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
     }
 
     private TokenCacheKey createKeyFromEntry(@NotNull final AdTokenCacheEntry entry) {
@@ -146,6 +221,11 @@ final class AdTokenCache {
         private final String resource;
         private final String clientId;
         private final String userId;
+        private final String normalizedAuthority;
+        private final String normalizedResource;
+        private final String normalizedClientId;
+        private final String normalizedUserId;
+        private final int hashCode;
 
         /**
          * TokenCacheKey.
@@ -160,6 +240,12 @@ final class AdTokenCache {
             this.resource = resource != null ? resource : "";
             this.clientId = clientId != null ? clientId : "";
             this.userId = userId != null ? userId : "";
+            this.normalizedAuthority = normalize(this.authority);
+            this.normalizedResource = normalize(this.resource);
+            this.normalizedClientId = normalize(this.clientId);
+            this.normalizedUserId = normalize(this.userId);
+            this.hashCode = Objects.hash(normalizedAuthority, normalizedResource, normalizedClientId,
+                    normalizedUserId);
         }
 
         public String getAuthority() {
@@ -186,22 +272,22 @@ final class AdTokenCache {
 
             if (obj instanceof TokenCacheKey) {
                 TokenCacheKey other = (TokenCacheKey) obj;
-                return (other.hashCode() == this.hashCode());
+                return other.hashCode == this.hashCode
+                        && other.normalizedAuthority.equals(this.normalizedAuthority)
+                        && other.normalizedResource.equals(this.normalizedResource)
+                        && other.normalizedClientId.equals(this.normalizedClientId)
+                        && other.normalizedUserId.equals(this.normalizedUserId);
             }
             return false;
         }
 
         @Override
         public int hashCode() {
-            final String Delimiter = ":::";
-            String key = (this.authority.toLowerCase() + Delimiter
-                    + this.resource.toLowerCase() + Delimiter
-                    + this.clientId.toLowerCase() + Delimiter
-                    + this.userId.toLowerCase());
-            //                 + ((this.uniqueId != null) ? this.uniqueId.toLowerCase() : null) + Delimiter
-            //                 + ((this.displayableId != null) ? this.displayableId.toLowerCase() : null));
-            int hc = key.hashCode();
-            return hc;
+            return hashCode;
+        }
+
+        private static String normalize(@NotNull final String value) {
+            return value.toLowerCase(Locale.ROOT);
         }
     }
 }
@@ -34,6 +34,7 @@ import java.util.logging.Logger;
 abstract class CacheDriver {
     private static final Logger log = Logger.getLogger(CacheDriver.class.getName());
     private static final long EXPIREBUFFER = 300000; //in milliseconds
+    private static final long PROACTIVE_REFRESH_WINDOW = 600000; //in milliseconds, on top of EXPIREBUFFER
     private static final String DUPLICATETOKEN = "More than one token matches the criteria. The result is ambiguous.";
     private static final String FAILREFRSH = "Fail to refresh the token";
     private static final String NOAUTHRESULT = "Null auth result in cache entry";
@@ -96,24 +97,49 @@ abstract class CacheDriver {
             throw new AuthException(NOREFRESHTOKEN);
         }
 
-        String refreshToken = authResult.getRefreshToken();
+        final String refreshToken = authResult.getRefreshToken();
 
         long expireTimeStamp = authResult.getExpiresOnDate() != null ? authResult.getExpiresOnDate().getTime() : 0;
         long nowTimeStamp = (new Date()).getTime();
         long nowPlusBuffer = nowTimeStamp + EXPIREBUFFER;
+        final TokenRefreshManager refreshManager = TokenRefreshManager.getInstance();
 
         if (result.isResourceSpecific && nowPlusBuffer > expireTimeStamp) {
-            AdTokenCache.getInstance().remove(entry);
-            return refreshExpireEntry(refreshToken, key.getResource(), authResult.getUserInfo());
+            refreshManager.recordLookup(false);
+            try {
+                return refreshManager.refresh(key,
+                    () -> refreshExpireEntry(entry, refreshToken, key.getResource(), authResult.getUserInfo()));
+            } catch (AuthException e) {
+                if (nowTimeStamp < expireTimeStamp) {
+                    log.log(Level.WARNING, FAILREFRSH + ", keep using the unexpired token: " + e.getMessage());
+                    return entry;
+                }
+                throw e;
+            }
         } else if (!result.isResourceSpecific && authResult.isMultipleResourceRefreshToken()) {
-            return acquireTokenFromMrrt(refreshToken, key.getResource(), authResult.getUserInfo());
+            refreshManager.recordLookup(false);
+            return refreshManager.refresh(key,
+                () -> acquireTokenFromMrrt(key, refreshToken, key.getResource(), authResult.getUserInfo()));
         } else {
+            refreshManager.recordLookup(true);
+            if (result.isResourceSpecific && nowPlusBuffer + PROACTIVE_REFRESH_WINDOW > expireTimeStamp) {
+                refreshManager.refreshInBackground(key,
+                    () -> refreshExpireEntry(entry, refreshToken, key.getResource(), authResult.getUserInfo()));
+            }
             return entry;
         }
     }
 
-    private AdTokenCacheEntry acquireTokenFromMrrt(@NotNull final String refreshToken,
+    private AdTokenCacheEntry acquireTokenFromMrrt(@NotNull final TokenCacheKey key, @NotNull final String refreshToken,
                                                    final String resource, final UserInfo info) throws AuthException {
+        // The token may have been acquired while this call waited to start.
+        if (!key.getUserId().isEmpty()) {
+            AdTokenCacheEntry current = AdTokenCache.getInstance().get(key);
+            if (current != null && current.getAuthResult() != null) {
+                return current;
+            }
+        }
+
         AuthResult result = getTokenWithRefreshToken(refreshToken, resource);
 
         if (null == result) {
@@ -123,14 +149,23 @@ abstract class CacheDriver {
         return createAddEntry(result, resource, info);
     }
 
-    private AdTokenCacheEntry refreshExpireEntry(@NotNull final String refreshToken,
+    private AdTokenCacheEntry refreshExpireEntry(@NotNull final AdTokenCacheEntry entry,
+                                                 @NotNull final String refreshToken,
                                                  final String resource, final UserInfo info) throws AuthException {
+        // The entry may have been refreshed while this call waited to start.
+        AdTokenCacheEntry current = AdTokenCache.getInstance().get(
+                AdTokenCache.getInstance().createKey(entry.getAuthority(), entry.getClientId(), entry.getAuthResult()));
+        if (current != null && current != entry && current.getAuthResult() != null) {
+            return current;
+        }
+
         AuthResult result = getTokenWithRefreshToken(refreshToken, null);
 
         if (null == result) {
             throw new AuthException(FAILREFRSH);
         }
 
+        AdTokenCache.getInstance().remove(entry);
         return createAddEntry(result, resource, info);
     }
 
@@ -166,6 +201,14 @@ abstract class CacheDriver {
     }
 
     private SingleEntryResult loadSingleEntry(@NotNull final TokenCacheKey key) throws AuthException {
+        // With a known user the resource specific entry, if any, is the one stored under exactly this key.
+        if (!key.getUserId().isEmpty()) {
+            AdTokenCacheEntry exactEntry = AdTokenCache.getInstance().get(key);
+            if (exactEntry != null && exactEntry.getAuthResult() != null) {
+                return new SingleEntryResult(exactEntry, true);
+            }
+        }
+
         List<AdTokenCacheEntry> entries = getPotentialEntries(key);
         List<AdTokenCacheEntry> resSpecificEntries = new ArrayList<AdTokenCacheEntry>();
         AdTokenCacheEntry mrrtToken = null;
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azuretools.adauth;
+
+import com.microsoft.azuretools.adauth.AdTokenCache.TokenCacheKey;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.telemetrywrapper.EventType;
+import com.microsoft.azuretools.telemetrywrapper.EventUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.microsoft.azuretools.telemetry.TelemetryConstants.ACCOUNT;
+import static com.microsoft.azuretools.telemetry.TelemetryConstants.REFRESH_TOKEN;
+
+/**
+ * Coordinates token refreshes: concurrent refreshes of the same cache key share one request, and tokens close to
+ * expiry are refreshed on a background thread while the current token keeps being served.
+ */
+final class TokenRefreshManager {
+    private static final Logger log = Logger.getLogger(TokenRefreshManager.class.getName());
+    private static final int REFRESH_THREADS = 2;
+    private static final String BACKGROUND = "background";
+    private static final String SUCCEEDED = "succeeded";
+    private static final String REFRESH_LATENCY = "refreshLatencyMs";
+    private static final String COALESCED_WAITERS = "coalescedWaiters";
+    private static final String CACHE_HIT_RATIO = "cacheHitRatio";
+
+    private final Map<TokenCacheKey, Flight> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+    // Token lookups since the last refresh was reported, for the cache hit ratio.
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    static TokenRefreshManager getInstance() {
+        return SingletonHandler.INSTANCE;
+    }
+
+    /**
+     * record a token lookup.
+     * @param isCacheHit boolean whether the token was served from cache without refreshing it.
+     */
+    void recordLookup(final boolean isCacheHit) {
+        lookups.incrementAndGet();
+        if (isCacheHit) {
+            cacheHits.incrementAndGet();
+        }
+    }
+
+    /**
+     * refresh the token of the key, joining the refresh already in flight for it if there is one.
+     * @param key TokenCacheKey of the requested token.
+     * @param refresher Refresher to call if no refresh is in flight.
+     * @return AdTokenCacheEntry refreshed entry.
+     * @throws AuthException exception during refreshing the token.
+     */
+    AdTokenCacheEntry refresh(@NotNull final TokenCacheKey key, @NotNull final Refresher refresher)
+            throws AuthException {
+        final Flight flight = new Flight(false);
+        final Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            existing.waiters.incrementAndGet();
+            return await(existing);
+        }
+
+        run(key, flight, refresher);
+        return await(flight);
+    }
+
+    /**
+     * refresh the token of the key on a background thread unless a refresh is already in flight for it.
+     * @param key TokenCacheKey of the token.
+     * @param refresher Refresher to call.
+     */
+    void refreshInBackground(@NotNull final TokenCacheKey key, @NotNull final Refresher refresher) {
+        final Flight flight = new Flight(true);
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> run(key, flight, refresher));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, flight);
+            flight.result.completeExceptionally(e);
+        }
+    }
+
+    private void run(@NotNull final TokenCacheKey key, @NotNull final Flight flight,
+                     @NotNull final Refresher refresher) {
+        final long start = System.nanoTime();
+        try {
+            flight.result.complete(refresher.refresh());
+        } catch (Exception e) {
+            if (flight.isBackground) {
+                log.log(Level.WARNING, "Fail to refresh the token in background: " + e.getMessage());
+            }
+            flight.result.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, flight);
+            report(flight, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private void report(@NotNull final Flight flight, final long latencyMs) {
+        final long lookupCount = lookups.getAndSet(0);
+        final long hitCount = cacheHits.getAndSet(0);
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(BACKGROUND, String.valueOf(flight.isBackground));
+        properties.put(SUCCEEDED, String.valueOf(!flight.result.isCompletedExceptionally()));
+        final Map<String, Double> metrics = new HashMap<>();
+        metrics.put(REFRESH_LATENCY, (double) latencyMs);
+        metrics.put(COALESCED_WAITERS, (double) flight.waiters.get());
+        if (lookupCount > 0) {
+            metrics.put(CACHE_HIT_RATIO, (double) hitCount / lookupCount);
+        }
+        EventUtil.logEvent(EventType.info, ACCOUNT, REFRESH_TOKEN, properties, metrics);
+    }
+
+    private static AdTokenCacheEntry await(@NotNull final Flight flight) throws AuthException {
+        try {
+            return flight.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof AuthException) {
+                throw (AuthException) cause;
+            }
+            throw new AuthException(cause.getMessage(), cause);
+        }
+    }
+
+    private TokenRefreshManager() {
+        refreshExecutor = Executors.newFixedThreadPool(REFRESH_THREADS, runnable -> {
+            final Thread thread = new Thread(runnable, "azure-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    interface Refresher {
+        AdTokenCacheEntry refresh() throws AuthException;
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<AdTokenCacheEntry> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final boolean isBackground;
+
+        Flight(final boolean isBackground) {
+            this.isBackground = isBackground;
+        }
+    }
+
+    private static final class SingletonHandler {
+        private static final TokenRefreshManager INSTANCE = new TokenRefreshManager();
+    }
+}
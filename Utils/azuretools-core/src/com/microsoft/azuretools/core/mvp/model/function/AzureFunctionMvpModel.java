@@ -25,6 +25,7 @@ package com.microsoft.azuretools.core.mvp.model.function;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.Azure;
 import com.microsoft.azure.management.appservice.*;
+import com.microsoft.azure.management.appservice.implementation.SiteInner;
 import com.microsoft.azure.management.resources.Subscription;
 import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
@@ -33,21 +34,22 @@ import com.microsoft.azuretools.authmanage.AuthMethodManager;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.core.mvp.model.AzureMvpModel;
 import com.microsoft.azuretools.core.mvp.model.ResourceEx;
+import com.microsoft.azuretools.core.mvp.model.webapp.AppServiceResourceCache;
 import com.microsoft.azuretools.core.mvp.model.webapp.AppServiceUtils;
 import rx.Observable;
 import rx.schedulers.Schedulers;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class AzureFunctionMvpModel {
     public static final PricingTier CONSUMPTION_PRICING_TIER = new PricingTier("Consumption", "");
 
-    private final Map<String, List<ResourceEx<FunctionApp>>> subscriptionIdToFunctionApps;
+    private final AppServiceResourceCache<FunctionApp> functionAppCache;
 
     private AzureFunctionMvpModel() {
-        subscriptionIdToFunctionApps = new ConcurrentHashMap<>();
+        functionAppCache = new AppServiceResourceCache<>(AzureFunctionMvpModel::listFunctionAppSites,
+                FunctionAppWrapper::new, AppServiceResourceCache.DEFAULT_TTL_MS);
     }
 
     public static AzureFunctionMvpModel getInstance() {
@@ -86,7 +88,7 @@ public class AzureFunctionMvpModel {
     )
     public void deleteFunction(String sid, String appId) {
         getFunctionAppsClient(sid).deleteById(appId);
-        subscriptionIdToFunctionApps.remove(sid);
+        functionAppCache.remove(sid, appId);
     }
 
     @AzureOperation(
@@ -257,19 +259,14 @@ public class AzureFunctionMvpModel {
         type = AzureOperation.Type.SERVICE
     )
     private List<ResourceEx<FunctionApp>> listFunctionsInSubscription(final String subscriptionId, final boolean forceReload) {
-        if (!forceReload && subscriptionIdToFunctionApps.get(subscriptionId) != null) {
-            return subscriptionIdToFunctionApps.get(subscriptionId);
-        }
+        return functionAppCache.list(subscriptionId, forceReload);
+    }
 
+    private static List<SiteInner> listFunctionAppSites(final String subscriptionId) {
         final Azure azure = AuthMethodManager.getInstance().getAzureClient(subscriptionId);
-        List<ResourceEx<FunctionApp>> functions = azure.appServices().functionApps()
+        return azure.appServices().functionApps()
                 .inner().list().stream().filter(inner -> inner.kind() != null && Arrays.asList(inner.kind().split(",")).contains("functionapp"))
-                .map(inner -> new FunctionAppWrapper(subscriptionId, inner))
-                .map(app -> new ResourceEx<FunctionApp>(app, subscriptionId))
                 .collect(Collectors.toList());
-        subscriptionIdToFunctionApps.put(subscriptionId, functions);
-
-        return functions;
     }
 
     @AzureOperation(
@@ -25,22 +25,46 @@ package com.microsoft.azuretools.core.mvp.model.rediscache;
 import com.microsoft.azure.management.redis.RedisCache;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.exceptions.JedisException;
 
 public class RedisConnectionPools {
 
     private static final int TIMEOUT = 500;
-    private static final int MAX_CONNECTIONS = 1;
+    private static final int DEFAULT_MAX_POOLS = 8;
+    private static final int MAX_CONNECTIONS_PER_POOL = 8;
     private static final String GANNOT_GET_RESID = "Cannot get Redis Cache from Azure.";
+    private static final String INVALID_MAX_POOLS = "The maximum number of pools must be positive.";
 
-    private LinkedHashMap<String, JedisPool> pools;
+    private final PoolMap pools = new PoolMap();
 
     private RedisConnectionPools() {
-        this.pools = new LinkedHashMap<String, JedisPool>(MAX_CONNECTIONS);
+    }
+
+    // Access ordered, so the least recently used cache's pool is the one evicted.
+    private static final class PoolMap extends LinkedHashMap<String, JedisPool> {
+        private static final long serialVersionUID = 1L;
+
+        private int maxPools = DEFAULT_MAX_POOLS;
+
+        private PoolMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JedisPool> eldest) {
+            if (size() > maxPools) {
+                eldest.getValue().destroy();
+                return true;
+            }
+            return false;
+        }
     }
 
     private static final class RedisConnectionFactoryHolder {
@@ -51,6 +75,29 @@ public class RedisConnectionPools {
         return RedisConnectionFactoryHolder.INSTANCE;
     }
 
+    /**
+     * Set how many Redis Caches keep a connection pool at the same time. The pools of the least recently used
+     * caches are destroyed when there are more.
+     *
+     * @param maxPools
+     *            maximum number of pools to keep
+     */
+    public synchronized void setMaxPools(int maxPools) {
+        if (maxPools <= 0) {
+            throw new IllegalArgumentException(INVALID_MAX_POOLS);
+        }
+        pools.maxPools = maxPools;
+        Iterator<JedisPool> iterator = pools.values().iterator();
+        while (pools.size() > maxPools && iterator.hasNext()) {
+            iterator.next().destroy();
+            iterator.remove();
+        }
+    }
+
+    public synchronized int getMaxPools() {
+        return pools.maxPools;
+    }
+
     /**
      * Get Jedis connection.
      *
@@ -61,14 +108,19 @@ public class RedisConnectionPools {
      * @return jedis connection
      * @throws IOException Error getting the Redis Cache
      */
-    public synchronized Jedis getJedis(String sid, String id) throws Exception  {
-        if (pools.get(id) == null) {
-            if (pools.size() == MAX_CONNECTIONS) {
-                releasePool(pools.keySet().iterator().next());
+    public Jedis getJedis(String sid, String id) throws Exception  {
+        JedisPool pool = getOrConnectPool(sid, id);
+        try {
+            // Borrow outside the lock so a slow or exhausted cache does not block the others.
+            return pool.getResource();
+        } catch (JedisException e) {
+            if (!pool.isClosed()) {
+                throw e;
             }
-            connect(sid, id);
+            // Another thread evicted and destroyed the pool between the lookup and the borrow.
+            removePool(id, pool);
+            return getOrConnectPool(sid, id).getResource();
         }
-        return pools.get(id).getResource();
     }
 
     /**
@@ -78,16 +130,40 @@ public class RedisConnectionPools {
      *            id of the jedisPool which needs to be destroyed
      */
     public synchronized void releasePool(String id) {
-        if (pools.containsKey(id)) {
-            JedisPool jedisPool = pools.get(id);
-            if (jedisPool != null) {
-                jedisPool.destroy();
-            }
-            pools.remove(id);
+        JedisPool jedisPool = pools.remove(id);
+        if (jedisPool != null) {
+            jedisPool.destroy();
+        }
+    }
+
+    private JedisPool getOrConnectPool(String sid, String id) throws Exception {
+        JedisPool pool = getPool(id);
+        if (pool == null) {
+            pool = addPool(id, connect(sid, id));
         }
+        return pool;
+    }
+
+    private synchronized JedisPool getPool(String id) {
+        return pools.get(id);
     }
 
-    private void connect(String sid, String id) throws Exception {
+    private synchronized void removePool(String id, JedisPool pool) {
+        pools.remove(id, pool);
+    }
+
+    private synchronized JedisPool addPool(String id, JedisPool pool) {
+        JedisPool existing = pools.get(id);
+        if (existing != null) {
+            // Another thread connected to the same cache first.
+            pool.destroy();
+            return existing;
+        }
+        pools.put(id, pool);
+        return pool;
+    }
+
+    private JedisPool connect(String sid, String id) throws Exception {
         RedisCache redisCache = AzureRedisMvpModel.getInstance().getRedisCache(sid, id);
 
         if (redisCache == null) {
@@ -100,7 +176,9 @@ public class RedisConnectionPools {
         int port = redisCache.sslPort();
 
         // create connection pool according to redis setting
-        JedisPool pool = new JedisPool(new JedisPoolConfig(), hostName, port, TIMEOUT, password, true);
-        pools.put(id, pool);
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(MAX_CONNECTIONS_PER_POOL);
+        config.setMaxIdle(MAX_CONNECTIONS_PER_POOL);
+        return new JedisPool(config, hostName, port, TIMEOUT, password, true);
     }
 }
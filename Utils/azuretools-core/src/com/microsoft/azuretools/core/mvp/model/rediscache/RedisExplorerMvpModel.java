@@ -22,14 +22,19 @@
 
 package com.microsoft.azuretools.core.mvp.model.rediscache;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.ScanParams;
 import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.Tuple;
+import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.exceptions.JedisException;
 
 public class RedisExplorerMvpModel {
@@ -39,6 +44,9 @@ public class RedisExplorerMvpModel {
     private static final int DEFAULT_KEY_COUNT = 50;
     private static final long DEFAULT_RANGE_START = 0;
     private static final int DEFAULT_VAL_COUNT = 500;
+    // MEMORY USAGE is not a Jedis command and may be unavailable on older servers, so go through a script.
+    private static final String MEMORY_USAGE_SCRIPT = "local usage = redis.pcall('MEMORY', 'USAGE', KEYS[1]) "
+            + "if type(usage) == 'number' then return usage end return -1";
 
     private RedisExplorerMvpModel() {
     }
@@ -117,6 +125,51 @@ public class RedisExplorerMvpModel {
         }
     }
 
+    /**
+     * Scan the keys with count defined in DEFAULT_KEY_COUNT, together with the type, time to live and memory usage
+     * of every key in the page. The key details are fetched in a single pipelined round-trip.
+     *
+     * @param sid
+     *            subscription id of Redis Cache
+     * @param id
+     *            resource id of Redis Cache
+     * @param db
+     *            index of Redis Cache database
+     * @param cursor
+     *            cursor for Redis Scan command
+     * @param pattern
+     *            pattern for Redis Scan Param
+     * @return Scan Result with the details of the scanned keys
+     * @throws Exception
+     */
+    public ScanResult<RedisKeyInfo> scanKeyInfos(String sid, String id, int db, String cursor, String pattern)
+            throws Exception {
+        try (Jedis jedis = RedisConnectionPools.getInstance().getJedis(sid, id)) {
+            jedis.select(db);
+            ScanResult<String> keys = jedis.scan(cursor, new ScanParams().match(pattern).count(DEFAULT_KEY_COUNT));
+            List<String> keyNames = keys.getResult();
+            List<Response<String>> types = new ArrayList<>(keyNames.size());
+            List<Response<Long>> ttls = new ArrayList<>(keyNames.size());
+            List<Response<Object>> memoryUsages = new ArrayList<>(keyNames.size());
+            if (!keyNames.isEmpty()) {
+                Pipeline pipeline = jedis.pipelined();
+                for (String key : keyNames) {
+                    types.add(pipeline.type(key));
+                    ttls.add(pipeline.pttl(key));
+                    memoryUsages.add(pipeline.eval(MEMORY_USAGE_SCRIPT, Collections.singletonList(key),
+                            Collections.<String>emptyList()));
+                }
+                pipeline.sync();
+            }
+            List<RedisKeyInfo> keyInfos = new ArrayList<>(keyNames.size());
+            for (int i = 0; i < keyNames.size(); i++) {
+                keyInfos.add(new RedisKeyInfo(keyNames.get(i), types.get(i).get(), ttls.get(i).get(),
+                        getMemoryUsage(memoryUsages.get(i))));
+            }
+            return new ScanResult<>(keys.getStringCursor(), keyInfos);
+        }
+    }
+
     /**
      * Get the type of the given key.
      *
@@ -174,11 +227,32 @@ public class RedisExplorerMvpModel {
      * @throws Exception
      */
     public List<String> getListValue(String sid, String id, int db, String key) throws Exception {
+        return getListValue(sid, id, db, key, DEFAULT_RANGE_START, DEFAULT_VAL_COUNT);
+    }
+
+    /**
+     * Get one page of the value of a list type key.
+     *
+     * @param sid
+     *            subscription id of Redis Cache
+     * @param id
+     *            resource id of Redis Cache
+     * @param db
+     *            index of Redis Cache database
+     * @param key
+     *            name of the key
+     * @param start
+     *            index of the first element of the page
+     * @param count
+     *            maximum number of elements in the page
+     * @return the elements of the page, fewer than count if the list ends
+     * @throws Exception
+     */
+    public List<String> getListValue(String sid, String id, int db, String key, long start, int count)
+            throws Exception {
         try (Jedis jedis = RedisConnectionPools.getInstance().getJedis(sid, id)) {
             jedis.select(db);
-            long listLength = jedis.llen(key);
-            return jedis.lrange(key, DEFAULT_RANGE_START,
-                    listLength < DEFAULT_VAL_COUNT ? listLength : DEFAULT_VAL_COUNT);
+            return jedis.lrange(key, start, start + count - 1);
         }
     }
 
@@ -220,11 +294,32 @@ public class RedisExplorerMvpModel {
      * @throws Exception
      */
     public Set<Tuple> getZSetValue(String sid, String id, int db, String key) throws Exception {
+        return getZSetValue(sid, id, db, key, DEFAULT_RANGE_START, DEFAULT_VAL_COUNT);
+    }
+
+    /**
+     * Get one page of the value of a zset type key, ordered by score.
+     *
+     * @param sid
+     *            subscription id of Redis Cache
+     * @param id
+     *            resource id of Redis Cache
+     * @param db
+     *            index of Redis Cache database
+     * @param key
+     *            name of the key
+     * @param start
+     *            rank of the first member of the page
+     * @param count
+     *            maximum number of members in the page
+     * @return the members of the page with their scores, fewer than count if the zset ends
+     * @throws Exception
+     */
+    public Set<Tuple> getZSetValue(String sid, String id, int db, String key, long start, int count)
+            throws Exception {
         try (Jedis jedis = RedisConnectionPools.getInstance().getJedis(sid, id)) {
             jedis.select(db);
-            long zsetLength = jedis.zcard(key);
-            return jedis.zrangeWithScores(key, DEFAULT_RANGE_START,
-                    zsetLength < DEFAULT_VAL_COUNT ? zsetLength : DEFAULT_VAL_COUNT);
+            return jedis.zrangeWithScores(key, start, start + count - 1);
         }
     }
 
@@ -252,6 +347,16 @@ public class RedisExplorerMvpModel {
         }
     }
 
+    private long getMemoryUsage(Response<Object> response) {
+        try {
+            Object usage = response.get();
+            return usage instanceof Long ? (Long) usage : RedisKeyInfo.UNKNOWN_MEMORY_USAGE;
+        } catch (JedisDataException e) {
+            // Scripting is disabled or the key was removed in between.
+            return RedisKeyInfo.UNKNOWN_MEMORY_USAGE;
+        }
+    }
+
     private boolean canConnect(Jedis jedis, int index) {
         try {
             jedis.select(index);
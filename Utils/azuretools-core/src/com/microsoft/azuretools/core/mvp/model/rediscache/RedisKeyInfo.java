@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azuretools.core.mvp.model.rediscache;
+
+/**
+ * The type, time to live and memory usage of one Redis key, as returned by a key scan.
+ */
+public class RedisKeyInfo {
+
+    public static final long UNKNOWN_MEMORY_USAGE = -1;
+
+    private final String key;
+    private final String type;
+    private final long ttlMillis;
+    private final long memoryUsage;
+
+    /**
+     * Constructor for RedisKeyInfo class.
+     *
+     * @param key
+     *            name of the key
+     * @param type
+     *            type of the key, "none" if the key no longer exists
+     * @param ttlMillis
+     *            remaining time to live in milliseconds, -1 if the key does not expire, -2 if it no longer exists
+     * @param memoryUsage
+     *            bytes used by the key, UNKNOWN_MEMORY_USAGE if the server cannot report it
+     */
+    public RedisKeyInfo(String key, String type, long ttlMillis, long memoryUsage) {
+        this.key = key;
+        this.type = type;
+        this.ttlMillis = ttlMillis;
+        this.memoryUsage = memoryUsage;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azuretools.core.mvp.model.webapp;
+
+import com.microsoft.azure.management.appservice.OperatingSystem;
+import com.microsoft.azure.management.appservice.WebAppBase;
+import com.microsoft.azure.management.appservice.implementation.SiteInner;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.core.mvp.model.ResourceEx;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per subscription cache of the App Service apps listed from ARM.
+ * <p>
+ * A listing older than the TTL is still served while it is reloaded in background. A reload keeps the wrapper of
+ * every app whose site is unchanged, together with the details it already fetched, and the apps are indexed by
+ * operating system and resource group so filtered views don't scan the whole subscription.
+ */
+public class AppServiceResourceCache<T extends WebAppBase> {
+    public static final long DEFAULT_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final Logger logger = Logger.getLogger(AppServiceResourceCache.class.getName());
+
+    private final Function<String, List<SiteInner>> siteLister;
+    private final BiFunction<String, SiteInner, T> siteWrapper;
+    private final long ttlMs;
+    private final Map<String, Snapshot<T>> subscriptionIdToSnapshot = new ConcurrentHashMap<>();
+    private final Set<String> refreshingSubscriptionIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param siteLister  lists the sites of a subscription, filtered to the kind of app cached
+     * @param siteWrapper wraps a listed site into its app
+     * @param ttlMs       how long a listing is served before it is reloaded in background
+     */
+    public AppServiceResourceCache(@NotNull Function<String, List<SiteInner>> siteLister,
+                                   @NotNull BiFunction<String, SiteInner, T> siteWrapper,
+                                   long ttlMs) {
+        this.siteLister = siteLister;
+        this.siteWrapper = siteWrapper;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * List the apps of the subscription.
+     *
+     * @param force flag indicating whether to reload the apps before returning them
+     * @return an unmodifiable view of the cached apps
+     */
+    @NotNull
+    public List<ResourceEx<T>> list(@NotNull String subscriptionId, boolean force) {
+        return Collections.unmodifiableList(getSnapshot(subscriptionId, force).apps);
+    }
+
+    /**
+     * List the apps of the subscription running on the operating system.
+     */
+    @NotNull
+    public List<ResourceEx<T>> listByOperatingSystem(@NotNull String subscriptionId, boolean force,
+                                                     @NotNull OperatingSystem operatingSystem) {
+        return new ArrayList<>(getSnapshot(subscriptionId, force).osToApps
+                .getOrDefault(operatingSystem, Collections.emptyList()));
+    }
+
+    /**
+     * List the apps of the subscription in the resource group.
+     */
+    @NotNull
+    public List<ResourceEx<T>> listByResourceGroup(@NotNull String subscriptionId, boolean force,
+                                                   @NotNull String resourceGroup) {
+        return new ArrayList<>(getSnapshot(subscriptionId, force).resourceGroupToApps
+                .getOrDefault(resourceGroup.toLowerCase(Locale.ROOT), Collections.emptyList()));
+    }
+
+    /**
+     * Drop an app, e.g. after deleting it, without reloading the subscription.
+     */
+    public void remove(@NotNull String subscriptionId, @NotNull String appId) {
+        subscriptionIdToSnapshot.computeIfPresent(subscriptionId, (sid, snapshot) -> snapshot.without(appId));
+    }
+
+    public void clear() {
+        subscriptionIdToSnapshot.clear();
+    }
+
+    private Snapshot<T> getSnapshot(@NotNull String subscriptionId, boolean force) {
+        final Snapshot<T> snapshot = subscriptionIdToSnapshot.get(subscriptionId);
+        if (force || snapshot == null) {
+            return reload(subscriptionId);
+        }
+        if (System.currentTimeMillis() - snapshot.loadedAt > ttlMs) {
+            refreshInBackground(subscriptionId);
+        }
+        return snapshot;
+    }
+
+    private void refreshInBackground(@NotNull String subscriptionId) {
+        if (!refreshingSubscriptionIds.add(subscriptionId)) {
+            return;
+        }
+        Observable.fromCallable(() -> reload(subscriptionId))
+                  .subscribeOn(Schedulers.io())
+                  .doAfterTerminate(() -> refreshingSubscriptionIds.remove(subscriptionId))
+                  .subscribe(snapshot -> {
+                  }, e -> logger.log(Level.WARNING, "Fail to refresh App Services of subscription " + subscriptionId, e));
+    }
+
+    private Snapshot<T> reload(@NotNull String subscriptionId) {
+        final Snapshot<T> previous = subscriptionIdToSnapshot.get(subscriptionId);
+        final List<SiteInner> sites = siteLister.apply(subscriptionId);
+        final List<Entry<T>> entries = new ArrayList<>(sites.size());
+        for (final SiteInner site : sites) {
+            final Entry<T> cached = previous == null ? null : previous.idToEntry.get(normalize(site.id()));
+            if (cached != null && cached.isSameVersion(site)) {
+                entries.add(cached);
+            } else {
+                entries.add(new Entry<>(site, new ResourceEx<>(siteWrapper.apply(subscriptionId, site), subscriptionId)));
+            }
+        }
+        final Snapshot<T> loaded = new Snapshot<>(entries, System.currentTimeMillis());
+        return subscriptionIdToSnapshot.compute(subscriptionId, (sid, current) -> {
+            if (previous == null || current == null || current == previous) {
+                return loaded;
+            }
+            // The listing may have started before an app was removed, don't bring it back
+            final Set<String> removedIds = new HashSet<>(previous.idToEntry.keySet());
+            removedIds.removeAll(current.idToEntry.keySet());
+            return removedIds.isEmpty() ? loaded : loaded.without(removedIds);
+        });
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry<T extends WebAppBase> {
+        private final SiteInner site;
+        private final ResourceEx<T> app;
+
+        Entry(SiteInner site, ResourceEx<T> app) {
+            this.site = site;
+            this.app = app;
+        }
+
+        // Sites carry no ETag, the last modified time and state are what a listing tells about changes
+        boolean isSameVersion(SiteInner other) {
+            return Objects.equals(site.lastModifiedTimeUtc(), other.lastModifiedTimeUtc())
+                && Objects.equals(site.state(), other.state());
+        }
+    }
+
+    private static final class Snapshot<T extends WebAppBase> {
+        private final List<Entry<T>> entries;
+        private final long loadedAt;
+        private final List<ResourceEx<T>> apps = new ArrayList<>();
+        private final Map<String, Entry<T>> idToEntry = new HashMap<>();
+        private final Map<OperatingSystem, List<ResourceEx<T>>> osToApps = new HashMap<>();
+        private final Map<String, List<ResourceEx<T>>> resourceGroupToApps = new HashMap<>();
+
+        Snapshot(List<Entry<T>> entries, long loadedAt) {
+            this.entries = entries;
+            this.loadedAt = loadedAt;
+            for (final Entry<T> entry : entries) {
+                final T app = entry.app.getResource();
+                apps.add(entry.app);
+                idToEntry.put(normalize(entry.site.id()), entry);
+                osToApps.computeIfAbsent(app.operatingSystem(), os -> new ArrayList<>()).add(entry.app);
+                resourceGroupToApps.computeIfAbsent(normalize(app.resourceGroupName()), rg -> new ArrayList<>())
+                                   .add(entry.app);
+            }
+        }
+
+        Snapshot<T> without(String appId) {
+            return without(Collections.singleton(normalize(appId)));
+        }
+
+        Snapshot<T> without(Set<String> normalizedAppIds) {
+            final List<Entry<T>> remaining = new ArrayList<>(entries);
+            remaining.removeIf(entry -> normalizedAppIds.contains(normalize(entry.site.id())));
+            return new Snapshot<>(remaining, loadedAt);
+        }
+    }
+}
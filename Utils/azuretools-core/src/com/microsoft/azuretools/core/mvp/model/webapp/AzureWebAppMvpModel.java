@@ -48,7 +48,6 @@ import java.io.*;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -60,7 +59,7 @@ public class AzureWebAppMvpModel {
     private static final Logger logger = Logger.getLogger(AzureWebAppMvpModel.class.getName());
 
     public static final String CANNOT_GET_WEB_APP_WITH_ID = "Cannot get Web App with ID: ";
-    private final Map<String, List<ResourceEx<WebApp>>> subscriptionIdToWebApps;
+    private final AppServiceResourceCache<WebApp> webAppCache;
 
     private static final List<WebAppUtils.WebContainerMod> JAVA_8_JAR_CONTAINERS =
         Collections.singletonList(WebAppUtils.WebContainerMod.Java_SE_8);
@@ -68,7 +67,8 @@ public class AzureWebAppMvpModel {
         WebAppUtils.WebContainerMod.Java_SE_11);
 
     private AzureWebAppMvpModel() {
-        subscriptionIdToWebApps = new ConcurrentHashMap<>();
+        webAppCache = new AppServiceResourceCache<>(AzureWebAppMvpModel::listWebAppSites, WebAppWrapper::new,
+                                                    AppServiceResourceCache.DEFAULT_TTL_MS);
     }
 
     public static AzureWebAppMvpModel getInstance() {
@@ -312,7 +312,7 @@ public class AzureWebAppMvpModel {
 
     public void deleteWebApp(String sid, String appId) {
         AuthMethodManager.getInstance().getAzureClient(sid).webApps().deleteById(appId);
-        subscriptionIdToWebApps.remove(sid);
+        webAppCache.remove(sid, appId);
     }
 
     /**
@@ -657,20 +657,14 @@ public class AzureWebAppMvpModel {
      * List web apps on linux by subscription id.
      */
     public List<ResourceEx<WebApp>> listWebAppsOnLinux(@NotNull final String subscriptionId, final boolean force) {
-        return listWebApps(subscriptionId, force)
-            .stream()
-            .filter(resourceEx -> OperatingSystem.LINUX == resourceEx.getResource().operatingSystem())
-            .collect(Collectors.toList());
+        return webAppCache.listByOperatingSystem(subscriptionId, force, OperatingSystem.LINUX);
     }
 
     /**
      * List web apps on windows by subscription id.
      */
     public List<ResourceEx<WebApp>> listWebAppsOnWindows(@NotNull final String subscriptionId, final boolean force) {
-        return listWebApps(subscriptionId, force)
-            .stream()
-            .filter(resourceEx -> OperatingSystem.WINDOWS == (resourceEx.getResource().operatingSystem()))
-            .collect(Collectors.toList());
+        return webAppCache.listByOperatingSystem(subscriptionId, force, OperatingSystem.WINDOWS);
     }
 
     /**
@@ -683,19 +677,23 @@ public class AzureWebAppMvpModel {
         type = AzureOperation.Type.SERVICE
     )
     public List<ResourceEx<WebApp>> listWebApps(final String subscriptionId, final boolean force) {
-        if (!force && subscriptionIdToWebApps.get(subscriptionId) != null) {
-            return subscriptionIdToWebApps.get(subscriptionId);
-        }
+        return webAppCache.list(subscriptionId, force);
+    }
+
+    /**
+     * List web apps by subscription id and resource group name.
+     */
+    @NotNull
+    public List<ResourceEx<WebApp>> listWebAppsByResourceGroup(final String subscriptionId, final String resourceGroup,
+                                                               final boolean force) {
+        return webAppCache.listByResourceGroup(subscriptionId, force, resourceGroup);
+    }
+
+    private static List<SiteInner> listWebAppSites(final String subscriptionId) {
         final Azure azure = AuthMethodManager.getInstance().getAzureClient(subscriptionId);
         final Predicate<SiteInner> filter = inner -> inner.kind() == null || !Arrays.asList(inner.kind().split(","))
                                                                                     .contains("functionapp");
-        final List<ResourceEx<WebApp>> webapps = azure.appServices().webApps()
-                                                      .inner().list().stream().filter(filter)
-                                                      .map(inner -> new WebAppWrapper(subscriptionId, inner))
-                                                      .map(app -> new ResourceEx<WebApp>(app, subscriptionId))
-                                                      .collect(Collectors.toList());
-        subscriptionIdToWebApps.put(subscriptionId, webapps);
-        return webapps;
+        return azure.appServices().webApps().inner().list().stream().filter(filter).collect(Collectors.toList());
     }
 
     /**
@@ -853,7 +851,7 @@ public class AzureWebAppMvpModel {
         type = AzureOperation.Type.TASK
     )
     public void clearWebAppsCache() {
-        subscriptionIdToWebApps.clear();
+        webAppCache.clear();
     }
 
     @AzureOperation(
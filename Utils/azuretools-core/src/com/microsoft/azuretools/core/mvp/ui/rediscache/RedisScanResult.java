@@ -22,6 +22,10 @@
 
 package com.microsoft.azuretools.core.mvp.ui.rediscache;
 
+import com.microsoft.azuretools.core.mvp.model.rediscache.RedisKeyInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import redis.clients.jedis.ScanResult;
@@ -29,14 +33,33 @@ import redis.clients.jedis.ScanResult;
 public class RedisScanResult {
 
     private List<String> keys;
+    private List<RedisKeyInfo> keyInfos;
     private String nextCursor;
 
 
     public RedisScanResult(ScanResult<String> result) {
         this.keys = result.getResult();
+        this.keyInfos = Collections.emptyList();
         this.nextCursor = result.getStringCursor();
     }
 
+    /**
+     * Create a scan result carrying the details of the scanned keys.
+     *
+     * @param result
+     *            scan result with the type, time to live and memory usage of each key
+     * @return the scan result for the view
+     */
+    public static RedisScanResult fromKeyInfos(ScanResult<RedisKeyInfo> result) {
+        List<String> keys = new ArrayList<>(result.getResult().size());
+        for (RedisKeyInfo info : result.getResult()) {
+            keys.add(info.getKey());
+        }
+        RedisScanResult scanResult = new RedisScanResult(new ScanResult<>(result.getStringCursor(), keys));
+        scanResult.keyInfos = result.getResult();
+        return scanResult;
+    }
+
     public String getNextCursor() {
         return nextCursor;
     }
@@ -44,4 +67,8 @@ public class RedisScanResult {
     public List<String> getKeys() {
         return keys;
     }
+
+    public List<RedisKeyInfo> getKeyInfos() {
+        return keyInfos;
+    }
 }
@@ -28,8 +28,11 @@ import com.microsoft.azuretools.azurecommons.helpers.RedisKeyType;
 
 public class RedisValueData {
 
+    public static final long NO_MORE_VALUES = -1;
+
     private ArrayList<String[]> rowData;
     private RedisKeyType keyType;
+    private long nextStart;
 
     /**
      * Constructor for RedisValueData class.
@@ -42,8 +45,23 @@ public class RedisValueData {
      *            the Redis Cache's key type
      */
     public RedisValueData(ArrayList<String[]> rowData, RedisKeyType keyType) {
+        this(rowData, keyType, NO_MORE_VALUES);
+    }
+
+    /**
+     * Constructor for one page of a list or zset value.
+     *
+     * @param rowData
+     *            the data for each table row of the page
+     * @param keyType
+     *            the Redis Cache's key type
+     * @param nextStart
+     *            index of the first element of the next page, NO_MORE_VALUES if this is the last page
+     */
+    public RedisValueData(ArrayList<String[]> rowData, RedisKeyType keyType, long nextStart) {
         this.rowData = rowData;
         this.keyType = keyType;
+        this.nextStart = nextStart;
     }
 
     public ArrayList<String[]> getRowData() {
@@ -53,4 +71,12 @@ public class RedisValueData {
     public RedisKeyType getKeyType() {
         return keyType;
     }
+
+    public long getNextStart() {
+        return nextStart;
+    }
+
+    public boolean hasMoreValues() {
+        return nextStart != NO_MORE_VALUES;
+    }
 }
@@ -28,27 +28,26 @@ import com.microsoft.azure.management.appservice.WebApp;
 import com.microsoft.azure.management.resources.Location;
 import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.Subscription;
+import com.microsoft.azure.management.resources.fluentcore.arm.models.HasResourceGroup;
 import com.microsoft.azuretools.authmanage.AuthMethodManager;
 import com.microsoft.azuretools.authmanage.CommonSettings;
 import com.microsoft.azuretools.authmanage.ISubscriptionSelectionListener;
 import com.microsoft.azuretools.authmanage.SubscriptionManager;
 import com.microsoft.azuretools.authmanage.models.SubscriptionDetail;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.sdkmanage.AzureManager;
 import com.microsoft.azuretools.utils.WebAppUtils.WebAppDetails;
 import rx.Observable;
-import rx.Subscriber;
 import rx.exceptions.Exceptions;
-import rx.functions.Action1;
-import rx.functions.Func1;
 import rx.schedulers.Schedulers;
 
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -58,6 +57,8 @@ import java.util.stream.Collectors;
  */
 public class AzureModelController {
     private static final Logger LOGGER = Logger.getLogger(AzureModelController.class.getName());
+    private static final long CANCEL_CHECK_INTERVAL_MS = 200;
+    private static AzureResourceInventory resourceInventory = new ArmResourceInventory();
     private static ISubscriptionSelectionListener subscriptionSelectionListener = new ISubscriptionSelectionListener() {
         @Override
         public void update(boolean isRefresh) {
@@ -164,9 +165,15 @@ public class AzureModelController {
 
                 // resource group maps
                 Azure azure = azureManager.getAzure(sd.getSubscriptionId());
-                List<ResourceGroup> rgList = azure.resourceGroups().list();
+                List<ResourceGroup> rgList = resourceInventory.listResourceGroups(azure);
                 srgMap.put(sd, rgList);
-                updateResGrDependency(azure, rgList, progressIndicator, rgwaMap, rgspMap);
+                if (rgwaMap != null && rgspMap != null) {
+                    if (progressIndicator != null) {
+                        progressIndicator.setText("Reading App Services...");
+                    }
+                    putByResourceGroup(rgList, resourceInventory.listWebApps(azure), rgwaMap);
+                    putByResourceGroup(rgList, resourceInventory.listAppServicePlans(azure), rgspMap);
+                }
             } else {
                 // find and modify the key
                 for (SubscriptionDetail sdk : srgMap.keySet()) {
@@ -178,59 +185,32 @@ public class AzureModelController {
         }
     }
 
-    static class RgDepParams {
-        ResourceGroup rg;
-        List<WebApp> wal;
-        List<AppServicePlan> aspl;
+    /**
+     * Replace the source the cached resources are listed from, e.g. with a local stub.
+     */
+    public static void setResourceInventory(@NotNull AzureResourceInventory inventory) {
+        resourceInventory = inventory;
+    }
 
-        public RgDepParams(ResourceGroup rg, List<WebApp> wal, List<AppServicePlan> aspl) {
-            this.rg = rg;
-            this.wal = wal;
-            this.aspl = aspl;
+    private static <T extends HasResourceGroup> void putByResourceGroup(List<ResourceGroup> rgList,
+                                                                        List<T> resources,
+                                                                        Map<ResourceGroup, List<T>> rgMap) {
+        // Resource IDs don't always keep the casing of the resource group name
+        Map<String, List<T>> nameToResources = resources.stream()
+                .collect(Collectors.groupingBy(resource -> resource.resourceGroupName().toLowerCase(Locale.ROOT)));
+        for (ResourceGroup rg : rgList) {
+            rgMap.put(rg, new LinkedList<>(
+                    nameToResources.getOrDefault(rg.name().toLowerCase(Locale.ROOT), Collections.emptyList())));
         }
     }
 
-    private static void updateResGrDependency(Azure azure,
-                                              List<ResourceGroup> rgList,
-                                              IProgressIndicator progressIndicator,
-                                              Map<ResourceGroup, List<WebApp>> rgwaMap,
-                                              Map<ResourceGroup, List<AppServicePlan>> rgspMap) {
-
-        if (progressIndicator != null) {
-            progressIndicator.setText("Reading App Services...");
-        }
-        int tasksSize = rgList.size();
-        if (tasksSize == 0) {
-            return;
+    private static <T> Observable<T> cancelOnRequest(Observable<T> work, IProgressIndicator progressIndicator) {
+        if (progressIndicator == null) {
+            return work;
         }
-        Observable.from(rgList).flatMap(new Func1<ResourceGroup, Observable<? extends RgDepParams>>() {
-            @Override
-            public Observable<? extends RgDepParams> call(ResourceGroup rg) {
-                return Observable.create(new Observable.OnSubscribe<RgDepParams>() {
-                    @Override
-                    public void call(Subscriber<? super RgDepParams> subscriber) {
-                        List<WebApp> wal = azure.webApps().listByResourceGroup(rg.name());
-                        List<AppServicePlan> aspl = azure.appServices().appServicePlans().listByResourceGroup(rg.name())
-                                .stream().collect(Collectors.toList());
-                        subscriber.onNext(new RgDepParams(rg, wal, aspl));
-                        subscriber.onCompleted();
-                    }
-                }).subscribeOn(Schedulers.io());
-            }
-        }, tasksSize)
-                .subscribeOn(Schedulers.newThread())
-                .toBlocking()
-                .subscribe(new Action1<RgDepParams>() {
-                    @Override
-                    public void call(RgDepParams params) {
-                        synchronized (rgwaMap) {
-                            synchronized (rgspMap) {
-                                rgwaMap.put(params.rg, params.wal);
-                                rgspMap.put(params.rg, params.aspl);
-                            }
-                        }
-                    }
-                });
+        // The indicator can only be polled; stopping the subscription unsubscribes the requests still running
+        return work.takeUntil(Observable.interval(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS)
+                .filter(tick -> progressIndicator.isCanceled()));
     }
 
     public static synchronized void updateSubscriptionMaps(IProgressIndicator progressIndicator) throws CanceledByUserException {
@@ -265,7 +245,9 @@ public class AzureModelController {
 
         List<SubscriptionDetail> sdl = subscriptionManager.getSubscriptionDetails();
         if (sdl.size() > 0) {
-            Observable.from(sdl).flatMap((sd) ->
+            // The listings canceled keep running in the background, from the same inventory
+            final AzureResourceInventory inventory = resourceInventory;
+            cancelOnRequest(Observable.from(sdl).flatMap((sd) ->
                     Observable.create((subscriber) -> {
                         try {
                             if (progressIndicator != null && progressIndicator.isCanceled()) {
@@ -278,7 +260,7 @@ public class AzureModelController {
                                 }
                                 Azure azure = azureManager.getAzure(sd.getSubscriptionId());
 
-                                List<ResourceGroup> rgList = azure.resourceGroups().list();
+                                List<ResourceGroup> rgList = inventory.listResourceGroups(azure);
                                 sdrgMap.put(sd, rgList);
 
                                 if (sidToSubscriptionMap.containsKey(sd.getSubscriptionId())) {
@@ -291,7 +273,12 @@ public class AzureModelController {
                         } catch (Exception e) {
                             Exceptions.propagate(e);
                         }
-                    }).subscribeOn(Schedulers.io()), sdl.size()).subscribeOn(Schedulers.io()).toBlocking().subscribe();
+                    }).subscribeOn(Schedulers.io()), sdl.size()), progressIndicator)
+                    .subscribeOn(Schedulers.io()).toBlocking().subscribe();
+            if (progressIndicator != null && progressIndicator.isCanceled()) {
+                clearAll();
+                throw new CanceledByUserException();
+            }
         }
         azureModel.setSubscriptionToResourceGroupMap(sdrgMap);
         azureModel.setSubscriptionToLocationMap(sdlocMap);
@@ -308,58 +295,35 @@ public class AzureModelController {
         AzureModel azureModel = AzureModel.getInstance();
         Map<ResourceGroup, List<WebApp>> rgwaMap = azureModel.createResourceGroupToWebAppMap();
         Map<ResourceGroup, List<AppServicePlan>> rgspMap = azureModel.createResourceGroupToAppServicePlanMap();
-        Set<SubscriptionDetail> sdSet = azureModel.getSubscriptionToResourceGroupMap().keySet();
-        if (sdSet.size() == 0) {
+        Map<SubscriptionDetail, List<ResourceGroup>> sdrgMap = azureModel.getSubscriptionToResourceGroupMap();
+        if (sdrgMap.size() == 0) {
             azureModel.setResourceGroupToWebAppMap(rgwaMap);
             azureModel.setResourceGroupToAppServicePlanMap(rgspMap);
             return;
         }
 
-        CountDownLatch countDownLatch = new CountDownLatch(sdSet.size());
-        Observable.from(sdSet).flatMap((sd) ->
-                Observable.create((subscriber) -> {
-                    try {
-                        List<ResourceGroup> rgList = azureModel.getSubscriptionToResourceGroupMap().get(sd);
-                        if (rgList.size() > 0) {
-                            Azure azure = azureManager.getAzure(sd.getSubscriptionId());
-                            updateResGrDependency(azure, rgList, progressIndicator, rgwaMap, rgspMap);
-                        }
-                        subscriber.onCompleted();
-                    } catch (Exception e) {
-                        Exceptions.propagate(e);
-                    } finally {
-                        countDownLatch.countDown();
-                    }
-                }).subscribeOn(Schedulers.io()), sdSet.size()).subscribeOn(Schedulers.io()).subscribe();
-
-        Thread cancelCheckThread = new Thread(() -> {
-            try {
-                while (true) {
-                    if (progressIndicator != null && progressIndicator.isCanceled()) {
-                        long count = countDownLatch.getCount();
-                        for (long i = 0; i < count; i++) {
-                            countDownLatch.countDown();
-                        }
-                        clearAll();
-                        break;
-                    }
-                    if (countDownLatch.getCount() <= 0) {
-                        break;
-                    }
-                    Thread.sleep(1000);
-                }
-            } catch (Exception ex) {
-            }
-        });
-        cancelCheckThread.setDaemon(true);
-        cancelCheckThread.start();
-
-        try {
-            countDownLatch.await();
-        } catch (Exception ignore) {
+        if (progressIndicator != null) {
+            progressIndicator.setText("Reading App Services...");
         }
+        // One listing of web apps and one of plans per subscription, grouped into the resource groups locally
+        final AzureResourceInventory inventory = resourceInventory;
+        cancelOnRequest(Observable.from(sdrgMap.entrySet())
+                .filter(entry -> entry.getValue().size() > 0)
+                .flatMap(entry -> Observable.fromCallable(() -> {
+                    Azure azure = azureManager.getAzure(entry.getKey().getSubscriptionId());
+                    putByResourceGroup(entry.getValue(), inventory.listWebApps(azure), rgwaMap);
+                    putByResourceGroup(entry.getValue(), inventory.listAppServicePlans(azure), rgspMap);
+                    return entry.getKey();
+                }).subscribeOn(Schedulers.io()).onErrorResumeNext(e -> {
+                    LOGGER.log(Level.WARNING, "Fail to list App Services of subscription "
+                            + entry.getKey().getSubscriptionId(), e);
+                    return Observable.empty();
+                }), sdrgMap.size()), progressIndicator)
+                .toBlocking()
+                .subscribe();
 
         if (progressIndicator != null && progressIndicator.isCanceled()) {
+            clearAll();
             throw new CanceledByUserException();
         }
 
@@ -143,4 +143,58 @@ public class AdTokenCacheTest {
         qResult = AdTokenCache.getInstance().query(q2, true);
         Assert.assertEquals(1, qResult.size());
     }
+
+    @Test
+    public void testKeyEquality() {
+        AdTokenCache.TokenCacheKey k1 = new AdTokenCache.TokenCacheKey("A/Common", "ClientId", "User@M.com", "Manage");
+        AdTokenCache.TokenCacheKey k2 = new AdTokenCache.TokenCacheKey("a/common", "clientid", "user@m.com", "manage");
+        Assert.assertEquals(k1, k2);
+        Assert.assertEquals(k1.hashCode(), k2.hashCode());
+
+        Assert.assertEquals("az".hashCode(), "b[".hashCode());
+        AdTokenCache.TokenCacheKey k3 = new AdTokenCache.TokenCacheKey("a/common", "clientid", "user@m.com", "az");
+        AdTokenCache.TokenCacheKey k4 = new AdTokenCache.TokenCacheKey("a/common", "clientid", "user@m.com", "b[");
+        Assert.assertEquals(k3.hashCode(), k4.hashCode());
+        Assert.assertNotEquals(k3, k4);
+    }
+
+    @Test
+    public void testQueryByIndexedParts() {
+        AuthResult authResult1 = new AuthResult("tokenType", "accessToken",
+                "refreshToken", 100, null, "resource1");
+        AuthResult authResult2 = new AuthResult("tokenType", "accessToken",
+                "refreshToken", 100, null, "resource2");
+        AdTokenCache.getInstance().add(new AdTokenCacheEntry(authResult1, "tenant1", "clientId"));
+        AdTokenCache.getInstance().add(new AdTokenCacheEntry(authResult2, "tenant1", "clientId"));
+        AdTokenCache.getInstance().add(new AdTokenCacheEntry(authResult1, "Tenant2", "otherClient"));
+
+        List<AdTokenCacheEntry> qResult = AdTokenCache.getInstance().query(
+                new AdTokenCache.TokenCacheKey("TENANT1", null, null, null), null);
+        Assert.assertEquals(2, qResult.size());
+
+        qResult = AdTokenCache.getInstance().query(
+                new AdTokenCache.TokenCacheKey("tenant2", "OtherClient", null, null), null);
+        Assert.assertEquals(1, qResult.size());
+
+        qResult = AdTokenCache.getInstance().query(
+                new AdTokenCache.TokenCacheKey("tenant2", "clientId", null, null), null);
+        Assert.assertEquals(0, qResult.size());
+
+        qResult = AdTokenCache.getInstance().query(
+                new AdTokenCache.TokenCacheKey(null, null, "unknown", null), null);
+        Assert.assertEquals(0, qResult.size());
+
+        qResult = AdTokenCache.getInstance().query(new AdTokenCache.TokenCacheKey(null, null, null, null), null);
+        Assert.assertEquals(3, qResult.size());
+
+        AdTokenCache.getInstance().remove(new AdTokenCacheEntry(authResult1, "tenant2", "otherclient"));
+        qResult = AdTokenCache.getInstance().query(
+                new AdTokenCache.TokenCacheKey(null, "otherClient", null, null), null);
+        Assert.assertEquals(0, qResult.size());
+        Map<String, ?> clientIndex = Whitebox.<Map<String, ?> >getInternalState(AdTokenCache.getInstance(), "keysByClientId");
+        Assert.assertEquals(1, clientIndex.size());
+
+        Assert.assertNotNull(AdTokenCache.getInstance().get(
+                new AdTokenCache.TokenCacheKey("Tenant1", "ClientID", null, "RESOURCE2")));
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azuretools.adauth;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class CacheDriverConcurrencyTest {
+    private static final String CLIENT_ID = "123";
+    private static final String[] RESOURCES = {"manage", "graph", "storage", "synapse", "datalake"};
+    private static final int USERS = 40;
+    private static final int TENANTS = 25;
+    private static final int THREADS = 8;
+    private static final int LOOKUPS_PER_THREAD = 20000;
+
+    @Before
+    public void setUp() {
+        AdTokenCache.getInstance().clear();
+        for (int u = 0; u < USERS; u++) {
+            IdToken idToken = new IdToken();
+            idToken.upn = "user" + u + "@m.com";
+            idToken.subject = "subject" + u;
+            UserInfo info = UserInfo.createFromIdTokens(idToken);
+            for (int t = 0; t < TENANTS; t++) {
+                for (String resource : RESOURCES) {
+                    AuthResult authResult = new AuthResult("type", "atoken", "rtoken" + u, 300000000, info, resource);
+                    AdTokenCache.getInstance().add(new AdTokenCacheEntry(authResult, "a/tenant" + t, CLIENT_ID));
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testConcurrentFind() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final int seed = i;
+                futures.add(executor.submit(() -> {
+                    int found = 0;
+                    for (int n = 0; n < LOOKUPS_PER_THREAD; n++) {
+                        int u = (seed * 7 + n) % USERS;
+                        int t = (seed * 13 + n) % TENANTS;
+                        String resource = RESOURCES[n % RESOURCES.length];
+                        AuthResult result = createDriver("A/Tenant" + t)
+                                .find(resource.toUpperCase(), "USER" + u + "@M.COM");
+                        if (result != null && resource.equals(result.getResource())
+                                && ("rtoken" + u).equals(result.getRefreshToken())) {
+                            found++;
+                        }
+                    }
+                    return found;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                Assert.assertEquals(LOOKUPS_PER_THREAD, future.get().intValue());
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private CacheDriver createDriver(String authority) {
+        return new CacheDriver(authority, CLIENT_ID) {
+            @Override
+            protected AuthResult getTokenWithRefreshToken(String refreshToken, String resource) throws AuthException {
+                throw new AuthException("Every token is cached and unexpired");
+            }
+        };
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azuretools.adauth;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TokenRefreshManagerTest {
+    private static final String AUTHORITY = "a/common";
+    private static final String CLIENT_ID = "123";
+    private static final String USER_ID = "a@m.com";
+    private static final String RESOURCE = "manage";
+
+    private final AtomicInteger refreshCalls = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        AdTokenCache.getInstance().clear();
+        refreshCalls.set(0);
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentRefreshesAreCoalesced() throws Exception {
+        // Expires within the refresh buffer, so every lookup needs a refreshed token.
+        addEntry("rtokenold", 100);
+        final CountDownLatch release = new CountDownLatch(1);
+        final int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<AuthResult>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> createDriver(() -> {
+                    release.await();
+                    return new AuthResult("type", "atokennew", "rtokennew", 3600, null, null);
+                }).find(RESOURCE, USER_ID)));
+            }
+            Thread.sleep(500);
+            release.countDown();
+            for (Future<AuthResult> future : futures) {
+                Assert.assertEquals("rtokennew", future.get().getRefreshToken());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, refreshCalls.get());
+    }
+
+    @Test
+    public void testFailedRefreshKeepsUnexpiredToken() throws Exception {
+        addEntry("rtokenold", 100);
+        AuthResult result = createDriver(() -> {
+            throw new AuthException("refresh failed");
+        }).find(RESOURCE, USER_ID);
+        Assert.assertEquals("rtokenold", result.getRefreshToken());
+        Assert.assertEquals(1, refreshCalls.get());
+    }
+
+    @Test(expected = AuthException.class)
+    public void testFailedRefreshOfExpiredToken() throws Exception {
+        addEntry("rtokenold", -1);
+        createDriver(() -> {
+            throw new AuthException("refresh failed");
+        }).find(RESOURCE, USER_ID);
+    }
+
+    @Test(timeout = 10000)
+    public void testTokenIsRefreshedInBackgroundBeforeExpiry() throws Exception {
+        // Expires after the refresh buffer but within the background refresh window.
+        addEntry("rtokenold", 600);
+        final CountDownLatch refreshed = new CountDownLatch(1);
+        CacheDriver driver = createDriver(() -> {
+            refreshed.countDown();
+            return new AuthResult("type", "atokennew", "rtokennew", 3600, null, null);
+        });
+
+        Assert.assertEquals("rtokenold", driver.find(RESOURCE, USER_ID).getRefreshToken());
+        Assert.assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        while (!"rtokennew".equals(driver.find(RESOURCE, USER_ID).getRefreshToken())) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, refreshCalls.get());
+    }
+
+    private void addEntry(String refreshToken, long expiresIn) {
+        IdToken idToken = new IdToken();
+        idToken.upn = USER_ID;
+        idToken.subject = "subject";
+        UserInfo info = UserInfo.createFromIdTokens(idToken);
+        AuthResult authResult = new AuthResult("type", "atoken", refreshToken, expiresIn, info, RESOURCE);
+        AdTokenCache.getInstance().add(new AdTokenCacheEntry(authResult, AUTHORITY, CLIENT_ID));
+    }
+
+    private CacheDriver createDriver(TokenSource tokenSource) {
+        return new CacheDriver(AUTHORITY, CLIENT_ID) {
+            @Override
+            protected AuthResult getTokenWithRefreshToken(String refreshToken, String resource) throws AuthException {
+                refreshCalls.incrementAndGet();
+                try {
+                    return tokenSource.get();
+                } catch (InterruptedException e) {
+                    throw new AuthException(e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    private interface TokenSource {
+        AuthResult get() throws AuthException, InterruptedException;
+    }
+}
@@ -22,7 +22,9 @@
 
 package com.microsoft.azuretools.core.mvp.model.rediscache;
 
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -32,6 +34,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -41,6 +44,7 @@ import com.microsoft.azure.management.redis.RedisCache;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({
@@ -101,6 +105,63 @@ public class RedisConnectionPoolsTest {
         verify(jedisPoolMock, times(1)).destroy();
     }
 
+    @Test
+    public void testLeastRecentlyUsedPoolIsEvicted() throws Exception {
+        JedisPool secondPoolMock = Mockito.mock(JedisPool.class);
+        JedisPool thirdPoolMock = Mockito.mock(JedisPool.class);
+        PowerMockito.whenNew(JedisPool.class).withAnyArguments()
+                .thenReturn(jedisPoolMock, secondPoolMock, thirdPoolMock);
+        RedisConnectionPools pools = RedisConnectionPools.getInstance();
+        pools.setMaxPools(2);
+        try {
+            pools.getJedis(MOCK_SUBSCRIPTION, MOCK_REDIS_ID);
+            pools.getJedis(MOCK_SUBSCRIPTION, MOCK_REDIS_ID + "2");
+            // Touch the first cache, so the second one becomes the least recently used.
+            pools.getJedis(MOCK_SUBSCRIPTION, MOCK_REDIS_ID);
+            pools.getJedis(MOCK_SUBSCRIPTION, MOCK_REDIS_ID + "3");
+
+            verify(jedisPoolMock, never()).destroy();
+            verify(secondPoolMock, times(1)).destroy();
+            verify(thirdPoolMock, never()).destroy();
+            verify(jedisPoolMock, times(2)).getResource();
+        } finally {
+            pools.releasePool(MOCK_REDIS_ID);
+            pools.releasePool(MOCK_REDIS_ID + "3");
+            pools.setMaxPools(8);
+        }
+    }
+
+    @Test
+    public void testGetJedisRetriesOnDestroyedPool() throws Exception {
+        JedisPool freshPoolMock = Mockito.mock(JedisPool.class);
+        PowerMockito.whenNew(JedisPool.class).withAnyArguments().thenReturn(jedisPoolMock, freshPoolMock);
+        when(jedisPoolMock.getResource()).thenThrow(new JedisConnectionException("Could not get a resource"));
+        when(jedisPoolMock.isClosed()).thenReturn(true);
+        when(freshPoolMock.getResource()).thenReturn(jedisMock);
+        RedisConnectionPools pools = RedisConnectionPools.getInstance();
+        try {
+            assertSame(jedisMock, pools.getJedis(MOCK_SUBSCRIPTION, MOCK_REDIS_ID));
+            verify(freshPoolMock, times(1)).getResource();
+        } finally {
+            pools.releasePool(MOCK_REDIS_ID);
+        }
+        verify(freshPoolMock, times(1)).destroy();
+    }
+
+    @Test(expected = JedisConnectionException.class)
+    public void testGetJedisDoesNotRetryOnOpenPool() throws Exception {
+        JedisPool freshPoolMock = Mockito.mock(JedisPool.class);
+        PowerMockito.whenNew(JedisPool.class).withAnyArguments().thenReturn(jedisPoolMock, freshPoolMock);
+        when(jedisPoolMock.getResource()).thenThrow(new JedisConnectionException("Could not get a resource"));
+        RedisConnectionPools pools = RedisConnectionPools.getInstance();
+        try {
+            pools.getJedis(MOCK_SUBSCRIPTION, MOCK_REDIS_ID);
+        } finally {
+            verify(freshPoolMock, never()).getResource();
+            pools.releasePool(MOCK_REDIS_ID);
+        }
+    }
+
     @Test
     public void testReleaseNonExistedJedis() {
         // Just release without getJedis
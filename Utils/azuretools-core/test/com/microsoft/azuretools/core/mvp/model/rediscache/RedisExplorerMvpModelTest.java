@@ -22,11 +22,17 @@
 
 package com.microsoft.azuretools.core.mvp.model.rediscache;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -38,7 +44,11 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.exceptions.JedisDataException;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({
@@ -52,13 +62,30 @@ public class RedisExplorerMvpModelTest {
     @Mock
     private Jedis jedisMock;
 
+    @Mock
+    private Pipeline pipelineMock;
+
+    @Mock
+    private Response<String> typeResponseMock;
+
+    @Mock
+    private Response<Long> ttlResponseMock;
+
+    @Mock
+    private Response<Object> memoryResponseMock;
+
     private static final String MOCK_SUBSCRIPTION = "00000000-0000-0000-0000-000000000000";
     private static final String MOCK_REDIS_ID = "test-id";
     private static final int MOCK_DB = 0;
     private static final String MOCK_CURSOR = "0";
     private static final String MOCK_PATTERN = "*";
     private static final String MOCK_KEY = "key";
-    private static final long MOCK_LEN = 10L;
+    private static final long MOCK_START = 500L;
+    private static final int MOCK_COUNT = 100;
+    private static final int DEFAULT_VAL_COUNT = 500;
+    private static final long MOCK_TTL = 1000L;
+    private static final long MOCK_MEMORY = 56L;
+    private static final String MOCK_NEXT_CURSOR = "17";
     private static final String DATABASE_COMMAND = "databases";
 
 
@@ -73,6 +100,7 @@ public class RedisExplorerMvpModelTest {
     public void tearDown() {
         redisConnectionPoolsMock = null;
         jedisMock = null;
+        pipelineMock = null;
     }
 
     @Test
@@ -88,6 +116,45 @@ public class RedisExplorerMvpModelTest {
         verify(jedisMock, times(1)).scan(Mockito.eq(MOCK_CURSOR), Mockito.any(ScanParams.class));
     }
 
+    @Test
+    public void testScanKeyInfos() throws Exception {
+        List<String> keys = Arrays.asList(MOCK_KEY, MOCK_KEY + "2");
+        when(jedisMock.scan(Mockito.eq(MOCK_CURSOR), Mockito.any(ScanParams.class)))
+                .thenReturn(new ScanResult<>(MOCK_NEXT_CURSOR, keys));
+        when(jedisMock.pipelined()).thenReturn(pipelineMock);
+        when(pipelineMock.type(anyString())).thenReturn(typeResponseMock);
+        when(pipelineMock.pttl(anyString())).thenReturn(ttlResponseMock);
+        when(pipelineMock.eval(anyString(), anyList(), anyList())).thenReturn(memoryResponseMock);
+        when(typeResponseMock.get()).thenReturn("zset");
+        when(ttlResponseMock.get()).thenReturn(MOCK_TTL);
+        when(memoryResponseMock.get()).thenReturn(MOCK_MEMORY).thenThrow(new JedisDataException("NOSCRIPT"));
+
+        ScanResult<RedisKeyInfo> result = RedisExplorerMvpModel.getInstance().scanKeyInfos(MOCK_SUBSCRIPTION,
+                MOCK_REDIS_ID, MOCK_DB, MOCK_CURSOR, MOCK_PATTERN);
+        verify(jedisMock, times(1)).pipelined();
+        verify(pipelineMock, times(1)).sync();
+        verify(jedisMock, never()).type(anyString());
+        assertEquals(MOCK_NEXT_CURSOR, result.getStringCursor());
+        assertEquals(2, result.getResult().size());
+        RedisKeyInfo first = result.getResult().get(0);
+        assertEquals(MOCK_KEY, first.getKey());
+        assertEquals("zset", first.getType());
+        assertEquals(MOCK_TTL, first.getTtlMillis());
+        assertEquals(MOCK_MEMORY, first.getMemoryUsage());
+        assertEquals(RedisKeyInfo.UNKNOWN_MEMORY_USAGE, result.getResult().get(1).getMemoryUsage());
+    }
+
+    @Test
+    public void testScanKeyInfosEmptyPage() throws Exception {
+        when(jedisMock.scan(Mockito.eq(MOCK_CURSOR), Mockito.any(ScanParams.class)))
+                .thenReturn(new ScanResult<>(MOCK_CURSOR, Arrays.<String>asList()));
+
+        ScanResult<RedisKeyInfo> result = RedisExplorerMvpModel.getInstance().scanKeyInfos(MOCK_SUBSCRIPTION,
+                MOCK_REDIS_ID, MOCK_DB, MOCK_CURSOR, MOCK_PATTERN);
+        verify(jedisMock, never()).pipelined();
+        assertEquals(0, result.getResult().size());
+    }
+
     @Test
     public void testGetKeyType() throws Exception {
         RedisExplorerMvpModel.getInstance().getKeyType(MOCK_SUBSCRIPTION, MOCK_REDIS_ID, MOCK_DB, MOCK_KEY);
@@ -104,11 +171,19 @@ public class RedisExplorerMvpModelTest {
 
     @Test
     public void testGetListValue() throws Exception {
-        when(jedisMock.llen(anyString())).thenReturn(MOCK_LEN);
-
         RedisExplorerMvpModel.getInstance().getListValue(MOCK_SUBSCRIPTION, MOCK_REDIS_ID, MOCK_DB, MOCK_KEY);
         verify(jedisMock, times(1)).select(Mockito.eq(MOCK_DB));
-        verify(jedisMock, times(1)).lrange(Mockito.eq(MOCK_KEY), Mockito.eq(0L), Mockito.eq(MOCK_LEN));
+        verify(jedisMock, never()).llen(anyString());
+        verify(jedisMock, times(1)).lrange(Mockito.eq(MOCK_KEY), Mockito.eq(0L),
+                Mockito.eq((long) DEFAULT_VAL_COUNT - 1));
+    }
+
+    @Test
+    public void testGetListValuePage() throws Exception {
+        RedisExplorerMvpModel.getInstance().getListValue(MOCK_SUBSCRIPTION, MOCK_REDIS_ID, MOCK_DB, MOCK_KEY,
+                MOCK_START, MOCK_COUNT);
+        verify(jedisMock, times(1)).lrange(Mockito.eq(MOCK_KEY), Mockito.eq(MOCK_START),
+                Mockito.eq(MOCK_START + MOCK_COUNT - 1));
     }
 
     @Test
@@ -120,11 +195,19 @@ public class RedisExplorerMvpModelTest {
 
     @Test
     public void testGetZSetValue() throws Exception {
-        when(jedisMock.zcard(anyString())).thenReturn(MOCK_LEN);
-
         RedisExplorerMvpModel.getInstance().getZSetValue(MOCK_SUBSCRIPTION, MOCK_REDIS_ID, MOCK_DB, MOCK_KEY);
         verify(jedisMock, times(1)).select(Mockito.eq(MOCK_DB));
-        verify(jedisMock, times(1)).zrangeWithScores(Mockito.eq(MOCK_KEY), Mockito.eq(0L), Mockito.eq(MOCK_LEN));
+        verify(jedisMock, never()).zcard(anyString());
+        verify(jedisMock, times(1)).zrangeWithScores(Mockito.eq(MOCK_KEY), Mockito.eq(0L),
+                Mockito.eq((long) DEFAULT_VAL_COUNT - 1));
+    }
+
+    @Test
+    public void testGetZSetValuePage() throws Exception {
+        RedisExplorerMvpModel.getInstance().getZSetValue(MOCK_SUBSCRIPTION, MOCK_REDIS_ID, MOCK_DB, MOCK_KEY,
+                MOCK_START, MOCK_COUNT);
+        verify(jedisMock, times(1)).zrangeWithScores(Mockito.eq(MOCK_KEY), Mockito.eq(MOCK_START),
+                Mockito.eq(MOCK_START + MOCK_COUNT - 1));
     }
 
     @Test
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azuretools.core.mvp.model.webapp;
+
+import com.microsoft.azure.management.appservice.OperatingSystem;
+import com.microsoft.azure.management.appservice.WebApp;
+import com.microsoft.azure.management.appservice.implementation.SiteInner;
+import com.microsoft.azuretools.core.mvp.model.ResourceEx;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AppServiceResourceCacheTest {
+    private static final String SUBSCRIPTION = "00000000-0000-0000-0000-000000000000";
+    private static final DateTime MODIFIED = new DateTime(2020, 1, 1, 0, 0);
+
+    private final AtomicInteger listCalls = new AtomicInteger();
+    private List<SiteInner> sites;
+
+    @Before
+    public void setUp() {
+        listCalls.set(0);
+        sites = new ArrayList<>();
+        sites.add(mockSite("app1", "rg1", "app,linux", MODIFIED));
+        sites.add(mockSite("app2", "RG1", "app", MODIFIED));
+        sites.add(mockSite("app3", "rg2", "app", MODIFIED));
+    }
+
+    @Test
+    public void testIndexes() {
+        AppServiceResourceCache<WebApp> cache = createCache(AppServiceResourceCache.DEFAULT_TTL_MS);
+
+        assertEquals(3, cache.list(SUBSCRIPTION, false).size());
+        assertEquals(1, cache.listByOperatingSystem(SUBSCRIPTION, false, OperatingSystem.LINUX).size());
+        assertEquals(2, cache.listByOperatingSystem(SUBSCRIPTION, false, OperatingSystem.WINDOWS).size());
+        assertEquals(2, cache.listByResourceGroup(SUBSCRIPTION, false, "Rg1").size());
+        assertEquals(0, cache.listByResourceGroup(SUBSCRIPTION, false, "rg3").size());
+        assertEquals(1, listCalls.get());
+
+        cache.remove(SUBSCRIPTION, "/subscriptions/" + SUBSCRIPTION + "/resourceGroups/RG1/providers/Microsoft.Web/sites/app2");
+        assertEquals(1, cache.listByResourceGroup(SUBSCRIPTION, false, "rg1").size());
+        assertEquals(1, listCalls.get());
+    }
+
+    @Test
+    public void testReloadKeepsUnchangedApps() {
+        AppServiceResourceCache<WebApp> cache = createCache(AppServiceResourceCache.DEFAULT_TTL_MS);
+        List<ResourceEx<WebApp>> before = cache.list(SUBSCRIPTION, false);
+
+        sites.set(2, mockSite("app3", "rg2", "app", MODIFIED.plusMinutes(1)));
+        sites.add(mockSite("app4", "rg2", "app", MODIFIED));
+        List<ResourceEx<WebApp>> after = cache.list(SUBSCRIPTION, true);
+
+        assertEquals(2, listCalls.get());
+        assertEquals(4, after.size());
+        assertSame(before.get(0), after.get(0));
+        assertSame(before.get(1), after.get(1));
+        assertNotSame(before.get(2), after.get(2));
+    }
+
+    @Test(timeout = 10000)
+    public void testStaleListingIsServedWhileRefreshing() throws Exception {
+        AppServiceResourceCache<WebApp> cache = createCache(0);
+        assertEquals(3, cache.list(SUBSCRIPTION, false).size());
+
+        sites.add(mockSite("app4", "rg2", "app", MODIFIED));
+        Thread.sleep(5);
+        assertEquals(3, cache.list(SUBSCRIPTION, false).size());
+        while (cache.list(SUBSCRIPTION, false).size() != 4) {
+            Thread.sleep(10);
+        }
+        assertTrue(listCalls.get() >= 2);
+    }
+
+    @Test(timeout = 10000)
+    public void testRemovedAppIsNotRestoredByReloadInFlight() throws Exception {
+        final String app2Id = "/subscriptions/" + SUBSCRIPTION + "/resourceGroups/RG1/providers/Microsoft.Web/sites/app2";
+        final CountDownLatch listing = new CountDownLatch(1);
+        final CountDownLatch removed = new CountDownLatch(1);
+        final AppServiceResourceCache<WebApp> cache = new AppServiceResourceCache<>(sid -> {
+            // The first listing is quick, the second one lists the sites before the removal and returns after it
+            if (listCalls.incrementAndGet() > 1) {
+                final List<SiteInner> listed = new ArrayList<>(sites);
+                listing.countDown();
+                try {
+                    removed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                return listed;
+            }
+            return new ArrayList<>(sites);
+        }, WebAppWrapper::new, AppServiceResourceCache.DEFAULT_TTL_MS);
+        assertEquals(3, cache.list(SUBSCRIPTION, false).size());
+
+        final Thread reloader = new Thread(() -> cache.list(SUBSCRIPTION, true));
+        reloader.start();
+        listing.await();
+        cache.remove(SUBSCRIPTION, app2Id);
+        removed.countDown();
+        reloader.join();
+
+        final List<String> names = cache.list(SUBSCRIPTION, false).stream()
+                                        .map(app -> app.getResource().name())
+                                        .collect(Collectors.toList());
+        assertEquals(2, names.size());
+        assertFalse(names.contains("app2"));
+        assertEquals(1, cache.listByResourceGroup(SUBSCRIPTION, false, "rg1").size());
+
+        // The app is listed again once it is really there
+        assertEquals(3, cache.list(SUBSCRIPTION, true).size());
+    }
+
+    @Test
+    public void testListIsUnmodifiable() {
+        AppServiceResourceCache<WebApp> cache = createCache(AppServiceResourceCache.DEFAULT_TTL_MS);
+        List<ResourceEx<WebApp>> apps = cache.list(SUBSCRIPTION, false);
+
+        try {
+            apps.clear();
+            fail("The cached list should not be modified by the callers");
+        } catch (UnsupportedOperationException ignored) {
+        }
+        assertEquals(3, cache.list(SUBSCRIPTION, false).size());
+    }
+
+    private AppServiceResourceCache<WebApp> createCache(long ttlMs) {
+        return new AppServiceResourceCache<>(sid -> {
+            listCalls.incrementAndGet();
+            return new ArrayList<>(sites);
+        }, WebAppWrapper::new, ttlMs);
+    }
+
+    private static SiteInner mockSite(String name, String resourceGroup, String kind, DateTime lastModified) {
+        SiteInner site = mock(SiteInner.class);
+        when(site.id()).thenReturn("/subscriptions/" + SUBSCRIPTION + "/resourceGroups/" + resourceGroup
+                + "/providers/Microsoft.Web/sites/" + name);
+        when(site.name()).thenReturn(name);
+        when(site.resourceGroup()).thenReturn(resourceGroup);
+        when(site.kind()).thenReturn(kind);
+        when(site.lastModifiedTimeUtc()).thenReturn(lastModified);
+        when(site.state()).thenReturn("Running");
+        return site;
+    }
+}
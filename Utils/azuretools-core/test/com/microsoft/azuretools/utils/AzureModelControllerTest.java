@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azuretools.utils;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.Azure;
+import com.microsoft.azure.management.appservice.AppServicePlan;
+import com.microsoft.azure.management.appservice.WebApp;
+import com.microsoft.azure.management.resources.Location;
+import com.microsoft.azure.management.resources.ResourceGroup;
+import com.microsoft.azure.management.resources.Subscription;
+import com.microsoft.azuretools.authmanage.AuthMethodManager;
+import com.microsoft.azuretools.authmanage.SubscriptionManager;
+import com.microsoft.azuretools.authmanage.models.SubscriptionDetail;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.sdkmanage.AzureManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({
+        AuthMethodManager.class,
+        Azure.class
+})
+public class AzureModelControllerTest {
+    private static final String SUBSCRIPTION_1 = "00000000-0000-0000-0000-000000000001";
+    private static final String SUBSCRIPTION_2 = "00000000-0000-0000-0000-000000000002";
+
+    @Mock
+    private AuthMethodManager authMethodManagerMock;
+
+    @Mock
+    private AzureManager azureManagerMock;
+
+    @Mock
+    private SubscriptionManager subscriptionManagerMock;
+
+    private final Azure azure1 = PowerMockito.mock(Azure.class);
+
+    private final Azure azure2 = PowerMockito.mock(Azure.class);
+
+    private final StubInventory inventory = new StubInventory();
+
+    // The resources listed from a local stub instead of ARM
+    private static class StubInventory implements AzureResourceInventory {
+        final Map<Azure, List<ResourceGroup>> resourceGroups = new HashMap<>();
+        final Map<Azure, List<WebApp>> webApps = new HashMap<>();
+        final Map<Azure, List<AppServicePlan>> plans = new HashMap<>();
+        final Map<Azure, RuntimeException> webAppErrors = new HashMap<>();
+        CountDownLatch webAppsBlocker = null;
+        final CountDownLatch webAppsListing = new CountDownLatch(1);
+
+        @Override
+        public List<ResourceGroup> listResourceGroups(@NotNull Azure azure) {
+            return new ArrayList<>(resourceGroups.getOrDefault(azure, Collections.emptyList()));
+        }
+
+        @Override
+        public List<WebApp> listWebApps(@NotNull Azure azure) {
+            webAppsListing.countDown();
+
+            if (webAppsBlocker != null) {
+                try {
+                    webAppsBlocker.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (webAppErrors.containsKey(azure)) {
+                throw webAppErrors.get(azure);
+            }
+
+            return webApps.getOrDefault(azure, Collections.emptyList());
+        }
+
+        @Override
+        public List<AppServicePlan> listAppServicePlans(@NotNull Azure azure) {
+            return plans.getOrDefault(azure, Collections.emptyList());
+        }
+    }
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(AuthMethodManager.class);
+        when(AuthMethodManager.getInstance()).thenReturn(authMethodManagerMock);
+        when(authMethodManagerMock.getAzureManager()).thenReturn(azureManagerMock);
+        when(azureManagerMock.getSubscriptionManager()).thenReturn(subscriptionManagerMock);
+        final List<Subscription> subscriptions = Arrays.asList(
+                mockSubscription(SUBSCRIPTION_1), mockSubscription(SUBSCRIPTION_2));
+        when(azureManagerMock.getSubscriptions()).thenReturn(subscriptions);
+        when(azureManagerMock.getAzure(SUBSCRIPTION_1)).thenReturn(azure1);
+        when(azureManagerMock.getAzure(SUBSCRIPTION_2)).thenReturn(azure2);
+        when(subscriptionManagerMock.getSubscriptionDetails()).thenReturn(Arrays.asList(
+                new SubscriptionDetail(SUBSCRIPTION_1, "Subscription 1", "tenant", true),
+                new SubscriptionDetail(SUBSCRIPTION_2, "Subscription 2", "tenant", true)));
+
+        AzureModelController.setResourceInventory(inventory);
+    }
+
+    @After
+    public void tearDown() {
+        AzureModelController.setResourceInventory(new ArmResourceInventory());
+
+        if (inventory.webAppsBlocker != null) {
+            inventory.webAppsBlocker.countDown();
+        }
+    }
+
+    @Test
+    public void testGroupResourcesIgnoringResourceGroupCase() throws Exception {
+        final ResourceGroup group = mockResourceGroup("MyGroup");
+        final ResourceGroup otherGroup = mockResourceGroup("Other");
+        final WebApp lowerCaseApp = mockWebApp("mygroup");
+        final WebApp upperCaseApp = mockWebApp("MYGROUP");
+        final WebApp otherApp = mockWebApp("other");
+        final AppServicePlan plan = mockPlan("myGroup");
+
+        inventory.resourceGroups.put(azure1, Arrays.asList(group, otherGroup));
+        inventory.webApps.put(azure1, Arrays.asList(lowerCaseApp, otherApp, upperCaseApp));
+        inventory.plans.put(azure1, Collections.singletonList(plan));
+
+        AzureModelController.updateResourceGroupMaps(null);
+
+        final AzureModel model = AzureModel.getInstance();
+        assertEquals(Arrays.asList(lowerCaseApp, upperCaseApp), model.getResourceGroupToWebAppMap().get(group));
+        assertEquals(Collections.singletonList(otherApp), model.getResourceGroupToWebAppMap().get(otherGroup));
+        assertEquals(Collections.singletonList(plan), model.getResourceGroupToAppServicePlanMap().get(group));
+        assertTrue(model.getResourceGroupToAppServicePlanMap().get(otherGroup).isEmpty());
+    }
+
+    @Test
+    public void testSkipFailingSubscription() throws Exception {
+        final ResourceGroup group1 = mockResourceGroup("group1");
+        final ResourceGroup group2 = mockResourceGroup("group2");
+        final WebApp app1 = mockWebApp("group1");
+
+        inventory.resourceGroups.put(azure1, Collections.singletonList(group1));
+        inventory.resourceGroups.put(azure2, Collections.singletonList(group2));
+        inventory.webApps.put(azure1, Collections.singletonList(app1));
+        inventory.webAppErrors.put(azure2, new RuntimeException("Subscription 2 is disabled"));
+
+        AzureModelController.updateResourceGroupMaps(null);
+
+        final AzureModel model = AzureModel.getInstance();
+        assertEquals(2, model.getSubscriptionToResourceGroupMap().size());
+        assertEquals(Collections.singletonList(app1), model.getResourceGroupToWebAppMap().get(group1));
+        assertFalse(model.getResourceGroupToWebAppMap().containsKey(group2));
+        assertFalse(model.getResourceGroupToAppServicePlanMap().containsKey(group2));
+    }
+
+    @Test
+    public void testCancelWhileListing() throws Exception {
+        inventory.resourceGroups.put(azure1, Collections.singletonList(mockResourceGroup("group1")));
+        inventory.webAppsBlocker = new CountDownLatch(1);
+
+        final AtomicBoolean canceled = new AtomicBoolean(false);
+        final IProgressIndicator progressIndicator = mock(IProgressIndicator.class);
+        when(progressIndicator.isCanceled()).thenAnswer(invocation -> canceled.get());
+
+        // Cancel once the web apps are being listed, the listing itself never returns in time
+        final Thread canceler = new Thread(() -> {
+            try {
+                inventory.webAppsListing.await(10, TimeUnit.SECONDS);
+                canceled.set(true);
+            } catch (InterruptedException ignored) {
+            }
+        });
+        canceler.start();
+
+        final long start = System.currentTimeMillis();
+        try {
+            AzureModelController.updateResourceGroupMaps(progressIndicator);
+            fail("The update should be canceled");
+        } catch (CanceledByUserException ignored) {
+        }
+
+        assertTrue("The update should stop without waiting for the listing",
+                   System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(5));
+        assertNull(AzureModel.getInstance().getResourceGroupToWebAppMap());
+        canceler.join();
+    }
+
+    private static Subscription mockSubscription(String subscriptionId) {
+        final Subscription subscription = mock(Subscription.class);
+        when(subscription.subscriptionId()).thenReturn(subscriptionId);
+        when(subscription.listLocations()).thenReturn(new PagedList<Location>() {
+            @Override
+            public Page<Location> nextPage(String nextPageLink) {
+                return null;
+            }
+        });
+
+        return subscription;
+    }
+
+    private static ResourceGroup mockResourceGroup(String name) {
+        final ResourceGroup group = mock(ResourceGroup.class);
+        when(group.name()).thenReturn(name);
+
+        return group;
+    }
+
+    private static WebApp mockWebApp(String resourceGroupName) {
+        final WebApp webApp = mock(WebApp.class);
+        when(webApp.resourceGroupName()).thenReturn(resourceGroupName);
+
+        return webApp;
+    }
+
+    private static AppServicePlan mockPlan(String resourceGroupName) {
+        final AppServicePlan plan = mock(AppServicePlan.class);
+        when(plan.resourceGroupName()).thenReturn(resourceGroupName);
+
+        return plan;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.io.spark
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.tomakehurst.wiremock.client.WireMock
+import com.github.tomakehurst.wiremock.client.WireMock.*
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SparkSession
+import com.microsoft.azure.hdinsight.spark.common.MockHttpService
+import cucumber.api.java.After
+import cucumber.api.java.Before
+import cucumber.api.java.en.And
+import cucumber.api.java.en.Given
+import cucumber.api.java.en.Then
+import org.apache.commons.codec.binary.Base64
+import org.assertj.core.api.Assertions.assertThat
+import java.io.ByteArrayInputStream
+import java.io.File
+import java.net.URI
+import java.util.zip.InflaterInputStream
+import kotlin.random.Random
+
+class ClusterFileChunkedUploaderScenario {
+    private val writePartPattern = """azToolkitWritePart\("([^"]*)", (\d+), (true|false), Array\((.*)\)\)""".toRegex(RegexOption.DOT_MATCHES_ALL)
+    private val listPartsPattern = """azToolkitListParts\("([^"]*)"\)""".toRegex()
+    private val completePartsPattern = """azToolkitCompleteParts\("([^"]*)", "([^"]*)", (\d+)\)""".toRegex()
+
+    private lateinit var httpServerMock: MockHttpService
+    private lateinit var localFile: File
+    private var chunkSize = 0
+    private var uploaded: URI? = null
+    private var uploadError: Throwable? = null
+    private var lastPartsDir: String? = null
+
+    @Before
+    fun setUp() {
+        httpServerMock = MockHttpService()
+        httpServerMock.stub("POST", "/sessions", 200,
+                """{"id":6,"appId":null,"state":"starting","kind":"spark","log":[]}""")
+        httpServerMock.stub("GET", "/sessions/6", 200,
+                """{"id":6,"appId":"application_1","state":"idle","kind":"spark","log":[]}""")
+        stubStatement("azToolkitWritePart(\"", 2, "")
+    }
+
+    @After
+    fun cleanUp() {
+        httpServerMock.livyServerMock.stop()
+
+        if (::localFile.isInitialized) {
+            localFile.delete()
+        }
+    }
+
+    private fun stubStatement(call: String, id: Int, output: String) {
+        WireMock.configureFor(httpServerMock.port)
+        stubFor(post(urlEqualTo("/sessions/6/statements"))
+                .withRequestBody(containing(call.replace("\"", "\\\"")))
+                .willReturn(aResponse().withStatus(200).withBody("""{"id":$id,"state":"waiting","output":null}""")))
+        stubFor(get(urlEqualTo("/sessions/6/statements/$id"))
+                .willReturn(aResponse().withStatus(200).withBody(
+                        """{"id":$id,"state":"available","output":{"status":"ok","execution_count":$id,"data":{"text/plain":"$output"}}}""")))
+    }
+
+    // In the posted order
+    private val postedCodes: List<String>
+        get() = httpServerMock.livyServerMock.allServeEvents
+                .reversed()
+                .filter { it.request.method.value() == "POST" && it.request.url == "/sessions/6/statements" }
+                .map { ObjectMapper().readTree(it.request.bodyAsString).get("code").asText() }
+
+    @Given("^the cluster has the parts '(.*)' of the file written$")
+    fun mockWrittenParts(parts: String) {
+        stubStatement("azToolkitListParts(\"", 1, "##PARTS##$parts##")
+    }
+
+    @And("^the cluster file is (\\d+) bytes long after completing the parts$")
+    fun mockCompletedLength(length: Long) {
+        stubStatement("azToolkitCompleteParts(\"", 3, "##LENGTH##$length##")
+    }
+
+    @And("^a local file of (\\d+) random bytes to upload$")
+    fun createLocalFile(length: Int) {
+        localFile = File.createTempFile("chunkedUpload", ".jar")
+        localFile.writeBytes(Random.nextBytes(length))
+    }
+
+    @And("^a local file of (\\d+) repeated bytes to upload$")
+    fun createRepeatedLocalFile(length: Int) {
+        localFile = File.createTempFile("chunkedUpload", ".jar")
+        localFile.writeBytes(ByteArray(length) { 'a'.toByte() })
+    }
+
+    @And("^upload the file to '(.+)' in chunks of (\\d+) bytes with the parts root '(.+)'$")
+    fun uploadFile(destination: String, chunkSize: Int, partsRoot: String) {
+        this.chunkSize = chunkSize
+        lastPartsDir = listedPartsDirs.lastOrNull()
+
+        val session = SparkSession("testUploader", URI.create(httpServerMock.completeUrl("/")))
+        session.create().toBlocking().single()
+
+        try {
+            uploaded = ClusterFileChunkedUploader(session, chunkSize, 2)
+                    .upload(localFile, URI.create(destination), URI.create(partsRoot))
+                    .toBlocking()
+                    .single()
+        } catch (err: Throwable) {
+            uploadError = err
+        }
+    }
+
+    @And("^change the local file modification time$")
+    fun touchLocalFile() {
+        localFile.setLastModified(localFile.lastModified() - 60_000)
+    }
+
+    private val listedPartsDirs: List<String>
+        get() = postedCodes.mapNotNull { listPartsPattern.find(it)?.groupValues?.get(1) }
+
+    @Then("^the file should be uploaded to '(.+)'$")
+    fun checkUploaded(destination: String) {
+        assertThat(uploadError).isNull()
+        assertThat(uploaded).isEqualTo(URI.create(destination))
+    }
+
+    @Then("^uploading the file should fail with the message containing '(.+)'$")
+    fun checkUploadFailed(message: String) {
+        assertThat(uploaded).isNull()
+        assertThat(uploadError).hasMessageContaining(message)
+    }
+
+    @And("^only the parts (.*) should be written with the file content$")
+    fun checkWrittenParts(indexes: String) {
+        val content = localFile.readBytes()
+        val writes = postedCodes.mapNotNull { writePartPattern.find(it) }
+
+        assertThat(writes.map { it.groupValues[2].toInt() })
+                .containsExactlyInAnyOrderElementsOf(indexes.split(",").map { it.trim().toInt() })
+
+        writes.forEach { write ->
+            val index = write.groupValues[2].toInt()
+            val encoded = """"([^"]*)"""".toRegex().findAll(write.groupValues[4]).joinToString("") { it.groupValues[1] }
+            val bytes = Base64.decodeBase64(encoded)
+            val part = if (write.groupValues[3].toBoolean()) InflaterInputStream(ByteArrayInputStream(bytes)).readBytes() else bytes
+            val start = index * chunkSize
+
+            assertThat(write.groupValues[1]).isEqualTo(listedPartsDirs.last())
+            assertThat(part).isEqualTo(content.copyOfRange(start, minOf(content.size, start + chunkSize)))
+        }
+    }
+
+    @And("^the part (\\d+) should be deflated$")
+    fun checkDeflatedParts(index: Int) {
+        val write = postedCodes.mapNotNull { writePartPattern.find(it) }.first { it.groupValues[2].toInt() == index }
+
+        assertThat(write.groupValues[3]).isEqualTo("true")
+    }
+
+    @And("^the (\\d+) parts in the folder under '(.+)' should be completed into '(.+)'$")
+    fun checkCompleted(count: Int, partsRoot: String, destination: String) {
+        val completes = postedCodes.mapNotNull { completePartsPattern.find(it) }
+
+        assertThat(completes).hasSize(1)
+        assertThat(completes[0].groupValues[1]).isEqualTo(listedPartsDirs.last()).startsWith(partsRoot)
+        assertThat(completes[0].groupValues[2]).isEqualTo(destination)
+        assertThat(completes[0].groupValues[3].toInt()).isEqualTo(count)
+    }
+
+    @Then("^the parts folder should be the same as the last upload$")
+    fun checkSamePartsDir() {
+        assertThat(listedPartsDirs.last()).isEqualTo(lastPartsDir)
+    }
+
+    @Then("^the parts folder should differ from the last upload$")
+    fun checkDifferentPartsDir() {
+        assertThat(listedPartsDirs.last()).isNotEqualTo(lastPartsDir)
+    }
+
+    @Then("^the path '(.+)' should be escaped as '(.+)'$")
+    fun checkEscape(path: String, expect: String) {
+        assertThat(ClusterFileChunkedUploader.escape(path)).isEqualTo(expect)
+    }
+}
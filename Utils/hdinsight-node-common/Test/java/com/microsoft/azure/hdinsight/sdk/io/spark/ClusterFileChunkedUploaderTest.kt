@@ -29,6 +29,6 @@ import org.junit.runner.RunWith
 @RunWith(Cucumber::class)
 @CucumberOptions(
         plugin = ["html:target/cucumber"],
-        name = ["ClusterFileBase64KBBufferedOutputStream tests"]
+        name = ["ClusterFileChunkedUploader Tests"]
 )
-class ClusterFileBase64BufferedOutputStreamTest
\ No newline at end of file
+class ClusterFileChunkedUploaderTest
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.io.spark
+
+import com.microsoft.azure.hdinsight.spark.common.MockHttpService
+import cucumber.api.java.After
+import cucumber.api.java.Before
+import cucumber.api.java.en.And
+import cucumber.api.java.en.Given
+import cucumber.api.java.en.Then
+import org.assertj.core.api.Assertions.assertThat
+import java.net.URI
+
+class HelperSessionCacheScenario {
+    private lateinit var httpServerMock: MockHttpService
+    private lateinit var cache: HelperSessionCache
+    private val leases = mutableListOf<HelperSessionCache.Lease>()
+
+    @Before
+    fun setUp() {
+        httpServerMock = MockHttpService()
+        httpServerMock.stub("POST", "/sessions", 200,
+                """{"id":6,"appId":null,"state":"starting","kind":"spark","log":[]}""")
+        httpServerMock.stub("GET", "/sessions/6", 200,
+                """{"id":6,"appId":"application_1","state":"idle","kind":"spark","log":[]}""")
+        httpServerMock.stub("DELETE", "/sessions/6", 200, "{}")
+    }
+
+    @After
+    fun cleanUp() {
+        if (::cache.isInitialized) {
+            cache.shutdown()
+        }
+
+        httpServerMock.livyServerMock.stop()
+    }
+
+    private fun countRequests(method: String, url: String): Int = httpServerMock.livyServerMock.allServeEvents
+            .count { it.request.method.value() == method && it.request.url == url }
+
+    @Given("^a helper session cache with the idle timeout of (\\d+) ms$")
+    fun createCache(idleTimeoutMs: Long) {
+        cache = HelperSessionCache(idleTimeoutMs)
+    }
+
+    @And("^acquire a helper session$")
+    fun acquireSession() {
+        acquireSessionWithPassword("password")
+    }
+
+    @And("^acquire a helper session with the password (\\S+)$")
+    fun acquireSessionWithPassword(password: String) {
+        leases.add(cache.acquire(URI.create(httpServerMock.completeUrl("/")), "admin", password))
+    }
+
+    @And("^close the helper session lease (\\d+)$")
+    fun closeLease(index: Int) {
+        leases[index].close()
+    }
+
+    @And("^invalidate the helper session lease (\\d+)$")
+    fun invalidateLease(index: Int) {
+        leases[index].invalidate()
+    }
+
+    @And("^shut down the helper session cache$")
+    fun shutdownCache() {
+        cache.shutdown()
+    }
+
+    @And("^wait for (\\d+) ms$")
+    fun waitFor(ms: Long) {
+        Thread.sleep(ms)
+    }
+
+    @Then("^the helper session leases should share the same session$")
+    fun checkSameSession() {
+        assertThat(leases.map { it.session }.distinct()).hasSize(1)
+    }
+
+    @Then("^the helper session leases should not share the same session$")
+    fun checkDistinctSessions() {
+        assertThat(leases.map { it.session }.distinct()).hasSize(leases.size)
+    }
+
+    @Then("^(\\d+) helper sessions? should be created and (\\d+) killed$")
+    fun checkSessionRequests(created: Int, killed: Int) {
+        assertThat(countRequests("POST", "/sessions")).isEqualTo(created)
+        assertThat(countRequests("DELETE", "/sessions/6")).isEqualTo(killed)
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.storage.adlsgen2
+
+import com.github.tomakehurst.wiremock.client.WireMock
+import com.github.tomakehurst.wiremock.stubbing.Scenario
+import com.github.tomakehurst.wiremock.verification.LoggedRequest
+import com.microsoft.azure.hdinsight.sdk.common.SharedKeyHttpObservable
+import com.microsoft.azure.hdinsight.spark.common.MockHttpService
+import cucumber.api.java.After
+import cucumber.api.java.Before
+import cucumber.api.java.en.And
+import cucumber.api.java.en.Given
+import cucumber.api.java.en.Then
+import org.apache.commons.io.FileUtils
+import org.apache.http.client.methods.HttpPatch
+import org.apache.http.client.utils.URLEncodedUtils
+import org.apache.http.message.BasicHeader
+import org.apache.http.message.HeaderGroup
+import java.io.File
+import java.net.URI
+import java.util.*
+import java.util.concurrent.CopyOnWriteArrayList
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNotSame
+import kotlin.test.assertTrue
+
+class ADLSGen2FSOperationScenario {
+    private val accountName = "adlsgen2account"
+    private val accessKey = Base64.getEncoder().encodeToString("ADLS Gen2 shared key for testing".toByteArray())
+    private val filePath = "/filesystem1/SparkSubmission/app.jar"
+
+    private var httpServerMock: MockHttpService? = null
+    private var localFile: File? = null
+    private var uploadResult: Boolean? = null
+    private var uploadError: Throwable? = null
+    private var http: SharedKeyHttpObservable? = null
+    private val progresses = CopyOnWriteArrayList<Long>()
+
+    @Before
+    fun setUp() {
+        httpServerMock = MockHttpService()
+        WireMock.configureFor(httpServerMock!!.port)
+    }
+
+    @After
+    fun cleanUp() {
+        httpServerMock?.livyServerMock?.stop()
+        localFile?.let { FileUtils.deleteQuietly(it) }
+    }
+
+    @Given("^a local file of (\\d+) random bytes to upload to ADLS Gen2$")
+    fun createLocalFile(size: Int) {
+        val content = ByteArray(size).apply { Random(size.toLong()).nextBytes(this) }
+
+        localFile = File.createTempFile("ADLSGen2FSOperation", ".jar").apply { writeBytes(content) }
+    }
+
+    @And("^mock ADLS Gen2 to accept (append|flush) requests with status code (\\d+)$")
+    fun mockRequests(action: String, statusCode: Int) {
+        WireMock.stubFor(WireMock.patch(WireMock.urlPathEqualTo(filePath))
+                .withQueryParam("action", WireMock.equalTo(action))
+                .willReturn(WireMock.aResponse().withStatus(statusCode)))
+    }
+
+    @And("^mock ADLS Gen2 to fail the append request at position (\\d+) for (\\d+) times with status code (\\d+)$")
+    fun mockFailedAppends(position: Long, failures: Int, statusCode: Int) {
+        val scenario = "append at $position"
+
+        repeat(failures) { index ->
+            WireMock.stubFor(WireMock.patch(WireMock.urlPathEqualTo(filePath))
+                    .withQueryParam("action", WireMock.equalTo("append"))
+                    .withQueryParam("position", WireMock.equalTo(position.toString()))
+                    .inScenario(scenario)
+                    .whenScenarioStateIs(if (index == 0) Scenario.STARTED else "failed $index")
+                    .willSetStateTo("failed ${index + 1}")
+                    .willReturn(WireMock.aResponse().withStatus(statusCode)))
+        }
+    }
+
+    @And("^upload the local file to ADLS Gen2 in chunks of (\\d+) bytes with (\\d+) concurrent chunks$")
+    fun uploadFile(chunkSize: Int, maxConcurrentChunks: Int) {
+        http = SharedKeyHttpObservable(accountName, accessKey)
+        val operation = ADLSGen2FSOperation(http!!)
+
+        try {
+            uploadResult = operation.uploadData(
+                    httpServerMock!!.completeUrl(filePath),
+                    localFile!!,
+                    chunkSize,
+                    maxConcurrentChunks) { progresses.add(it) }
+                    .toBlocking()
+                    .single()
+        } catch (err: RuntimeException) {
+            uploadError = err
+        }
+    }
+
+    @Then("^the ADLS Gen2 upload should succeed$")
+    fun checkUploadSucceeded() {
+        assertEquals(true, uploadResult, "Upload failed with $uploadError")
+        assertEquals(localFile!!.length(), progresses.max())
+    }
+
+    @Then("^the ADLS Gen2 upload should fail$")
+    fun checkUploadFailed() {
+        assertNotNull(uploadError)
+    }
+
+    @And("^ADLS Gen2 should get the appends at positions '(.+)' covering the local file$")
+    fun checkAppends(positions: String) {
+        val content = localFile!!.readBytes()
+        val appends = getRequests("append")
+                .filter { it.response.status == 202 }
+                .map { it.request }
+
+        assertEquals(positions.split(",").map { it.trim().toLong() }.sorted(),
+                     appends.map { getQueryParam(it, "position").toLong() }.sorted())
+
+        appends.forEach {
+            val position = getQueryParam(it, "position").toInt()
+            val expected = content.copyOfRange(position, Math.min(content.size, position + it.body.size))
+
+            assertTrue(Arrays.equals(expected, it.body), "The append at $position got wrong content")
+        }
+
+        assertEquals(content.size, appends.sumBy { it.body.size })
+    }
+
+    @And("^ADLS Gen2 should get (\\d+) append requests at position (\\d+)$")
+    fun checkAppendRequestsAt(count: Int, position: Long) {
+        assertEquals(count, getRequests("append").count { getQueryParam(it.request, "position") == position.toString() })
+    }
+
+    @And("^ADLS Gen2 should get (\\d+) flush requests? at position (\\d+) after all the appends$")
+    fun checkFlush(count: Int, position: Long) {
+        val flushes = getRequests("flush")
+
+        assertEquals(count, flushes.size)
+        flushes.forEach { assertEquals(position.toString(), getQueryParam(it.request, "position")) }
+
+        if (flushes.isNotEmpty()) {
+            val lastAppendTime = getRequests("append").map { it.request.loggedDate.time }.max() ?: 0
+            assertTrue(flushes.all { it.request.loggedDate.time >= lastAppendTime })
+        }
+    }
+
+    @And("^the ADLS Gen2 requests should not share an HTTP context$")
+    fun checkRequestContexts() {
+        assertNotSame(http!!.httpContext, http!!.httpContext)
+    }
+
+    @And("^every ADLS Gen2 request should be signed with its own shared key$")
+    fun checkSharedKeys() {
+        val credential = SharedKeyCredential(accountName, accessKey)
+        val requests = WireMock.getAllServeEvents().map { it.request }
+
+        assertTrue(requests.isNotEmpty())
+        requests.forEach { request ->
+            val uri = URI.create(request.absoluteUrl)
+            val pairs = URLEncodedUtils.parse(uri, "UTF-8")
+            val headers = HeaderGroup()
+
+            request.headers.all()
+                    .filter { it.key().startsWith("x-ms-") || it.key().equals("Content-Type", true) }
+                    .forEach { headers.addHeader(BasicHeader(it.key(), it.firstValue())) }
+            if (request.body.isNotEmpty()) {
+                headers.addHeader(BasicHeader("Content-Length", request.body.size.toString()))
+            }
+
+            val expected = credential.generateSharedKey(
+                    HttpPatch(URI(uri.scheme, uri.authority, uri.path, null, null)), headers, pairs)
+
+            assertEquals(expected, request.getHeader("Authorization"),
+                         "Bad shared key for ${request.method} ${request.url}")
+        }
+    }
+
+    private fun getRequests(action: String) = WireMock.getAllServeEvents()
+            .filter { getQueryParam(it.request, "action") == action }
+
+    private fun getQueryParam(request: LoggedRequest, name: String): String =
+            URLEncodedUtils.parse(URI.create(request.absoluteUrl), "UTF-8")
+                    .first { it.name == name }
+                    .value
+}
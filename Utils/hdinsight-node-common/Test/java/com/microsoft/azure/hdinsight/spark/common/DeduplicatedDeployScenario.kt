@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common
+
+import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail
+import com.microsoft.azure.hdinsight.sdk.common.HttpObservable
+import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine
+import com.microsoft.azuretools.authmanage.models.SubscriptionDetail
+import cucumber.api.java.After
+import cucumber.api.java.Before
+import cucumber.api.java.en.And
+import cucumber.api.java.en.Given
+import cucumber.api.java.en.Then
+import org.apache.commons.io.FileUtils
+import rx.Observable
+import rx.Observer
+import rx.observers.TestObserver
+import java.io.File
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class DeduplicatedDeployScenario {
+    /**
+     * The deployable uploading to a remote map, which can have the uploaded artifacts changed behind it
+     */
+    private class StubDeploy(private val destination: String) : Deployable {
+        val remoteFiles = mutableMapOf<String, Long>()
+        var uploadCount = 0
+
+        override fun deploy(src: File, logSubject: Observer<SparkLogLine>): Observable<String> {
+            uploadCount++
+            val path = "$destination/$uploadCount/${src.name}"
+            remoteFiles[path] = src.length()
+
+            return Observable.just(path)
+        }
+
+        override fun getDestinationKey(): String = destination
+
+        override fun isDeployed(uploadedPath: String, src: File): Observable<Boolean> =
+                Observable.just(remoteFiles[uploadedPath] == src.length())
+    }
+
+    private var workFolder: Path? = null
+    private var manifest: ArtifactManifest? = null
+    private val deploys = mutableMapOf<String, StubDeploy>()
+    private val deployedPaths = mutableMapOf<String, String>()
+    private var httpServerMock: MockHttpService? = null
+
+    @Before
+    fun setUp() {
+        workFolder = Files.createTempDirectory("DeduplicatedDeploy")
+    }
+
+    @After
+    fun cleanUp() {
+        httpServerMock?.livyServerMock?.stop()
+        workFolder?.let { FileUtils.deleteQuietly(it.toFile()) }
+    }
+
+    private fun getArtifact(name: String): File = workFolder!!.resolve(name).toFile()
+
+    private fun getManifestPath(): Path = workFolder!!.resolve("SparkArtifactManifest.json")
+
+    @Given("^a local artifact '(.+)' with content '(.*)'$")
+    fun writeArtifact(name: String, content: String) {
+        getArtifact(name).writeText(content)
+    }
+
+    @And("^the local artifact '(.+)' is rewritten with content '(.*)' keeping its length and modification time$")
+    fun rewriteArtifactInPlace(name: String, content: String) {
+        val artifact = getArtifact(name)
+        val lastModified = artifact.lastModified()
+
+        assertEquals(artifact.length(), content.length.toLong())
+        artifact.writeText(content)
+        assertTrue(artifact.setLastModified(lastModified))
+    }
+
+    @Given("^an artifact manifest saved in the temporary folder$")
+    fun createManifest() {
+        manifest = ArtifactManifest(getManifestPath())
+    }
+
+    @Then("^the artifact manifest digest of '(.+)' should be '(.+)'$")
+    fun checkDigest(name: String, expected: String) {
+        assertEquals(expected, manifest!!.getDigest(getArtifact(name)))
+    }
+
+    @And("^record the artifact '(.+)' uploaded to '(.+)' as '(.+)' in the artifact manifest$")
+    fun recordArtifact(name: String, destination: String, path: String) {
+        manifest!!.record(destination, manifest!!.getDigest(getArtifact(name)), path)
+    }
+
+    @Then("^a reloaded artifact manifest should find the artifact '(.+)' uploaded to '(.+)' as '(.*)'$")
+    fun checkReloadedManifest(name: String, destination: String, expected: String) {
+        val reloaded = ArtifactManifest(getManifestPath())
+        val path = reloaded.lookup(destination, reloaded.getDigest(getArtifact(name)))
+
+        assertEquals(expected, path.orElse(""))
+    }
+
+    @Given("^a deduplicated deploy to '(.+)'$")
+    fun createDeduplicatedDeploy(destination: String) {
+        deploys[destination] = StubDeploy(destination)
+    }
+
+    @And("^deploy the artifact '(.+)' to '(.+)' with deduplication$")
+    fun deployArtifact(name: String, destination: String) {
+        val deploy = DeduplicatedDeploy.wrap(deploys[destination])!!
+
+        deployedPaths[name] = deploy.deploy(getArtifact(name), TestObserver<SparkLogLine>())
+                .toBlocking()
+                .single()
+    }
+
+    @And("^the artifact uploaded to '(.+)' as '(.+)' is changed to (\\d+) bytes$")
+    fun changeRemoteArtifact(destination: String, path: String, length: Long) {
+        deploys[destination]!!.remoteFiles[path] = length
+    }
+
+    @Then("^the artifact '(.+)' should be deployed as '(.+)'$")
+    fun checkDeployedPath(name: String, expected: String) {
+        assertEquals(expected, deployedPaths[name])
+    }
+
+    @And("^the deduplicated deploy to '(.+)' should have uploaded (\\d+) times$")
+    fun checkUploadCount(destination: String, count: Int) {
+        assertEquals(count, deploys[destination]!!.uploadCount)
+    }
+
+    @Given("^mock a http service in DeduplicatedDeployScenario for (.+) request '(.+)' to return '(.+)' with status code (\\d+)$")
+    fun mockHttpService(action: String, serviceUrl: String, response: String, statusCode: Int) {
+        if (httpServerMock == null) {
+            httpServerMock = MockHttpService()
+        }
+
+        httpServerMock!!.stub(action, serviceUrl, statusCode, response)
+    }
+
+    @Then("^the WebHDFS uploaded path '(.+)' of the artifact '(.+)' should be (deployed|outdated)$")
+    fun checkWebHdfsDeployed(path: String, name: String, state: String) {
+        val cluster = object : IClusterDetail {
+            override fun getName(): String = "spark-cluster"
+
+            override fun getTitle(): String = "spark-cluster"
+
+            override fun getConnectionUrl(): String = httpServerMock!!.completeUrl("/")
+
+            override fun getSubscription(): SubscriptionDetail? = null
+        }
+
+        val deploy = WebHDFSDeploy(cluster, HttpObservable(), httpServerMock!!.completeUrl("/webhdfs/v1/SparkSubmission/"))
+        val isDeployed = deploy.isDeployed(httpServerMock!!.completeUrl(path), getArtifact(name))
+                .toBlocking()
+                .single()
+
+        if (state == "deployed") {
+            assertTrue(isDeployed)
+        } else {
+            assertFalse(isDeployed)
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common
+
+import com.github.tomakehurst.wiremock.client.WireMock
+import com.github.tomakehurst.wiremock.verification.LoggedRequest
+import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail
+import com.microsoft.azure.hdinsight.sdk.common.HttpObservable
+import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine
+import com.microsoft.azuretools.authmanage.models.SubscriptionDetail
+import cucumber.api.java.After
+import cucumber.api.java.Before
+import cucumber.api.java.en.And
+import cucumber.api.java.en.Given
+import cucumber.api.java.en.Then
+import org.apache.commons.io.FileUtils
+import rx.Observable
+import rx.observers.TestObserver
+import java.io.File
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.*
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class WebHDFSDeployScenario {
+    private val rootPath = "/webhdfs/v1/SparkSubmission/"
+
+    private var httpServerMock: MockHttpService? = null
+    private var workFolder: Path? = null
+    private val artifacts = mutableListOf<File>()
+    private var uploadedPaths: List<String> = emptyList()
+
+    @Before
+    fun setUp() {
+        httpServerMock = MockHttpService()
+        WireMock.configureFor(httpServerMock!!.port)
+        workFolder = Files.createTempDirectory("WebHDFSDeploy")
+    }
+
+    @After
+    fun cleanUp() {
+        httpServerMock?.livyServerMock?.stop()
+        workFolder?.let { FileUtils.deleteQuietly(it.toFile()) }
+    }
+
+    @Given("^(\\d+) local artifacts of (\\d+) MB to upload by WebHDFS$")
+    fun createArtifacts(count: Int, sizeMB: Int) {
+        val random = Random(count.toLong())
+        val block = ByteArray(1024 * 1024)
+
+        repeat(count) { index ->
+            val artifact = workFolder!!.resolve("artifact-$index.jar").toFile()
+            artifact.outputStream().use { out ->
+                repeat(sizeMB) {
+                    random.nextBytes(block)
+                    out.write(block)
+                }
+            }
+
+            artifacts.add(artifact)
+        }
+    }
+
+    @And("^mock a WebHDFS name node redirecting the file creations to a data node$")
+    fun mockWebHdfs() {
+        WireMock.stubFor(WireMock.put(WireMock.urlPathMatching("$rootPath.*/"))
+                .withQueryParam("op", WireMock.equalTo("MKDIRS"))
+                .willReturn(WireMock.aResponse().withStatus(200).withBody("{\"boolean\":true}")))
+
+        artifacts.forEach {
+            WireMock.stubFor(WireMock.put(WireMock.urlPathMatching("$rootPath.*/${it.name}"))
+                    .withQueryParam("op", WireMock.equalTo("CREATE"))
+                    .willReturn(WireMock.aResponse()
+                            .withStatus(307)
+                            .withHeader("Location", httpServerMock!!.completeUrl(
+                                    "/datanode/webhdfs/v1/${it.name}?op=CREATE&namenoderpcaddress=mycluster"))))
+        }
+
+        WireMock.stubFor(WireMock.put(WireMock.urlPathMatching("/datanode/webhdfs/v1/.*"))
+                .willReturn(WireMock.aResponse().withStatus(201)))
+    }
+
+    @Then("^uploading the artifacts by WebHDFS with (\\d+) concurrent uploads should take less than (\\d+) seconds$")
+    fun uploadArtifacts(maxConcurrent: Int, seconds: Long) {
+        val cluster = object : IClusterDetail {
+            override fun getName(): String = "spark-cluster"
+
+            override fun getTitle(): String = "spark-cluster"
+
+            override fun getConnectionUrl(): String = httpServerMock!!.completeUrl("/")
+
+            override fun getSubscription(): SubscriptionDetail? = null
+        }
+
+        val deploy = WebHDFSDeploy(cluster, HttpObservable(), httpServerMock!!.completeUrl(rootPath))
+        val start = System.nanoTime()
+        uploadedPaths = Observable.from(artifacts)
+                .concatMapEager({ deploy.deploy(it, TestObserver<SparkLogLine>()) }, maxConcurrent)
+                .toList()
+                .toBlocking()
+                .single()
+        val elapsedMs = (System.nanoTime() - start) / 1_000_000
+
+        assertTrue(elapsedMs < seconds * 1000, "Uploading took $elapsedMs ms")
+    }
+
+    @And("^the WebHDFS name node should get (\\d+) MKDIRS requests?$")
+    fun checkMkdirs(count: Int) {
+        assertEquals(count, getRequests("MKDIRS").size)
+    }
+
+    @And("^the WebHDFS name node should get a CREATE request without content for each artifact$")
+    fun checkNameNodeCreates() {
+        val creates = getRequests("CREATE").filter { it.url.startsWith(rootPath) }
+
+        assertEquals(artifacts.map { it.name }.sorted(), creates.map { it.url.substringBefore('?').substringAfterLast('/') }.sorted())
+        creates.forEach {
+            assertEquals(0, it.body.size, "The name node shouldn't get the content of ${it.url}")
+            assertNull(it.getHeader("Expect"))
+        }
+    }
+
+    @And("^the WebHDFS data node should get the content of each artifact once$")
+    fun checkDataNodeCreates() {
+        val creates = getRequests("CREATE").filter { it.url.startsWith("/datanode/") }
+
+        assertEquals(artifacts.size, creates.size)
+        artifacts.forEach { artifact ->
+            val create = creates.single { it.url.contains("/${artifact.name}?") }
+
+            assertTrue(Arrays.equals(artifact.readBytes(), create.body), "Bad content of ${artifact.name}")
+        }
+    }
+
+    @And("^the WebHDFS data node uploads should expect 100-continue$")
+    fun checkDataNodeExpectContinue() {
+        val creates = getRequests("CREATE").filter { it.url.startsWith("/datanode/") }
+
+        assertTrue(creates.isNotEmpty())
+        creates.forEach { assertEquals("100-continue", it.getHeader("Expect"), "No Expect header for ${it.url}") }
+    }
+
+    @And("^the WebHDFS uploaded paths should keep the artifacts order$")
+    fun checkUploadedPaths() {
+        assertEquals(artifacts.map { it.name }, uploadedPaths.map { it.substringBefore('?').substringAfterLast('/') })
+        uploadedPaths.forEach { assertTrue(it.endsWith("?op=OPEN"), "Bad uploaded path $it") }
+    }
+
+    // Read the request journal from the server, the admin API would serialize all the uploaded content into JSON
+    private fun getRequests(operation: String): List<LoggedRequest> = httpServerMock!!.livyServerMock.allServeEvents
+            .map { it.request }
+            .filter { it.url.contains("op=$operation") }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs
+
+import com.fasterxml.jackson.core.type.TypeReference
+import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail
+import com.microsoft.azuretools.authmanage.models.SubscriptionDetail
+import cucumber.api.java.After
+import cucumber.api.java.en.And
+import cucumber.api.java.en.Given
+import cucumber.api.java.en.Then
+import org.apache.commons.io.FileUtils
+import org.apache.commons.lang3.RandomStringUtils
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import java.util.*
+import java.util.stream.Collectors
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class JobViewDiskCacheScenario {
+    private val cluster = object : IClusterDetail {
+        override fun getName(): String = "spark-cluster"
+
+        override fun getTitle(): String = "spark-cluster"
+
+        override fun getConnectionUrl(): String = "https://spark-cluster.azurehdinsight.net"
+
+        override fun getSubscription(): SubscriptionDetail? = null
+    }
+
+    private val listType = object : TypeReference<List<String>>() {}
+
+    private var rootPath: Path? = null
+    private var diskCache: JobViewDiskCache? = null
+    private val writtenValues = mutableMapOf<String, List<String>>()
+
+    @After
+    fun cleanUp() {
+        rootPath?.let { FileUtils.deleteQuietly(it.toFile()) }
+    }
+
+    @Given("^a job view disk cache in a temporary folder limited to (\\d+) bytes$")
+    fun createDiskCache(maxSizeBytes: Long) {
+        rootPath = Files.createTempDirectory("JobViewCache")
+        diskCache = JobViewDiskCache(rootPath!!, maxSizeBytes)
+    }
+
+    @And("^write (\\d+) random characters as '(.+)' of application '(.+)' attempt '(\\d+)' to the job view disk cache$")
+    fun writeEntry(length: Int, kind: String, appId: String, attemptId: String) {
+        val value = listOf(RandomStringUtils.randomAlphanumeric(length))
+        writtenValues["$appId/$attemptId/$kind"] = value
+        diskCache!!.write(ApplicationKey(cluster, appId), attemptId, kind, value)
+    }
+
+    @And("^the '(.+)' entry of application '(.+)' was last read (\\d+) minutes ago$")
+    fun setLastRead(kind: String, appId: String, minutes: Long) {
+        getEntryFiles(kind, appId).forEach {
+            Files.setLastModifiedTime(it, FileTime.fromMillis(System.currentTimeMillis() - minutes * 60 * 1000))
+        }
+    }
+
+    @And("^the '(.+)' entry file of application '(.+)' is corrupted$")
+    fun corruptEntry(kind: String, appId: String) {
+        getEntryFiles(kind, appId).forEach { Files.write(it, "not a gzip file".toByteArray()) }
+    }
+
+    @Then("^reading '(.+)' of application '(.+)' from the job view disk cache should get attempt '(\\d+)'$")
+    fun checkHit(kind: String, appId: String, attemptId: String) {
+        val value = diskCache!!.read(ApplicationKey(cluster, appId.toUpperCase()), kind, listType)
+
+        assertTrue(value.isPresent, "$kind of $appId should be cached")
+        assertEquals(writtenValues["$appId/$attemptId/$kind"], value.get())
+    }
+
+    @Then("^reading '(.+)' of application '(.+)' from the job view disk cache should miss$")
+    fun checkMiss(kind: String, appId: String) {
+        val value = diskCache!!.read(ApplicationKey(cluster, appId), kind, listType)
+
+        assertFalse(value.isPresent, "$kind of $appId shouldn't be cached")
+    }
+
+    @And("^no '(.+)' entry file of application '(.+)' should be left$")
+    fun checkNoEntryFile(kind: String, appId: String) {
+        assertTrue(getEntryFiles(kind, appId).isEmpty())
+    }
+
+    private fun getEntryFiles(kind: String, appId: String): List<Path> {
+        val paths = Files.walk(rootPath!!)
+
+        try {
+            return paths.collect(Collectors.toList<Path>())
+                    .filter { it.fileName.toString() == "$kind.json.gz" }
+                    .filter { it.parent.parent.fileName.toString() == appId.toLowerCase(Locale.ROOT) }
+        } finally {
+            paths.close()
+        }
+    }
+}
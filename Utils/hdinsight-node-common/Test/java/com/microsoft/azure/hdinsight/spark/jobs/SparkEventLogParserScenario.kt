@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs
+
+import com.microsoft.azure.hdinsight.sdk.rest.spark.event.JobEndEventLog
+import com.microsoft.azure.hdinsight.sdk.rest.spark.event.JobStartEventLog
+import com.microsoft.azure.hdinsight.sdk.rest.spark.event.SparkListenerEventLog
+import cucumber.api.java.en.Given
+import cucumber.api.java.en.Then
+import java.io.ByteArrayInputStream
+import java.io.InputStream
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class SparkEventLogParserScenario {
+    private var eventLog: String = ""
+    private var generatedLogSize: Long = 0
+    private var generatedJobCount: Int = 0
+    private var generatedLinesPerJob: Int = 0
+
+    @Given("^a Spark event log with the following lines$")
+    fun setEventLog(lines: String) {
+        eventLog = lines
+    }
+
+    @Then("^parsing the Spark event log for job start events should get job IDs '(.*)'$")
+    fun checkJobStartIds(jobIds: String) {
+        val parsed = SparkEventLogParser.parse(ByteArrayInputStream(eventLog.toByteArray()), JobStartEventLog::class.java)
+                .map { it.jobId }
+                .toList()
+                .toBlocking()
+                .single()
+
+        assertEquals(jobIds, parsed.joinToString(","))
+    }
+
+    @Then("^parsing the Spark event log for job start and job end events should get events '(.*)'$")
+    fun checkJobEvents(events: String) {
+        val types = listOf<Class<out SparkListenerEventLog>>(JobStartEventLog::class.java, JobEndEventLog::class.java)
+        val parsed = SparkEventLogParser.parse(ByteArrayInputStream(eventLog.toByteArray()), types)
+                .map { it.event }
+                .toList()
+                .toBlocking()
+                .single()
+
+        assertEquals(events, parsed.joinToString(","))
+    }
+
+    @Given("^a generated Spark event log of (\\d+) MB with a job start every (\\d+) lines$")
+    fun setGeneratedEventLog(sizeMb: Long, linesPerJob: Int) {
+        generatedLogSize = sizeMb * 1024 * 1024
+        generatedLinesPerJob = linesPerJob
+    }
+
+    @Then("^parsing the generated Spark event log for job start events should read at most (\\d+) KB ahead of each event$")
+    fun checkGeneratedEventLogReadAhead(readAheadKb: Long) {
+        val generated = GeneratedEventLogInputStream(generatedLogSize, generatedLinesPerJob)
+        var maxReadAhead: Long = 0
+        val count = SparkEventLogParser.parse(generated, JobStartEventLog::class.java)
+                .doOnNext { maxReadAhead = Math.max(maxReadAhead, generated.bytesRead - generated.jobLineEnd(it.jobId)) }
+                .count()
+                .toBlocking()
+                .single()
+        generatedJobCount = generated.jobCount
+
+        assertEquals(generatedJobCount, count)
+        assertTrue(maxReadAhead <= readAheadKb * 1024, "Read $maxReadAhead bytes ahead of a job start event")
+    }
+
+    /**
+     * Produces event log lines on the fly, mostly task end events with a job start event every linesPerJob lines,
+     * so a large log can be parsed without being held in memory or on disk. The end offset of every job start line is
+     * kept, to tell how far the parser has read past an event when it is emitted.
+     */
+    class GeneratedEventLogInputStream(private val size: Long, private val linesPerJob: Int) : InputStream() {
+        private val taskEndLine = ("{\"Event\":\"SparkListenerTaskEnd\",\"Stage ID\":1,\"Stage Attempt ID\":0," +
+                "\"Task Type\":\"ResultTask\",\"Task End Reason\":{\"Reason\":\"Success\"}," +
+                "\"Task Info\":{\"Task ID\":1,\"Index\":1,\"Attempt\":0,\"Launch Time\":1514355624870," +
+                "\"Executor ID\":\"1\",\"Host\":\"wn1-spark\",\"Locality\":\"PROCESS_LOCAL\",\"Speculative\":false," +
+                "\"Accumulables\":[{\"ID\":1,\"Name\":\"internal.metrics.executorRunTime\",\"Update\":100," +
+                "\"Value\":100,\"Internal\":true,\"Count Failed Values\":true}]}," +
+                "\"Task Metrics\":{\"Executor Deserialize Time\":10,\"Executor Run Time\":100," +
+                "\"Result Size\":1000,\"JVM GC Time\":0,\"Memory Bytes Spilled\":0,\"Disk Bytes Spilled\":0," +
+                "\"Shuffle Read Metrics\":{\"Remote Blocks Fetched\":0,\"Local Blocks Fetched\":0," +
+                "\"Fetch Wait Time\":0,\"Remote Bytes Read\":0,\"Local Bytes Read\":0,\"Total Records Read\":0}," +
+                "\"Updated Blocks\":[]}}\n").toByteArray()
+
+        var bytesRead: Long = 0
+            private set
+        var jobCount: Int = 0
+            private set
+
+        private val jobLineEnds = mutableListOf<Long>()
+        private var line: ByteArray = ByteArray(0)
+        private var linePos = 0
+        private var lineCount = 0
+
+        override fun read(): Int {
+            val single = ByteArray(1)
+            return if (read(single, 0, 1) == -1) -1 else single[0].toInt() and 0xff
+        }
+
+        override fun read(buffer: ByteArray, offset: Int, length: Int): Int {
+            if (linePos == line.size) {
+                if (bytesRead >= size) {
+                    return -1
+                }
+
+                line = if (lineCount++ % linesPerJob == 0) nextJobStartLine() else taskEndLine
+                linePos = 0
+                if (line !== taskEndLine) {
+                    jobLineEnds.add(bytesRead + line.size)
+                }
+            }
+
+            val count = Math.min(length, line.size - linePos)
+            System.arraycopy(line, linePos, buffer, offset, count)
+            linePos += count
+            bytesRead += count
+            return count
+        }
+
+        fun jobLineEnd(jobId: Int): Long = jobLineEnds[jobId]
+
+        private fun nextJobStartLine(): ByteArray = ("{\"Event\":\"SparkListenerJobStart\",\"Job ID\":${jobCount++}," +
+                "\"Submission Time\":1514355624870,\"Stage Infos\":[],\"Stage IDs\":[1]," +
+                "\"Properties\":{\"spark.rdd.scope\":\"{\\\"id\\\":\\\"1\\\",\\\"name\\\":\\\"collect\\\"}\"}}\n")
+                .toByteArray()
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs
+
+import cucumber.api.java.en.Given
+import cucumber.api.java.en.Then
+import org.apache.http.client.protocol.HttpClientContext
+import java.io.Reader
+import java.io.StringReader
+import kotlin.test.assertEquals
+import kotlin.test.assertNotSame
+import kotlin.test.assertSame
+
+class YarnContainerLogClientScenario {
+    private var page: String = ""
+
+    /**
+     * The reader gives no more than the chunk size of chars at a time, to split the tags and the character
+     * references across the page reader's buffer fills
+     */
+    private class ChunkedReader(text: String, private val chunkSize: Int) : Reader() {
+        private val reader = StringReader(text)
+
+        override fun read(cbuf: CharArray, off: Int, len: Int): Int = reader.read(cbuf, off, Math.min(len, chunkSize))
+
+        override fun close() = reader.close()
+    }
+
+    @Given("^a Yarn container log page$")
+    fun setPage(content: String) {
+        page = content
+    }
+
+    @Given("^the Yarn container log page is cut off after '(.+)'$")
+    fun cutOffPage(end: String) {
+        page = page.substring(0, page.indexOf(end) + end.length)
+    }
+
+    @Then("^extracting the '(.+)' log from the page read (\\d+) chars at a time should get$")
+    fun checkExtractedLog(type: String, chunkSize: Int, expected: String) {
+        val log = YarnContainerLogClient.extractLog(ChunkedReader(page, chunkSize), type)
+
+        assertEquals(expected, log)
+    }
+
+    @Then("^extracting the '(.+)' log from the page read (\\d+) chars at a time should get an empty log$")
+    fun checkExtractedLogEmpty(type: String, chunkSize: Int) {
+        checkExtractedLog(type, chunkSize, "")
+    }
+
+    @Then("^the log client requests should get their own contexts sharing the cookie store$")
+    fun checkRequestContexts() {
+        val client = YarnContainerLogClient()
+        val first = HttpClientContext.adapt(client.httpContext)
+        val second = HttpClientContext.adapt(client.httpContext)
+
+        assertNotSame(first, second)
+        assertSame(client.cookieStore, first.cookieStore)
+        assertSame(client.cookieStore, second.cookieStore)
+    }
+}
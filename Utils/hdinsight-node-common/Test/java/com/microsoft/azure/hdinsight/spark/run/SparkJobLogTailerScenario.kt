@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.run
+
+import com.microsoft.azure.hdinsight.spark.run.SparkJobLogTailer.PollResult
+import cucumber.api.java.After
+import cucumber.api.java.en.And
+import cucumber.api.java.en.Given
+import cucumber.api.java.en.Then
+import java.io.IOException
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+import kotlin.test.fail
+
+class SparkJobLogTailerScenario {
+    private val cluster = "spark-cluster.azurehdinsight.net"
+
+    private var tailer: SparkJobLogTailer? = null
+    private var tail: SparkJobLogTailer.Tail? = null
+    private val pollTimes = CopyOnWriteArrayList<Long>()
+    private val error = AtomicReference<Throwable>()
+    private val tails = mutableListOf<SparkJobLogTailer.Tail>()
+    private val releasePolls = CountDownLatch(1)
+
+    @After
+    fun cleanUp() {
+        releasePolls.countDown()
+        tail?.cancel()
+        tails.forEach { it.cancel() }
+    }
+
+    @Given("^a Spark job log tailer with (\\d+) to (\\d+) threads and (\\d+) requests per second for a cluster$")
+    fun createTailer(minPoolSize: Int, maxPoolSize: Int, requestsPerSecond: Double) {
+        tailer = SparkJobLogTailer(minPoolSize, maxPoolSize, requestsPerSecond)
+    }
+
+    @And("^tail a log between (\\d+) and (\\d+) ms with the polls got '(.+)'$")
+    fun tailLog(minIntervalMs: Long, maxIntervalMs: Long, results: String) {
+        val polls = results.split(",").map { it.trim() }
+        val pollCount = AtomicInteger()
+
+        tail = tailer!!.tail(cluster, minIntervalMs, maxIntervalMs, {
+            pollTimes.add(System.nanoTime())
+
+            when (val result = polls[Math.min(pollCount.getAndIncrement(), polls.size - 1)]) {
+                "IOException" -> throw IOException("Connection reset")
+                "IllegalStateException" -> throw IllegalStateException("Bad log response")
+                else -> PollResult.valueOf(result)
+            }
+        }, { error.set(it) })
+    }
+
+    @And("^wait (\\d+) ms for the Spark job log polls$")
+    fun waitPolls(waitMs: Long) {
+        Thread.sleep(waitMs)
+    }
+
+    @Then("^the Spark job log should be polled (\\d+) times$")
+    fun checkPollCount(count: Int) {
+        assertEquals(count, pollTimes.size)
+    }
+
+    @Then("^the Spark job log should be polled more than (\\d+) times$")
+    fun checkPollCountMoreThan(count: Int) {
+        assertTrue(pollTimes.size > count, "Polled ${pollTimes.size} times only")
+    }
+
+    @Then("^the Spark job log poll intervals should be about '(.+)' ms$")
+    fun checkPollIntervals(intervals: String) {
+        val expectedIntervals = intervals.split(",").map { it.trim().toLong() }
+        val actualIntervals = pollTimes.zipWithNext { prev, next -> TimeUnit.NANOSECONDS.toMillis(next - prev) }
+
+        assertTrue(actualIntervals.size >= expectedIntervals.size, "Got intervals $actualIntervals only")
+        expectedIntervals.zip(actualIntervals).forEach { (expected, actual) ->
+            if (actual < expected || actual > expected + 150) {
+                fail("Expect intervals $expectedIntervals, but got $actualIntervals")
+            }
+        }
+    }
+
+    @And("^the Spark job log tail should be (cancelled|live)$")
+    fun checkTailCancelled(state: String) {
+        assertEquals(state == "cancelled", tail!!.isCancelled)
+    }
+
+    @And("^the Spark job log tail error should be (IOException|IllegalStateException|none)$")
+    fun checkTailError(errorType: String) {
+        if (errorType == "none") {
+            assertNull(error.get())
+        } else {
+            assertNotNull(error.get())
+            assertEquals(errorType, error.get().javaClass.simpleName)
+        }
+    }
+
+    @Given("^tail (\\d+) logs with the polls blocked$")
+    fun tailBlockedLogs(count: Int) {
+        repeat(count) {
+            tails.add(tailer!!.tail(cluster, 10, 10, {
+                pollTimes.add(System.nanoTime())
+                releasePolls.await()
+
+                PollResult.ACTIVE
+            }, null))
+        }
+    }
+
+    @And("^cancel all the Spark job log tails$")
+    fun cancelAllTails() {
+        tails.forEach { it.cancel() }
+        releasePolls.countDown()
+    }
+
+    @Then("^the Spark job log tailer should have (\\d+) live tails and a pool of (\\d+) threads$")
+    fun checkPoolSize(liveTails: Int, poolSize: Int) {
+        assertEquals(liveTails, tailer!!.liveTailCount)
+        assertEquals(poolSize, tailer!!.poolSize)
+    }
+
+    @And("^the cancelled Spark job log tails should be polled no more$")
+    fun checkNoMorePolls() {
+        Thread.sleep(100)
+        val polled = pollTimes.size
+        Thread.sleep(200)
+
+        assertEquals(polled, pollTimes.size)
+        assertFalse(tails.any { !it.isCancelled })
+    }
+}
@@ -0,0 +1,57 @@
+Feature: ClusterFileChunkedUploader Tests
+
+  Scenario: Upload all parts of a new file
+    Given the cluster has the parts '' of the file written
+    And the cluster file is 10 bytes long after completing the parts
+    And a local file of 10 random bytes to upload
+    And upload the file to '/SparkSubmission/2019/01/01/app.jar' in chunks of 4 bytes with the parts root '/SparkSubmission/.parts/'
+    Then the file should be uploaded to '/SparkSubmission/2019/01/01/app.jar'
+    And only the parts 0, 1, 2 should be written with the file content
+    And the 3 parts in the folder under '/SparkSubmission/.parts/' should be completed into '/SparkSubmission/2019/01/01/app.jar'
+
+  Scenario: Deflate the parts which can be compressed
+    Given the cluster has the parts '' of the file written
+    And the cluster file is 4096 bytes long after completing the parts
+    And a local file of 4096 repeated bytes to upload
+    And upload the file to '/SparkSubmission/app.jar' in chunks of 1024 bytes with the parts root '/SparkSubmission/.parts/'
+    Then the file should be uploaded to '/SparkSubmission/app.jar'
+    And only the parts 0, 1, 2, 3 should be written with the file content
+    And the part 2 should be deflated
+
+  Scenario: Resume the upload by writing the missing parts only
+    Given the cluster has the parts '00000000,00000002' of the file written
+    And the cluster file is 10 bytes long after completing the parts
+    And a local file of 10 random bytes to upload
+    And upload the file to '/SparkSubmission/app.jar' in chunks of 4 bytes with the parts root '/SparkSubmission/.parts/'
+    Then the file should be uploaded to '/SparkSubmission/app.jar'
+    And only the parts 1 should be written with the file content
+    And the 3 parts in the folder under '/SparkSubmission/.parts/' should be completed into '/SparkSubmission/app.jar'
+
+  Scenario: The parts folder is kept for the same file only
+    Given the cluster has the parts '' of the file written
+    And the cluster file is 10 bytes long after completing the parts
+    And a local file of 10 random bytes to upload
+    And upload the file to '/SparkSubmission/app.jar' in chunks of 4 bytes with the parts root '/SparkSubmission/.parts/'
+    And upload the file to '/SparkSubmission/app.jar' in chunks of 4 bytes with the parts root '/SparkSubmission/.parts/'
+    Then the parts folder should be the same as the last upload
+    And upload the file to '/SparkSubmission/app.jar' in chunks of 5 bytes with the parts root '/SparkSubmission/.parts/'
+    Then the parts folder should differ from the last upload
+    And change the local file modification time
+    And upload the file to '/SparkSubmission/app.jar' in chunks of 5 bytes with the parts root '/SparkSubmission/.parts/'
+    Then the parts folder should differ from the last upload
+
+  Scenario: Fail the upload when the cluster file length doesn't match
+    Given the cluster has the parts '' of the file written
+    And the cluster file is 7 bytes long after completing the parts
+    And a local file of 10 random bytes to upload
+    And upload the file to '/SparkSubmission/app.jar' in chunks of 4 bytes with the parts root '/SparkSubmission/.parts/'
+    Then uploading the file should fail with the message containing 'doesn't match the local one'
+
+  Scenario Outline: Escape the paths into Scala string literals
+    Then the path '<path>' should be escaped as '<escaped>'
+
+    Examples:
+      | path                 | escaped                    |
+      | /SparkSubmission/a b | /SparkSubmission/a b       |
+      | /a"b\c               | /a\"b\\\\c                 |
+      | /文件                | /\u6587\u4ef6              |
@@ -0,0 +1,65 @@
+Feature: HelperSessionCache Tests
+
+  Scenario: Reuse the idle session for the next upload
+    Given a helper session cache with the idle timeout of 600000 ms
+    And acquire a helper session
+    And close the helper session lease 0
+    And acquire a helper session
+    Then the helper session leases should share the same session
+    And 1 helper session should be created and 0 killed
+
+  Scenario: Share the session between concurrent uploads
+    Given a helper session cache with the idle timeout of 600000 ms
+    And acquire a helper session
+    And acquire a helper session
+    Then the helper session leases should share the same session
+    And close the helper session lease 0
+    And close the helper session lease 1
+    Then 1 helper session should be created and 0 killed
+
+  Scenario: Keep one session per credential
+    Given a helper session cache with the idle timeout of 600000 ms
+    And acquire a helper session with the password Aa
+    And close the helper session lease 0
+    And acquire a helper session with the password BB
+    Then the helper session leases should not share the same session
+    And 2 helper sessions should be created and 0 killed
+
+  Scenario: Kill the session after the upload when the cache is turned off
+    Given a helper session cache with the idle timeout of 0 ms
+    And acquire a helper session
+    Then 1 helper session should be created and 0 killed
+    And close the helper session lease 0
+    Then 1 helper session should be created and 1 killed
+    And acquire a helper session
+    Then 2 helper sessions should be created and 1 killed
+
+  Scenario: Kill the session idle for too long
+    Given a helper session cache with the idle timeout of 500 ms
+    And acquire a helper session
+    And close the helper session lease 0
+    And wait for 2500 ms
+    Then 1 helper session should be created and 1 killed
+
+  Scenario: Kill the invalidated session once its lease is closed
+    Given a helper session cache with the idle timeout of 600000 ms
+    And acquire a helper session
+    And invalidate the helper session lease 0
+    Then 1 helper session should be created and 0 killed
+    And close the helper session lease 0
+    Then 1 helper session should be created and 1 killed
+    And acquire a helper session
+    Then 2 helper sessions should be created and 1 killed
+
+  Scenario: Kill the idle sessions at the shutdown, and the busy ones once they are released
+    Given a helper session cache with the idle timeout of 600000 ms
+    And acquire a helper session
+    And close the helper session lease 0
+    And shut down the helper session cache
+    Then 1 helper session should be created and 1 killed
+    And acquire a helper session
+    Then 2 helper sessions should be created and 1 killed
+    And shut down the helper session cache
+    Then 2 helper sessions should be created and 1 killed
+    And close the helper session lease 1
+    Then 2 helper sessions should be created and 2 killed
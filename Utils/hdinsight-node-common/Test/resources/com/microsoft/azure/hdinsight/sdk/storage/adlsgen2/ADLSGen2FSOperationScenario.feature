@@ -0,0 +1,31 @@
+Feature: ADLSGen2FSOperation tests
+
+  Background:
+    Given a local file of 10000 random bytes to upload to ADLS Gen2
+    And mock ADLS Gen2 to accept append requests with status code 202
+    And mock ADLS Gen2 to accept flush requests with status code 200
+
+  Scenario: The file is appended in chunks and flushed at its length
+    And upload the local file to ADLS Gen2 in chunks of 4096 bytes with 2 concurrent chunks
+    Then the ADLS Gen2 upload should succeed
+    And ADLS Gen2 should get the appends at positions '0, 4096, 8192' covering the local file
+    And ADLS Gen2 should get 1 flush request at position 10000 after all the appends
+    And every ADLS Gen2 request should be signed with its own shared key
+    And the ADLS Gen2 requests should not share an HTTP context
+
+  Scenario: A failed chunk is retried on its own
+    And mock ADLS Gen2 to fail the append request at position 4096 for 2 times with status code 500
+    And upload the local file to ADLS Gen2 in chunks of 4096 bytes with 3 concurrent chunks
+    Then the ADLS Gen2 upload should succeed
+    And ADLS Gen2 should get 3 append requests at position 4096
+    And ADLS Gen2 should get 1 append requests at position 0
+    And ADLS Gen2 should get the appends at positions '0, 4096, 8192' covering the local file
+    And ADLS Gen2 should get 1 flush request at position 10000 after all the appends
+    And every ADLS Gen2 request should be signed with its own shared key
+
+  Scenario: The content isn't flushed once a chunk runs out of retries
+    And mock ADLS Gen2 to fail the append request at position 8192 for 4 times with status code 500
+    And upload the local file to ADLS Gen2 in chunks of 4096 bytes with 1 concurrent chunks
+    Then the ADLS Gen2 upload should fail
+    And ADLS Gen2 should get 4 append requests at position 8192
+    And ADLS Gen2 should get 0 flush requests at position 10000 after all the appends
@@ -0,0 +1,50 @@
+Feature: DeduplicatedDeploy tests
+
+  Background:
+    Given a local artifact 'app.jar' with content 'hello'
+    And a local artifact 'lib.jar' with content 'world!'
+    And an artifact manifest saved in the temporary folder
+
+  Scenario: The artifact digest is the SHA-256 of the content, cached until the length or modification time changes
+    Then the artifact manifest digest of 'app.jar' should be '2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824'
+    And the local artifact 'app.jar' is rewritten with content 'HELLO' keeping its length and modification time
+    Then the artifact manifest digest of 'app.jar' should be '2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824'
+    Given a local artifact 'app.jar' with content 'hello world'
+    Then the artifact manifest digest of 'app.jar' should be 'b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9'
+
+  Scenario: The artifact manifest is persisted per destination
+    And record the artifact 'app.jar' uploaded to 'wasbs://cluster1/' as 'wasbs://cluster1/SparkSubmission/1/app.jar' in the artifact manifest
+    Then a reloaded artifact manifest should find the artifact 'app.jar' uploaded to 'wasbs://cluster1/' as 'wasbs://cluster1/SparkSubmission/1/app.jar'
+    And a reloaded artifact manifest should find the artifact 'app.jar' uploaded to 'wasbs://cluster2/' as ''
+    And a reloaded artifact manifest should find the artifact 'lib.jar' uploaded to 'wasbs://cluster1/' as ''
+
+  Scenario: An unchanged artifact still uploaded is reused
+    Given a deduplicated deploy to 'dest-a'
+    And a deduplicated deploy to 'dest-b'
+    And deploy the artifact 'app.jar' to 'dest-a' with deduplication
+    Then the artifact 'app.jar' should be deployed as 'dest-a/1/app.jar'
+    And deploy the artifact 'app.jar' to 'dest-a' with deduplication
+    Then the artifact 'app.jar' should be deployed as 'dest-a/1/app.jar'
+    And deploy the artifact 'lib.jar' to 'dest-a' with deduplication
+    Then the artifact 'lib.jar' should be deployed as 'dest-a/2/lib.jar'
+    And deploy the artifact 'app.jar' to 'dest-b' with deduplication
+    Then the artifact 'app.jar' should be deployed as 'dest-b/1/app.jar'
+    And the deduplicated deploy to 'dest-a' should have uploaded 2 times
+    And the deduplicated deploy to 'dest-b' should have uploaded 1 times
+
+  Scenario: A changed local or remote artifact is uploaded again
+    Given a deduplicated deploy to 'dest-a'
+    And deploy the artifact 'app.jar' to 'dest-a' with deduplication
+    And the artifact uploaded to 'dest-a' as 'dest-a/1/app.jar' is changed to 10 bytes
+    And deploy the artifact 'app.jar' to 'dest-a' with deduplication
+    Then the artifact 'app.jar' should be deployed as 'dest-a/2/app.jar'
+    Given a local artifact 'app.jar' with content 'hello again'
+    And deploy the artifact 'app.jar' to 'dest-a' with deduplication
+    Then the artifact 'app.jar' should be deployed as 'dest-a/3/app.jar'
+    And the deduplicated deploy to 'dest-a' should have uploaded 3 times
+
+  Scenario: WebHDFS uploaded artifact is checked by the file size
+    Given mock a http service in DeduplicatedDeployScenario for GET request '/webhdfs/v1/SparkSubmission/2020/01/01/app.jar?op=GETFILESTATUS' to return '{"FileStatus":{"length":5,"type":"FILE"}}' with status code 200
+    And mock a http service in DeduplicatedDeployScenario for GET request '/webhdfs/v1/SparkSubmission/2020/01/01/lib.jar?op=GETFILESTATUS' to return '{"FileStatus":{"length":5,"type":"FILE"}}' with status code 200
+    Then the WebHDFS uploaded path '/webhdfs/v1/SparkSubmission/2020/01/01/app.jar?op=OPEN' of the artifact 'app.jar' should be deployed
+    And the WebHDFS uploaded path '/webhdfs/v1/SparkSubmission/2020/01/01/lib.jar?op=OPEN' of the artifact 'lib.jar' should be outdated
@@ -0,0 +1,18 @@
+Feature: WebHDFSDeploy tests
+
+  Scenario: Artifacts are created in two steps with the content sent to the data node only
+    Given 3 local artifacts of 1 MB to upload by WebHDFS
+    And mock a WebHDFS name node redirecting the file creations to a data node
+    Then uploading the artifacts by WebHDFS with 2 concurrent uploads should take less than 60 seconds
+    And the WebHDFS name node should get 1 MKDIRS request
+    And the WebHDFS name node should get a CREATE request without content for each artifact
+    And the WebHDFS data node should get the content of each artifact once
+    And the WebHDFS data node uploads should expect 100-continue
+    And the WebHDFS uploaded paths should keep the artifacts order
+
+  Scenario: Upload throughput of large artifacts
+    Given 4 local artifacts of 16 MB to upload by WebHDFS
+    And mock a WebHDFS name node redirecting the file creations to a data node
+    Then uploading the artifacts by WebHDFS with 4 concurrent uploads should take less than 60 seconds
+    And the WebHDFS name node should get 1 MKDIRS request
+    And the WebHDFS data node should get the content of each artifact once
@@ -0,0 +1,31 @@
+Feature: JobViewDiskCache tests
+
+  Scenario: Entries are read back from the latest attempt
+    Given a job view disk cache in a temporary folder limited to 1048576 bytes
+    And write 100 random characters as 'jobs' of application 'application_1_0001' attempt '1' to the job view disk cache
+    And write 100 random characters as 'jobs' of application 'application_1_0001' attempt '2' to the job view disk cache
+    And write 100 random characters as 'stages' of application 'application_1_0001' attempt '1' to the job view disk cache
+    Then reading 'jobs' of application 'application_1_0001' from the job view disk cache should get attempt '2'
+    And reading 'stages' of application 'application_1_0001' from the job view disk cache should miss
+    And reading 'jobs' of application 'application_1_0002' from the job view disk cache should miss
+    And reading 'executors' of application 'application_1_0001' from the job view disk cache should miss
+
+  Scenario: The least recently read entries are evicted beyond the size limit
+    Given a job view disk cache in a temporary folder limited to 2000 bytes
+    And write 1000 random characters as 'jobs' of application 'application_1_0001' attempt '1' to the job view disk cache
+    And write 1000 random characters as 'jobs' of application 'application_1_0002' attempt '1' to the job view disk cache
+    And the 'jobs' entry of application 'application_1_0001' was last read 10 minutes ago
+    And the 'jobs' entry of application 'application_1_0002' was last read 20 minutes ago
+    Then reading 'jobs' of application 'application_1_0001' from the job view disk cache should get attempt '1'
+    And write 1000 random characters as 'jobs' of application 'application_1_0003' attempt '1' to the job view disk cache
+    Then reading 'jobs' of application 'application_1_0002' from the job view disk cache should miss
+    And no 'jobs' entry file of application 'application_1_0002' should be left
+    And reading 'jobs' of application 'application_1_0001' from the job view disk cache should get attempt '1'
+    And reading 'jobs' of application 'application_1_0003' from the job view disk cache should get attempt '1'
+
+  Scenario: Corrupt entry files are dropped
+    Given a job view disk cache in a temporary folder limited to 1048576 bytes
+    And write 100 random characters as 'jobs' of application 'application_1_0001' attempt '1' to the job view disk cache
+    And the 'jobs' entry file of application 'application_1_0001' is corrupted
+    Then reading 'jobs' of application 'application_1_0001' from the job view disk cache should miss
+    And no 'jobs' entry file of application 'application_1_0001' should be left
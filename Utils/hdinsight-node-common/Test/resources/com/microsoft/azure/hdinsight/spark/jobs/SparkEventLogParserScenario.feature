@@ -0,0 +1,27 @@
+Feature: SparkEventLogParser tests
+
+  Scenario: Only the requested events are parsed
+    Given a Spark event log with the following lines
+      """
+      {"Event":"SparkListenerLogStart","Spark Version":"2.3.0"}
+      {"Event":"SparkListenerJobStart","Job ID":0,"Submission Time":1514355624870,"Stage Infos":[],"Stage IDs":[0],"Properties":{}}
+      {"Event":"SparkListenerTaskEnd","Stage ID":0,"Task Info":{"Task ID":0,"Accumulables":[{"ID":1,"Value":"1"}]}}
+      {"Job ID":5,"Event":"SparkListenerJobEnd","Completion Time":1514355625870,"Job Result":{"Result":"JobSucceeded"}}
+      {"Stage Infos":[{"Stage ID":1,"Stage Name":"collect"}],"Event":"SparkListenerJobStart","Job ID":1,"Properties":{"a":"b"}}
+      {"Event":"SparkListenerUnknown","Job ID":7}
+      """
+    Then parsing the Spark event log for job start events should get job IDs '0,1'
+    And parsing the Spark event log for job start and job end events should get events 'SparkListenerJobStart,SparkListenerJobEnd,SparkListenerJobStart'
+
+  Scenario: A running application's cut short last line ends the stream
+    Given a Spark event log with the following lines
+      """
+      {"Event":"SparkListenerJobStart","Job ID":0,"Stage IDs":[0]}
+      {"Event":"SparkListenerJobStart","Job ID":1,"Stage IDs":[1]}
+      {"Event":"SparkListenerJobStart","Job ID":2,"Sta
+      """
+    Then parsing the Spark event log for job start events should get job IDs '0,1'
+
+  Scenario: A large Spark event log is parsed without buffering it
+    Given a generated Spark event log of 16 MB with a job start every 100 lines
+    Then parsing the generated Spark event log for job start events should read at most 64 KB ahead of each event
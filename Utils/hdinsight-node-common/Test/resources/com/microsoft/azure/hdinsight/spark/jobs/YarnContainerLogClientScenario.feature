@@ -0,0 +1,63 @@
+Feature: YarnContainerLogClient tests
+
+  Background:
+    Given a Yarn container log page
+      """
+      <!DOCTYPE html><html><head><title>Logs for container_01</title>
+      <!-- <pre>commented out</pre> -> -->
+      <script type="text/javascript">var closing = "</p>";</script></head><body>
+      <pre>Spark 2.2 extra block</pre>
+      <p>Log Type: stderr</p><p>Log Upload Time: Mon Jan 01 00:00:00 +0000 2018</p>
+      <p>Log Length: 64</p><PRE class="log" title='a > b'>INFO Main: a &lt; b &amp;&amp; c &gt; d
+      WARN Main: &quot;quoted&quot; &#39;single&#39; &apos;apos&apos; caf&eacute; &#x41;&#66;
+      ERROR Main: &nosuch; &amp broken &</PRE>
+      <p>Log Type: stdout</p><p>Log Length: 22</p><pre>Hello <pre>World</pre>!</pre>
+      </body></html>
+      """
+
+  Scenario Outline: The log of the requested type is extracted with the references unescaped
+    Then extracting the 'stderr' log from the page read <chunk> chars at a time should get
+      """
+      INFO Main: a < b && c > d
+      WARN Main: "quoted" 'single' 'apos' café AB
+      ERROR Main: &nosuch; &amp broken &
+      """
+    And extracting the 'stdout' log from the page read <chunk> chars at a time should get
+      """
+      Hello World
+      """
+    And extracting the 'directory.info' log from the page read <chunk> chars at a time should get
+      """
+      Hello World
+      """
+
+    Examples:
+      | chunk |
+      | 1     |
+      | 3     |
+      | 7     |
+      | 8192  |
+
+  Scenario Outline: The log of a truncated page is taken as it is
+    Given the Yarn container log page is cut off after '<end>'
+    Then extracting the 'stderr' log from the page read <chunk> chars at a time should get
+      """
+      <log>
+      """
+
+    Examples:
+      | end                              | chunk | log                          |
+      | INFO Main: a &lt; b &am          | 1     | INFO Main: a < b &am         |
+      | INFO Main: a &lt; b &amp;&amp; c | 3     | INFO Main: a < b && c        |
+      | <p>Log Type: stderr</p><p>Log Up | 8192  | Spark 2.2 extra block        |
+      | INFO Main: a &lt;                | 7     | INFO Main: a <               |
+
+  Scenario: A page without the log has an empty log
+    Given a Yarn container log page
+      """
+      <html><body><p>Log Type: stderr</p><p>Log Length: 0</p></body></html>
+      """
+    Then extracting the 'stderr' log from the page read 5 chars at a time should get an empty log
+
+  Scenario: The concurrent log requests do not share an HTTP context
+    Then the log client requests should get their own contexts sharing the cookie store
@@ -0,0 +1,44 @@
+Feature: SparkJobLogTailer tests
+
+  Background:
+    Given a Spark job log tailer with 1 to 3 threads and 1000 requests per second for a cluster
+
+  Scenario: An idle log backs off up to the maximum interval and an active log is polled again soon
+    And tail a log between 50 and 200 ms with the polls got 'IDLE, IDLE, IDLE, IDLE, ACTIVE, IDLE, DONE'
+    And wait 1000 ms for the Spark job log polls
+    Then the Spark job log should be polled 7 times
+    And the Spark job log poll intervals should be about '100, 200, 200, 200, 50, 100' ms
+    And the Spark job log tail should be cancelled
+    And the Spark job log tail error should be none
+
+  Scenario: The tail gives up after too many IO errors in a row
+    And tail a log between 10 and 20 ms with the polls got 'IOException'
+    And wait 500 ms for the Spark job log polls
+    Then the Spark job log should be polled 5 times
+    And the Spark job log tail should be cancelled
+    And the Spark job log tail error should be IOException
+
+  Scenario: The IO errors count is reset by a successful poll
+    And tail a log between 10 and 20 ms with the polls got 'IOException, IOException, IOException, IOException, IDLE, IOException, IOException, IOException, IOException, IDLE'
+    And wait 500 ms for the Spark job log polls
+    Then the Spark job log should be polled more than 10 times
+    And the Spark job log tail should be live
+    And the Spark job log tail error should be none
+
+  Scenario: The tail ends at the first unexpected error
+    And tail a log between 10 and 20 ms with the polls got 'ACTIVE, IllegalStateException, ACTIVE'
+    And wait 300 ms for the Spark job log polls
+    Then the Spark job log should be polled 2 times
+    And the Spark job log tail should be cancelled
+    And the Spark job log tail error should be IllegalStateException
+
+  Scenario: The thread pool grows with the live tails up to the maximum
+    Given tail 2 logs with the polls blocked
+    Then the Spark job log tailer should have 2 live tails and a pool of 2 threads
+    Given tail 3 logs with the polls blocked
+    And wait 200 ms for the Spark job log polls
+    Then the Spark job log tailer should have 5 live tails and a pool of 3 threads
+    And the Spark job log should be polled 3 times
+    And cancel all the Spark job log tails
+    Then the Spark job log tailer should have 0 live tails and a pool of 1 threads
+    And the cancelled Spark job log tails should be polled no more
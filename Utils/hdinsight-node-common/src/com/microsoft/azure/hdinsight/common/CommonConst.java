@@ -65,6 +65,7 @@ public class CommonConst {
     public static final String SQL_BIG_DATA_LIVY_LINK_CLUSTERS = "com.microsoft.azure.sqlbigdata.SqlBigDataLivyLinkClusters";
     public static final String EMULATOR_CLUSTERS = "com.microsoft.azure.hdinsight.EmulatorClusters";
     public static final String CACHED_SPARK_SDK_PATHS = "com.microsoft.azure.hdinsight.cachedSparkSDKpath";
+    public static final String SPARK_HELPER_SESSION_IDLE_TIMEOUT_MINUTES = "com.microsoft.azure.hdinsight.SparkHelperSessionIdleTimeoutMinutes";
     public static final String SPARK_FAILURE_TASK_CONTEXT_EXTENSION = "ftd";
 
     public static final String AZURE_SERVERLESS_SPARK_ROOT_ICON_PATH = "AzureServerlessSparkRoot.png";
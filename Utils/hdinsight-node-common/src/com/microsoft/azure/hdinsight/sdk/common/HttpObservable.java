@@ -47,6 +47,7 @@ import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.HeaderGroup;
@@ -66,6 +67,7 @@ import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 import static rx.exceptions.Exceptions.propagate;
 
@@ -94,12 +96,23 @@ public class HttpObservable implements ILogger {
     @NotNull
     private List<NameValuePair> defaultParameters = new ArrayList<>();
 
+    private boolean isContextPerRequest = false;
+
 
     /*
      * Constructors
      */
 
     public HttpObservable() {
+        this(UnaryOperator.identity());
+    }
+
+    /**
+     * Constructor with the HTTP client settings of a subclass, such as a larger connection pool
+     *
+     * @param customizeHttpClient applied to the default HTTP client builder before the client is built
+     */
+    protected HttpObservable(@NotNull final UnaryOperator<HttpClientBuilder> customizeHttpClient) {
         this.defaultHeaders = new HeaderGroup();
 
         String loadingClass = this.getClass().getClassLoader().getClass().getName().toLowerCase();
@@ -125,11 +138,11 @@ public class HttpObservable implements ILogger {
                 .setProxyPreferredAuthSchemes(Collections.singletonList(AuthSchemes.BASIC))
                 .build();
 
-        this.httpClient = HttpClients.custom()
+        this.httpClient = customizeHttpClient.apply(HttpClients.custom()
                 .useSystemProperties()
                 .setDefaultCookieStore(getCookieStore())
                 .setDefaultRequestConfig(getDefaultRequestConfig())
-                .setSSLSocketFactory(createSSLSocketFactory())
+                .setSSLSocketFactory(createSSLSocketFactory()))
                 .build();
     }
 
@@ -226,7 +239,36 @@ public class HttpObservable implements ILogger {
 
     @NotNull
     public HttpContext getHttpContext() {
-        return httpContext;
+        return isContextPerRequest ? createRequestContext() : httpContext;
+    }
+
+    /**
+     * Set whether each request gets its own context, for sending the requests concurrently
+     *
+     * @param contextPerRequest true to create a context for each request, see createRequestContext()
+     * @return the current instance for chain calling
+     */
+    public HttpObservable setContextPerRequest(boolean contextPerRequest) {
+        this.isContextPerRequest = contextPerRequest;
+
+        return this;
+    }
+
+    /**
+     * Create a context for a single request. HttpClient contexts are not thread safe, so the requests sent at the
+     * same time need their own ones, which share the cookie store and the credentials of the default context.
+     *
+     * @return a new context for one request
+     */
+    @NotNull
+    public HttpContext createRequestContext() {
+        final HttpClientContext sharedContext = HttpClientContext.adapt(httpContext);
+        final HttpClientContext requestContext = HttpClientContext.create();
+        requestContext.setCookieStore(sharedContext.getCookieStore());
+        Optional.ofNullable(sharedContext.getCredentialsProvider())
+                .ifPresent(requestContext::setCredentialsProvider);
+
+        return requestContext;
     }
 
     @Nullable
@@ -261,7 +303,7 @@ public class HttpObservable implements ILogger {
         }
     }
 
-    private SSLConnectionSocketFactory createSSLSocketFactory() {
+    protected SSLConnectionSocketFactory createSSLSocketFactory() {
         TrustStrategy ts = ServiceManager.getServiceProvider(TrustStrategy.class);
         SSLConnectionSocketFactory sslSocketFactory = null;
 
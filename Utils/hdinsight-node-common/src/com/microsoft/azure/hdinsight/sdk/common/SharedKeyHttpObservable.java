@@ -36,6 +36,7 @@ import org.apache.http.message.HeaderGroup;
 import rx.Observable;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -83,9 +84,11 @@ public class SharedKeyHttpObservable extends HttpObservable {
         addOrReplaceHeaders.stream().forEach(header -> headerGroup.addHeader(header));
         String key = cred.generateSharedKey(httpRequest, headerGroup, parameters);
 
-        getDefaultHeaderGroup().updateHeader(new BasicHeader("Authorization", key));
+        // Set the key to this request only, requests could be signed and sent concurrently
+        final List<Header> requestHeaders = new ArrayList<>(addOrReplaceHeaders);
+        requestHeaders.add(new BasicHeader("Authorization", key));
 
-        return super.request(httpRequest, entity, parameters, addOrReplaceHeaders);
+        return super.request(httpRequest, entity, parameters, requestHeaders);
     }
 
     @Override
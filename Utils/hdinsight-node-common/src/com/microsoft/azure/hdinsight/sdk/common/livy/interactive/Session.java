@@ -44,7 +44,9 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.http.entity.StringEntity;
 import rx.Observable;
+import rx.Observer;
 import rx.Scheduler;
+import rx.observers.SerializedObserver;
 import rx.schedulers.Schedulers;
 import rx.subjects.PublishSubject;
 
@@ -69,6 +71,8 @@ import static rx.exceptions.Exceptions.propagate;
 public abstract class Session implements AutoCloseable, Closeable, ILogger {
     private static final String REST_SEGMENT_SESSION = "sessions";
 
+    private static final int MAX_CONCURRENT_ARTIFACT_UPLOADS = 4;
+
     // @NotNull annotation is removed since Not Null is by default,
     // refer to https://checkerframework.org/manual/#null-defaults
     private final URI baseUrl;            // Session base URL
@@ -506,17 +510,24 @@ public abstract class Session implements AutoCloseable, Closeable, ILogger {
             return Observable.just(this);
         }
 
+        // artifacts are uploaded concurrently, serialize their logs
+        final Observer<SparkLogLine> logSubject = new SerializedObserver<>(ctrlSubject);
+
         return Observable.from(getArtifactsToDeploy())
-                         .doOnNext(artifactPath -> ctrlSubject.onNext(
+                         .doOnNext(artifactPath -> logSubject.onNext(
                                  new SparkLogLine(TOOL, Info, "Start uploading artifact " + artifactPath)))
-                         .flatMap(artifactPath -> deployDelegate.deploy(new File(artifactPath), ctrlSubject))
-                         .doOnNext(uri -> ctrlSubject.onNext(
+                         // upload concurrently, but keep the uploaded URIs in the order of artifacts
+                         .concatMapEager(artifactPath -> deployDelegate.deploy(new File(artifactPath), logSubject)
+                                                                       .subscribeOn(Schedulers.io()),
+                                         MAX_CONCURRENT_ARTIFACT_UPLOADS,
+                                         MAX_CONCURRENT_ARTIFACT_UPLOADS)
+                         .doOnNext(uri -> logSubject.onNext(
                                  new SparkLogLine(TOOL, Info, "Uploaded to " + uri)))
                          .toList()
                          .onErrorResumeNext(err -> {
-                             ctrlSubject.onNext(
+                             logSubject.onNext(
                                  new SparkLogLine(TOOL, Warning, "Failed to upload artifact: " + err));
-                             ctrlSubject.onNext(
+                             logSubject.onNext(
                                  new SparkLogLine(TOOL, Warning, "Try to start interactive session without those artifacts dependency..."));
 
                              return Observable.empty();
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.io.spark;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.Session;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static rx.exceptions.Exceptions.propagate;
+
+/**
+ * Uploads a local file to the cluster file system through a Livy interactive session, for clusters which can only
+ * be reached by Livy.
+ *
+ * The file is split into chunks, which are deflated when that helps, BASE64 encoded and written into a parts folder
+ * by concurrently posted statements. Livy queues the statements, so the next chunks are already posted while one
+ * runs. The parts are concatenated into the destination at the end, and the parts folder is deleted.
+ *
+ * The parts folder is named after the local file path, length, modification time and the chunk size, so uploading
+ * the same file again, even after an IDE restart, only sends the parts not written yet. The parts of an upload never
+ * retried are left in the parts root.
+ */
+public class ClusterFileChunkedUploader implements ILogger {
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    public static final int DEFAULT_MAX_PENDING_STATEMENTS = 4;
+
+    // A Scala string literal must fit into a class file constant, which is up to 65535 bytes
+    private static final int LITERAL_SIZE = 60000;
+
+    private static final Pattern PARTS_PATTERN = Pattern.compile("##PARTS##([^#]*)##");
+    private static final Pattern LENGTH_PATTERN = Pattern.compile("##LENGTH##(\\d+)##");
+
+    private static final String PRELOADED_CODES = String.join("\n",
+            "import java.io.ByteArrayInputStream",
+            "import java.util.Base64",
+            "import java.util.zip.InflaterInputStream",
+            "import org.apache.hadoop.fs.{FileSystem, Path}",
+            "import org.apache.hadoop.io.IOUtils",
+            "",
+            "def azToolkitPartName(index: Int) = \"%08d\".format(index)",
+            "",
+            "def azToolkitWritePart(partsDir: String, index: Int, deflated: Boolean, pages: Array[String]) = {",
+            "    val fs = FileSystem.get(sc.hadoopConfiguration)",
+            "    val bytes = new ByteArrayInputStream(Base64.getDecoder.decode(pages.mkString))",
+            "    val in = if (deflated) new InflaterInputStream(bytes) else bytes",
+            "    val part = new Path(partsDir, azToolkitPartName(index))",
+            "    val tmp = new Path(partsDir, azToolkitPartName(index) + \".tmp\")",
+            "",
+            "    IOUtils.copyBytes(in, fs.create(tmp, true), 65536, true)",
+            "    fs.delete(part, false)",
+            "    fs.rename(tmp, part)",
+            "}",
+            "",
+            "def azToolkitListParts(partsDir: String) = {",
+            "    val fs = FileSystem.get(sc.hadoopConfiguration)",
+            "    val dir = new Path(partsDir)",
+            "    val parts = if (fs.exists(dir)) fs.listStatus(dir).map(_.getPath.getName).filterNot(_.endsWith(\".tmp\")) else Array[String]()",
+            "",
+            "    println(\"##PARTS##\" + parts.mkString(\",\") + \"##\")",
+            "}",
+            "",
+            "def azToolkitCompleteParts(partsDir: String, destination: String, count: Int) = {",
+            "    val fs = FileSystem.get(sc.hadoopConfiguration)",
+            "    val out = fs.create(new Path(destination), true)",
+            "    try {",
+            "        for (index <- 0 until count) {",
+            "            val in = fs.open(new Path(partsDir, azToolkitPartName(index)))",
+            "            try IOUtils.copyBytes(in, out, 65536, false) finally in.close()",
+            "        }",
+            "    } finally {",
+            "        out.close()",
+            "    }",
+            "",
+            "    fs.delete(new Path(partsDir), true)",
+            "    println(\"##LENGTH##\" + fs.getFileStatus(new Path(destination)).getLen + \"##\")",
+            "}");
+
+    @NotNull
+    private final Session session;
+
+    private final int chunkSize;
+
+    private final int maxPendingStatements;
+
+    public ClusterFileChunkedUploader(@NotNull Session session, int chunkSize, int maxPendingStatements) {
+        if (chunkSize <= 0 || maxPendingStatements <= 0) {
+            throw new IllegalArgumentException("Chunk size and max pending statements should be positive");
+        }
+
+        this.session = session;
+        this.chunkSize = chunkSize;
+        this.maxPendingStatements = maxPendingStatements;
+    }
+
+    public ClusterFileChunkedUploader(@NotNull Session session) {
+        this(session, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_PENDING_STATEMENTS);
+    }
+
+    /**
+     * Upload the file to the cluster
+     *
+     * @param src         the local file to upload
+     * @param destination the destination path
+     * @param partsRoot   the folder to keep the parts folders of the uploads in
+     * @return Observable: the destination path the file is uploaded to
+     */
+    @NotNull
+    public Observable<URI> upload(@NotNull File src, @NotNull URI destination, @NotNull URI partsRoot) {
+        return Observable.defer(() -> {
+            final String partsDir = getPartsDir(src, partsRoot, chunkSize);
+
+            final FileChannel channel;
+            try {
+                channel = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+            } catch (IOException ex) {
+                return Observable.error(ex);
+            }
+
+            return Observable.using(
+                    () -> channel,
+                    fileChannel -> uploadParts(fileChannel, destination, partsDir),
+                    fileChannel -> {
+                        try {
+                            fileChannel.close();
+                        } catch (IOException ignored) {
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Get the parts folder of the file upload, the same one for the same file content chunked in the same size
+     */
+    @NotNull
+    static String getPartsDir(@NotNull File src, @NotNull URI partsRoot, int chunkSize) {
+        final String uploadKey = String.join("|",
+                src.getAbsolutePath(), String.valueOf(src.length()), String.valueOf(src.lastModified()),
+                String.valueOf(chunkSize));
+
+        return partsRoot.resolve(DigestUtils.sha256Hex(uploadKey)).toString();
+    }
+
+    @NotNull
+    private Observable<URI> uploadParts(@NotNull FileChannel channel, @NotNull URI destination, @NotNull String partsDir) {
+        final long fileSize;
+        try {
+            fileSize = channel.size();
+        } catch (IOException ex) {
+            return Observable.error(ex);
+        }
+
+        final int partsCount = (int) ((fileSize + chunkSize - 1) / chunkSize);
+        final String escapedPartsDir = escape(partsDir);
+
+        // Define the helpers and check which parts were written by an earlier upload in the same statement
+        return session.runCodes(PRELOADED_CODES + "\n\nazToolkitListParts(\"" + escapedPartsDir + "\")")
+                .map(result -> parseWrittenParts(getText(result)))
+                .doOnNext(writtenParts -> {
+                    if (!writtenParts.isEmpty()) {
+                        log().info(String.format("Resume uploading to %s, %d of %d parts were written",
+                                                 destination, writtenParts.size(), partsCount));
+                    }
+                })
+                .flatMap(writtenParts -> Observable.range(0, partsCount)
+                        .filter(index -> !writtenParts.contains(index))
+                        .flatMap(index -> writePart(channel, fileSize, escapedPartsDir, index).subscribeOn(Schedulers.io()),
+                                 maxPendingStatements)
+                        .ignoreElements())
+                .concatWith(Observable.defer(() -> session.runCodes(String.format(
+                        "azToolkitCompleteParts(\"%s\", \"%s\", %d)",
+                        escapedPartsDir, escape(destination.toString()), partsCount))))
+                .map(result -> {
+                    final Matcher matcher = LENGTH_PATTERN.matcher(getText(result));
+                    if (!matcher.find() || Long.parseLong(matcher.group(1)) != fileSize) {
+                        throw propagate(new IOException(String.format(
+                                "The uploaded file %s doesn't match the local one: %s",
+                                destination, getText(result))));
+                    }
+
+                    return destination;
+                });
+    }
+
+    @NotNull
+    private Observable<Map<String, String>> writePart(@NotNull FileChannel channel,
+                                                      long fileSize,
+                                                      @NotNull String escapedPartsDir,
+                                                      int index) {
+        return Observable.defer(() -> {
+            final long position = (long) index * chunkSize;
+            final byte[] chunk = readChunk(channel, position, (int) Math.min(chunkSize, fileSize - position));
+
+            return session.runCodes(getWritePartCodes(escapedPartsDir, index, chunk));
+        });
+    }
+
+    @NotNull
+    private static byte[] readChunk(@NotNull FileChannel channel, long position, int length) {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("The file is truncated during uploading");
+                }
+            }
+        } catch (IOException ex) {
+            throw propagate(ex);
+        }
+
+        return buffer.array();
+    }
+
+    @NotNull
+    static String getWritePartCodes(@NotNull String escapedPartsDir, int index, @NotNull byte[] chunk) {
+        final byte[] deflated = deflate(chunk);
+        final boolean isDeflated = deflated.length < chunk.length;
+        final String encoded = Base64.encodeBase64String(isDeflated ? deflated : chunk);
+
+        final StringBuilder codes = new StringBuilder(encoded.length() + 256);
+        codes.append("azToolkitWritePart(\"").append(escapedPartsDir).append("\", ")
+             .append(index).append(", ")
+             .append(isDeflated).append(", Array(");
+
+        for (int start = 0; start < encoded.length(); start += LITERAL_SIZE) {
+            if (start > 0) {
+                codes.append(", ");
+            }
+
+            codes.append('"').append(encoded, start, Math.min(encoded.length(), start + LITERAL_SIZE)).append('"');
+        }
+
+        return codes.append("))").toString();
+    }
+
+    @NotNull
+    private static byte[] deflate(@NotNull byte[] chunk) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(chunk.length / 2);
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater)) {
+            deflaterOut.write(chunk);
+        } catch (IOException ex) {
+            throw propagate(ex);
+        } finally {
+            deflater.end();
+        }
+
+        return out.toByteArray();
+    }
+
+    @NotNull
+    static Set<Integer> parseWrittenParts(@NotNull String output) {
+        final Matcher matcher = PARTS_PATTERN.matcher(output);
+        if (!matcher.find() || matcher.group(1).isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        return Arrays.stream(matcher.group(1).split(","))
+                     .map(Integer::valueOf)
+                     .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    @NotNull
+    private static String getText(@NotNull Map<String, String> result) {
+        final String text = result.get("text/plain");
+
+        return text == null ? "" : text;
+    }
+
+    // Escape the path into a Scala string literal
+    @NotNull
+    static String escape(@NotNull String literal) {
+        final StringBuilder escaped = new StringBuilder(literal.length() + 16);
+
+        for (char ch : literal.toCharArray()) {
+            if (ch == '\\' || ch == '"') {
+                escaped.append('\\').append(ch);
+            } else if (ch < 0x20 || ch > 0x7e) {
+                escaped.append(String.format("\\u%04x", (int) ch));
+            } else {
+                escaped.append(ch);
+            }
+        }
+
+        return escaped.toString();
+    }
+}
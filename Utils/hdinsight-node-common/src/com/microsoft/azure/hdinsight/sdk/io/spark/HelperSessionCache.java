@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.io.spark;
+
+import com.microsoft.azure.hdinsight.common.CommonConst;
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.Session;
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SparkSession;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import com.microsoft.tooling.msservices.components.DefaultLoader;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the Livy helper sessions used to upload files to the cluster alive between uploads, one per Livy endpoint
+ * and credential, so only the first upload pays for the interactive session startup. A session is killed once it
+ * has been idle for a while, or when an upload through it fails.
+ *
+ * The idle timeout is set by the application property SPARK_HELPER_SESSION_IDLE_TIMEOUT_MINUTES, 0 to turn the
+ * cache off and kill each session right after its upload. The cached sessions are killed at the JVM shutdown.
+ */
+public class HelperSessionCache implements ILogger {
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static class LazyHolder {
+        static final HelperSessionCache INSTANCE = createDefault();
+
+        private static HelperSessionCache createDefault() {
+            final HelperSessionCache cache = new HelperSessionCache(getConfiguredIdleTimeoutMs());
+            Runtime.getRuntime().addShutdownHook(new Thread(cache::shutdown, "Spark helper session cache shutdown"));
+
+            return cache;
+        }
+
+        private static long getConfiguredIdleTimeoutMs() {
+            return Optional.ofNullable(DefaultLoader.getIdeHelper())
+                    .map(helper -> helper.getApplicationProperty(CommonConst.SPARK_HELPER_SESSION_IDLE_TIMEOUT_MINUTES))
+                    .map(minutes -> TimeUnit.MINUTES.toMillis(NumberUtils.toLong(minutes.trim(), -1)))
+                    .filter(timeoutMs -> timeoutMs >= 0)
+                    .orElse(DEFAULT_IDLE_TIMEOUT_MS);
+        }
+    }
+
+    public static HelperSessionCache getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private static final class Key {
+        @NotNull
+        private final URI livyUri;
+
+        @Nullable
+        private final String username;
+
+        @Nullable
+        private final String password;
+
+        private Key(@NotNull URI livyUri, @Nullable String username, @Nullable String password) {
+            this.livyUri = livyUri;
+            this.username = username;
+            this.password = password;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) o;
+            return livyUri.equals(other.livyUri)
+                    && Objects.equals(username, other.username)
+                    && Objects.equals(password, other.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(livyUri, username, password);
+        }
+    }
+
+    private static class Entry {
+        @NotNull
+        final SparkSession session;
+
+        int leases = 0;
+
+        long lastUsedMs = System.currentTimeMillis();
+
+        Entry(@NotNull SparkSession session) {
+            this.session = session;
+        }
+    }
+
+    /**
+     * The session borrowed from the cache, give it back by closing the lease.
+     */
+    public class Lease implements AutoCloseable {
+        @NotNull
+        private final Key key;
+
+        @NotNull
+        private final Entry entry;
+
+        private boolean isClosed = false;
+
+        private Lease(@NotNull Key key, @NotNull Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @NotNull
+        public Session getSession() {
+            return entry.session;
+        }
+
+        /**
+         * Don't reuse the session anymore, it's killed once all its leases are closed.
+         */
+        public void invalidate() {
+            synchronized (sessions) {
+                sessions.remove(key, entry);
+            }
+        }
+
+        @Override
+        public void close() {
+            final boolean isRemoved;
+            synchronized (sessions) {
+                if (isClosed) {
+                    return;
+                }
+
+                isClosed = true;
+                entry.leases--;
+                entry.lastUsedMs = System.currentTimeMillis();
+                isRemoved = entry.leases == 0 && sessions.get(key) != entry;
+            }
+
+            if (isRemoved) {
+                closeSession(entry);
+            }
+        }
+    }
+
+    private final long idleTimeoutMs;
+
+    // Livy URI and credential -> helper session
+    @NotNull
+    private final Map<Key, Entry> sessions = new HashMap<>();
+
+    @NotNull
+    private final ScheduledThreadPoolExecutor reaper;
+
+    private volatile boolean isShutdown = false;
+
+    /**
+     * @param idleTimeoutMs how long an unused session is kept, 0 or less to kill each session once it's not used
+     */
+    public HelperSessionCache(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.reaper = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "Spark helper session reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (isCaching()) {
+            final long checkIntervalMs = Math.max(1000, idleTimeoutMs / 4);
+            this.reaper.scheduleWithFixedDelay(this::closeIdleSessions, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean isCaching() {
+        return idleTimeoutMs > 0 && !isShutdown;
+    }
+
+    /**
+     * Borrow the helper session of the Livy endpoint, a new session is created and waited to be ready if there is
+     * no one alive. Blocks until the session is ready.
+     */
+    @NotNull
+    public Lease acquire(@NotNull URI livyUri, @Nullable String username, @Nullable String password) {
+        final Key key = new Key(livyUri, username, password);
+
+        synchronized (sessions) {
+            final Entry entry = sessions.get(key);
+            if (entry != null && !entry.session.isStop()) {
+                entry.leases++;
+                return new Lease(key, entry);
+            }
+        }
+
+        final SparkSession session = new SparkSession("Helper session to upload files", livyUri, username, password);
+        session.create()
+               .flatMap(Session::awaitReady)
+               .toBlocking()
+               .single();
+
+        final Entry entry = new Entry(session);
+        entry.leases++;
+
+        final Entry replaced;
+        synchronized (sessions) {
+            if (!isCaching()) {
+                // Not kept in the cache, so it's killed once the lease is closed
+                return new Lease(key, entry);
+            }
+
+            final Entry previous = sessions.put(key, entry);
+            replaced = previous != null && previous.leases == 0 ? previous : null;
+        }
+
+        if (replaced != null) {
+            closeSession(replaced);
+        }
+
+        return new Lease(key, entry);
+    }
+
+    /**
+     * Stop caching and kill the sessions not in use, the sessions in use are killed once their leases are closed.
+     */
+    public void shutdown() {
+        final List<Entry> idleEntries = new ArrayList<>();
+
+        synchronized (sessions) {
+            isShutdown = true;
+
+            sessions.values().stream()
+                    .filter(entry -> entry.leases == 0)
+                    .forEach(idleEntries::add);
+            sessions.clear();
+        }
+
+        reaper.shutdownNow();
+        idleEntries.forEach(this::closeSession);
+    }
+
+    private void closeIdleSessions() {
+        final long now = System.currentTimeMillis();
+
+        synchronized (sessions) {
+            final Iterator<Entry> entries = sessions.values().iterator();
+            while (entries.hasNext()) {
+                final Entry entry = entries.next();
+                if (entry.leases == 0 && now - entry.lastUsedMs > idleTimeoutMs) {
+                    entries.remove();
+                    reaper.execute(() -> closeSession(entry));
+                }
+            }
+        }
+    }
+
+    private void closeSession(@NotNull Entry entry) {
+        try {
+            entry.session.close();
+        } catch (Exception ex) {
+            log().warn("Failed to close Spark helper session " + entry.session.getName(), ex);
+        }
+    }
+}
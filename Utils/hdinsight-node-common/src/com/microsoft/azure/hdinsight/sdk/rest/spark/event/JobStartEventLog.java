@@ -26,7 +26,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Map;
 
-public class JobStartEventLog {
+public class JobStartEventLog implements SparkListenerEventLog {
+    public static final String EVENT_NAME = "SparkListenerJobStart";
+
     @JsonProperty("Event")
     private String event;
 
@@ -45,6 +47,7 @@ public class JobStartEventLog {
     @JsonProperty("Properties")
     private Map<String, String> properties;
 
+    @Override
     public String getEvent() {
         return event;
     }
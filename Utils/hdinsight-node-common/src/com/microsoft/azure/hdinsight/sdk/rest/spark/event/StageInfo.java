@@ -45,7 +45,7 @@ public class StageInfo {
     private String details;
 
     @JsonProperty("Accumulables")
-    private String[] accumulables;
+    private Object[] accumulables;
 
     @JsonProperty("RDD Info")
     private RDDInfo[] rddInfos;
@@ -98,11 +98,11 @@ public class StageInfo {
         this.details = details;
     }
 
-    public String[] getAccumulables() {
+    public Object[] getAccumulables() {
         return accumulables;
     }
 
-    public void setAccumulables(String[] accumulables) {
+    public void setAccumulables(Object[] accumulables) {
         this.accumulables = accumulables;
     }
 
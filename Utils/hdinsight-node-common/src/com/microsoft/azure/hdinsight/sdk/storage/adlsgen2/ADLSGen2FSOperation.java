@@ -33,24 +33,34 @@ import org.apache.http.Header;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPut;
-import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.message.BasicHeader;
 import rx.Observable;
+import rx.functions.Action1;
+import rx.schedulers.Schedulers;
 
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ADLSGen2FSOperation {
     public static final String DEFAULT_UMASK = "0000";
     public static final String PERMISSIONS_HEADER = "x-ms-permissions";
     public static final String UMASK_HEADER = "x-ms-umask";
 
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    public static final int DEFAULT_MAX_CONCURRENT_CHUNKS = 4;
+    public static final int DEFAULT_CHUNK_RETRIES = 3;
+    private static final long CHUNK_RETRY_DELAY_MILLISECONDS = 1000;
+
     private HttpObservable http;
 
     @NotNull
@@ -59,15 +69,9 @@ public class ADLSGen2FSOperation {
     @NotNull
     private List<NameValuePair> createFileReqParams;
 
-    @NotNull
-    private List<NameValuePair> appendReqParams;
-
     @NotNull
     private ADLSGen2ParamsBuilder listReqBuilder;
 
-    @NotNull
-    private ADLSGen2ParamsBuilder flushReqParamsBuilder;
-
     public ADLSGen2FSOperation(@NotNull HttpObservable http) {
         this.http = http;
         this.createDirReqParams = new ADLSGen2ParamsBuilder()
@@ -77,14 +81,6 @@ public class ADLSGen2FSOperation {
         this.createFileReqParams = new ADLSGen2ParamsBuilder()
                 .setResource("file")
                 .build();
-
-        this.appendReqParams = new ADLSGen2ParamsBuilder()
-                .setAction("append")
-                .setPosition(0)
-                .build();
-
-        this.flushReqParamsBuilder = new ADLSGen2ParamsBuilder()
-                .setAction("flush");
     }
 
     public Observable<Boolean> createDir(String dirPath) {
@@ -128,8 +124,79 @@ public class ADLSGen2FSOperation {
     }
 
     public Observable<Boolean> uploadData(String destFilePath, File src) {
-        return appendData(destFilePath, src)
-                .flatMap(len -> flushData(destFilePath, len));
+        return uploadData(destFilePath, src, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CONCURRENT_CHUNKS, null);
+    }
+
+    /**
+     * Upload the file content in chunks, which are appended concurrently at their positions and flushed together
+     * at the end. At most maxConcurrentChunks chunks are held in memory, and a failed chunk is retried on its own.
+     *
+     * @param destFilePath        the created file to upload the content to
+     * @param src                 the local file to upload
+     * @param chunkSize           the bytes count of each append request
+     * @param maxConcurrentChunks the count of append requests sent at the same time
+     * @param onProgress          called with the total bytes count uploaded so far, after each chunk
+     * @return Observable: true when the content is flushed
+     */
+    public Observable<Boolean> uploadData(String destFilePath,
+                                          File src,
+                                          int chunkSize,
+                                          int maxConcurrentChunks,
+                                          @Nullable Action1<Long> onProgress) {
+        if (chunkSize <= 0 || maxConcurrentChunks <= 0) {
+            return Observable.error(new IllegalArgumentException(
+                    "Chunk size and max concurrent chunks should be positive"));
+        }
+
+        return Observable.defer(() -> {
+            final FileChannel fileChannel;
+            try {
+                fileChannel = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+            } catch (IOException e) {
+                return Observable.error(new IllegalArgumentException("Can not find the artifact", e));
+            }
+
+            return Observable.using(
+                    () -> fileChannel,
+                    channel -> {
+                        final long fileSize;
+                        try {
+                            fileSize = channel.size();
+                        } catch (IOException e) {
+                            return Observable.error(new IllegalArgumentException("Can not read the artifact", e));
+                        }
+
+                        final long chunkCount = (fileSize + chunkSize - 1) / chunkSize;
+                        final AtomicLong uploaded = new AtomicLong(0);
+                        http.setContentType("application/octet-stream");
+                        // The chunks are appended concurrently, which can't share an HTTP context
+                        http.setContextPerRequest(true);
+
+                        return Observable.range(0, (int) chunkCount)
+                                .flatMap(index -> {
+                                    final long position = (long) index * chunkSize;
+                                    final int length = (int) Math.min(chunkSize, fileSize - position);
+
+                                    return appendChunk(destFilePath, channel, position, length)
+                                            .subscribeOn(Schedulers.io());
+                                }, maxConcurrentChunks)
+                                .doOnNext(length -> {
+                                    final long total = uploaded.addAndGet(length);
+                                    if (onProgress != null) {
+                                        onProgress.call(total);
+                                    }
+                                })
+                                .ignoreElements()
+                                .cast(Boolean.class)
+                                .concatWith(Observable.defer(() -> flushData(destFilePath, fileSize)));
+                    },
+                    channel -> {
+                        try {
+                            channel.close();
+                        } catch (IOException ignored) {
+                        }
+                    });
+        });
     }
 
     public Observable<RemoteFile> list(String rootPath, String relativePath) {
@@ -145,33 +212,64 @@ public class ADLSGen2FSOperation {
                 .flatMap(pathList -> Observable.from(pathList.getRemoteFiles()));
     }
 
-    private Observable<Long> appendData(String filePath, File src) {
-        try {
-            InputStreamEntity reqEntity = new InputStreamEntity(
-                    new FileInputStream(src),
-                    -1,
-                    ContentType.APPLICATION_OCTET_STREAM);
-            BufferedHttpEntity entity = new BufferedHttpEntity(reqEntity);
-            long len = entity.getContentLength();
-
-            HttpPatch req = new HttpPatch(filePath);
-            http.setContentType("application/octet-stream");
-
-            return http.executeReqAndCheckStatus(req, entity, this.appendReqParams, Collections.emptyList(), 202)
-                    .map(ignore -> len);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(new IllegalArgumentException("Can not find the aritifact"));
-        } catch (IOException e) {
-            throw new RuntimeException(new IllegalArgumentException("Can not read the aritfact"));
-        }
+    // The chunk is read again from the file on retry, so only the chunks in flight are kept in memory
+    private Observable<Integer> appendChunk(String filePath, FileChannel channel, long position, int length) {
+        return Observable
+                .defer(() -> {
+                    final ByteBuffer buffer = ByteBuffer.allocate(length);
+                    try {
+                        while (buffer.hasRemaining()) {
+                            if (channel.read(buffer, position + buffer.position()) < 0) {
+                                throw new EOFException("The artifact is truncated during uploading");
+                            }
+                        }
+                    } catch (IOException e) {
+                        return Observable.error(new IllegalArgumentException("Can not read the artifact", e));
+                    }
+
+                    final ByteArrayEntity entity = new ByteArrayEntity(
+                            buffer.array(), ContentType.APPLICATION_OCTET_STREAM);
+                    final List<NameValuePair> appendReqParams = new ADLSGen2ParamsBuilder()
+                            .setAction("append")
+                            .setPosition(position)
+                            .build();
+
+                    return http.executeReqAndCheckStatus(
+                            new HttpPatch(filePath), entity, appendReqParams, Collections.emptyList(), 202);
+                })
+                .map(resp -> {
+                    try {
+                        resp.close();
+                    } catch (IOException ignored) {
+                    }
+
+                    return length;
+                })
+                .retryWhen(errors -> errors
+                        .zipWith(Observable.range(1, DEFAULT_CHUNK_RETRIES + 1), (err, attempt) ->
+                                attempt > DEFAULT_CHUNK_RETRIES || err instanceof IllegalArgumentException
+                                        ? Observable.<Long>error(err)
+                                        : Observable.timer(attempt * CHUNK_RETRY_DELAY_MILLISECONDS,
+                                                           TimeUnit.MILLISECONDS))
+                        .flatMap(retry -> retry));
     }
 
     private Observable<Boolean> flushData(String filePath, long flushLen) {
         HttpPatch req = new HttpPatch(filePath);
-        List<NameValuePair> flushReqParams = this.flushReqParamsBuilder.setPosition(flushLen).build();
+        List<NameValuePair> flushReqParams = new ADLSGen2ParamsBuilder()
+                .setAction("flush")
+                .setPosition(flushLen)
+                .build();
         http.setContentType("application/json");
 
         return http.executeReqAndCheckStatus(req, null, flushReqParams, Collections.emptyList(), 200)
-                .map(ignore -> true);
+                .map(resp -> {
+                    try {
+                        resp.close();
+                    } catch (IOException ignored) {
+                    }
+
+                    return true;
+                });
     }
 }
@@ -25,9 +25,11 @@ package com.microsoft.azure.hdinsight.spark.common;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.common.HDIException;
 import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import org.apache.http.client.utils.URIBuilder;
 
+import java.net.URI;
 import java.net.URISyntaxException;
 
 // for cluster with adls account to deploy using webhdfs storage account type
@@ -44,4 +46,15 @@ public class ADLSGen1HDFSDeploy extends WebHDFSDeploy {
         builder.setScheme(cluster.getStorageAccount().getDefaultStorageSchema());
         return builder.build().toString();
     }
+
+    @Override
+    @NotNull
+    protected URI getArtifactStatusUri(String uploadedPath) throws URISyntaxException {
+        // convert adl://xx/hdi-root/SparkSubmission/artifact.jar back to https://xx/webhdfs/v1/hdi-root/SparkSubmission/artifact.jar
+        final URI uploaded = new URI(uploadedPath);
+        return new URIBuilder(destinationRootPath)
+                .setPath("/webhdfs/v1" + uploaded.getPath())
+                .removeQuery()
+                .build();
+    }
 }
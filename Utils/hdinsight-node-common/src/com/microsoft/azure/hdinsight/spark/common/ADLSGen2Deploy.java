@@ -31,13 +31,24 @@ import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
 import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
 import com.microsoft.azuretools.authmanage.AuthMethodManager;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpHead;
 import rx.Observable;
 import rx.Observer;
 import rx.exceptions.Exceptions;
+import rx.functions.Action1;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.microsoft.azure.hdinsight.common.MessageInfoType.Info;
+import static com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine.TOOL;
 
 public class ADLSGen2Deploy implements Deployable, ILogger {
     @NotNull
@@ -92,11 +103,67 @@ public class ADLSGen2Deploy implements Deployable, ILogger {
                  })
                  .doOnNext(ignore -> log().info(String.format("Create filesystem %s successfully.", dirPath)))
                  .flatMap(ignore -> op.createFile(filePath, "0755"))
-                 .flatMap(ignore -> op.uploadData(filePath, src))
+                 .flatMap(ignore -> op.uploadData(filePath,
+                                                  src,
+                                                  ADLSGen2FSOperation.DEFAULT_CHUNK_SIZE,
+                                                  ADLSGen2FSOperation.DEFAULT_MAX_CONCURRENT_CHUNKS,
+                                                  getUploadProgressLogger(src, logSubject)))
                  .doOnNext(ignore -> log().info(String.format("Append data to file %s successfully.", filePath)))
                  .map(ignored -> AbfsUri.parse(filePath).getUri().toString());
     }
 
+    // Log the upload progress of large artifacts in steps of 10 percent
+    @Nullable
+    private Action1<Long> getUploadProgressLogger(File src, Observer<SparkLogLine> logSubject) {
+        final long total = src.length();
+        if (total <= ADLSGen2FSOperation.DEFAULT_CHUNK_SIZE) {
+            return null;
+        }
+
+        final AtomicInteger loggedPercent = new AtomicInteger(0);
+        return uploaded -> {
+            final int percent = (int) (uploaded * 10 / total) * 10;
+            if (percent > loggedPercent.getAndAccumulate(percent, Math::max)) {
+                logSubject.onNext(new SparkLogLine(TOOL, Info, String.format(
+                        "Uploaded %d%% of artifact %s (%d / %d bytes)", percent, src.getName(), uploaded, total)));
+            }
+        };
+    }
+
+    @Nullable
+    @Override
+    public String getDestinationKey() {
+        return destinationRootPath;
+    }
+
+    @Override
+    public Observable<Boolean> isDeployed(String uploadedPath, File src) {
+        final String fileUrl;
+        try {
+            fileUrl = AbfsUri.parse(uploadedPath).getUrl().toString();
+        } catch (final IllegalArgumentException ex) {
+            return Observable.error(ex);
+        }
+
+        // Get properties of the uploaded file by HEAD request, the file size is in Content-Length
+        return http.request(new HttpHead(fileUrl), null, Collections.emptyList(), Collections.emptyList())
+                   .map(resp -> {
+                       try {
+                           final Header contentLength = resp.getFirstHeader(HttpHeaders.CONTENT_LENGTH);
+
+                           return resp.getStatusLine().getStatusCode() == HttpStatus.SC_OK
+                                   && contentLength != null
+                                   && contentLength.getValue().equals(String.valueOf(src.length()));
+                       } finally {
+                           try {
+                               resp.close();
+                           } catch (IOException ignored) {
+                               // The connection will be closed automatically after timeout
+                           }
+                       }
+                   });
+    }
+
     public static String getForbiddenErrorHints(String fileSystemRootPath) {
         final String signInUserEmail = AuthMethodManager.getInstance().getAuthMethodDetails().getAccountEmail();
         return " Please verify if\n"
@@ -22,13 +22,18 @@
 
 package com.microsoft.azure.hdinsight.spark.common;
 
+import com.microsoft.azure.datalake.store.ADLStoreClient;
+import com.microsoft.azure.datalake.store.DirectoryEntry;
+import com.microsoft.azure.datalake.store.DirectoryEntryType;
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
 import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import rx.Observable;
 import rx.Observer;
 
 import java.io.File;
+import java.net.URI;
 
 // for cluster with adls gen1 account to deploy using ADLS storage account type
 public class AdlsDeploy implements Deployable {
@@ -48,4 +53,21 @@ public class AdlsDeploy implements Deployable {
     public Observable<String> deploy(File src, Observer<SparkLogLine> logSubject) {
         return JobUtils.deployArtifactToADLS(src.getAbsolutePath(), adlsRootPath, accessToken);
     }
+
+    @Nullable
+    @Override
+    public String getDestinationKey() {
+        return adlsRootPath;
+    }
+
+    @Override
+    public Observable<Boolean> isDeployed(String uploadedPath, File src) {
+        return Observable.fromCallable(() -> {
+            final URI remote = URI.create(uploadedPath);
+            final ADLStoreClient storeClient = ADLStoreClient.createClient(remote.getHost(), accessToken);
+            final DirectoryEntry entry = storeClient.getDirectoryEntry(remote.getPath());
+
+            return entry.type == DirectoryEntryType.FILE && entry.length == src.length();
+        });
+    }
 }
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.hdinsight.common.HDInsightHelper;
+import com.microsoft.azure.hdinsight.common.HDInsightLoader;
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Remembers where the artifacts of earlier job submissions were uploaded to, keyed by the SHA-256 of the artifact
+ * content and the deploy destination, so an unchanged artifact can be reused instead of uploaded again.
+ * The manifest is kept in {plugin root}/SparkArtifactManifest.json, or only in memory without a plugin root.
+ */
+public class ArtifactManifest implements ILogger {
+    private static final String MANIFEST_FILE_NAME = "SparkArtifactManifest.json";
+
+    private static final int MAX_ARTIFACTS_PER_DESTINATION = 64;
+
+    private static final int MAX_CACHED_DIGESTS = 256;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<Map<String, Map<String, String>>> MANIFEST_TYPE =
+            new TypeReference<Map<String, Map<String, String>>>() { };
+
+    private static class LazyHolder {
+        static final ArtifactManifest INSTANCE = new ArtifactManifest(getDefaultManifestPath());
+    }
+
+    public static ArtifactManifest getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private static class CachedDigest {
+        final long length;
+        final long lastModified;
+        @NotNull
+        final String digest;
+
+        CachedDigest(long length, long lastModified, @NotNull String digest) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+
+    // Access ordered, so the least recently used file's digest is the one evicted.
+    private static final class DigestCache extends LinkedHashMap<String, CachedDigest> {
+        private static final long serialVersionUID = 1L;
+
+        DigestCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedDigest> eldest) {
+            return size() > MAX_CACHED_DIGESTS;
+        }
+    }
+
+    @Nullable
+    private final Path manifestPath;
+
+    // destination key -> (artifact digest -> uploaded URI), the least recently used artifacts first
+    @NotNull
+    private final Map<String, LinkedHashMap<String, String>> destinations = new HashMap<>();
+
+    // absolute local path -> digest of the content seen with that length and modification time
+    @NotNull
+    private final Map<String, CachedDigest> digests = new DigestCache();
+
+    private boolean isLoaded = false;
+
+    public ArtifactManifest(@Nullable Path manifestPath) {
+        this.manifestPath = manifestPath;
+    }
+
+    @Nullable
+    private static Path getDefaultManifestPath() {
+        final HDInsightHelper helper = HDInsightLoader.getHDInsightHelper();
+        if (helper == null || helper.getPluginRootPath() == null) {
+            return null;
+        }
+
+        return Paths.get(helper.getPluginRootPath(), MANIFEST_FILE_NAME);
+    }
+
+    /**
+     * Gets the hex SHA-256 of the file content. The file is only read again once its length or modification time
+     * changes, so unchanged dependency jars are hashed once per session.
+     */
+    @NotNull
+    public String getDigest(@NotNull File file) throws IOException {
+        final String key = file.getAbsolutePath();
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+
+        synchronized (digests) {
+            final CachedDigest cached = digests.get(key);
+            if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+                return cached.digest;
+            }
+        }
+
+        final String digest;
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            digest = DigestUtils.sha256Hex(in);
+        }
+
+        synchronized (digests) {
+            digests.put(key, new CachedDigest(length, lastModified, digest));
+        }
+
+        return digest;
+    }
+
+    @NotNull
+    public synchronized Optional<String> lookup(@NotNull String destinationKey, @NotNull String digest) {
+        load();
+
+        return Optional.ofNullable(destinations.get(destinationKey))
+                .map(artifacts -> artifacts.get(digest));
+    }
+
+    public synchronized void record(@NotNull String destinationKey, @NotNull String digest, @NotNull String uri) {
+        load();
+
+        final LinkedHashMap<String, String> artifacts =
+                destinations.computeIfAbsent(destinationKey, key -> new LinkedHashMap<>());
+        artifacts.remove(digest);
+        artifacts.put(digest, uri);
+
+        while (artifacts.size() > MAX_ARTIFACTS_PER_DESTINATION) {
+            artifacts.remove(artifacts.keySet().iterator().next());
+        }
+
+        save();
+    }
+
+    public synchronized void forget(@NotNull String destinationKey, @NotNull String digest) {
+        load();
+
+        final LinkedHashMap<String, String> artifacts = destinations.get(destinationKey);
+        if (artifacts != null && artifacts.remove(digest) != null) {
+            if (artifacts.isEmpty()) {
+                destinations.remove(destinationKey);
+            }
+
+            save();
+        }
+    }
+
+    private void load() {
+        if (isLoaded) {
+            return;
+        }
+
+        isLoaded = true;
+        if (manifestPath == null || !Files.isRegularFile(manifestPath)) {
+            return;
+        }
+
+        try (InputStream in = Files.newInputStream(manifestPath)) {
+            final Map<String, Map<String, String>> saved = MAPPER.readValue(in, MANIFEST_TYPE);
+            if (saved != null) {
+                saved.forEach((key, artifacts) -> destinations.put(key, new LinkedHashMap<>(artifacts)));
+            }
+        } catch (IOException ex) {
+            log().warn("Ignore unreadable Spark artifact manifest " + manifestPath, ex);
+        }
+    }
+
+    private void save() {
+        if (manifestPath == null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(manifestPath.getParent());
+            final Path tempFile = Files.createTempFile(manifestPath.getParent(), MANIFEST_FILE_NAME, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                MAPPER.writeValue(out, destinations);
+            } catch (IOException ex) {
+                Files.deleteIfExists(tempFile);
+                throw ex;
+            }
+
+            Files.move(tempFile, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log().warn("Can't write Spark artifact manifest " + manifestPath, ex);
+        }
+    }
+}
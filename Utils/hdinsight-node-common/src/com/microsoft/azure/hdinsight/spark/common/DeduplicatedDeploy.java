@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import rx.Observable;
+import rx.Observer;
+
+import java.io.File;
+import java.util.Optional;
+
+import static com.microsoft.azure.hdinsight.common.MessageInfoType.Info;
+import static com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine.TOOL;
+
+// skip uploading an artifact whose content was already uploaded to the same destination and is still there
+public class DeduplicatedDeploy implements Deployable, ILogger {
+    @NotNull
+    private final Deployable deploy;
+
+    @NotNull
+    private final String destinationKey;
+
+    @NotNull
+    private final ArtifactManifest manifest;
+
+    public DeduplicatedDeploy(@NotNull Deployable deploy,
+                              @NotNull String destinationKey,
+                              @NotNull ArtifactManifest manifest) {
+        this.deploy = deploy;
+        this.destinationKey = destinationKey;
+        this.manifest = manifest;
+    }
+
+    /**
+     * Wrap the deployable to reuse uploaded artifacts, if its destination supports that
+     *
+     * @param deploy the deployable to wrap
+     * @return the deduplicated deployable, or the deployable itself if uploaded artifacts can't be reused
+     */
+    @Nullable
+    public static Deployable wrap(@Nullable Deployable deploy) {
+        if (deploy == null || deploy instanceof DeduplicatedDeploy || deploy.getDestinationKey() == null) {
+            return deploy;
+        }
+
+        return new DeduplicatedDeploy(deploy, deploy.getDestinationKey(), ArtifactManifest.getInstance());
+    }
+
+    @NotNull
+    public Deployable getDeploy() {
+        return deploy;
+    }
+
+    @Nullable
+    @Override
+    public String getDestinationKey() {
+        return destinationKey;
+    }
+
+    @Override
+    public Observable<Boolean> isDeployed(String uploadedPath, File src) {
+        return deploy.isDeployed(uploadedPath, src);
+    }
+
+    @Override
+    public Observable<String> deploy(File src, Observer<SparkLogLine> logSubject) {
+        return Observable.fromCallable(() -> Optional.of(manifest.getDigest(src)))
+                .onErrorReturn(err -> {
+                    log().warn("Can't get the digest of artifact " + src + ", upload it anyway", err);
+                    return Optional.empty();
+                })
+                .flatMap(digest -> digest.isPresent()
+                        ? deployOnce(src, digest.get(), logSubject)
+                        : deploy.deploy(src, logSubject));
+    }
+
+    private Observable<String> deployOnce(File src, String digest, Observer<SparkLogLine> logSubject) {
+        final Optional<String> uploadedPath = manifest.lookup(destinationKey, digest);
+        if (!uploadedPath.isPresent()) {
+            return upload(src, digest, logSubject);
+        }
+
+        return deploy.isDeployed(uploadedPath.get(), src)
+                .onErrorReturn(err -> {
+                    log().info("Can't check the uploaded artifact " + uploadedPath.get() + ": " + err);
+                    return false;
+                })
+                .flatMap(isDeployed -> {
+                    if (!isDeployed) {
+                        manifest.forget(destinationKey, digest);
+                        return upload(src, digest, logSubject);
+                    }
+
+                    logSubject.onNext(new SparkLogLine(TOOL, Info, String.format(
+                            "Artifact %s is unchanged, reuse the uploaded %s", src.getPath(), uploadedPath.get())));
+                    manifest.record(destinationKey, digest, uploadedPath.get());
+
+                    return Observable.just(uploadedPath.get());
+                });
+    }
+
+    private Observable<String> upload(File src, String digest, Observer<SparkLogLine> logSubject) {
+        return deploy.deploy(src, logSubject)
+                .doOnNext(path -> manifest.record(destinationKey, digest, path));
+    }
+}
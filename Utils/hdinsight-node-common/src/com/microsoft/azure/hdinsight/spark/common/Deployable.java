@@ -23,6 +23,7 @@
 package com.microsoft.azure.hdinsight.spark.common;
 
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import rx.Observable;
 import rx.Observer;
 
@@ -38,4 +39,26 @@ public interface Deployable {
      * Observable Error: IOException;
      */
     Observable<String> deploy(File src, Observer<SparkLogLine> logSubject);
+
+    /**
+     * Get the key identifying where this deployable uploads artifacts to, such as the cluster and storage root path.
+     * Artifacts uploaded to the same destination can be reused by later deployments.
+     *
+     * @return the destination key, or null if uploaded artifacts can't be reused
+     */
+    @Nullable
+    default String getDestinationKey() {
+        return null;
+    }
+
+    /**
+     * Check whether an artifact uploaded before by this deployable still exists with the content of the local one
+     *
+     * @param uploadedPath the upload path returned by an earlier deployment
+     * @param src          the local artifact
+     * @return Observable: true if the uploaded artifact can be used instead of uploading src again
+     */
+    default Observable<Boolean> isDeployed(String uploadedPath, File src) {
+        return Observable.just(false);
+    }
 }
@@ -22,7 +22,6 @@
 
 package com.microsoft.azure.hdinsight.spark.common;
 
-import com.gargoylesoftware.htmlunit.Cache;
 import com.microsoft.azure.hdinsight.common.ClusterManagerEx;
 import com.microsoft.azure.hdinsight.common.logger.ILogger;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
@@ -39,6 +38,8 @@ import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.AppResponse;
 import com.microsoft.azure.hdinsight.sdk.storage.IHDIStorageAccount;
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
 import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
+import com.microsoft.azure.hdinsight.spark.run.SparkJobLogTailer;
+import com.microsoft.azure.hdinsight.spark.run.SparkJobLogTailer.PollResult;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import org.apache.commons.lang3.StringUtils;
@@ -47,6 +48,7 @@ import rx.Observable;
 import rx.Observer;
 import rx.Subscriber;
 import rx.subjects.PublishSubject;
+import rx.subscriptions.Subscriptions;
 
 import java.io.File;
 import java.io.IOException;
@@ -55,6 +57,7 @@ import java.net.UnknownServiceException;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -68,6 +71,9 @@ import static rx.exceptions.Exceptions.propagate;
 public class SparkBatchJob implements ISparkBatchJob, ILogger {
     public static final String WebHDFSPathPattern = "^(https?://)([^/]+)(/.*)?(/webhdfs/v1)(/.*)?$";
 
+    private static final long JOB_DONE_MIN_POLL_INTERVAL_MS = 1000;
+    private static final long JOB_DONE_MAX_POLL_INTERVAL_MS = 4000;
+
     @Nullable
     private String currentLogUrl;
     @NotNull
@@ -148,11 +154,6 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
      */
     private int delaySeconds = 10;
 
-    /**
-     * The global cache for fetched Yarn UI page by browser
-     */
-    private final Cache globalCache = JobUtils.getGlobalCache();
-
     /**
      * The driver log conversion mode
      */
@@ -819,54 +820,67 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
                 "stderr:",
                 "yarn diagnostics:"));
 
+        final int maxLinesPerGet = 128;
+
         return Observable.create(ob -> {
-            try {
-                final int maxLinesPerGet = 128;
-                int linesGot;
-                boolean isFetching = true;
-
-                while (isFetching) {
-                    final int start = nextLivyLogOffset;
-                    final boolean isAppIdAllocated = !this.getSparkJobApplicationIdObservable().isEmpty().toBlocking()
-                            .lastOrDefault(true);
-                    final String logUrl = String.format("%s/%d/log?from=%d&size=%d",
-                                                        this.getConnectUri().toString(), batchId, start, maxLinesPerGet);
-
-                    final HttpResponse httpResponse = this.getSubmission().getHttpResponseViaGet(logUrl);
-
-                    final SparkJobLog sparkJobLog = ObjectConvertUtils.convertJsonToObject(httpResponse.getMessage(),
-                                                                                           SparkJobLog.class)
-                                                                      .orElseThrow(() -> new UnknownServiceException(
-                                    "Bad spark log response: " + httpResponse.getMessage()));
-
-                    synchronized (livyLogOffsetLock) {
-                        if (start != nextLivyLogOffset) {
-                            // The offset is moved by another fetching thread, re-do it with new offset
-                            continue;
+            // The Livy log is polled by the shared log tailer, more often while the log is growing
+            final SparkJobLogTailer.Tail tail = SparkJobLogTailer.getInstance().tail(
+                    SparkJobLogTailer.getClusterKey(getConnectUri()),
+                    SparkJobLogTailer.DEFAULT_MIN_INTERVAL_MS,
+                    TimeUnit.SECONDS.toMillis(this.getDelaySeconds()),
+                    () -> {
+                        if (ob.isUnsubscribed()) {
+                            return PollResult.DONE;
                         }
 
-                        // To subscriber
-                        sparkJobLog.getLog().stream()
-                                .filter(line -> !ignoredEmptyLines.contains(line.trim().toLowerCase()))
-                                .forEach(line -> ob.onNext(new SparkLogLine(LIVY, Log, line)));
+                        try {
+                            final int start = nextLivyLogOffset;
+                            final boolean isAppIdAllocated = !this.getSparkJobApplicationIdObservable().isEmpty().toBlocking()
+                                    .lastOrDefault(true);
+                            final String logUrl = String.format("%s/%d/log?from=%d&size=%d",
+                                                                this.getConnectUri().toString(), batchId, start, maxLinesPerGet);
 
-                        linesGot = sparkJobLog.getLog().size();
-                        nextLivyLogOffset += linesGot;
-                    }
+                            final HttpResponse httpResponse = this.getSubmission().getHttpResponseViaGet(logUrl);
 
-                    // Retry interval
-                    if (linesGot == 0) {
-                        isFetching = "starting".equals(this.getState()) && !isAppIdAllocated;
+                            final SparkJobLog sparkJobLog = ObjectConvertUtils.convertJsonToObject(httpResponse.getMessage(),
+                                                                                                   SparkJobLog.class)
+                                                                              .orElseThrow(() -> new UnknownServiceException(
+                                            "Bad spark log response: " + httpResponse.getMessage()));
+
+                            final int linesGot;
+                            synchronized (livyLogOffsetLock) {
+                                if (start != nextLivyLogOffset) {
+                                    // The offset is moved by another fetching thread, re-do it with new offset
+                                    return PollResult.ACTIVE;
+                                }
+
+                                // To subscriber
+                                sparkJobLog.getLog().stream()
+                                        .filter(line -> !ignoredEmptyLines.contains(line.trim().toLowerCase()))
+                                        .forEach(line -> ob.onNext(new SparkLogLine(LIVY, Log, line)));
+
+                                linesGot = sparkJobLog.getLog().size();
+                                nextLivyLogOffset += linesGot;
+                            }
+
+                            if (linesGot > 0) {
+                                return PollResult.ACTIVE;
+                            }
+
+                            if ("starting".equals(this.getState()) && !isAppIdAllocated) {
+                                return PollResult.IDLE;
+                            }
+                        } catch (final IOException ex) {
+                            ob.onNext(new SparkLogLine(TOOL, Error, ex.getMessage()));
+                        }
 
-                        sleep(TimeUnit.SECONDS.toMillis(this.getDelaySeconds()));
-                    }
-                }
-            } catch (final IOException ex) {
-                ob.onNext(new SparkLogLine(TOOL, Error, ex.getMessage()));
-            } catch (final InterruptedException ignored) {
-            } finally {
-                ob.onCompleted();
-            }
+                        ob.onCompleted();
+
+                        return PollResult.DONE;
+                    },
+                    ob::onError);
+
+            ob.add(Subscriptions.create(tail::cancel));
         });
     }
 
@@ -913,41 +927,49 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
         }
 
         return Observable.create((Subscriber<? super SimpleImmutableEntry<String, String>> ob) -> {
-            try {
-                boolean isJobActive;
-                SparkBatchJobState state = SparkBatchJobState.NOT_STARTED;
-                String diagnostics = "";
-
-                do {
-                    final HttpResponse httpResponse = this.getSubmission().getBatchSparkJobStatus(
-                            this.getConnectUri().toString(), batchId);
-
-                    if (httpResponse.getCode() >= 200 && httpResponse.getCode() < 300) {
-                        final SparkSubmitResponse jobResp = ObjectConvertUtils.convertJsonToObject(
-                                httpResponse.getMessage(), SparkSubmitResponse.class)
-                                                                              .orElseThrow(() -> new UnknownServiceException(
-                                        "Bad spark job response: " + httpResponse.getMessage()));
-
-                        state = SparkBatchJobState.valueOf(jobResp.getState().toUpperCase());
-                        diagnostics = String.join("\n", jobResp.getLog());
-
-                        isJobActive = !isDone(state.toString());
-                    } else {
-                        isJobActive = false;
-                    }
+            final AtomicReference<SparkBatchJobState> state = new AtomicReference<>(SparkBatchJobState.NOT_STARTED);
+            final AtomicReference<String> diagnostics = new AtomicReference<>("");
+
+            // The job state is polled by the shared log tailer, backing off while the state keeps the same
+            final SparkJobLogTailer.Tail tail = SparkJobLogTailer.getInstance().tail(
+                    SparkJobLogTailer.getClusterKey(getConnectUri()),
+                    JOB_DONE_MIN_POLL_INTERVAL_MS,
+                    JOB_DONE_MAX_POLL_INTERVAL_MS,
+                    () -> {
+                        if (ob.isUnsubscribed()) {
+                            return PollResult.DONE;
+                        }
 
+                        try {
+                            final HttpResponse httpResponse = this.getSubmission().getBatchSparkJobStatus(
+                                    this.getConnectUri().toString(), batchId);
+
+                            if (httpResponse.getCode() >= 200 && httpResponse.getCode() < 300) {
+                                final SparkSubmitResponse jobResp = ObjectConvertUtils.convertJsonToObject(
+                                        httpResponse.getMessage(), SparkSubmitResponse.class)
+                                                                                      .orElseThrow(() -> new UnknownServiceException(
+                                                "Bad spark job response: " + httpResponse.getMessage()));
+
+                                final SparkBatchJobState previousState = state.getAndSet(
+                                        SparkBatchJobState.valueOf(jobResp.getState().toUpperCase()));
+                                diagnostics.set(String.join("\n", jobResp.getLog()));
+
+                                if (!isDone(state.get().toString())) {
+                                    return previousState == state.get() ? PollResult.IDLE : PollResult.ACTIVE;
+                                }
+                            }
+
+                            ob.onNext(new SimpleImmutableEntry<>(state.get().toString(), diagnostics.get()));
+                            ob.onCompleted();
+                        } catch (final IOException ex) {
+                            ob.onError(ex);
+                        }
 
-                    // Retry interval
-                    sleep(1000);
-                } while (isJobActive);
+                        return PollResult.DONE;
+                    },
+                    ob::onError);
 
-                ob.onNext(new SimpleImmutableEntry<>(state.toString(), diagnostics));
-                ob.onCompleted();
-            } catch (final IOException ex) {
-                ob.onError(ex);
-            } catch (final InterruptedException ignored) {
-                ob.onCompleted();
-            }
+            ob.add(Subscriptions.create(tail::cancel));
         });
     }
 
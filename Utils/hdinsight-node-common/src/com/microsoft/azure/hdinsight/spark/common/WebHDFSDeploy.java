@@ -22,6 +22,7 @@
 
 package com.microsoft.azure.hdinsight.spark.common;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.microsoft.azure.hdinsight.common.logger.ILogger;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
@@ -31,25 +32,28 @@ import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.client.utils.URLEncodedUtils;
-import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.FileEntity;
 import rx.Observable;
 import rx.Observer;
 import rx.exceptions.Exceptions;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownServiceException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class WebHDFSDeploy implements Deployable, ILogger {
     @NotNull
@@ -64,6 +68,9 @@ public class WebHDFSDeploy implements Deployable, ILogger {
     @NotNull
     private final List<NameValuePair> uploadReqParams;
 
+    @NotNull
+    private final List<NameValuePair> fileStatusReqParams;
+
     @NotNull
     public String destinationRootPath;
 
@@ -79,63 +86,160 @@ public class WebHDFSDeploy implements Deployable, ILogger {
                 .setPermission("777")
                 .build();
 
-        this.http = http;
-        http.setDefaultRequestConfig(RequestConfig.custom().setExpectContinueEnabled(true).build());
+        this.fileStatusReqParams = new WebHdfsParamsBuilder("GETFILESTATUS").build();
+
+        // The artifacts are uploaded concurrently, which can't share an HTTP context
+        this.http = http.setContextPerRequest(true);
+    }
+
+    // The folder created for artifacts uploaded on the same day, shared until a file name would be overwritten
+    private static class UploadDir {
+        @NotNull
+        final String datePath;
+
+        @NotNull
+        final URI uri;
+
+        @NotNull
+        final Set<String> fileNames = new HashSet<>();
+
+        UploadDir(@NotNull String datePath, @NotNull URI uri) {
+            this.datePath = datePath;
+            this.uri = uri;
+        }
+    }
+
+    @NotNull
+    private final Object uploadDirLock = new Object();
+
+    @Nullable
+    private UploadDir uploadDir;
+
+    private Observable<URI> getUploadDir(String fileName) {
+        // The uploads continue on their own threads once the folder is created
+        return Observable.fromCallable(() -> {
+            synchronized (uploadDirLock) {
+                final String folderPath = JobUtils.getFormatPathByDate();
+                final String datePath = folderPath.substring(0, folderPath.lastIndexOf('/'));
+
+                if (uploadDir != null && uploadDir.datePath.equals(datePath) && uploadDir.fileNames.add(fileName)) {
+                    return uploadDir.uri;
+                }
+
+                final URI dest = createDir(URI.create(destinationRootPath).resolve(folderPath + "/"))
+                        .toBlocking()
+                        .single();
+                uploadDir = new UploadDir(datePath, dest);
+                uploadDir.fileNames.add(fileName);
+
+                return dest;
+            }
+        });
     }
 
-    private URI getUploadDir() {
-        return URI.create(destinationRootPath)
-                .resolve(JobUtils.getFormatPathByDate());
+    private Observable<URI> createDir(URI dest) {
+        return http.request(new HttpPut(dest.toString()), null, this.createDirReqParams, null)
+                .map(resp -> {
+                    final int statusCode = resp.getStatusLine().getStatusCode();
+                    closeQuietly(resp);
+
+                    if (statusCode != 200) {
+                        throw Exceptions.propagate(new UnknownServiceException("Can not create directory to save artifact using webHDFS storage type"));
+                    }
+
+                    return dest;
+                });
     }
 
     @Override
     public Observable<String> deploy(File src,
                                      Observer<SparkLogLine> logSubject) {
         //three steps to upload via webhdfs
-        // 1.put request to create new dir
-        // 2.put request to get 307 redirect uri from response
-        // 3.put redirect request with file content as setEntity
-        final URI dest = getUploadDir();
-        final HttpPut req = new HttpPut(dest.toString());
-        return http.request(req, null, this.createDirReqParams, null)
-                .doOnNext(
-                        resp -> {
-                            if (resp.getStatusLine().getStatusCode() != 200) {
-                                Exceptions.propagate(new UnknownServiceException("Can not create directory to save artifact using webHDFS storage type"));
+        // 1.put request to create new dir, once for the artifacts uploaded on the same day
+        // 2.put request without content to get 307 redirect uri from response
+        // 3.put redirect request with file content, streamed from disk once the data node accepts it
+        return getUploadDir(src.getName())
+                .map(dir -> dir.resolve(src.getName()))
+                .flatMap(dest -> http.request(new HttpPut(dest.toString()), null, this.uploadReqParams, null)
+                        .map(resp -> {
+                            final int statusCode = resp.getStatusLine().getStatusCode();
+                            final Header location = resp.getFirstHeader("Location");
+                            closeQuietly(resp);
+
+                            if (statusCode != HttpStatus.SC_TEMPORARY_REDIRECT
+                                    || location == null
+                                    || StringUtils.isBlank(location.getValue())) {
+                                throw Exceptions.propagate(new UnknownServiceException(
+                                        "Can not get valid redirect uri using webHDFS storage type, status code " + statusCode));
                             }
-                        }
-                )
-                .map(ignored -> new HttpPut(dest.resolve(src.getName()).toString()))
-                .flatMap(put -> http.request(put, null, this.uploadReqParams, null))
-                .map(resp -> resp.getFirstHeader("Location").getValue())
-                .doOnNext(redirectedUri -> {
-                    if (StringUtils.isBlank(redirectedUri)) {
-                        Exceptions.propagate(new UnknownServiceException("Can not get valid redirect uri using webHDFS storage type"));
-                    }
-                })
-                .map(HttpPut::new)
-                .flatMap(put -> {
-                    try {
-                        InputStreamEntity reqEntity = new InputStreamEntity(
-                                new FileInputStream(src),
-                                -1,
-                                ContentType.APPLICATION_OCTET_STREAM);
-                        reqEntity.setChunked(true);
-
-                        return http.request(put, new BufferedHttpEntity(reqEntity), URLEncodedUtils.parse(put.getURI(), "UTF-8"), null);
-                    } catch (IOException ex) {
-                        throw new RuntimeException(new IllegalArgumentException("Can not get local artifact when uploading" + ex.toString()));
-                    }
-                })
-                .map(ignored -> {
+
+                            final HttpPut put = new HttpPut(location.getValue());
+                            // Honor 'Expect: 100-continue', the content isn't sent if the data node rejects it
+                            put.setConfig(RequestConfig.copy(http.getDefaultRequestConfig())
+                                                       .setExpectContinueEnabled(true)
+                                                       .build());
+
+                            return put;
+                        })
+                        .flatMap(put -> http.request(put,
+                                                     new FileEntity(src, ContentType.APPLICATION_OCTET_STREAM),
+                                                     URLEncodedUtils.parse(put.getURI(), "UTF-8"),
+                                                     null))
+                        .map(resp -> {
+                            final int statusCode = resp.getStatusLine().getStatusCode();
+                            closeQuietly(resp);
+
+                            if (statusCode >= 300) {
+                                throw Exceptions.propagate(new UnknownServiceException(
+                                        "Can not upload artifact using webHDFS storage type, status code " + statusCode));
+                            }
+
+                            return dest;
+                        }))
+                .map(dest -> {
                     try {
-                        return getArtifactUploadedPath(dest.resolve(src.getName()).toString());
+                        return getArtifactUploadedPath(dest.toString());
                     } catch (final URISyntaxException ex) {
                         throw new RuntimeException(new IllegalArgumentException("Can not get valid artifact upload path" + ex.toString()));
                     }
                 });
     }
 
+    private static void closeQuietly(CloseableHttpResponse resp) {
+        try {
+            resp.close();
+        } catch (IOException ignored) {
+            // The connection will be closed automatically after timeout
+        }
+    }
+
+    @Nullable
+    @Override
+    public String getDestinationKey() {
+        return destinationRootPath;
+    }
+
+    @Override
+    public Observable<Boolean> isDeployed(String uploadedPath, File src) {
+        final URI statusUri;
+        try {
+            statusUri = getArtifactStatusUri(uploadedPath);
+        } catch (final URISyntaxException ex) {
+            return Observable.error(ex);
+        }
+
+        // {"FileStatus":{"length":1024,"type":"FILE",...}}
+        return http.get(statusUri.toString(), this.fileStatusReqParams, null, JsonNode.class)
+                .map(status -> status.path("FileStatus").path("length"))
+                .map(length -> length.canConvertToLong() && length.asLong() == src.length());
+    }
+
+    // convert the uploaded path back to the webHDFS file URI, https://xx/webhdfs/v1/hdi-root/SparkSubmission/artifact.jar
+    @NotNull
+    protected URI getArtifactStatusUri(String uploadedPath) throws URISyntaxException {
+        return new URIBuilder(uploadedPath).removeQuery().build();
+    }
+
     @Nullable
     public String getArtifactUploadedPath(String rootPath) throws URISyntaxException {
         final List<NameValuePair> params = new WebHdfsParamsBuilder("OPEN").build();
@@ -22,11 +22,6 @@
 
 package com.microsoft.azure.hdinsight.spark.jobs;
 
-import com.gargoylesoftware.htmlunit.BrowserVersion;
-import com.gargoylesoftware.htmlunit.Cache;
-import com.gargoylesoftware.htmlunit.FailingHttpStatusCodeException;
-import com.gargoylesoftware.htmlunit.WebClient;
-import com.gargoylesoftware.htmlunit.html.*;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
@@ -44,8 +39,9 @@ import com.microsoft.azure.hdinsight.sdk.cluster.MfaEspCluster;
 import com.microsoft.azure.hdinsight.sdk.common.AuthenticationException;
 import com.microsoft.azure.hdinsight.sdk.common.HDIException;
 import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
-import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SparkSession;
-import com.microsoft.azure.hdinsight.sdk.io.spark.ClusterFileBase64BufferedOutputStream;
+import com.microsoft.azure.hdinsight.sdk.common.errorresponse.HttpErrorStatus;
+import com.microsoft.azure.hdinsight.sdk.io.spark.ClusterFileChunkedUploader;
+import com.microsoft.azure.hdinsight.sdk.io.spark.HelperSessionCache;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.App;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.ApplicationMasterLogs;
 import com.microsoft.azure.hdinsight.sdk.storage.HDStorageAccount;
@@ -57,6 +53,8 @@ import com.microsoft.azure.hdinsight.spark.common.SparkBatchSubmission;
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
 import com.microsoft.azure.hdinsight.spark.jobs.livy.LivyBatchesInformation;
 import com.microsoft.azure.hdinsight.spark.jobs.livy.LivySession;
+import com.microsoft.azure.hdinsight.spark.run.SparkJobLogTailer;
+import com.microsoft.azure.hdinsight.spark.run.SparkJobLogTailer.PollResult;
 import com.microsoft.azuretools.azurecommons.helpers.AzureCmdException;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
@@ -67,7 +65,6 @@ import com.microsoft.tooling.msservices.helpers.azure.sdk.StorageClientSDKManage
 import com.microsoft.tooling.msservices.model.storage.BlobContainer;
 import com.microsoft.tooling.msservices.model.storage.ClientStorageAccount;
 import com.sun.net.httpserver.HttpExchange;
-import org.apache.commons.codec.binary.Base64OutputStream;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.*;
@@ -94,6 +91,7 @@ import rx.Observer;
 import rx.Single;
 import rx.Subscription;
 import rx.schedulers.Schedulers;
+import rx.subscriptions.Subscriptions;
 
 import java.awt.*;
 import java.io.*;
@@ -102,13 +100,12 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.UnknownServiceException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.List;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.microsoft.azure.hdinsight.common.MessageInfoType.Info;
 import static com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine.TOOL;
@@ -212,8 +209,6 @@ public class JobUtils {
         }
     }
 
-    private static final Cache globalCache = new Cache();
-
     private static final String DRIVER_LOG_INFO_URL = "%s/yarnui/jobhistory/logs/%s/port/%s/%s/%s/livy";
 
     public static ApplicationMasterLogs getYarnLogs(@NotNull ApplicationKey key) throws ExecutionException, HDIException {
@@ -232,7 +227,7 @@ public class JobUtils {
         final String amContainerId = getContainerIdFromAmContainerLogPath(amContainerLogPath);
         final String url = String.format(DRIVER_LOG_INFO_URL, key.getClusterConnString(), address, nodeManagerPort, amContainerId, amContainerId);
         final IClusterDetail clusterDetail = key.getClusterDetails();
-        return getYarnLogsFromWebClient(clusterDetail, url);
+        return getApplicationMasterLogs(clusterDetail, url);
     }
 
     private static String getContainerIdFromAmContainerLogPath(@NotNull String amContainerLogPath) {
@@ -244,7 +239,7 @@ public class JobUtils {
         return amContainerId;
     }
 
-    private static ApplicationMasterLogs getYarnLogsFromWebClient(@NotNull final IClusterDetail clusterDetail, @NotNull final String url) {
+    private static ApplicationMasterLogs getApplicationMasterLogs(@NotNull final IClusterDetail clusterDetail, @NotNull final String url) {
         final String authCode = SparkBatchSubmission.getClusterSubmission(clusterDetail).getAuthCode();
 
         final String standerr = getInformationFromYarnLogDom(authCode, url, "stderr", 0, 0);
@@ -259,85 +254,31 @@ public class JobUtils {
                                                       @NotNull String type,
                                                       long start,
                                                       int size) {
-        final WebClient HTTP_WEB_CLIENT = new WebClient(BrowserVersion.CHROME);
-        HTTP_WEB_CLIENT.getOptions().setUseInsecureSSL(HttpObservable.isSSLCertificateValidationDisabled());
-        HTTP_WEB_CLIENT.setCache(globalCache);
-
-        if (authCode != null) {
-            HTTP_WEB_CLIENT.addRequestHeader(AUTHORIZATION, authCode);
-        }
-
-        return getInformationFromYarnLogDom(HTTP_WEB_CLIENT, baseUrl, type, start, size);
-    }
-
-    private static String getInformationFromYarnLogDom(@NotNull WebClient client,
-                                                      @NotNull String baseUrl,
-                                                      @NotNull String type,
-                                                      long start,
-                                                      int size) {
-        URI url = null;
-
-        try {
-            url = new URI(baseUrl + "/").resolve(
-                    String.format("%s?start=%d", type, start) +
-                            (size <= 0 ? "" : String.format("&&end=%d", start + size)));
-            final HtmlPage htmlPage = client.getPage(url.toString());
-
-            final Iterator<DomElement> iterator = htmlPage.getElementById("navcell").getNextElementSibling().getChildElements().iterator();
-
-            final HashMap<String, String> logTypeMap = new HashMap<>();
-            final AtomicReference<String> logType = new AtomicReference<>();
-            String logs = "";
-
-            while (iterator.hasNext()) {
-                final DomElement node = iterator.next();
-
-                if (node instanceof HtmlParagraph) {
-                    // In history server, need to read log type paragraph in page
-                    final Pattern logTypePattern = Pattern.compile("Log Type:\\s+(\\S+)");
-
-                    Optional.ofNullable(node.getFirstChild())
-                            .map(DomNode::getTextContent)
-                            .map(String::trim)
-                            .map(logTypePattern::matcher)
-                            .filter(Matcher::matches)
-                            .map(matcher -> matcher.group(1))
-                            .ifPresent(logType::set);
-                } else if (node instanceof HtmlPreformattedText) {
-                    // In running, no log type paragraph in page
-                    logs = Optional.ofNullable(node.getFirstChild())
-                                .map(DomNode::getTextContent)
-                                .orElse("");
-
-                    if (logType.get() != null) {
-                        // Only get the first <pre>...</pre>
-                        logTypeMap.put(logType.get(), logs);
-
-                        logType.set(null);
+        return YarnContainerLogClient.getInstance()
+                .getContainerLog(authCode, baseUrl, type, start, size)
+                .doOnError(err -> {
+                    if (err instanceof HttpErrorStatus) {
+                        // If the URL is wrong, will get 200 response with content:
+                        //      Unable to locate 'xxx' log for container
+                        //  OR
+                        //      Logs not available for <user>. Aggregation may not be complete, Check back later or try the nodemanager at...
+                        //  OR
+                        //      Cannot get container logs without ...
+                        //
+                        // if fetching Yarn log hits the gap between the job running and stop, will get the status 403
+                        // the log is moving to job history server, just wait and retry.
+                        if (((HttpErrorStatus) err).getStatusCode() != HttpStatus.SC_FORBIDDEN) {
+                            LOGGER.warn("The GET request to " + baseUrl + "/" + type + " responded error: " + err.getMessage());
+                        }
+                    } else if (err instanceof URISyntaxException) {
+                        LOGGER.error("baseUrl has syntax error: " + baseUrl);
+                    } else {
+                        LOGGER.warn("get Spark job log Error", err);
                     }
-                }
-            }
-
-            return logTypeMap.getOrDefault(type, logs);
-        } catch (final FailingHttpStatusCodeException httpError) {
-            // If the URL is wrong, will get 200 response with content:
-            //      Unable to locate 'xxx' log for container
-            //  OR
-            //      Logs not available for <user>. Aggregation may not be complete, Check back later or try the nodemanager at...
-            //  OR
-            //      Cannot get container logs without ...
-            //
-            // if fetching Yarn log hits the gap between the job running and stop, will get the status 403
-            // the log is moving to job history server, just wait and retry.
-            if (httpError.getStatusCode() != HttpStatus.SC_FORBIDDEN) {
-                LOGGER.warn("The GET request to " + url + " responded error: " + httpError.getMessage());
-            }
-        } catch (final URISyntaxException e) {
-            LOGGER.error("baseUrl has syntax error: " + baseUrl);
-        } catch (final Exception e) {
-            LOGGER.warn("get Spark job log Error", e);
-        }
-        return "";
+                })
+                .onErrorReturn(err -> "")
+                .toBlocking()
+                .firstOrDefault("");
     }
 
     /**
@@ -356,70 +297,89 @@ public class JobUtils {
                                                              @NotNull final String type,
                                                              final int blockSize) {
         final int retryIntervalMs = 1000;
+        final int maxRetryIntervalMs = 8000;
 
         if (blockSize <= 0)
             return Observable.empty();
 
         return Observable.create((Observable.OnSubscribe<String>) ob -> {
-            long nextStart = 0;
-            String remainedLine = "";
-            String logs;
-            Thread currentThread = Thread.currentThread();
+            final Object fetchLock = new Object();
+            final AtomicLong nextStart = new AtomicLong(0);
+            final StringBuilder remainedLine = new StringBuilder();
+
+            // The log is polled by the shared log tailer, more often while the log is growing
+            final SparkJobLogTailer.Tail tail = SparkJobLogTailer.getInstance().tail(
+                    SparkJobLogTailer.getClusterKey(containerLogUrl),
+                    retryIntervalMs,
+                    maxRetryIntervalMs,
+                    () -> {
+                        synchronized (fetchLock) {
+                            if (ob.isUnsubscribed()) {
+                                return PollResult.DONE;
+                            }
+
+                            final String logs = JobUtils.getInformationFromYarnLogDom(
+                                    authCode, containerLogUrl, type, nextStart.get(), blockSize);
+                            int lastLineBreak = logs.lastIndexOf('\n');
+
+                            if (lastLineBreak < 0) {
+                                // No linebreak found
+                                if (logs.isEmpty()) {
+                                    // Remained line is a full line since the backend producing logs line by line
+                                    ob.onNext(remainedLine.toString());
+                                    remainedLine.setLength(0);
+
+                                    return PollResult.IDLE;
+                                }
+
+                                remainedLine.append(logs);
+                                nextStart.addAndGet(logs.getBytes(StandardCharsets.UTF_8).length);
+                            } else {
+                                long handledLength = new BufferedReader(new StringReader(
+                                                        remainedLine + logs.substring(0, lastLineBreak)))
+                                        .lines()
+                                        .map(line -> {
+                                            ob.onNext(line);
+
+                                            // Count the line length in bytes with linebreak, as the log offsets are in bytes
+                                            // We need to handle this since the web client may convert the LF to CRLF
+                                            return (line.getBytes(StandardCharsets.UTF_8).length + 1);
+                                        })
+                                        .reduce(Integer::sum)
+                                        .orElse(0);
+
+                                nextStart.addAndGet(
+                                        handledLength - remainedLine.toString().getBytes(StandardCharsets.UTF_8).length);
+                                remainedLine.setLength(0);
+                            }
+
+                            return PollResult.ACTIVE;
+                        }
+                    },
+                    ob::onError);
+
+            ob.add(Subscriptions.create(tail::cancel));
 
             // Refer to the Observable.window() operation:
             //    http://reactivex.io/documentation/operators/window.html
-            // The event from `stop` observable will stop the log fetch
-            Optional<Subscription> stopSubscriptionOptional = Optional.ofNullable(stop).map(stopOb ->
-                    stopOb.subscribe(any -> currentThread.interrupt()));
-
-            try {
-                while (!ob.isUnsubscribed()) {
-                    logs = JobUtils.getInformationFromYarnLogDom(
-                            authCode, containerLogUrl, type, nextStart, blockSize);
-                    int lastLineBreak = logs.lastIndexOf('\n');
-
-                    if (lastLineBreak < 0) {
-                        // No linebreak found
-                        if (logs.isEmpty()) {
-                            // Remained line is a full line since the backend producing logs line by line
-                            ob.onNext(remainedLine);
-                            remainedLine = "";
-                        } else {
-                            remainedLine += logs;
-                            nextStart += logs.length();
+            // The event from `stop` observable will stop the log fetch, an empty `stop` leaves the log tailing
+            Optional.ofNullable(stop).ifPresent(stopOb -> ob.add(stopOb
+                    .take(1)
+                    .observeOn(Schedulers.io())
+                    .subscribe(any -> {
+                        tail.cancel();
+
+                        synchronized (fetchLock) {
+                            // Get the rest logs from history server
+                            // Don't worry about the log is moved to history server, the YarnUI can do URL redirect by itself
+                            final String logs = JobUtils.getInformationFromYarnLogDom(
+                                    authCode, containerLogUrl, type, nextStart.get(), 0);
+
+                            new BufferedReader(new StringReader(remainedLine + logs)).lines().forEach(ob::onNext);
+                            ob.onCompleted();
                         }
-                    } else {
-                        long handledLength = new BufferedReader(new StringReader(
-                                                remainedLine + logs.substring(0, lastLineBreak)))
-                                .lines()
-                                .map(line -> {
-                                    ob.onNext(line);
-
-                                    // Count the line length with linebreak
-                                    // We need to handle this since the web client may convert the LF to CRLF
-                                    return (line.length() + 1);
-                                })
-                                .reduce(Integer::sum)
-                                .orElse(0);
-
-                        nextStart += handledLength - remainedLine.length();
-                        remainedLine = "";
-                    }
-
-                    Thread.sleep(retryIntervalMs);
-                }
-            } catch (InterruptedException ignore) {
-            } finally {
-                // Get the rest logs from history server
-                // Don't worry about the log is moved to history server, the YarnUI can do URL redirect by itself
-                logs = JobUtils.getInformationFromYarnLogDom(authCode, containerLogUrl, type, nextStart, 0);
-
-                new BufferedReader(new StringReader(remainedLine + logs)).lines().forEach(ob::onNext);
-            }
-
-            ob.onCompleted();
-            stopSubscriptionOptional.ifPresent(Subscription::unsubscribe);
-        }).subscribeOn(Schedulers.io());
+                    }, ob::onError)));
+        });
     }
 
     public static HttpEntity getEntity(@NotNull final IClusterDetail clusterDetail, @NotNull final String url) throws IOException, HDIException {
@@ -508,36 +468,30 @@ public class JobUtils {
                                                @Nullable Observer<SparkLogLine> newLogSubject,
                                                @Nullable CallableSingleArg<Void, Long> uploadInProcessCallback) throws Exception {
         if(storageAccount.getAccountType() == StorageAccountType.BLOB) {
-            try (final FileInputStream fileInputStream = new FileInputStream(file)) {
-                try (final BufferedInputStream bufferedInputStream = new BufferedInputStream(fileInputStream)) {
-                    final HDStorageAccount blobStorageAccount = (HDStorageAccount) storageAccount;
-                    final BlobContainer container = getSparkClusterContainer(blobStorageAccount, containerName);
-                    if (container == null) {
-                        throw new IllegalArgumentException("Can't get the valid container.");
-                    }
+            final HDStorageAccount blobStorageAccount = (HDStorageAccount) storageAccount;
+            final BlobContainer container = getSparkClusterContainer(blobStorageAccount, containerName);
+            if (container == null) {
+                throw new IllegalArgumentException("Can't get the valid container.");
+            }
 
-                    final String path = String.format("SparkSubmission/%s/%s", uploadFolderPath, file.getName());
-                    final String uploadedPath = String.format("wasbs://%s@%s/%s", containerName, blobStorageAccount.getFullStorageBlobName(), path);
+            final String path = String.format("SparkSubmission/%s/%s", uploadFolderPath, file.getName());
+            final String uploadedPath = String.format("wasbs://%s@%s/%s", containerName, blobStorageAccount.getFullStorageBlobName(), path);
 
-                    ctrlInfo(legacyLogSubject, newLogSubject,
-                             String.format("Begin uploading file %s to Azure Blob Storage Account %s ...",
-                                           file.getPath(), uploadedPath));
+            ctrlInfo(legacyLogSubject, newLogSubject,
+                     String.format("Begin uploading file %s to Azure Blob Storage Account %s ...",
+                                   file.getPath(), uploadedPath));
 
-                    StorageClientSDKManager.getManager().uploadBlobFileContent(
-                            blobStorageAccount.getConnectionString(),
-                            container,
-                            path,
-                            bufferedInputStream,
-                            uploadInProcessCallback,
-                            1024 * 1024,
-                            file.length());
+            StorageClientSDKManager.getManager().uploadBlobFileContent(
+                    blobStorageAccount.getConnectionString(),
+                    container,
+                    path,
+                    file,
+                    uploadInProcessCallback);
 
-                    ctrlInfo(legacyLogSubject, newLogSubject,
-                             String.format("Submit file to azure blob '%s' successfully.", uploadedPath));
+            ctrlInfo(legacyLogSubject, newLogSubject,
+                     String.format("Submit file to azure blob '%s' successfully.", uploadedPath));
 
-                    return uploadedPath;
-                }
-            }
+            return uploadedPath;
         } else if(storageAccount.getAccountType() == StorageAccountType.ADLS) {
             final String uploadPath = String.format("adl://%s.azuredatalakestore.net%s%s", storageAccount.getName(), storageAccount.getDefaultContainerOrRootPath(), "SparkSubmission");
             ctrlInfo(legacyLogSubject, newLogSubject,
@@ -655,55 +609,49 @@ public class JobUtils {
 
         final String username = selectedClusterDetail.getHttpUserName();
         final String password = selectedClusterDetail.getHttpPassword();
-        final String sessionName = "Helper session to upload " + destUri.toString();
 
         final URI livyUri = selectedClusterDetail instanceof LivyCluster ?
                             URI.create(((LivyCluster) selectedClusterDetail).getLivyConnectionUrl()) :
                             URI.create(selectedClusterDetail.getConnectionUrl());
 
-        ctrlInfo(legacyLogSubject, newLogSubject, "Create Spark helper interactive session...");
+        if (!srcJarFile.isFile()) {
+            throw new HDIException(String.format("Source file %s not found.", srcJarFile));
+        }
+
+        ctrlInfo(legacyLogSubject, newLogSubject, "Get Spark helper interactive session...");
+
+        // The helper session is kept for the next uploads to the cluster
+        final HelperSessionCache.Lease lease;
+        try {
+            lease = HelperSessionCache.getInstance().acquire(livyUri, username, password);
+        } catch (final RuntimeException ex) {
+            throw new HDIException("Failed to create Spark helper interactive session.", ex);
+        }
+
+        final Subscription sessionLogSubscription = lease.getSession().getCtrlSubject()
+                .subscribe(logLine -> ctrlInfo(legacyLogSubject, newLogSubject, logLine.getRawLog()),
+                           err -> ctrlError(legacyLogSubject, newLogSubject, err),
+                           () -> {});
 
         try {
-            return Observable.using(() -> new SparkSession(sessionName, livyUri, username, password),
-                                    SparkSession::create,
-                                    SparkSession::close)
-                             .map(sparkSession -> {
-                                 sparkSession.getCtrlSubject()
-                                             .subscribe(logLine -> ctrlInfo(legacyLogSubject, newLogSubject,
-                                                                            logLine.getRawLog()),
-                                                        err -> ctrlError(legacyLogSubject, newLogSubject, err),
-                                                        () -> {});
-
-                                 ClusterFileBase64BufferedOutputStream clusterFileBase64Out =
-                                         new ClusterFileBase64BufferedOutputStream(sparkSession, destUri);
-                                 Base64OutputStream base64Enc = new Base64OutputStream(clusterFileBase64Out, true);
-                                 InputStream inFile;
-
-                                 try {
-                                     inFile = new BufferedInputStream(new FileInputStream(srcJarFile));
-
-                                     ctrlInfo(legacyLogSubject, newLogSubject, String.format("Uploading %s...",
-                                                                                             srcJarFile));
-                                     IOUtils.copy(inFile, base64Enc);
-
-                                     inFile.close();
-                                     base64Enc.close();
-                                 } catch (FileNotFoundException fnfEx) {
-                                     throw propagate(new HDIException(String.format("Source file %s not found.",
-                                                                                    srcJarFile), fnfEx));
-                                 } catch (IOException ioEx) {
-                                     throw propagate(new HDIException(String.format("Failed to upload file %s.",
-                                                                                    destUri), ioEx));
-                                 }
-                                 ctrlInfo(legacyLogSubject, newLogSubject, String.format("Uploaded to %s.", destUri));
-
-                                 return destUri.toString();
-                             })
-                             .toBlocking()
-                             .single();
-        } catch (final NoSuchElementException ignored) {
-            // The cause exception will be thrown inside
-            throw new HDIException("Failed to upload file to HDFS (Should Not Reach).");
+            ctrlInfo(legacyLogSubject, newLogSubject, String.format("Uploading %s...", srcJarFile));
+
+            final URI uploadedUri = new ClusterFileChunkedUploader(lease.getSession())
+                    .upload(srcJarFile, destUri, URI.create("/SparkSubmission/.parts/"))
+                    .toBlocking()
+                    .single();
+
+            ctrlInfo(legacyLogSubject, newLogSubject, String.format("Uploaded to %s.", uploadedUri));
+
+            return uploadedUri.toString();
+        } catch (final RuntimeException ex) {
+            // Start over with a new session next time, the written parts are kept to resume the upload
+            lease.invalidate();
+
+            throw new HDIException(String.format("Failed to upload file %s.", destUri), ex);
+        } finally {
+            sessionLogSubscription.unsubscribe();
+            lease.close();
         }
     }
 
@@ -861,10 +809,6 @@ public class JobUtils {
         });
     }
 
-    public static Cache getGlobalCache() {
-        return globalCache;
-    }
-
     public static AbstractMap.SimpleImmutableEntry<Integer, List<Header>>
     authenticate(IClusterDetail clusterDetail) throws HDIException, IOException {
         final SparkBatchSubmission submission = SparkBatchSubmission.getInstance();
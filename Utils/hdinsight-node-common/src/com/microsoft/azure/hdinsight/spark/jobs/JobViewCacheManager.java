@@ -19,15 +19,20 @@
  * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-
 package com.microsoft.azure.hdinsight.spark.jobs;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.microsoft.azure.hdinsight.common.JobViewManager;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.Application;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.Attempt;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.event.JobStartEventLog;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.executor.Executor;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.job.Job;
@@ -36,110 +41,109 @@ import com.microsoft.azure.hdinsight.sdk.rest.spark.task.Task;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.App;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.ApplicationMasterLogs;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import rx.Observable;
+import rx.schedulers.Schedulers;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class JobViewCacheManager {
-    private static final LoadingCache<ApplicationKey, List<Job>> sparkJobLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Job>>() {
+    // how long the data of a running application is served before it's fetched again
+    private static final long RUNNING_APPLICATION_TTL_SECONDS = 30;
+
+    private static final int MAX_CONCURRENT_TASK_REQUESTS = 8;
+
+    private static final int REFRESH_THREAD_COUNT = 4;
+
+    // running applications are refreshed here while readers keep getting the previous value
+    private static final ExecutorService refreshExecutor = Executors.newFixedThreadPool(REFRESH_THREAD_COUNT,
+            new ThreadFactoryBuilder().setNameFormat("job-view-cache-refresh-%d").setDaemon(true).build());
+
+    private static final Set<String> FINAL_STAGE_STATUSES = new HashSet<>(Arrays.asList("COMPLETE", "FAILED", "SKIPPED"));
+
+    private static final LoadingCache<ApplicationKey, CacheEntry<List<Job>>> sparkJobLocalCache = buildApplicationCache(
+            new ApplicationCacheLoader<List<Job>>("jobs", new TypeReference<List<Job>>() {}) {
                 @Override
-                public List<Job> load(ApplicationKey key) throws Exception {
+                protected List<Job> loadValue(ApplicationKey key, @Nullable List<Job> oldValue) throws Exception {
                     return SparkRestUtil.getLastAttemptJobsFromApp(key);
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, List<Stage>> sparkStageLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Stage>>() {
+    private static final LoadingCache<ApplicationKey, CacheEntry<List<Stage>>> sparkStageLocalCache = buildApplicationCache(
+            new ApplicationCacheLoader<List<Stage>>("stages", new TypeReference<List<Stage>>() {}) {
                 @Override
-                public List<Stage> load(ApplicationKey key) throws Exception {
+                protected List<Stage> loadValue(ApplicationKey key, @Nullable List<Stage> oldValue) throws Exception {
                     return SparkRestUtil.getAllStageFromApp(key);
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, List<Executor>> sparkExecutorLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Executor>>() {
+    private static final LoadingCache<ApplicationKey, CacheEntry<List<Executor>>> sparkExecutorLocalCache = buildApplicationCache(
+            new ApplicationCacheLoader<List<Executor>>("executors", new TypeReference<List<Executor>>() {}) {
                 @Override
-                public List<Executor> load(ApplicationKey key) throws Exception {
+                protected List<Executor> loadValue(ApplicationKey key, @Nullable List<Executor> oldValue) throws Exception {
                     return SparkRestUtil.getAllExecutorFromApp(key);
                 }
             });
 
+    // the application list carries the completion state every other cache relies on, so it's always refreshed
     private static final LoadingCache<String, List<Application>> sparkApplicationsLocalCache = CacheBuilder.newBuilder()
             .maximumSize(100)
             .initialCapacity(20)
-            .build(new CacheLoader<String, List<Application>>() {
+            .refreshAfterWrite(RUNNING_APPLICATION_TTL_SECONDS, TimeUnit.SECONDS)
+            .build(CacheLoader.asyncReloading(new CacheLoader<String, List<Application>>() {
                 @Override
                 public List<Application> load(String key) throws Exception {
                     return SparkRestUtil.getSparkApplications(JobViewManager.getCluster(key));
                 }
-            });
+            }, refreshExecutor));
 
-    private static final LoadingCache<ApplicationKey, List<Task>> sparkTasksSummaryLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Task>>() {
+    private static final LoadingCache<ApplicationKey, CacheEntry<List<StageTasks>>> sparkTasksSummaryLocalCache = buildApplicationCache(
+            new ApplicationCacheLoader<List<StageTasks>>("tasks", new TypeReference<List<StageTasks>>() {}) {
                 @Override
-                public List<Task> load(ApplicationKey key) throws Exception {
-                    List<Task> allTasks = new ArrayList<>();
-                    List<Stage> stages = sparkStageLocalCache.get(key);
-                    for (Stage stage: stages) {
-                        int stageId = stage.getStageId();
-                        int attemptedId = stage.getAttemptId();
-                        List<Task> tasks = SparkRestUtil.getSparkTasks(key, stageId, attemptedId);
-                        allTasks.addAll(tasks);
-                    }
-                    return allTasks;
+                protected List<StageTasks> loadValue(ApplicationKey key, @Nullable List<StageTasks> oldValue) throws Exception {
+                    return getStageTasks(key, oldValue == null ? Collections.emptyList() : oldValue);
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, ApplicationMasterLogs> yarnAppLogLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, ApplicationMasterLogs>() {
+    private static final LoadingCache<ApplicationKey, CacheEntry<ApplicationMasterLogs>> yarnAppLogLocalCache = buildApplicationCache(
+            new ApplicationCacheLoader<ApplicationMasterLogs>("amLogs", new TypeReference<ApplicationMasterLogs>() {}) {
                 @Override
-                public ApplicationMasterLogs load(ApplicationKey key) throws Exception {
+                protected ApplicationMasterLogs loadValue(ApplicationKey key, @Nullable ApplicationMasterLogs oldValue) throws Exception {
                     return JobUtils.getYarnLogs(key);
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, App> yarnApplicationLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, App>() {
+    private static final LoadingCache<ApplicationKey, CacheEntry<App>> yarnApplicationLocalCache = buildApplicationCache(
+            new ApplicationCacheLoader<App>("yarnApp", new TypeReference<App>() {}) {
                 @Override
-                public App load(ApplicationKey key) throws Exception {
+                protected App loadValue(ApplicationKey key, @Nullable App oldValue) throws Exception {
                     return YarnRestUtil.getApp(key);
                 }
             });
 
-    private static final LoadingCache<ApplicationKey, List<JobStartEventLog>> sparkJobStartEventLogCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<JobStartEventLog>>() {
+    private static final LoadingCache<ApplicationKey, CacheEntry<List<JobStartEventLog>>> sparkJobStartEventLogCache = buildApplicationCache(
+            new ApplicationCacheLoader<List<JobStartEventLog>>("jobStartEvents", new TypeReference<List<JobStartEventLog>>() {}) {
                 @Override
-                public List<JobStartEventLog> load(ApplicationKey key) throws Exception {
+                protected List<JobStartEventLog> loadValue(ApplicationKey key, @Nullable List<JobStartEventLog> oldValue) throws Exception {
                     return SparkRestUtil.getSparkEventLogs(key);
                 }
             });
 
     public static List<JobStartEventLog> getJobStartEventLogs(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkJobStartEventLogCache.get(key);
+        return sparkJobStartEventLogCache.get(key).getValue();
     }
 
     public static ApplicationMasterLogs getYarnLogs(@NotNull ApplicationKey key) throws ExecutionException {
-            return yarnAppLogLocalCache.get(key);
+            return yarnAppLogLocalCache.get(key).getValue();
     }
 
     public static App getYarnApp(@NotNull ApplicationKey key) throws ExecutionException {
-        return yarnApplicationLocalCache.get(key);
+        return yarnApplicationLocalCache.get(key).getValue();
     }
 
     public static List<Application> getSparkApplications(@NotNull IClusterDetail clusterDetail) throws ExecutionException {
@@ -157,18 +161,190 @@ public class JobViewCacheManager {
     }
 
     public static List<Executor> getExecutors(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkExecutorLocalCache.get(key);
+        return sparkExecutorLocalCache.get(key).getValue();
     }
 
     public static List<Job> getJob(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkJobLocalCache.get(key);
+        return sparkJobLocalCache.get(key).getValue();
     }
 
     public static List<Task> getTasks(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkTasksSummaryLocalCache.get(key);
+        return sparkTasksSummaryLocalCache.get(key).getValue().stream()
+                .flatMap(stageTasks -> stageTasks.getTasks().stream())
+                .collect(Collectors.toList());
     }
 
     public static List<Stage> getStages(@NotNull ApplicationKey key) throws ExecutionException {
-        return sparkStageLocalCache.get(key);
+        return sparkStageLocalCache.get(key).getValue();
+    }
+
+    @Nullable
+    private static String getCompletedAttemptId(@NotNull ApplicationKey key) throws ExecutionException {
+        final Application application = getSingleSparkApplication(key);
+        if (application == null || application.getAttempts() == null) {
+            return null;
+        }
+
+        final String lastAttemptId = String.valueOf(application.getLastAttemptId());
+        return application.getAttempts().stream()
+                .filter(attempt -> lastAttemptId.equals(attempt.getAttemptId()))
+                .filter(attempt -> Boolean.parseBoolean(attempt.getCompleted()))
+                .findFirst()
+                .map(Attempt::getAttemptId)
+                .orElse(null);
+    }
+
+    // only stages that are new, retried or still changing are fetched again, up to a few of them at a time
+    private static List<StageTasks> getStageTasks(@NotNull ApplicationKey key,
+                                                  @NotNull List<StageTasks> previousStageTasks) throws ExecutionException {
+        final Map<String, StageTasks> previousByStage = previousStageTasks.stream()
+                .collect(Collectors.toMap(StageTasks::getStageKey, stageTasks -> stageTasks, (first, second) -> second));
+        final List<Stage> stages = getStages(key);
+        final Map<String, StageTasks> fetchedByStage = Observable.from(stages)
+                .filter(stage -> {
+                    final StageTasks previous = previousByStage.get(getStageKey(stage.getStageId(), stage.getAttemptId()));
+                    return previous == null || !previous.isFinal() || !previous.getStatus().equals(stage.getStatus());
+                })
+                .flatMap(stage -> Observable.fromCallable(() -> new StageTasks(
+                                        stage.getStageId(),
+                                        stage.getAttemptId(),
+                                        stage.getStatus(),
+                                        SparkRestUtil.getSparkTasks(key, stage.getStageId(), stage.getAttemptId())))
+                                .subscribeOn(Schedulers.io()),
+                        MAX_CONCURRENT_TASK_REQUESTS)
+                .toMap(StageTasks::getStageKey)
+                .toBlocking()
+                .single();
+
+        return stages.stream()
+                .map(stage -> getStageKey(stage.getStageId(), stage.getAttemptId()))
+                .map(stageKey -> fetchedByStage.getOrDefault(stageKey, previousByStage.get(stageKey)))
+                .collect(Collectors.toList());
+    }
+
+    @NotNull
+    private static String getStageKey(int stageId, int attemptId) {
+        return stageId + ":" + attemptId;
+    }
+
+    @NotNull
+    private static <V> LoadingCache<ApplicationKey, CacheEntry<V>> buildApplicationCache(
+            @NotNull ApplicationCacheLoader<V> loader) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(100)
+                .initialCapacity(20)
+                .refreshAfterWrite(RUNNING_APPLICATION_TTL_SECONDS, TimeUnit.SECONDS)
+                .build(loader);
+    }
+
+    /**
+     * Loads values for an application and keeps them for good once they were loaded after the application completed,
+     * running applications are loaded again in the background when their entry is read after the refresh interval,
+     * and the previous value is served until the new one is loaded. Values of completed applications are also written
+     * to the disk cache, which is read first, even before the cluster is asked about the application.
+     */
+    private abstract static class ApplicationCacheLoader<V> extends CacheLoader<ApplicationKey, CacheEntry<V>> {
+        @NotNull
+        private final String kind;
+
+        @NotNull
+        private final TypeReference<V> type;
+
+        ApplicationCacheLoader(@NotNull String kind, @NotNull TypeReference<V> type) {
+            this.kind = kind;
+            this.type = type;
+        }
+
+        @Override
+        public CacheEntry<V> load(@NotNull ApplicationKey key) throws Exception {
+            final JobViewDiskCache diskCache = JobViewDiskCache.getInstance();
+            if (diskCache != null) {
+                final Optional<V> stored = diskCache.read(key, kind, type);
+                if (stored.isPresent()) {
+                    return new CacheEntry<>(stored.get(), true);
+                }
+            }
+
+            return loadEntry(key, null);
+        }
+
+        @Override
+        public ListenableFuture<CacheEntry<V>> reload(@NotNull ApplicationKey key, @NotNull CacheEntry<V> oldValue) throws Exception {
+            if (oldValue.isFinal()) {
+                return Futures.immediateFuture(oldValue);
+            }
+
+            final ListenableFutureTask<CacheEntry<V>> task =
+                    ListenableFutureTask.create(() -> loadEntry(key, oldValue.getValue()));
+            refreshExecutor.execute(task);
+            return task;
+        }
+
+        @NotNull
+        private CacheEntry<V> loadEntry(@NotNull ApplicationKey key, @Nullable V oldValue) throws Exception {
+            // checked before loading, so a final value never misses changes made while it was loaded
+            final String completedAttemptId = getCompletedAttemptId(key);
+            final V value = loadValue(key, oldValue);
+            final JobViewDiskCache diskCache = JobViewDiskCache.getInstance();
+            if (completedAttemptId != null && value != null && diskCache != null) {
+                diskCache.write(key, completedAttemptId, kind, value);
+            }
+
+            return new CacheEntry<>(value, completedAttemptId != null);
+        }
+
+        protected abstract V loadValue(@NotNull ApplicationKey key, @Nullable V oldValue) throws Exception;
+    }
+
+    private static class CacheEntry<V> {
+        private final V value;
+        private final boolean isFinal;
+
+        CacheEntry(V value, boolean isFinal) {
+            this.value = value;
+            this.isFinal = isFinal;
+        }
+
+        V getValue() {
+            return value;
+        }
+
+        boolean isFinal() {
+            return isFinal;
+        }
+    }
+
+    private static class StageTasks {
+        private int stageId;
+        private int attemptId;
+        private String status;
+        private List<Task> tasks;
+
+        // for the disk cache
+        private StageTasks() {
+        }
+
+        StageTasks(int stageId, int attemptId, @Nullable String status, @NotNull List<Task> tasks) {
+            this.stageId = stageId;
+            this.attemptId = attemptId;
+            this.status = status == null ? "" : status;
+            this.tasks = tasks;
+        }
+
+        String getStageKey() {
+            return JobViewCacheManager.getStageKey(stageId, attemptId);
+        }
+
+        String getStatus() {
+            return status;
+        }
+
+        List<Task> getTasks() {
+            return tasks;
+        }
+
+        boolean isFinal() {
+            return FINAL_STAGE_STATUSES.contains(status.toUpperCase());
+        }
     }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.hdinsight.common.HDInsightHelper;
+import com.microsoft.azure.hdinsight.common.HDInsightLoader;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps what the job view fetched for a completed application attempt on disk, so it never has to be fetched again,
+ * also across restarts and while the cluster can't be reached. Entries live under
+ * {root}/{cluster}/{application id}/{attempt id}/{kind}.json.gz and the least recently read ones are removed once the
+ * cache grows beyond its size limit.
+ */
+public class JobViewDiskCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobViewDiskCache.class);
+
+    private static final long DEFAULT_MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+    private static final String FILE_SUFFIX = ".json.gz";
+
+    // fields rather than getters, so a payload reads back exactly as it was written
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setVisibility(PropertyAccessor.ALL, Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, Visibility.ANY)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Nullable
+    private static JobViewDiskCache instance;
+
+    @NotNull
+    private final Path rootPath;
+
+    private final long maxSizeBytes;
+
+    public JobViewDiskCache(@NotNull Path rootPath, long maxSizeBytes) {
+        this.rootPath = rootPath;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    @Nullable
+    public static synchronized JobViewDiskCache getInstance() {
+        if (instance == null) {
+            final HDInsightHelper helper = HDInsightLoader.getHDInsightHelper();
+            if (helper == null || helper.getPluginRootPath() == null) {
+                return null;
+            }
+
+            instance = new JobViewDiskCache(Paths.get(helper.getPluginRootPath(), "JobViewCache"), DEFAULT_MAX_SIZE_BYTES);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Reads the payload stored for the latest completed attempt of the application.
+     */
+    @NotNull
+    public <V> Optional<V> read(@NotNull ApplicationKey key, @NotNull String kind, @NotNull TypeReference<V> type) {
+        final Optional<Path> attemptPath = getLatestAttemptPath(key);
+        if (!attemptPath.isPresent()) {
+            return Optional.empty();
+        }
+
+        final Path file = attemptPath.get().resolve(kind + FILE_SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            final V value = MAPPER.readValue(in, type);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.ofNullable(value);
+        } catch (IOException ex) {
+            LOGGER.warn("Drop unreadable job view cache file " + file, ex);
+            deleteQuietly(file);
+            return Optional.empty();
+        }
+    }
+
+    public synchronized <V> void write(@NotNull ApplicationKey key,
+                                       @NotNull String attemptId,
+                                       @NotNull String kind,
+                                       @NotNull V value) {
+        final Path attemptPath = getApplicationPath(key).resolve(attemptId);
+        final Path file = attemptPath.resolve(kind + FILE_SUFFIX);
+
+        try {
+            Files.createDirectories(attemptPath);
+            final Path tempFile = Files.createTempFile(attemptPath, kind, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                MAPPER.writeValue(out, value);
+            } catch (IOException ex) {
+                deleteQuietly(tempFile);
+                throw ex;
+            }
+
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            LOGGER.warn("Can't write job view cache file " + file, ex);
+            return;
+        }
+
+        evict();
+    }
+
+    private synchronized void evict() {
+        final List<Path> files;
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .collect(Collectors.toList());
+        } catch (IOException | UncheckedIOException ex) {
+            LOGGER.warn("Can't list job view cache files in " + rootPath, ex);
+            return;
+        }
+
+        final Map<Path, Long> sizes = new HashMap<>();
+        final Map<Path, Long> lastReads = new HashMap<>();
+        long totalSize = 0;
+        for (Path file : files) {
+            try {
+                sizes.put(file, Files.size(file));
+                lastReads.put(file, Files.getLastModifiedTime(file).toMillis());
+                totalSize += sizes.get(file);
+            } catch (IOException ignored) {
+                // removed meanwhile
+            }
+        }
+
+        if (totalSize <= maxSizeBytes) {
+            return;
+        }
+
+        final List<Path> leastRecentlyRead = new ArrayList<>(sizes.keySet());
+        leastRecentlyRead.sort(Comparator.comparing(lastReads::get));
+        for (Path file : leastRecentlyRead) {
+            if (totalSize <= maxSizeBytes) {
+                break;
+            }
+
+            deleteQuietly(file);
+            totalSize -= sizes.get(file);
+
+            // drop the attempt and application folders once they're empty
+            deleteQuietly(file.getParent());
+            deleteQuietly(file.getParent().getParent());
+        }
+    }
+
+    @NotNull
+    private Optional<Path> getLatestAttemptPath(@NotNull ApplicationKey key) {
+        final Path applicationPath = getApplicationPath(key);
+        if (!Files.isDirectory(applicationPath)) {
+            return Optional.empty();
+        }
+
+        try (Stream<Path> attempts = Files.list(applicationPath)) {
+            return attempts.filter(Files::isDirectory)
+                    .filter(path -> path.getFileName().toString().matches("\\d+"))
+                    .max(Comparator.comparing(path -> Long.parseLong(path.getFileName().toString())));
+        } catch (IOException | UncheckedIOException ex) {
+            return Optional.empty();
+        }
+    }
+
+    @NotNull
+    private Path getApplicationPath(@NotNull ApplicationKey key) {
+        final String cluster = UUID.nameUUIDFromBytes(
+                key.getClusterConnString().toLowerCase().getBytes(StandardCharsets.UTF_8)).toString();
+
+        return rootPath.resolve(cluster).resolve(key.getAppId().toLowerCase().replaceAll("[^a-z0-9_\\-]", "_"));
+    }
+
+    private static void deleteQuietly(@NotNull Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // a folder that isn't empty yet, or a file that's in use
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.event.JobEndEventLog;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.event.JobStartEventLog;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.event.SparkListenerEventLog;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.event.StageCompletedEventLog;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.event.TaskEndEventLog;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import rx.Observable;
+import rx.Observer;
+import rx.exceptions.Exceptions;
+import rx.observables.SyncOnSubscribe;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Parses a Spark event log (one JSON object per line) as a stream. The "Event" field of every line is read first;
+ * lines of other event types are skipped token by token without being materialized, so memory use does not grow
+ * with the size of the log.
+ */
+public class SparkEventLogParser {
+    private static final String EVENT_FIELD = "Event";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper(new JsonFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final Map<String, Class<? extends SparkListenerEventLog>> EVENT_TYPES =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        EVENT_TYPES.put(JobStartEventLog.EVENT_NAME, JobStartEventLog.class);
+        EVENT_TYPES.put(JobEndEventLog.EVENT_NAME, JobEndEventLog.class);
+        EVENT_TYPES.put(StageCompletedEventLog.EVENT_NAME, StageCompletedEventLog.class);
+        EVENT_TYPES.put(TaskEndEventLog.EVENT_NAME, TaskEndEventLog.class);
+    }
+
+    /**
+     * Emits the events of the given types in log order. The stream is pulled as the subscriber requests events and is
+     * not closed here, the caller owns it.
+     */
+    @NotNull
+    public static Observable<SparkListenerEventLog> parse(
+            @NotNull InputStream inputStream,
+            @NotNull Collection<Class<? extends SparkListenerEventLog>> types) {
+        final Map<String, Class<? extends SparkListenerEventLog>> wantedTypes =
+                new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        EVENT_TYPES.forEach((name, type) -> {
+            if (types.contains(type)) {
+                wantedTypes.put(name, type);
+            }
+        });
+
+        return Observable.create(SyncOnSubscribe.<JsonParser, SparkListenerEventLog>createSingleState(
+                () -> {
+                    try {
+                        return MAPPER.getFactory().createParser(inputStream);
+                    } catch (IOException e) {
+                        throw Exceptions.propagate(e);
+                    }
+                },
+                (parser, observer) -> readNext(parser, wantedTypes, observer),
+                parser -> {
+                    try {
+                        parser.close();
+                    } catch (IOException ignored) {
+                    }
+                }));
+    }
+
+    @NotNull
+    public static <T extends SparkListenerEventLog> Observable<T> parse(@NotNull InputStream inputStream,
+                                                                     @NotNull Class<T> type) {
+        return parse(inputStream, Collections.<Class<? extends SparkListenerEventLog>>singleton(type)).ofType(type);
+    }
+
+    private static void readNext(@NotNull JsonParser parser,
+                                 @NotNull Map<String, Class<? extends SparkListenerEventLog>> wantedTypes,
+                                 @NotNull Observer<? super SparkListenerEventLog> observer) {
+        try {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                final SparkListenerEventLog event = readEvent(parser, wantedTypes);
+                if (event != null) {
+                    observer.onNext(event);
+                    return;
+                }
+            }
+
+            observer.onCompleted();
+        } catch (JsonEOFException ignored) {
+            // the last line of a running application's log can be cut short
+            observer.onCompleted();
+        } catch (IOException e) {
+            observer.onError(e);
+        }
+    }
+
+    @Nullable
+    private static SparkListenerEventLog readEvent(
+            @NotNull JsonParser parser,
+            @NotNull Map<String, Class<? extends SparkListenerEventLog>> wantedTypes) throws IOException {
+        final TokenBuffer buffer = new TokenBuffer(parser);
+        Class<? extends SparkListenerEventLog> type = null;
+
+        buffer.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+
+            if (type == null && EVENT_FIELD.equals(fieldName)) {
+                type = value == JsonToken.VALUE_STRING ? wantedTypes.get(parser.getText()) : null;
+
+                if (type == null) {
+                    skipRemainingFields(parser);
+                    return null;
+                }
+            }
+
+            buffer.writeFieldName(fieldName);
+            buffer.copyCurrentStructure(parser);
+        }
+        buffer.writeEndObject();
+
+        if (type == null) {
+            return null;
+        }
+
+        try {
+            return MAPPER.readValue(buffer.asParser(), type);
+        } catch (JsonMappingException ignored) {
+            // the same as before, an event that doesn't fit its type is dropped
+            return null;
+        }
+    }
+
+    private static void skipRemainingFields(@NotNull JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+}
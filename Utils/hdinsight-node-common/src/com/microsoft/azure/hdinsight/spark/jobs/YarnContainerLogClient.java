@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.protocol.HttpContext;
+import org.jsoup.parser.Parser;
+import rx.Observable;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.apache.http.HttpHeaders.AUTHORIZATION;
+
+/**
+ * Reads Yarn container logs from the NodeManager and the history server log pages. One pooled HTTP client is shared
+ * by all the container log tailers, and the page is scanned while it is streamed in, picking up the log type
+ * paragraphs and the <pre> blocks only, instead of being built into a DOM.
+ */
+public class YarnContainerLogClient extends HttpObservable {
+    private static final Pattern LOG_TYPE_PATTERN = Pattern.compile("Log Type:\\s+(\\S+)");
+
+    // A log tailer per container polls the same cluster gateway every second
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 32;
+    private static final int MAX_CONNECTIONS_TOTAL = 64;
+
+    private static class LazyHolder {
+        static final YarnContainerLogClient INSTANCE = new YarnContainerLogClient();
+    }
+
+    public static YarnContainerLogClient getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    public YarnContainerLogClient() {
+        super(builder -> builder
+                .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+                .setMaxConnTotal(MAX_CONNECTIONS_TOTAL));
+    }
+
+    /**
+     * The container logs are fetched concurrently, so each request gets its own context
+     */
+    @NotNull
+    @Override
+    public HttpContext getHttpContext() {
+        return createRequestContext();
+    }
+
+    /**
+     * Get a piece of a Yarn container log
+     *
+     * @param authCode the authCode in request's Authorization header
+     * @param containerLogUrl the container log url
+     * @param type the log type, such as stderr or stdout
+     * @param start the byte offset in the log to start from
+     * @param size the bytes to read, the value 0 or less for all the rest
+     * @return the log Observable, or an HttpErrorStatus error for the bad responses
+     */
+    @NotNull
+    public Observable<String> getContainerLog(@Nullable final String authCode,
+                                              @NotNull final String containerLogUrl,
+                                              @NotNull final String type,
+                                              final long start,
+                                              final int size) {
+        final List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("start", Long.toString(start)));
+        if (size > 0) {
+            parameters.add(new BasicNameValuePair("end", Long.toString(start + size)));
+        }
+
+        final List<Header> headers = authCode == null
+                ? Collections.emptyList()
+                : Collections.singletonList(new BasicHeader(AUTHORIZATION, authCode));
+
+        return Observable.fromCallable(() -> new URI(containerLogUrl + "/").resolve(type))
+                .flatMap(uri -> request(new HttpGet(uri), null, parameters, headers))
+                .flatMap(response -> Observable.using(
+                        () -> response,
+                        resp -> readContainerLog(resp, type),
+                        resp -> {
+                            try {
+                                resp.close();
+                            } catch (IOException ignore) {
+                                // The connection will be closed automatically after timeout
+                            }
+                        }));
+    }
+
+    private static Observable<String> readContainerLog(@NotNull final CloseableHttpResponse response,
+                                                       @NotNull final String type) {
+        try {
+            if (response.getStatusLine().getStatusCode() >= 300) {
+                return Observable.error(classifyHttpError(response));
+            }
+
+            final HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                return Observable.just("");
+            }
+
+            final Charset charset = Optional.ofNullable(ContentType.get(entity))
+                    .map(ContentType::getCharset)
+                    .orElse(StandardCharsets.UTF_8);
+
+            try (final Reader reader = new InputStreamReader(entity.getContent(), charset)) {
+                return Observable.just(extractLog(reader, type));
+            }
+        } catch (IOException e) {
+            return Observable.error(e);
+        }
+    }
+
+    /**
+     * Scan the log page for the specified log type.
+     *
+     * The NodeManager page of a running container has the log in a <pre> block. The history server page has a
+     * paragraph of "Log Type: xxx" in front of the <pre> block of each log type, and Spark 2.2 puts an extra
+     * <pre> block before them. The <pre> block following the log type paragraph is returned if there is, or else
+     * the last <pre> block of the page.
+     *
+     * @param reader the log page
+     * @param type the log type
+     * @return the unescaped log text
+     */
+    @NotNull
+    static String extractLog(@NotNull final Reader reader, @NotNull final String type) throws IOException {
+        final PageReader page = new PageReader(reader);
+        String logType = null;
+        String logs = "";
+        StringBuilder paragraph = null;
+        StringBuilder preformatted = null;
+
+        int ch;
+        while ((ch = page.read()) != -1) {
+            if (ch != '<') {
+                final StringBuilder text = preformatted != null ? preformatted : paragraph;
+                if (text != null) {
+                    if (ch == '&') {
+                        page.readEntity(text);
+                    } else {
+                        text.append((char) ch);
+                    }
+                }
+
+                continue;
+            }
+
+            final String tag = page.readTagName();
+
+            if (preformatted != null) {
+                // The log is escaped, so only the closing tag is expected in <pre> block
+                if (!tag.equals("/pre")) {
+                    continue;
+                }
+
+                logs = preformatted.toString();
+                preformatted = null;
+
+                if (logType != null) {
+                    if (logType.equals(type)) {
+                        return logs;
+                    }
+
+                    logType = null;
+                }
+
+                continue;
+            }
+
+            if (paragraph != null) {
+                // Only the leading text of a paragraph is checked for the log type
+                final Matcher matcher = LOG_TYPE_PATTERN.matcher(paragraph.toString().trim());
+                if (matcher.matches()) {
+                    logType = matcher.group(1);
+                }
+
+                paragraph = null;
+            }
+
+            if (tag.equals("p")) {
+                paragraph = new StringBuilder();
+            } else if (tag.equals("pre")) {
+                preformatted = new StringBuilder();
+            }
+        }
+
+        // Cut off page, take the <pre> block as it is
+        return preformatted != null ? preformatted.toString() : logs;
+    }
+
+    /**
+     * Buffered page reader which can step back one char, with the tag and character reference handling
+     */
+    private static final class PageReader {
+        private static final int MAX_ENTITY_LENGTH = 32;
+
+        @NotNull
+        private final Reader reader;
+
+        private final char[] buffer = new char[8192];
+        private final StringBuilder entity = new StringBuilder(MAX_ENTITY_LENGTH);
+        private int position = 0;
+        private int limit = 0;
+
+        PageReader(@NotNull final Reader reader) {
+            this.reader = reader;
+        }
+
+        int read() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+
+            return buffer[position++];
+        }
+
+        // Only valid right after a successful read()
+        void unread() {
+            position--;
+        }
+
+        /**
+         * Consume a tag after its '<' and return the lower case tag name, with a leading '/' for a closing tag.
+         * Comments and declarations get an empty name.
+         */
+        @NotNull
+        String readTagName() throws IOException {
+            final StringBuilder name = new StringBuilder();
+
+            int ch = read();
+            if (ch == '!') {
+                skipDeclaration();
+                return "";
+            }
+
+            while (ch != -1 && ch != '>' && !Character.isWhitespace(ch) && !(ch == '/' && name.length() > 0)) {
+                name.append((char) ch);
+                ch = read();
+            }
+
+            // Skip attributes, the quoted values may have '>'
+            int quote = 0;
+            while (ch != -1 && !(ch == '>' && quote == 0)) {
+                if (quote == 0 && (ch == '"' || ch == '\'')) {
+                    quote = ch;
+                } else if (ch == quote) {
+                    quote = 0;
+                }
+
+                ch = read();
+            }
+
+            return name.toString().toLowerCase(Locale.ROOT);
+        }
+
+        private void skipDeclaration() throws IOException {
+            int ch = read();
+            if (ch != '-') {
+                while (ch != -1 && ch != '>') {
+                    ch = read();
+                }
+
+                return;
+            }
+
+            // Comment, ends with "-->"
+            int dashes = 0;
+            while ((ch = read()) != -1) {
+                if (ch == '>' && dashes >= 2) {
+                    return;
+                }
+
+                dashes = ch == '-' ? dashes + 1 : 0;
+            }
+        }
+
+        /**
+         * Consume a character reference after its '&' and append the char it stands for. The log page is escaped
+         * by Hadoop with HTML 4 entities, an unknown or broken reference is kept as it is.
+         */
+        void readEntity(@NotNull final StringBuilder text) throws IOException {
+            entity.setLength(0);
+            entity.append('&');
+
+            int ch;
+            while ((ch = read()) != -1 && ch != ';' && entity.length() < MAX_ENTITY_LENGTH
+                    && (Character.isLetterOrDigit(ch) || ch == '#')) {
+                entity.append((char) ch);
+            }
+
+            if (ch != ';') {
+                if (ch != -1) {
+                    unread();
+                }
+
+                text.append(entity);
+            } else if ("&lt".contentEquals(entity)) {
+                text.append('<');
+            } else if ("&gt".contentEquals(entity)) {
+                text.append('>');
+            } else if ("&amp".contentEquals(entity)) {
+                text.append('&');
+            } else if ("&quot".contentEquals(entity)) {
+                text.append('"');
+            } else if ("&#39".contentEquals(entity) || "&apos".contentEquals(entity)) {
+                text.append('\'');
+            } else {
+                text.append(Parser.unescapeEntities(entity.append(';').toString(), false));
+            }
+        }
+    }
+}
@@ -23,27 +23,46 @@
 package com.microsoft.azure.hdinsight.spark.run;
 
 import com.microsoft.azure.hdinsight.spark.common.ISparkBatchJob;
+import com.microsoft.azure.hdinsight.spark.run.SparkJobLogTailer.PollResult;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Optional;
-
-import static java.lang.Thread.sleep;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class SparkJobLogInputStream extends InputStream {
+    // The longest time available() waits for the log fetched by the tailer
+    private static final long AVAILABLE_WAIT_MS = 1000;
+
+    // Stop tailing the log nobody reads, it's resumed once read again
+    private static final long UNREAD_TAIL_TIMEOUT_MS = 60_000;
+
     @NotNull
     private String logType;
     @Nullable
-    private ISparkBatchJob sparkBatchJob;
+    private volatile ISparkBatchJob sparkBatchJob;
 
+    // Only accessed in the tailer polls
     private long offset = 0;
+    @NotNull
+    private final BlockingQueue<byte[]> fetchedLogs = new LinkedBlockingQueue<>();
+
     @NotNull
     private byte[] buffer = new byte[0];
     private int bufferPos;
 
+    @NotNull
+    private final Object tailLock = new Object();
+    @Nullable
+    private SparkJobLogTailer.Tail tail;
+    private volatile long lastReadTimeMs;
+
     public SparkJobLogInputStream(@NotNull String logType) {
         this.logType = logType;
     }
@@ -68,35 +87,78 @@ public class SparkJobLogInputStream extends InputStream {
         return Optional.ofNullable(sparkBatchJob);
     }
 
+    @NotNull
+    private PollResult pollLog() {
+        if (System.currentTimeMillis() - lastReadTimeMs > UNREAD_TAIL_TIMEOUT_MS) {
+            return PollResult.DONE;
+        }
+
+        return fetchLog(offset, -1)
+                .filter(sliceOffsetPair -> !sliceOffsetPair.getKey().isEmpty())
+                .map(sliceOffsetPair -> {
+                    final byte[] slice = sliceOffsetPair.getKey().getBytes(StandardCharsets.UTF_8);
+
+                    // The log offsets are in bytes
+                    offset = sliceOffsetPair.getValue() + slice.length;
+                    fetchedLogs.offer(slice);
+
+                    return PollResult.ACTIVE;
+                })
+                .orElse(PollResult.IDLE);
+    }
+
+    private void ensureTailing() {
+        lastReadTimeMs = System.currentTimeMillis();
+
+        synchronized (tailLock) {
+            if (sparkBatchJob != null && (tail == null || tail.isCancelled())) {
+                tail = SparkJobLogTailer.getInstance().tail(
+                        SparkJobLogTailer.getClusterKey(sparkBatchJob.getConnectUri()), this::pollLog);
+            }
+        }
+    }
+
     @Override
     public int read() throws IOException {
         if (bufferPos >= buffer.length) {
             throw new IOException("Beyond the buffer end, needs a new log fetch");
         }
 
-        return buffer[bufferPos++];
+        return buffer[bufferPos++] & 0xFF;
     }
 
     @Override
     public int available() throws IOException {
         if (bufferPos >= buffer.length) {
-            return fetchLog(offset, -1)
-                    .map(sliceOffsetPair -> {
-                        buffer = sliceOffsetPair.getKey().getBytes();
-                        bufferPos = 0;
-                        offset = sliceOffsetPair.getValue() + sliceOffsetPair.getKey().length();
-
-                        return buffer.length;
-                    }).orElseGet(() -> {
-                        try {
-                            sleep(3000);
-                        } catch (InterruptedException ignore) { }
-
-                        return 0;
-                    });
-        } else {
-            return buffer.length - bufferPos;
+            ensureTailing();
+
+            try {
+                final byte[] slice = fetchedLogs.poll(AVAILABLE_WAIT_MS, TimeUnit.MILLISECONDS);
+                if (slice == null) {
+                    return 0;
+                }
+
+                buffer = slice;
+                bufferPos = 0;
+            } catch (InterruptedException ignored) {
+                // keep the interrupt for the caller, which is usually stopping the log reader thread
+                Thread.currentThread().interrupt();
+                return 0;
+            }
         }
+
+        return buffer.length - bufferPos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (tailLock) {
+            if (tail != null) {
+                tail.cancel();
+            }
+        }
+
+        super.close();
     }
 
     @NotNull
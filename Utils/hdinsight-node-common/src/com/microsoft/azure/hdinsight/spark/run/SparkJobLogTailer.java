@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.microsoft.azure.hdinsight.spark.run;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Polls all the driver, container and Livy logs of the running Spark jobs from a shared thread pool, instead of
+ * a sleeping thread per log. The polls make blocking HTTP calls, so the pool grows with the live tails, up to the
+ * maximum pool size, and the idle threads are let go.
+ *
+ * Each tail is polled again once its last poll is done. The interval is reset to the minimum when a poll got
+ * something, and doubled up to the maximum while the log stays idle. All the tails of a cluster share a request
+ * budget, a poll out of the budget is postponed.
+ *
+ * A poll throwing IOException is retried as an idle one, the tail gives up after a few failures in a row. Any other
+ * exception ends the tail right away. The error handler of the tail is called with the last exception then.
+ */
+public class SparkJobLogTailer implements ILogger {
+    public static final long DEFAULT_MIN_INTERVAL_MS = 500;
+    public static final long DEFAULT_MAX_INTERVAL_MS = 4_000;
+
+    public static final int MAX_CONSECUTIVE_FAILURES = 5;
+
+    private static final int MIN_POOL_SIZE = 4;
+
+    // Same as the connections limit of the Yarn container log client
+    private static final int MAX_POOL_SIZE = 64;
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    // The requests per second budget for all the tails of a cluster
+    private static final double CLUSTER_REQUESTS_PER_SECOND = 10.0;
+
+    public enum PollResult {
+        // Got something, poll again soon
+        ACTIVE,
+        // Nothing new, back off
+        IDLE,
+        // The tail is over
+        DONE
+    }
+
+    @FunctionalInterface
+    public interface Poller {
+        @NotNull
+        PollResult poll() throws Exception;
+    }
+
+    private static class LazyHolder {
+        static final SparkJobLogTailer INSTANCE =
+                new SparkJobLogTailer(MIN_POOL_SIZE, MAX_POOL_SIZE, CLUSTER_REQUESTS_PER_SECOND);
+    }
+
+    public static SparkJobLogTailer getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    @NotNull
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final int minPoolSize;
+
+    private final int maxPoolSize;
+
+    private final double clusterRequestsPerSecond;
+
+    @NotNull
+    private final ConcurrentHashMap<String, RateLimiter> clusterBudgets = new ConcurrentHashMap<>();
+
+    @NotNull
+    private final AtomicInteger liveTails = new AtomicInteger();
+
+    public SparkJobLogTailer(int minPoolSize, int maxPoolSize, double clusterRequestsPerSecond) {
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = Math.max(minPoolSize, maxPoolSize);
+        this.clusterRequestsPerSecond = clusterRequestsPerSecond;
+        this.executor = new ScheduledThreadPoolExecutor(minPoolSize, runnable -> {
+            final Thread thread = new Thread(runnable, "Spark job log tailer " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.executor.setKeepAliveTime(IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Get the count of the tails not done or cancelled yet
+     */
+    public int getLiveTailCount() {
+        return liveTails.get();
+    }
+
+    /**
+     * Get the pool size for the live tails, a thread per tail between the minimum and the maximum pool size
+     */
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    private void resizePool(int tailCount) {
+        executor.setCorePoolSize(Math.min(maxPoolSize, Math.max(minPoolSize, tailCount)));
+    }
+
+    /**
+     * Start tailing with the default intervals, the poll errors are logged only
+     *
+     * @param cluster the cluster key to share the request budget, refer to getClusterKey()
+     * @param poller the poll to repeat
+     * @return the tail to cancel
+     */
+    @NotNull
+    public Tail tail(@NotNull String cluster, @NotNull Poller poller) {
+        return tail(cluster, DEFAULT_MIN_INTERVAL_MS, DEFAULT_MAX_INTERVAL_MS, poller, null);
+    }
+
+    /**
+     * Start tailing, the first poll is run right away
+     *
+     * @param cluster the cluster key to share the request budget, refer to getClusterKey()
+     * @param minIntervalMs the poll interval for an active log
+     * @param maxIntervalMs the poll interval limit for an idle log
+     * @param poller the poll to repeat
+     * @param onError the handler of the error ending the tail, null to log the error only
+     * @return the tail to cancel
+     */
+    @NotNull
+    public Tail tail(@NotNull String cluster,
+                     long minIntervalMs,
+                     long maxIntervalMs,
+                     @NotNull Poller poller,
+                     @Nullable Consumer<Throwable> onError) {
+        final Tail tail = new Tail(
+                clusterBudgets.computeIfAbsent(cluster, key -> RateLimiter.create(clusterRequestsPerSecond)),
+                minIntervalMs,
+                maxIntervalMs,
+                poller,
+                onError);
+
+        resizePool(liveTails.incrementAndGet());
+        tail.schedule(0);
+
+        return tail;
+    }
+
+    /**
+     * Get the key of request budget for the cluster serving the URL, the host
+     */
+    @NotNull
+    public static String getClusterKey(@Nullable String url) {
+        try {
+            return Optional.ofNullable(url)
+                    .map(URI::create)
+                    .map(URI::getHost)
+                    .orElse("");
+        } catch (IllegalArgumentException ignored) {
+            return "";
+        }
+    }
+
+    @NotNull
+    public static String getClusterKey(@Nullable URI uri) {
+        return Optional.ofNullable(uri)
+                .map(URI::getHost)
+                .orElse("");
+    }
+
+    public final class Tail {
+        @NotNull
+        private final RateLimiter budget;
+
+        private final long minIntervalMs;
+
+        private final long maxIntervalMs;
+
+        @NotNull
+        private final Poller poller;
+
+        @Nullable
+        private final Consumer<Throwable> onError;
+
+        private long intervalMs;
+
+        private int consecutiveFailures = 0;
+
+        private volatile boolean isCancelled = false;
+
+        @Nullable
+        private ScheduledFuture<?> next;
+
+        private Tail(@NotNull RateLimiter budget,
+                     long minIntervalMs,
+                     long maxIntervalMs,
+                     @NotNull Poller poller,
+                     @Nullable Consumer<Throwable> onError) {
+            this.budget = budget;
+            this.minIntervalMs = minIntervalMs;
+            this.maxIntervalMs = Math.max(minIntervalMs, maxIntervalMs);
+            this.poller = poller;
+            this.onError = onError;
+            this.intervalMs = minIntervalMs;
+        }
+
+        /**
+         * Stop polling, a running poll is not interrupted
+         */
+        public synchronized void cancel() {
+            if (isCancelled) {
+                return;
+            }
+
+            isCancelled = true;
+
+            if (next != null) {
+                next.cancel(false);
+                next = null;
+            }
+
+            resizePool(liveTails.decrementAndGet());
+        }
+
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+
+        private synchronized void schedule(long delayMs) {
+            if (!isCancelled) {
+                next = executor.schedule(this::run, delayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void run() {
+            if (isCancelled) {
+                return;
+            }
+
+            if (!budget.tryAcquire()) {
+                // Out of the cluster budget, try again after the shortest interval
+                schedule(Math.max(minIntervalMs, (long) (1000 / budget.getRate())));
+                return;
+            }
+
+            PollResult result;
+            try {
+                result = poller.poll();
+                consecutiveFailures = 0;
+            } catch (IOException ex) {
+                if (++consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+                    giveUp(ex);
+                    return;
+                }
+
+                log().warn("Got error in Spark job log polling, retry later", ex);
+                result = PollResult.IDLE;
+            } catch (Exception ex) {
+                giveUp(ex);
+                return;
+            }
+
+            switch (result) {
+                case ACTIVE:
+                    intervalMs = minIntervalMs;
+                    break;
+                case IDLE:
+                    intervalMs = Math.min(intervalMs * 2, maxIntervalMs);
+                    break;
+                case DONE:
+                default:
+                    cancel();
+                    return;
+            }
+
+            schedule(intervalMs);
+        }
+
+        private void giveUp(@NotNull Exception ex) {
+            cancel();
+
+            if (onError == null) {
+                log().warn("Stopped Spark job log polling for the error", ex);
+                return;
+            }
+
+            try {
+                onError.accept(ex);
+            } catch (RuntimeException handlerEx) {
+                log().warn("Got error in handling Spark job log polling error", handlerEx);
+            }
+        }
+    }
+}